@@ -0,0 +1,80 @@
+/*
+ * GeometryBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import opex4j.BBox;
+import opex4j.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the geometry conversions.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+
+  /** the number of vertices of the polygon. */
+  @Param({"4", "32", "256"})
+  public int vertices;
+
+  /** the polygon. */
+  protected Polygon m_Polygon;
+
+  /** the polygon without cached bbox, see {@link #polygonToBBox()}. */
+  protected Polygon m_FreshPolygon;
+
+  /** the bbox. */
+  protected BBox m_BBox;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    m_Polygon = Workloads.polygon(new Random(Workloads.SEED), 100, 100, 200, vertices);
+    m_BBox    = Workloads.bbox();
+  }
+
+  /**
+   * The polygon caches its bbox, hence every invocation gets a new one.
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    m_FreshPolygon = new Polygon(m_Polygon.getPoints());
+  }
+
+  @Benchmark
+  public BBox polygonToBBox() {
+    return m_FreshPolygon.toBBox();
+  }
+
+  @Benchmark
+  public java.awt.Polygon polygonToPolygon() {
+    return m_Polygon.toPolygon();
+  }
+
+  @Benchmark
+  public Polygon bboxToPolygon() {
+    return m_BBox.toPolygon();
+  }
+}
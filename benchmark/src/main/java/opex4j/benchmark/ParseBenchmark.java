@@ -0,0 +1,94 @@
+/*
+ * ParseBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import opex4j.ObjectPredictions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading predictions from string, stream and file.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  /** the number of objects. */
+  @Param({"1", "10", "100"})
+  public int objects;
+
+  /** the number of vertices per polygon. */
+  @Param({"4", "32"})
+  public int vertices;
+
+  /** the number of meta-data entries. */
+  @Param({"0", "8"})
+  public int metaSize;
+
+  /** the compact JSON. */
+  protected String m_Json;
+
+  /** the UTF-8 bytes of the JSON. */
+  protected byte[] m_Bytes;
+
+  /** the file containing the (pretty printed) JSON. */
+  protected File m_File;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    ObjectPredictions	preds;
+
+    preds   = Workloads.predictions(objects, vertices, metaSize);
+    m_Json  = preds.toString(false);
+    m_Bytes = m_Json.getBytes(StandardCharsets.UTF_8);
+    m_File  = File.createTempFile("opex4j-", ".json");
+    m_File.deleteOnExit();
+    preds.write(m_File);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (m_File != null)
+      m_File.delete();
+  }
+
+  @Benchmark
+  public ObjectPredictions fromString() throws Exception {
+    return ObjectPredictions.newInstance(m_Json);
+  }
+
+  @Benchmark
+  public ObjectPredictions fromInputStream() throws Exception {
+    return ObjectPredictions.newInstance(new ByteArrayInputStream(m_Bytes));
+  }
+
+  @Benchmark
+  public ObjectPredictions fromFile() throws Exception {
+    return ObjectPredictions.newInstance(m_File);
+  }
+}
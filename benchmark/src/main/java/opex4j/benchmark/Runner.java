@@ -0,0 +1,40 @@
+/*
+ * Runner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC/allocation profiler enabled and stores
+ * the results as JSON (benchmark.json by default).
+ * All regular JMH command-line options are supported, e.g., a regular
+ * expression for selecting benchmarks or "-p objects=10".
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Runner {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions	cmdline;
+    OptionsBuilder	builder;
+    Options		options;
+
+    cmdline = new CommandLineOptions(args);
+    builder = new OptionsBuilder();
+    builder.parent(cmdline);
+    builder.addProfiler(GCProfiler.class);
+    if (!cmdline.getResult().hasValue()) {
+      builder.result("benchmark.json");
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+    options = builder.build();
+    new org.openjdk.jmh.runner.Runner(options).run();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * SerializeBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import com.google.gson.JsonObject;
+import opex4j.ObjectPredictions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks turning predictions into JSON.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializeBenchmark {
+
+  /** the number of objects. */
+  @Param({"1", "10", "100"})
+  public int objects;
+
+  /** the number of vertices per polygon. */
+  @Param({"4", "32"})
+  public int vertices;
+
+  /** the number of meta-data entries. */
+  @Param({"0", "8"})
+  public int metaSize;
+
+  /** the predictions to serialize. */
+  protected ObjectPredictions m_Predictions;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    m_Predictions = Workloads.predictions(objects, vertices, metaSize);
+  }
+
+  @Benchmark
+  public JsonObject toJson() {
+    return m_Predictions.toJson();
+  }
+
+  @Benchmark
+  public StringWriter writePretty() throws Exception {
+    StringWriter	result;
+
+    result = new StringWriter();
+    m_Predictions.write(result, true);
+    return result;
+  }
+
+  @Benchmark
+  public StringWriter writeCompact() throws Exception {
+    StringWriter	result;
+
+    result = new StringWriter();
+    m_Predictions.write(result, false);
+    return result;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Workloads.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+
+import java.awt.Point;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates deterministic predictions for the benchmarks.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class Workloads {
+
+  /** the labels to use. */
+  public final static String[] LABELS = {"person", "car", "bicycle", "dog", "house"};
+
+  /** the seed to use. */
+  public final static long SEED = 42;
+
+  private Workloads() {
+  }
+
+  /**
+   * Generates a polygon with the specified number of vertices, inscribed in the box.
+   *
+   * @param random	for jittering the vertices
+   * @param left	the left of the box
+   * @param top		the top of the box
+   * @param size	the width/height of the box
+   * @param vertices	the number of vertices (at least 3)
+   * @return		the polygon
+   */
+  public static Polygon polygon(Random random, int left, int top, int size, int vertices) {
+    List<Point>	points;
+    int		i;
+    double	angle;
+    double	radius;
+
+    points = new ArrayList<>(vertices);
+    for (i = 0; i < vertices; i++) {
+      angle  = 2 * Math.PI * i / vertices;
+      radius = size / 2.0 * (0.8 + 0.2 * random.nextDouble());
+      points.add(new Point(
+	left + size / 2 + (int) Math.round(Math.cos(angle) * radius),
+	top + size / 2 + (int) Math.round(Math.sin(angle) * radius)));
+    }
+    return new Polygon(points);
+  }
+
+  /**
+   * Generates a meta-data map.
+   *
+   * @param prefix	the prefix for keys/values
+   * @param size	the number of entries
+   * @return		the meta-data, null if size is 0
+   */
+  public static Map<String,String> meta(String prefix, int size) {
+    Map<String,String>	result;
+    int			i;
+
+    if (size == 0)
+      return null;
+    result = new HashMap<>();
+    for (i = 0; i < size; i++)
+      result.put(prefix + "key" + i, prefix + "value" + i);
+    return result;
+  }
+
+  /**
+   * Generates the predictions.
+   *
+   * @param objects	the number of objects
+   * @param vertices	the number of polygon vertices per object
+   * @param metaSize	the number of meta-data entries (document and each object)
+   * @return		the predictions
+   */
+  public static ObjectPredictions predictions(int objects, int vertices, int metaSize) {
+    Random			random;
+    List<ObjectPrediction>	list;
+    Polygon			polygon;
+    int				i;
+    int				left;
+    int				top;
+    int				size;
+
+    random = new Random(SEED);
+    list   = new ArrayList<>(objects);
+    for (i = 0; i < objects; i++) {
+      left    = random.nextInt(1000);
+      top     = random.nextInt(1000);
+      size    = 20 + random.nextInt(200);
+      polygon = polygon(random, left, top, size, vertices);
+      list.add(new ObjectPrediction(
+	LABELS[random.nextInt(LABELS.length)], random.nextDouble(), polygon.toBBox(), polygon, meta("obj", metaSize)));
+    }
+
+    return new ObjectPredictions(LocalDateTime.of(2023, 2, 28, 17, 3, 12, 123456000), "benchmark", list, meta("doc", metaSize));
+  }
+
+  /**
+   * Generates a bounding box for the geometry benchmarks.
+   *
+   * @return		the box
+   */
+  public static BBox bbox() {
+    return new BBox(100, 100, 200, 150);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * ZeroCopyParseBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.benchmark;
+
+import opex4j.ObjectPredictions;
+import opex4j.core.PredictionsVisitorAdapter;
+import opex4j.core.Utf8PredictionsEventParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading predictions directly from bytes and memory-mapped files,
+ * as well as visiting them without materializing any objects.
+ * <br>
+ * Uses API that is not available in released versions, i.e., gets excluded
+ * when benchmarking another version via -Dopex4j.version=X.Y.Z.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZeroCopyParseBenchmark {
+
+  /** the number of objects. */
+  @Param({"1", "10", "100"})
+  public int objects;
+
+  /** the number of vertices per polygon. */
+  @Param({"4", "32"})
+  public int vertices;
+
+  /** the number of meta-data entries. */
+  @Param({"0", "8"})
+  public int metaSize;
+
+  /** the UTF-8 bytes of the compact JSON. */
+  protected byte[] m_Bytes;
+
+  /** the file containing the (pretty printed) JSON. */
+  protected File m_File;
+
+  /** the event parser. */
+  protected Utf8PredictionsEventParser m_EventParser;
+
+  /** the visitor summing up the coordinates. */
+  protected CoordinateSum m_Visitor;
+
+  /**
+   * Visitor that sums up all coordinates.
+   */
+  public static class CoordinateSum
+    extends PredictionsVisitorAdapter {
+
+    /** the sum. */
+    public long sum;
+
+    @Override
+    public boolean onObject(String label, double score, int left, int top, int right, int bottom) {
+      sum += left + top + right + bottom;
+      return true;
+    }
+
+    @Override
+    public void onPolygonPoint(int x, int y) {
+      sum += x + y;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    ObjectPredictions	preds;
+
+    preds   = Workloads.predictions(objects, vertices, metaSize);
+    m_Bytes = preds.toString(false).getBytes(StandardCharsets.UTF_8);
+    m_File  = File.createTempFile("opex4j-", ".json");
+    m_File.deleteOnExit();
+    preds.write(m_File);
+    m_EventParser = new Utf8PredictionsEventParser();
+    m_Visitor     = new CoordinateSum();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (m_File != null)
+      m_File.delete();
+  }
+
+  @Benchmark
+  public ObjectPredictions fromBytes() throws Exception {
+    return ObjectPredictions.newInstance(m_Bytes);
+  }
+
+  @Benchmark
+  public ObjectPredictions fromMappedFile() throws Exception {
+    return ObjectPredictions.newInstanceMapped(m_File);
+  }
+
+  @Benchmark
+  public long visitBytes() throws Exception {
+    m_Visitor.sum = 0;
+    m_EventParser.parse(m_Bytes, m_Visitor);
+    return m_Visitor.sum;
+  }
+}
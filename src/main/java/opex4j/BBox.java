@@ -7,9 +7,13 @@ package opex4j;
 
 import com.google.gson.JsonObject;
 import opex4j.core.AbstractJsonHandler;
+import opex4j.core.ContentHasher;
 
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,10 +46,25 @@ public class BBox
    * @param bottom	the bottom coordinate
    */
   public BBox(int left, int top, int right, int bottom) {
-    if (top >= bottom)
-      throw new IllegalArgumentException("Violation of top < bottom: top=" + top + " and bottom=" + bottom);
-    if (left >= right)
-      throw new IllegalArgumentException("Violation of left < right: left=" + left + " and right=" + right);
+    this(left, top, right, bottom, true);
+  }
+
+  /**
+   * Initializes the bounding box.
+   *
+   * @param left	the left coordinate
+   * @param top		the top coordinate
+   * @param right	the right coordinate
+   * @param bottom	the bottom coordinate
+   * @param validate	whether to validate the coordinates
+   */
+  protected BBox(int left, int top, int right, int bottom, boolean validate) {
+    if (validate) {
+      if (top >= bottom)
+	throw new IllegalArgumentException("Violation of top < bottom: top=" + top + " and bottom=" + bottom);
+      if (left >= right)
+	throw new IllegalArgumentException("Violation of left < right: left=" + left + " and right=" + right);
+    }
     m_Top    = top;
     m_Left   = left;
     m_Bottom = bottom;
@@ -88,6 +107,73 @@ public class BBox
     return m_Bottom;
   }
 
+  /**
+   * Returns the width in pixels, i.e., including both left and right
+   * (like {@link #toRectangle()}).
+   *
+   * @return		the width
+   */
+  public int getWidth() {
+    return m_Right - m_Left + 1;
+  }
+
+  /**
+   * Returns the height in pixels, i.e., including both top and bottom
+   * (like {@link #toRectangle()}).
+   *
+   * @return		the height
+   */
+  public int getHeight() {
+    return m_Bottom - m_Top + 1;
+  }
+
+  /**
+   * Returns the area in pixels (width * height). Note that the area of
+   * {@link #toPolygon()} is smaller, since the polygon runs through the
+   * pixel coordinates of the corners.
+   *
+   * @return		the area
+   */
+  public double getArea() {
+    return (double) getWidth() * getHeight();
+  }
+
+  /**
+   * Returns the perimeter in pixels (2 * (width + height)).
+   *
+   * @return		the perimeter
+   */
+  public double getPerimeter() {
+    return 2.0 * ((double) getWidth() + getHeight());
+  }
+
+  /**
+   * Returns the x of the center.
+   *
+   * @return		the x
+   */
+  public double getCenterX() {
+    return ((double) m_Left + m_Right) / 2;
+  }
+
+  /**
+   * Returns the y of the center.
+   *
+   * @return		the y
+   */
+  public double getCenterY() {
+    return ((double) m_Top + m_Bottom) / 2;
+  }
+
+  /**
+   * Returns the aspect ratio (width / height).
+   *
+   * @return		the ratio
+   */
+  public double getAspectRatio() {
+    return (double) getWidth() / getHeight();
+  }
+
   /**
    * Turns the object into JSON.
    *
@@ -106,6 +192,62 @@ public class BBox
     return result;
   }
 
+  /**
+   * Feeds the coordinates to the hasher.
+   *
+   * @param hasher	the hasher to update
+   */
+  public void hash(ContentHasher hasher) {
+    hasher.putInt(m_Left);
+    hasher.putInt(m_Top);
+    hasher.putInt(m_Right);
+    hasher.putInt(m_Bottom);
+  }
+
+  /**
+   * Returns the 64-bit content hash.
+   *
+   * @return		the hash
+   */
+  public long contentHash() {
+    ContentHasher	hasher;
+
+    hasher = new ContentHasher();
+    hash(hasher);
+    return hasher.getValue();
+  }
+
+  /**
+   * Compares the coordinates with those of the other bbox.
+   *
+   * @param obj		the object to compare with
+   * @return		true if the same coordinates
+   */
+  @Override
+  public boolean equals(Object obj) {
+    BBox	other;
+
+    if (obj == this)
+      return true;
+    if (!(obj instanceof BBox))
+      return false;
+    other = (BBox) obj;
+    return (m_Left == other.m_Left)
+      && (m_Top == other.m_Top)
+      && (m_Right == other.m_Right)
+      && (m_Bottom == other.m_Bottom);
+  }
+
+  /**
+   * Returns the hash code, derived from the content hash.
+   *
+   * @return		the hash code
+   */
+  @Override
+  public int hashCode() {
+    return ContentHasher.fold(contentHash());
+  }
+
   /**
    * Generates an AWT rectangle.
    *
@@ -146,6 +288,35 @@ public class BBox
       obj.get("bottom").getAsInt());
   }
 
+  /**
+   * Checks whether the coordinates form a valid bounding box, i.e.,
+   * left &lt; right and top &lt; bottom.
+   *
+   * @param left	the left coordinate
+   * @param top		the top coordinate
+   * @param right	the right coordinate
+   * @param bottom	the bottom coordinate
+   * @return		true if valid
+   */
+  public static boolean isValid(int left, int top, int right, int bottom) {
+    return (top < bottom) && (left < right);
+  }
+
+  /**
+   * Instantiates a BBox without validating the coordinates, for keeping
+   * degenerate boxes as they are.
+   *
+   * @param left	the left coordinate
+   * @param top		the top coordinate
+   * @param right	the right coordinate
+   * @param bottom	the bottom coordinate
+   * @return		the generated BBox instance
+   * @see		#isValid(int, int, int, int)
+   */
+  public static BBox newUnchecked(int left, int top, int right, int bottom) {
+    return new BBox(left, top, right, bottom, false);
+  }
+
   /**
    * Instantiates a BBox from a rectangle.
    *
@@ -168,4 +339,30 @@ public class BBox
   public static BBox newInstance(int x, int y, int width, int height) {
     return new BBox(x, y, x + width - 1, y + height - 1);
   }
+
+  /**
+   * Replaces the object with a compact proxy during serialization. Subclasses
+   * (or objects containing instances of subclasses) use default serialization
+   * instead, as the proxy would restore them as instances of this class.
+   *
+   * @return		the proxy or the object itself
+   * @see		SerializationProxy#supports(Object)
+   */
+  protected Object writeReplace() {
+    return SerializationProxy.supports(this) ? new SerializationProxy(this) : this;
+  }
+
+  /**
+   * Prevents deserialization without the proxy, unless the object does
+   * not get serialized via the proxy.
+   *
+   * @param stream	the stream to read from
+   * @throws IOException	if reading fails or the proxy is required
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    if (SerializationProxy.supports(this))
+      throw new InvalidObjectException("Serialization proxy required");
+  }
 }
@@ -7,9 +7,17 @@ package opex4j;
 
 import com.google.gson.JsonObject;
 import opex4j.core.AbstractJsonHandler;
+import opex4j.core.ContentHasher;
+import opex4j.core.JsonOptions;
 
+import java.awt.Point;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents a single prediction.
@@ -28,12 +36,18 @@ public class ObjectPrediction
   /** the bounding box. */
   protected BBox m_BBox;
 
-  /** the polygon. */
-  protected Polygon m_Polygon;
+  /** the polygon, null if to be derived from the bbox. */
+  protected volatile Polygon m_Polygon;
 
   /** the meta-data. */
   protected Map<String,String> m_Meta;
 
+  /** the value of the cached content hash if not computed yet, hashes that happen to equal it just get recomputed. */
+  protected final static long NO_CONTENT_HASH = 0L;
+
+  /** the cached content hash, {@link #NO_CONTENT_HASH} if not computed yet. */
+  protected transient volatile long m_ContentHash;
+
   /**
    * Initializes the prediction.
    *
@@ -41,7 +55,7 @@ public class ObjectPrediction
    * @param bbox	the bounding box
    */
   public ObjectPrediction(String label, BBox bbox) {
-    this(label, bbox, bbox.toPolygon(), null);
+    this(label, bbox, null, null);
   }
 
   /**
@@ -70,7 +84,7 @@ public class ObjectPrediction
    * @param label	the label
    * @param score 	the score, can be null
    * @param bbox	the bounding box
-   * @param polygon 	the polygon
+   * @param polygon 	the polygon, null to derive it from the bbox when needed
    * @param meta 	the meta-data, can be null
    */
   public ObjectPrediction(String label, Double score, BBox bbox, Polygon polygon, Map<String,String> meta) {
@@ -109,12 +123,43 @@ public class ObjectPrediction
   }
 
   /**
-   * Returns the polygon.
+   * Returns the polygon. If none was provided, the rectangle of the bbox
+   * gets generated on first access.
    *
    * @return		the polygon
    */
   public Polygon getPolygon() {
-    return m_Polygon;
+    Polygon	result;
+
+    result = m_Polygon;
+    if ((result == null) && (m_BBox != null)) {
+      result    = m_BBox.toPolygon();
+      m_Polygon = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether the polygon is just the rectangle of the bbox, i.e.,
+   * its four corners clockwise from top-left (as generated by
+   * {@link BBox#toPolygon()}), and can therefore be derived from the bbox.
+   *
+   * @return		true if derivable from the bbox
+   */
+  public boolean isPolygonDerived() {
+    Polygon	polygon;
+    List<Point>	points;
+
+    polygon = m_Polygon;
+    if (polygon == null)
+      return (m_BBox != null);
+    if ((m_BBox == null) || (polygon.size() != 4))
+      return false;
+    points = polygon.getPoints();
+    return (points.get(0).x == m_BBox.getLeft()) && (points.get(0).y == m_BBox.getTop())
+      && (points.get(1).x == m_BBox.getRight()) && (points.get(1).y == m_BBox.getTop())
+      && (points.get(2).x == m_BBox.getRight()) && (points.get(2).y == m_BBox.getBottom())
+      && (points.get(3).x == m_BBox.getLeft()) && (points.get(3).y == m_BBox.getBottom());
   }
 
   /**
@@ -133,6 +178,16 @@ public class ObjectPrediction
    */
   @Override
   public JsonObject toJson() {
+    return toJson(null);
+  }
+
+  /**
+   * Turns the object into JSON.
+   *
+   * @param options	the options for generating the JSON, null for defaults
+   * @return		the generated JSON
+   */
+  public JsonObject toJson(JsonOptions options) {
     JsonObject	result;
     JsonObject	meta;
 
@@ -142,7 +197,8 @@ public class ObjectPrediction
       result.addProperty("score", m_Score);
     result.addProperty("label", m_Label);
     result.add("bbox", m_BBox.toJson());
-    result.add("polygon", m_Polygon.toJson());
+    if ((options == null) || !options.getOmitDerivedPolygons() || !isPolygonDerived())
+      result.add("polygon", getPolygon().toJson());
     if (!m_Meta.isEmpty()) {
       meta = new JsonObject();
       for (String key: m_Meta.keySet())
@@ -153,6 +209,79 @@ public class ObjectPrediction
     return result;
   }
 
+  /**
+   * Returns the 64-bit content hash over label, score, bbox, polygon and
+   * meta-data (regardless of the order of the meta-data). The hash gets
+   * cached, i.e., the object must not be modified (eg its meta-data)
+   * after calling this method.
+   *
+   * @return		the hash
+   * @see		#computeContentHash()
+   */
+  public long contentHash() {
+    long	result;
+
+    result = m_ContentHash;
+    if (result == NO_CONTENT_HASH) {
+      result        = computeContentHash();
+      m_ContentHash = result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the 64-bit content hash from the current state, bypassing the
+   * cache.
+   *
+   * @return		the hash
+   * @see		#contentHash()
+   */
+  protected long computeContentHash() {
+    ContentHasher	hasher;
+
+    hasher = new ContentHasher();
+    hasher.putString(m_Label);
+    hasher.putDouble(m_Score);
+    m_BBox.hash(hasher);
+    getPolygon().hash(hasher);
+    hasher.putMap(m_Meta);
+    return hasher.getValue();
+  }
+
+  /**
+   * Compares label, score, bbox, polygon and meta-data with the other object.
+   *
+   * @param obj		the object to compare with
+   * @return		true if the same content
+   */
+  @Override
+  public boolean equals(Object obj) {
+    ObjectPrediction	other;
+
+    if (obj == this)
+      return true;
+    if (!(obj instanceof ObjectPrediction))
+      return false;
+    other = (ObjectPrediction) obj;
+    return Objects.equals(m_Label, other.m_Label)
+      && Objects.equals(m_Score, other.m_Score)
+      && m_BBox.equals(other.m_BBox)
+      && getPolygon().equals(other.getPolygon())
+      && m_Meta.equals(other.m_Meta);
+  }
+
+  /**
+   * Returns the hash code, derived from the content hash. Does not use the
+   * cached content hash, as the object may have been modified since.
+   *
+   * @return		the hash code
+   * @see		#computeContentHash()
+   */
+  @Override
+  public int hashCode() {
+    return ContentHasher.fold(computeContentHash());
+  }
+
   /**
    * Generates an object prediction from JSON.
    *
@@ -170,7 +299,9 @@ public class ObjectPrediction
     score   = (obj.has("score") && !obj.get("score").isJsonNull()) ? obj.get("score").getAsDouble() : null;
     label   = obj.get("label").getAsString();
     bbox    = BBox.newInstance(obj.get("bbox").getAsJsonObject());
-    polygon = Polygon.newInstance(obj.get("polygon").getAsJsonObject());
+    polygon = null;
+    if (obj.has("polygon") && !obj.get("polygon").isJsonNull())
+      polygon = Polygon.newInstance(obj.get("polygon").getAsJsonObject());
     meta    = null;
     if (obj.has("meta") && !obj.get("meta").isJsonNull()) {
       jmeta = obj.get("meta").getAsJsonObject();
@@ -181,4 +312,30 @@ public class ObjectPrediction
 
     return new ObjectPrediction(label, score, bbox, polygon, meta);
   }
+
+  /**
+   * Replaces the object with a compact proxy during serialization. Subclasses
+   * (or objects containing instances of subclasses) use default serialization
+   * instead, as the proxy would restore them as instances of this class.
+   *
+   * @return		the proxy or the object itself
+   * @see		SerializationProxy#supports(Object)
+   */
+  protected Object writeReplace() {
+    return SerializationProxy.supports(this) ? new SerializationProxy(this) : this;
+  }
+
+  /**
+   * Prevents deserialization without the proxy, unless the object does
+   * not get serialized via the proxy.
+   *
+   * @param stream	the stream to read from
+   * @throws IOException	if reading fails or the proxy is required
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    if (SerializationProxy.supports(this))
+      throw new InvalidObjectException("Serialization proxy required");
+  }
 }
@@ -5,32 +5,56 @@
 
 package opex4j;
 
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import opex4j.core.AbstractJsonHandler;
+import opex4j.core.AsyncIO;
+import opex4j.core.Compression;
+import opex4j.core.ContentHasher;
+import opex4j.core.CountingInputStream;
+import opex4j.core.JsonOptions;
+import opex4j.core.Metrics;
+import opex4j.core.MetricsListener;
+import opex4j.core.TimestampCodec;
+import opex4j.core.Utf8PredictionsParser;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Manages one or more {@link ObjectPrediction}.
+ * <br>
+ * Files and streams always get read and written as UTF-8, regardless of
+ * the platform's default charset or whether the synchronous or the
+ * asynchronous methods are used.
  *
  * @author fracpete (fracpete at waikato dot ac dot nz)
  */
@@ -61,6 +85,9 @@ public class ObjectPredictions
   /** meta-data. */
   protected Map<String,String> m_Meta;
 
+  /** the cached content hash, {@link ObjectPrediction#NO_CONTENT_HASH} if not computed yet. */
+  protected transient volatile long m_ContentHash;
+
   /**
    * Initializes the predictions.
    *
@@ -105,7 +132,7 @@ public class ObjectPredictions
    */
   public String getTimestampStr() {
     if (m_Timestamp != null)
-      return TIMESTAMP_FORMATTER.format(m_Timestamp);
+      return TimestampCodec.format(m_Timestamp);
     else
       return null;
   }
@@ -137,6 +164,115 @@ public class ObjectPredictions
     return m_Meta;
   }
 
+  /**
+   * Returns the array to store the values in.
+   *
+   * @param result	the array to reuse, can be null
+   * @param size	the required size
+   * @return		the array to reuse if large enough, otherwise a new one
+   */
+  protected static double[] allocate(double[] result, int size) {
+    if ((result == null) || (result.length < size))
+      return new double[size];
+    return result;
+  }
+
+  /**
+   * Stores the polygon areas of all objects in the array (NaN for objects
+   * without polygon).
+   *
+   * @param result	the array to reuse, can be null
+   * @return		the supplied array if large enough, otherwise a new one
+   */
+  public double[] getAreas(double[] result) {
+    Polygon	polygon;
+    int		i;
+
+    result = allocate(result, m_Objects.size());
+    for (i = 0; i < m_Objects.size(); i++) {
+      polygon   = m_Objects.get(i).getPolygon();
+      result[i] = (polygon == null) ? Double.NaN : polygon.getArea();
+    }
+    return result;
+  }
+
+  /**
+   * Stores the polygon perimeters of all objects in the array (NaN for
+   * objects without polygon).
+   *
+   * @param result	the array to reuse, can be null
+   * @return		the supplied array if large enough, otherwise a new one
+   */
+  public double[] getPerimeters(double[] result) {
+    Polygon	polygon;
+    int		i;
+
+    result = allocate(result, m_Objects.size());
+    for (i = 0; i < m_Objects.size(); i++) {
+      polygon   = m_Objects.get(i).getPolygon();
+      result[i] = (polygon == null) ? Double.NaN : polygon.getPerimeter();
+    }
+    return result;
+  }
+
+  /**
+   * Stores the polygon centroids of all objects as x/y pairs in the array
+   * (NaN for objects without polygon).
+   *
+   * @param result	the array to reuse, can be null
+   * @return		the supplied array if large enough (2 * objects), otherwise a new one
+   */
+  public double[] getCentroids(double[] result) {
+    Polygon	polygon;
+    int		i;
+
+    result = allocate(result, m_Objects.size() * 2);
+    for (i = 0; i < m_Objects.size(); i++) {
+      polygon           = m_Objects.get(i).getPolygon();
+      result[i * 2]     = (polygon == null) ? Double.NaN : polygon.getCentroidX();
+      result[i * 2 + 1] = (polygon == null) ? Double.NaN : polygon.getCentroidY();
+    }
+    return result;
+  }
+
+  /**
+   * Stores the polygon orientations (see {@link Polygon#getOrientation()})
+   * of all objects in the array (NaN for objects without polygon).
+   *
+   * @param result	the array to reuse, can be null
+   * @return		the supplied array if large enough, otherwise a new one
+   */
+  public double[] getOrientations(double[] result) {
+    Polygon	polygon;
+    int		i;
+
+    result = allocate(result, m_Objects.size());
+    for (i = 0; i < m_Objects.size(); i++) {
+      polygon   = m_Objects.get(i).getPolygon();
+      result[i] = (polygon == null) ? Double.NaN : polygon.getOrientation();
+    }
+    return result;
+  }
+
+  /**
+   * Stores the bbox areas (see {@link BBox#getArea()}) of all objects in
+   * the array (NaN for objects without bbox).
+   *
+   * @param result	the array to reuse, can be null
+   * @return		the supplied array if large enough, otherwise a new one
+   */
+  public double[] getBBoxAreas(double[] result) {
+    BBox	bbox;
+    int		i;
+
+    result = allocate(result, m_Objects.size());
+    for (i = 0; i < m_Objects.size(); i++) {
+      bbox      = m_Objects.get(i).getBBox();
+      result[i] = (bbox == null) ? Double.NaN : bbox.getArea();
+    }
+    return result;
+  }
+
   /**
    * Turns the object into JSON.
    *
@@ -144,6 +280,16 @@ public class ObjectPredictions
    */
   @Override
   public JsonObject toJson() {
+    return toJson(null);
+  }
+
+  /**
+   * Turns the object into JSON.
+   *
+   * @param options	the options for generating the JSON, null for defaults
+   * @return		the generated JSON
+   */
+  public JsonObject toJson(JsonOptions options) {
     JsonObject	result;
     JsonArray	objects;
     JsonObject	meta;
@@ -151,14 +297,16 @@ public class ObjectPredictions
     result = new JsonObject();
 
     if (m_Timestamp != null)
-      result.addProperty("timestamp", TIMESTAMP_FORMATTER.format(m_Timestamp));
+      result.addProperty("timestamp", TimestampCodec.format(m_Timestamp));
 
     result.addProperty("id", m_ID);
 
-    objects = new JsonArray();
-    for (ObjectPrediction obj: m_Objects)
-      objects.add(obj.toJson());
-    result.add("objects", objects);
+    if ((options == null) || !options.getOmitEmpty() || !m_Objects.isEmpty()) {
+      objects = new JsonArray();
+      for (ObjectPrediction obj: m_Objects)
+	objects.add(obj.toJson(options));
+      result.add("objects", objects);
+    }
 
     if (m_Meta.size() > 0) {
       meta = new JsonObject();
@@ -170,6 +318,95 @@ public class ObjectPredictions
     return result;
   }
 
+  /**
+   * Returns the 64-bit content hash over the objects (in order, using their
+   * content hashes), ID, timestamp and meta-data (regardless of the order of
+   * the meta-data). Independent of the JSON formatting the predictions were
+   * read from. The hash gets cached, i.e., the predictions must not be
+   * modified (eg adding objects) after calling this method.
+   *
+   * @return		the hash
+   * @see		ObjectPrediction#contentHash()
+   */
+  public long contentHash() {
+    long	result;
+
+    result = m_ContentHash;
+    if (result == ObjectPrediction.NO_CONTENT_HASH) {
+      result        = computeContentHash(true);
+      m_ContentHash = result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the 64-bit content hash from the current state, bypassing the
+   * cache of the predictions.
+   *
+   * @param cached	whether to use the cached content hashes of the objects
+   * @return		the hash
+   * @see		#contentHash()
+   */
+  protected long computeContentHash(boolean cached) {
+    ContentHasher	hasher;
+
+    hasher = new ContentHasher();
+    for (ObjectPrediction obj: m_Objects)
+      hasher.putLong(cached ? obj.contentHash() : obj.computeContentHash());
+    hasher.putInt(m_Objects.size());
+    hasher.putString(m_ID);
+    hasher.putTimestamp(m_Timestamp);
+    hasher.putMap(m_Meta);
+    return hasher.getValue();
+  }
+
+  /**
+   * Compares ID, timestamp, objects and meta-data with the other predictions.
+   *
+   * @param obj		the object to compare with
+   * @return		true if the same content
+   */
+  @Override
+  public boolean equals(Object obj) {
+    ObjectPredictions	other;
+
+    if (obj == this)
+      return true;
+    if (!(obj instanceof ObjectPredictions))
+      return false;
+    other = (ObjectPredictions) obj;
+    return m_ID.equals(other.m_ID)
+      && Objects.equals(m_Timestamp, other.m_Timestamp)
+      && m_Objects.equals(other.m_Objects)
+      && m_Meta.equals(other.m_Meta);
+  }
+
+  /**
+   * Returns the hash code, derived from the content hash. Does not use any
+   * cached content hashes, as the predictions may have been modified since.
+   *
+   * @return		the hash code
+   * @see		#computeContentHash(boolean)
+   */
+  @Override
+  public int hashCode() {
+    return ContentHasher.fold(computeContentHash(false));
+  }
+
+  /**
+   * Turns the object into JSON.
+   *
+   * @param prettyPrint	whether to output the JSON in pretty printed style or space efficient
+   * @param options	the options for generating the JSON, null for defaults
+   * @return		the generated JSON
+   */
+  public String toString(boolean prettyPrint, JsonOptions options) {
+    if (prettyPrint)
+      return new GsonBuilder().setPrettyPrinting().create().toJson(toJson(options));
+    else
+      return new GsonBuilder().create().toJson(toJson(options));
+  }
+
   /**
    * Writes the predictions to the specified file.
    * Uses pretty printing.
@@ -183,41 +420,113 @@ public class ObjectPredictions
 
   /**
    * Writes the predictions to the specified file.
+   * Compresses the file if the extension is .gz or .deflate/.zz.
    *
    * @param file		the file to write to
    * @param prettyPrint		whether to use pretty printing or not
    * @throws IOException	if writing fails
    */
   public void write(File file, boolean prettyPrint) throws IOException {
-    FileWriter		fwriter;
-    BufferedWriter	bwriter;
+    write(file, prettyPrint, new Compression.Options());
+  }
+
+  /**
+   * Writes the predictions to the specified file.
+   *
+   * @param file		the file to write to
+   * @param prettyPrint		whether to use pretty printing or not
+   * @param options		the compression options
+   * @throws IOException	if writing fails
+   */
+  public void write(File file, boolean prettyPrint, Compression.Options options) throws IOException {
+    write(file, prettyPrint, options, null);
+  }
 
-    fwriter = null;
-    bwriter = null;
+  /**
+   * Writes the predictions to the specified file.
+   *
+   * @param file		the file to write to
+   * @param prettyPrint		whether to use pretty printing or not
+   * @param options		the compression options
+   * @param jsonOptions		the options for generating the JSON, null for defaults
+   * @throws IOException	if writing fails
+   */
+  public void write(File file, boolean prettyPrint, Compression.Options options, JsonOptions jsonOptions) throws IOException {
+    OutputStream	stream;
+    Writer		writer;
+    MetricsListener	listener;
+    long		start;
+
+    listener = Metrics.getListener();
+    start    = listener.isEnabled() ? System.nanoTime() : 0;
+    stream   = null;
+    writer   = null;
     try {
-      fwriter = new FileWriter(file);
-      bwriter = new BufferedWriter(fwriter);
-      bwriter.write(toString(prettyPrint));
-      bwriter.flush();
+      stream = Compression.openOutput(file, options);
+      writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+      writer.write(toString(prettyPrint, jsonOptions));
+      writer.flush();
     }
     finally {
-      if (bwriter != null) {
+      if (writer != null) {
 	try {
-	  bwriter.close();
+	  writer.close();
 	}
 	catch (Exception e) {
 	  // ignored
 	}
       }
-      if (fwriter != null) {
+      else if (stream != null) {
 	try {
-	  fwriter.close();
+	  stream.close();
 	}
 	catch (Exception e) {
 	  // ignored
 	}
       }
     }
+
+    if (listener.isEnabled())
+      written(listener, file.length(), start);
+  }
+
+  /**
+   * Writes the predictions to the specified file without blocking, using
+   * pretty printing and the default executor of {@link AsyncIO}.
+   * Compresses the file if the extension is .gz or .deflate/.zz.
+   *
+   * @param file		the file to write to
+   * @return			the future
+   */
+  public CompletableFuture<Void> writeAsync(File file) {
+    return writeAsync(file, true, new Compression.Options(), null, AsyncIO.getDefaultExecutor());
+  }
+
+  /**
+   * Writes the predictions to the specified file without blocking. The
+   * executor generates the (compressed) UTF-8 bytes, which get written
+   * using an asynchronous file channel.
+   *
+   * @param file		the file to write to
+   * @param prettyPrint		whether to use pretty printing or not
+   * @param options		the compression options
+   * @param jsonOptions		the options for generating the JSON, null for defaults
+   * @param executor		the executor for serializing and completing the future
+   * @return			the future
+   */
+  public CompletableFuture<Void> writeAsync(final File file, final boolean prettyPrint, final Compression.Options options, final JsonOptions jsonOptions, final Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      ByteArrayOutputStream	bytes;
+
+      bytes = new ByteArrayOutputStream();
+      try (OutputStream out = Compression.compress(bytes, options.getType(file), options)) {
+	out.write(toString(prettyPrint, jsonOptions).getBytes(StandardCharsets.UTF_8));
+      }
+      catch (IOException e) {
+	throw new CompletionException(e);
+      }
+      return bytes.toByteArray();
+    }, executor).thenCompose((byte[] data) -> AsyncIO.write(file, data, executor));
   }
 
   /**
@@ -241,7 +550,29 @@ public class ObjectPredictions
    * @throws IOException	if writing fails
    */
   public void write(Writer writer, boolean prettyPrint) throws IOException {
-    writer.write(toString(prettyPrint));
+    write(writer, prettyPrint, null);
+  }
+
+  /**
+   * Writes the predictions to the supplied writer.
+   * Caller must close the writer.
+   *
+   * @param writer		the writer to write to
+   * @param prettyPrint		whether to use pretty printing or not
+   * @param options		the options for generating the JSON, null for defaults
+   * @throws IOException	if writing fails
+   */
+  public void write(Writer writer, boolean prettyPrint, JsonOptions options) throws IOException {
+    MetricsListener	listener;
+    long		start;
+    String		s;
+
+    listener = Metrics.getListener();
+    start    = listener.isEnabled() ? System.nanoTime() : 0;
+    s        = toString(prettyPrint, options);
+    writer.write(s);
+    if (listener.isEnabled())
+      written(listener, s.length(), start);
   }
 
   /**
@@ -265,7 +596,29 @@ public class ObjectPredictions
    * @throws IOException	if writing fails
    */
   public void write(OutputStream stream, boolean prettyPrint) throws IOException {
-    stream.write(toString(prettyPrint).getBytes());
+    write(stream, prettyPrint, null);
+  }
+
+  /**
+   * Writes the predictions to the supplied stream.
+   * Caller must close the stream.
+   *
+   * @param stream		the stream to write to
+   * @param prettyPrint		whether to use pretty printing or not
+   * @param options		the options for generating the JSON, null for defaults
+   * @throws IOException	if writing fails
+   */
+  public void write(OutputStream stream, boolean prettyPrint, JsonOptions options) throws IOException {
+    MetricsListener	listener;
+    long		start;
+    byte[]		data;
+
+    listener = Metrics.getListener();
+    start    = listener.isEnabled() ? System.nanoTime() : 0;
+    data     = toString(prettyPrint, options).getBytes(StandardCharsets.UTF_8);
+    stream.write(data);
+    if (listener.isEnabled())
+      written(listener, data.length, start);
   }
 
   /**
@@ -287,7 +640,44 @@ public class ObjectPredictions
    * @param prettyPrint		whether to use pretty printing or not
    */
   public void write(StringBuilder builder, boolean prettyPrint) {
-    builder.append(toString(prettyPrint));
+    MetricsListener	listener;
+    long		start;
+    String		s;
+
+    listener = Metrics.getListener();
+    start    = listener.isEnabled() ? System.nanoTime() : 0;
+    s        = toString(prettyPrint);
+    builder.append(s);
+    if (listener.isEnabled())
+      written(listener, s.length(), start);
+  }
+
+  /**
+   * Notifies the listener that the predictions have been written.
+   *
+   * @param listener	the listener to notify
+   * @param size	the number of bytes/characters written
+   * @param start	the start of the operation (nano-seconds)
+   */
+  protected void written(MetricsListener listener, long size, long start) {
+    listener.documentWritten(size, System.nanoTime() - start, m_Objects.size(), countVertices(this));
+  }
+
+  /**
+   * Counts the polygon vertices of all objects.
+   *
+   * @param preds	the predictions to count
+   * @return		the number of vertices
+   */
+  protected static int countVertices(ObjectPredictions preds) {
+    int		result;
+
+    result = 0;
+    for (ObjectPrediction obj: preds.getObjects()) {
+      if (obj.getPolygon() != null)
+	result += obj.getPolygon().size();
+    }
+    return result;
   }
 
   /**
@@ -305,29 +695,25 @@ public class ObjectPredictions
     Map<String,String>		meta;
     JsonObject			jmeta;
     int				i;
+    MetricsListener		listener;
 
     timestamp = null;
     if (obj.has("timestamp") && !obj.get("timestamp").isJsonNull()) {
       timestampStr = obj.get("timestamp").getAsString();
-      try {
-	timestamp = LocalDateTime.parse(timestampStr, TIMESTAMP_FORMATTER);
-      }
-      catch (Exception e) {
-	try {
-	  timestamp = LocalDateTime.parse(timestampStr, TIMESTAMP_FORMATTER_ALT);
-	}
-	catch (Exception e2) {
-	  System.err.println("Failed to parse timestamp: " + obj);
-	}
-      }
+      timestamp    = TimestampCodec.parse(timestampStr);
+      listener     = Metrics.getListener();
+      if (listener.isEnabled())
+	listener.timestampParsed(TimestampCodec.detect(timestampStr), timestamp != null);
     }
 
     id = obj.get("id").getAsString();
 
-    jobjects = obj.get("objects").getAsJsonArray();
     objects = new ArrayList<>();
-    for (i = 0; i < jobjects.size(); i++)
-      objects.add(ObjectPrediction.newInstance(jobjects.get(i).getAsJsonObject()));
+    if (obj.has("objects") && !obj.get("objects").isJsonNull()) {
+      jobjects = obj.get("objects").getAsJsonArray();
+      for (i = 0; i < jobjects.size(); i++)
+	objects.add(ObjectPrediction.newInstance(jobjects.get(i).getAsJsonObject()));
+    }
 
     meta = null;
     if (obj.has("meta") && !obj.get("meta").isJsonNull()) {
@@ -342,34 +728,48 @@ public class ObjectPredictions
 
   /**
    * Loads the objects predictions from the specified JSON file.
+   * Gzip/deflate compressed files get decompressed transparently.
    *
    * @param file	the file to load
    * @return		the object predictions
    * @throws Exception	if reading/parsing fails
    */
   public static ObjectPredictions newInstance(File file) throws Exception {
-    FileReader		freader;
-    BufferedReader	breader;
+    return newInstance(file, Compression.DEFAULT_BUFFER_SIZE);
+  }
 
-    freader = null;
-    breader = null;
+  /**
+   * Loads the objects predictions from the specified JSON file.
+   * Gzip/deflate compressed files get decompressed transparently.
+   *
+   * @param file	the file to load
+   * @param bufferSize	the size of the read/decompression buffers
+   * @return		the object predictions
+   * @throws Exception	if reading/parsing fails
+   */
+  public static ObjectPredictions newInstance(File file, int bufferSize) throws Exception {
+    InputStream		stream;
+    Reader		reader;
+
+    stream = null;
+    reader = null;
     try {
-      freader = new FileReader(file);
-      breader = new BufferedReader(freader);
-      return ObjectPredictions.newInstance((JsonObject) JsonParser.parseReader(breader));
+      stream = Compression.openInput(file, bufferSize);
+      reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
+      return read(reader, file.length(), null);
     }
     finally {
-      if (breader != null) {
+      if (reader != null) {
 	try {
-	  breader.close();
+	  reader.close();
 	}
 	catch (Exception e) {
 	  // ignored
 	}
       }
-      if (freader != null) {
+      else if (stream != null) {
 	try {
-	  freader.close();
+	  stream.close();
 	}
 	catch (Exception e) {
 	  // ignored
@@ -386,18 +786,26 @@ public class ObjectPredictions
    * @throws Exception	if reading/parsing fails
    */
   public static ObjectPredictions newInstance(Reader reader) throws Exception {
-    return ObjectPredictions.newInstance((JsonObject) JsonParser.parseReader(reader));
+    return read(reader, -1, null);
   }
 
   /**
    * Loads the objects predictions from the supplied stream.
+   * Gzip/deflate compressed data gets decompressed transparently.
    *
    * @param stream	the stream to use
    * @return		the object predictions
    * @throws Exception	if reading/parsing fails
    */
   public static ObjectPredictions newInstance(InputStream stream) throws Exception {
-    return ObjectPredictions.newInstance((JsonObject) JsonParser.parseReader(new InputStreamReader(stream)));
+    CountingInputStream	counting;
+
+    stream = Compression.decompress(stream, Compression.DEFAULT_BUFFER_SIZE);
+    if (Metrics.getListener().isEnabled()) {
+      counting = new CountingInputStream(stream);
+      return read(new InputStreamReader(counting, StandardCharsets.UTF_8), -1, counting);
+    }
+    return read(new InputStreamReader(stream, StandardCharsets.UTF_8), -1, null);
   }
 
   /**
@@ -408,6 +816,217 @@ public class ObjectPredictions
    * @throws Exception	if reading/parsing fails
    */
   public static ObjectPredictions newInstance(String s) throws Exception {
-    return ObjectPredictions.newInstance((JsonObject) JsonParser.parseReader(new StringReader(s)));
+    return read(new StringReader(s), s.length(), null);
+  }
+
+  /**
+   * Parses the predictions directly from the UTF-8 encoded bytes, without
+   * decoding them into characters first.
+   *
+   * @param data	the bytes to parse
+   * @return		the object predictions
+   * @throws IOException	if parsing fails
+   * @see		Utf8PredictionsParser
+   */
+  public static ObjectPredictions newInstance(byte[] data) throws IOException {
+    return newInstance(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Parses the predictions directly from the UTF-8 encoded bytes, without
+   * decoding them into characters first.
+   *
+   * @param data	the bytes to parse
+   * @param offset	the offset of the JSON in the array
+   * @param length	the number of bytes
+   * @return		the object predictions
+   * @throws IOException	if parsing fails
+   * @see		Utf8PredictionsParser
+   */
+  public static ObjectPredictions newInstance(byte[] data, int offset, int length) throws IOException {
+    return newInstance(ByteBuffer.wrap(data, offset, length));
+  }
+
+  /**
+   * Parses the predictions directly from the remaining UTF-8 encoded bytes of
+   * the buffer (heap, direct or memory-mapped), without decoding them into
+   * characters first. The position of the buffer remains unchanged.
+   *
+   * @param buffer	the buffer to parse
+   * @return		the object predictions
+   * @throws IOException	if parsing fails
+   * @see		Utf8PredictionsParser
+   */
+  public static ObjectPredictions newInstance(ByteBuffer buffer) throws IOException {
+    MetricsListener	listener;
+    ObjectPredictions	result;
+    long		start;
+
+    listener = Metrics.getListener();
+    if (!listener.isEnabled())
+      return new Utf8PredictionsParser().parse(buffer);
+
+    start  = System.nanoTime();
+    result = new Utf8PredictionsParser().parse(buffer);
+    listener.documentRead(buffer.remaining(), System.nanoTime() - start, 0, result.getObjects().size(), countVertices(result));
+
+    return result;
+  }
+
+  /**
+   * Memory-maps the file and parses the predictions directly from the bytes.
+   * Compressed files get decompressed into memory first.
+   *
+   * @param file	the file to load
+   * @return		the object predictions
+   * @throws IOException	if reading/parsing fails
+   * @see		#newInstance(ByteBuffer)
+   */
+  public static ObjectPredictions newInstanceMapped(File file) throws IOException {
+    MappedByteBuffer	buffer;
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (Compression.detect(buffer) != Compression.Type.NONE)
+      return newInstance(readFully(file));
+    return newInstance(buffer);
+  }
+
+  /**
+   * Loads the object predictions from the specified JSON file without
+   * blocking, using the default executor of {@link AsyncIO}.
+   * Gzip/deflate compressed files get decompressed transparently.
+   *
+   * @param file	the file to load
+   * @return		the future for the object predictions
+   */
+  public static CompletableFuture<ObjectPredictions> newInstanceAsync(File file) {
+    return newInstanceAsync(file, AsyncIO.getDefaultExecutor());
+  }
+
+  /**
+   * Loads the object predictions from the specified JSON file without
+   * blocking. Reading uses an asynchronous file channel, decompressing and
+   * parsing get performed by the executor.
+   * Gzip/deflate compressed files get decompressed transparently.
+   *
+   * @param file	the file to load
+   * @param executor	the executor for parsing and completing the future
+   * @return		the future for the object predictions
+   */
+  public static CompletableFuture<ObjectPredictions> newInstanceAsync(File file, Executor executor) {
+    return AsyncIO.read(file, executor).thenApplyAsync((byte[] data) -> {
+      try {
+	if (Compression.detect(ByteBuffer.wrap(data)) != Compression.Type.NONE)
+	  data = decompress(data);
+	return newInstance(data);
+      }
+      catch (IOException e) {
+	throw new CompletionException(e);
+      }
+    }, executor);
+  }
+
+  /**
+   * Decompresses the data.
+   *
+   * @param data	the compressed data
+   * @return		the decompressed data
+   * @throws IOException	if decompression fails
+   */
+  protected static byte[] decompress(byte[] data) throws IOException {
+    ByteArrayOutputStream	out;
+    byte[]			buffer;
+    int				read;
+
+    // the stream grows as required, avoids overflowing/huge preallocations
+    out    = new ByteArrayOutputStream(Math.min(data.length, 1 << 20) * 2);
+    buffer = new byte[Compression.DEFAULT_BUFFER_SIZE];
+    try (InputStream in = Compression.decompress(new ByteArrayInputStream(data), Compression.DEFAULT_BUFFER_SIZE)) {
+      while ((read = in.read(buffer)) != -1)
+	out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Reads the (decompressed) content of the file.
+   *
+   * @param file	the file to read
+   * @return		the content
+   * @throws IOException	if reading fails
+   */
+  protected static byte[] readFully(File file) throws IOException {
+    ByteArrayOutputStream	out;
+    byte[]			buffer;
+    int				read;
+
+    // the stream grows as required, no need to preallocate for the whole file
+    out    = new ByteArrayOutputStream((int) Math.min(file.length(), 1 << 20) * 2);
+    buffer = new byte[Compression.DEFAULT_BUFFER_SIZE];
+    try (InputStream in = Compression.openInput(file)) {
+      while ((read = in.read(buffer)) != -1)
+	out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Parses the JSON from the reader and generates the predictions,
+   * notifying the metrics listener if enabled.
+   *
+   * @param reader	the reader to use
+   * @param size	the size of the document, -1 if unknown
+   * @param counting	for determining the size after reading, can be null
+   * @return		the object predictions
+   * @throws Exception	if reading/parsing fails
+   */
+  protected static ObjectPredictions read(Reader reader, long size, CountingInputStream counting) throws Exception {
+    MetricsListener	listener;
+    JsonObject		json;
+    ObjectPredictions	result;
+    long		start;
+    long		parsed;
+
+    listener = Metrics.getListener();
+    if (!listener.isEnabled())
+      return ObjectPredictions.newInstance((JsonObject) JsonParser.parseReader(reader));
+
+    start  = System.nanoTime();
+    json   = (JsonObject) JsonParser.parseReader(reader);
+    parsed = System.nanoTime();
+    result = ObjectPredictions.newInstance(json);
+    if (counting != null)
+      size = counting.getCount();
+    listener.documentRead(size, parsed - start, System.nanoTime() - parsed, result.getObjects().size(), countVertices(result));
+
+    return result;
+  }
+
+  /**
+   * Replaces the object with a compact proxy during serialization. Subclasses
+   * (or objects containing instances of subclasses) use default serialization
+   * instead, as the proxy would restore them as instances of this class.
+   *
+   * @return		the proxy or the object itself
+   * @see		SerializationProxy#supports(Object)
+   */
+  protected Object writeReplace() {
+    return SerializationProxy.supports(this) ? new SerializationProxy(this) : this;
+  }
+
+  /**
+   * Prevents deserialization without the proxy, unless the object does
+   * not get serialized via the proxy.
+   *
+   * @param stream	the stream to read from
+   * @throws IOException	if reading fails or the proxy is required
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    if (SerializationProxy.supports(this))
+      throw new InvalidObjectException("Serialization proxy required");
   }
 }
@@ -8,13 +8,23 @@ package opex4j;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import opex4j.core.AbstractJsonHandler;
+import opex4j.core.ContentHasher;
+import opex4j.geometry.Geometry;
+import opex4j.geometry.RotatedRectangle;
 
 import java.awt.Point;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a single polygon.
+ * <br>
+ * The geometric properties (bbox, area, perimeter, centroid, convex hull,
+ * minimum-area rectangle) get computed on first access and cached, hence
+ * the points must not be modified once the polygon has been created.
  *
  * @author fracpete (fracpete at waikato dot ac dot nz)
  */
@@ -24,19 +34,42 @@ public class Polygon
   /** the points making up the polygon. */
   protected List<Point> m_Points;
 
+  /** the cached signed area, perimeter and centroid x/y. */
+  protected transient volatile double[] m_Geometry;
+
+  /** the cached bbox. */
+  protected transient volatile BBox m_BBox;
+
+  /** the cached convex hull. */
+  protected transient volatile Polygon m_ConvexHull;
+
+  /** the cached minimum-area rectangle. */
+  protected transient volatile RotatedRectangle m_MinAreaRectangle;
+
   /**
    * Initializes the polygon.
    */
   public Polygon(List<Point> points) {
+    this(points, true);
+  }
+
+  /**
+   * Initializes the polygon.
+   *
+   * @param points	the points
+   * @param validate	whether to check the number of points
+   */
+  protected Polygon(List<Point> points, boolean validate) {
     if (points == null)
       throw new IllegalArgumentException("Points cannot be null!");
-    if (points.size() < 3)
+    if (validate && (points.size() < 3))
       throw new IllegalArgumentException("At least three points required, provided: " + points.size());
     m_Points = new ArrayList<>(points);
   }
 
   /**
-   * Returns the points.
+   * Returns the points. These must not be modified, since the geometric
+   * properties get cached.
    *
    * @return		the points
    */
@@ -77,6 +110,55 @@ public class Polygon
     return result;
   }
 
+  /**
+   * Feeds the points to the hasher.
+   *
+   * @param hasher	the hasher to update
+   */
+  public void hash(ContentHasher hasher) {
+    hasher.putInt(m_Points.size());
+    for (Point p: m_Points)
+      hasher.putLong(((long) p.x << 32) | (p.y & 0xffffffffL));
+  }
+
+  /**
+   * Returns the 64-bit content hash.
+   *
+   * @return		the hash
+   */
+  public long contentHash() {
+    ContentHasher	hasher;
+
+    hasher = new ContentHasher();
+    hash(hasher);
+    return hasher.getValue();
+  }
+
+  /**
+   * Compares the points with those of the other polygon.
+   *
+   * @param obj		the object to compare with
+   * @return		true if the same points in the same order
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this)
+      return true;
+    if (!(obj instanceof Polygon))
+      return false;
+    return m_Points.equals(((Polygon) obj).m_Points);
+  }
+
+  /**
+   * Returns the hash code, derived from the content hash.
+   *
+   * @return		the hash code
+   */
+  @Override
+  public int hashCode() {
+    return ContentHasher.fold(contentHash());
+  }
+
   /**
    * Generates an AWT polygon.
    *
@@ -98,16 +180,22 @@ public class Polygon
   }
 
   /**
-   * Determines the max coordinates and creates a BBox from it.
+   * Determines the max coordinates and creates a BBox from it (computed
+   * only once).
    *
    * @return		the bounding box
    */
   public BBox toBBox() {
+    BBox	result;
     int		minx;
     int		maxx;
     int		miny;
     int		maxy;
 
+    result = m_BBox;
+    if (result != null)
+      return result;
+
     minx = Integer.MAX_VALUE;
     maxx = 0;
     miny = Integer.MAX_VALUE;
@@ -120,7 +208,198 @@ public class Polygon
       maxy = Math.max(maxy, (int) p.getY());
     }
 
-    return new BBox(minx, miny, maxx, maxy);
+    result = new BBox(minx, miny, maxx, maxy);
+    m_BBox = result;
+    return result;
+  }
+
+  /**
+   * Copies the x coordinates into an array.
+   *
+   * @return		the x coordinates
+   */
+  protected int[] xCoordinates() {
+    int[]	result;
+    int		i;
+
+    result = new int[m_Points.size()];
+    for (i = 0; i < result.length; i++)
+      result[i] = m_Points.get(i).x;
+    return result;
+  }
+
+  /**
+   * Copies the y coordinates into an array.
+   *
+   * @return		the y coordinates
+   */
+  protected int[] yCoordinates() {
+    int[]	result;
+    int		i;
+
+    result = new int[m_Points.size()];
+    for (i = 0; i < result.length; i++)
+      result[i] = m_Points.get(i).y;
+    return result;
+  }
+
+  /**
+   * Returns signed area, perimeter and centroid, computing them if necessary.
+   *
+   * @return		signed area, perimeter, centroid x, centroid y
+   */
+  protected double[] geometry() {
+    double[]	result;
+    double[]	centroid;
+    int[]	x;
+    int[]	y;
+
+    result = m_Geometry;
+    if (result != null)
+      return result;
+
+    x        = xCoordinates();
+    y        = yCoordinates();
+    centroid = new double[2];
+    Geometry.centroid(x, y, x.length, centroid);
+    result   = new double[]{
+      Geometry.signedArea(x, y, x.length),
+      Geometry.perimeter(x, y, x.length),
+      centroid[0],
+      centroid[1],
+    };
+    m_Geometry = result;
+    return result;
+  }
+
+  /**
+   * Returns the signed area (shoelace formula), positive if the points run
+   * clockwise in image coordinates (y axis pointing down).
+   *
+   * @return		the signed area
+   */
+  public double getSignedArea() {
+    return geometry()[0];
+  }
+
+  /**
+   * Returns the area (shoelace formula).
+   *
+   * @return		the area
+   */
+  public double getArea() {
+    return Math.abs(geometry()[0]);
+  }
+
+  /**
+   * Returns whether the points run clockwise in image coordinates (y axis
+   * pointing down), like the polygons generated from bboxes.
+   *
+   * @return		true if clockwise, false if counter-clockwise or without area
+   */
+  public boolean isClockwise() {
+    return (geometry()[0] > 0);
+  }
+
+  /**
+   * Returns the perimeter of the closed polygon.
+   *
+   * @return		the perimeter
+   */
+  public double getPerimeter() {
+    return geometry()[1];
+  }
+
+  /**
+   * Returns the x of the centroid of the area, or the mean of the points
+   * if the polygon has no area.
+   *
+   * @return		the x, NaN if no points
+   */
+  public double getCentroidX() {
+    return geometry()[2];
+  }
+
+  /**
+   * Returns the y of the centroid of the area, or the mean of the points
+   * if the polygon has no area.
+   *
+   * @return		the y, NaN if no points
+   */
+  public double getCentroidY() {
+    return geometry()[3];
+  }
+
+  /**
+   * Returns the convex hull (monotone chain), computed only once. The hull
+   * runs clockwise in image coordinates and starts with the left-most
+   * point; duplicate and collinear points get removed.
+   *
+   * @return		the hull
+   */
+  public Polygon getConvexHull() {
+    Polygon		result;
+    List<Point>		points;
+    int[]		hullX;
+    int[]		hullY;
+    int			n;
+    int			i;
+
+    result = m_ConvexHull;
+    if (result != null)
+      return result;
+
+    hullX  = new int[m_Points.size() + 1];
+    hullY  = new int[m_Points.size() + 1];
+    n      = Geometry.convexHull(xCoordinates(), yCoordinates(), m_Points.size(), hullX, hullY);
+    points = new ArrayList<>(n);
+    for (i = 0; i < n; i++)
+      points.add(new Point(hullX[i], hullY[i]));
+    if (points.equals(m_Points)) {
+      result = this;
+    }
+    else {
+      result = new Polygon(points, false);
+      result.m_ConvexHull = result;
+    }
+    m_ConvexHull = result;
+    return result;
+  }
+
+  /**
+   * Returns the minimum-area (rotated) rectangle enclosing the polygon,
+   * determined with rotating calipers on the convex hull, computed only once.
+   *
+   * @return		the rectangle, null if no points
+   */
+  public RotatedRectangle getMinAreaRectangle() {
+    RotatedRectangle	result;
+    Polygon		hull;
+
+    result = m_MinAreaRectangle;
+    if ((result != null) || m_Points.isEmpty())
+      return result;
+
+    hull   = getConvexHull();
+    result = Geometry.minAreaRectangle(hull.xCoordinates(), hull.yCoordinates(), hull.size());
+    m_MinAreaRectangle = result;
+    return result;
+  }
+
+  /**
+   * Returns the orientation of the polygon, i.e., the angle of the longer
+   * side of the minimum-area rectangle (clockwise from the x axis in image
+   * coordinates).
+   *
+   * @return		the angle in radians, [0, pi), NaN if no points
+   */
+  public double getOrientation() {
+    RotatedRectangle	rect;
+
+    rect = getMinAreaRectangle();
+    if (rect == null)
+      return Double.NaN;
+    return rect.getAngle();
   }
 
   /**
@@ -145,6 +424,17 @@ public class Polygon
     return new Polygon(points);
   }
 
+  /**
+   * Creates a new Polygon without checking the number of points, for
+   * keeping degenerate polygons as they are.
+   *
+   * @param points	the points
+   * @return		the generated instance
+   */
+  public static Polygon newUnchecked(List<Point> points) {
+    return new Polygon(points, false);
+  }
+
   /**
    * Creates a new Polygon from the AWT polygon.
    *
@@ -161,4 +451,30 @@ public class Polygon
 
     return new Polygon(points);
   }
+
+  /**
+   * Replaces the object with a compact proxy during serialization. Subclasses
+   * (or objects containing instances of subclasses) use default serialization
+   * instead, as the proxy would restore them as instances of this class.
+   *
+   * @return		the proxy or the object itself
+   * @see		SerializationProxy#supports(Object)
+   */
+  protected Object writeReplace() {
+    return SerializationProxy.supports(this) ? new SerializationProxy(this) : this;
+  }
+
+  /**
+   * Prevents deserialization without the proxy, unless the object does
+   * not get serialized via the proxy.
+   *
+   * @param stream	the stream to read from
+   * @throws IOException	if reading fails or the proxy is required
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    if (SerializationProxy.supports(this))
+      throw new InvalidObjectException("Serialization proxy required");
+  }
 }
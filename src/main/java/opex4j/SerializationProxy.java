@@ -0,0 +1,592 @@
+/*
+ * SerializationProxy.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j;
+
+import java.awt.Point;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialization proxy for {@link BBox}, {@link Polygon}, {@link ObjectPrediction}
+ * and {@link ObjectPredictions}, replacing the default Java serialization of
+ * the object graphs (lists, maps, AWT points) with a compact binary format:
+ * <ul>
+ *   <li>integers as (zig-zag) variable-length integers</li>
+ *   <li>polygon points as packed, delta-encoded coordinates</li>
+ *   <li>labels and meta-data keys via a string table, i.e., only the
+ *   first occurrence within the serialized object gets written</li>
+ * </ul>
+ * Predictions get restored through their constructors, whereas bboxes and
+ * polygons are restored without validation (see {@link #readBBox} and
+ * {@link #readPolygon}), i.e., the stream is trusted to contain geometry
+ * that was valid when written. Subclasses fall back to default
+ * serialization, see {@link #supports(Object)}.
+ * <br>
+ * NB: streams written with the previous default serialization of these
+ * classes can no longer be read.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+final class SerializationProxy
+  implements Externalizable {
+
+  private static final long serialVersionUID = -2307826134722409512L;
+
+  /** the format version. */
+  protected final static int VERSION = 1;
+
+  /** type: bbox. */
+  protected final static int TYPE_BBOX = 1;
+
+  /** type: polygon. */
+  protected final static int TYPE_POLYGON = 2;
+
+  /** type: object prediction. */
+  protected final static int TYPE_OBJECT = 3;
+
+  /** type: object predictions. */
+  protected final static int TYPE_OBJECTS = 4;
+
+  /** flag: score present. */
+  protected final static int FLAG_SCORE = 1;
+
+  /** flag: bbox present. */
+  protected final static int FLAG_BBOX = 2;
+
+  /** flag: polygon present. */
+  protected final static int FLAG_POLYGON = 4;
+
+  /** flag: timestamp present. */
+  protected final static int FLAG_TIMESTAMP = 8;
+
+  /** the object to serialize or the restored one. */
+  protected Object m_Value;
+
+  /** the string table (while writing). */
+  protected transient Map<String,Integer> m_Table;
+
+  /** the string table (while reading). */
+  protected transient List<String> m_Strings;
+
+  /**
+   * For deserialization only.
+   */
+  public SerializationProxy() {
+  }
+
+  /**
+   * Initializes the proxy.
+   *
+   * @param value	the object to serialize
+   */
+  SerializationProxy(Object value) {
+    m_Value = value;
+  }
+
+  /**
+   * Checks whether the object can be serialized via the proxy, i.e., whether
+   * it and the objects it contains are exactly of the classes handled by the
+   * proxy. Instances of subclasses would get restored as their parent class.
+   *
+   * @param value	the object to check, can be null
+   * @return		true if supported (or null)
+   */
+  static boolean supports(Object value) {
+    Class<?>	cls;
+
+    if (value == null)
+      return true;
+    cls = value.getClass();
+    if ((cls == BBox.class) || (cls == Polygon.class))
+      return true;
+    if (cls == ObjectPrediction.class)
+      return supports(((ObjectPrediction) value).m_BBox) && supports(((ObjectPrediction) value).m_Polygon);
+    if (cls == ObjectPredictions.class) {
+      if (((ObjectPredictions) value).m_Objects != null) {
+	for (ObjectPrediction obj: ((ObjectPredictions) value).m_Objects) {
+	  if (!supports(obj))
+	    return false;
+	}
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Writes an unsigned variable-length integer.
+   *
+   * @param out		the output to write to
+   * @param value	the value
+   * @throws IOException	if writing fails
+   */
+  protected static void writeVarLong(ObjectOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * Writes a signed variable-length integer (zig-zag encoded).
+   *
+   * @param out		the output to write to
+   * @param value	the value
+   * @throws IOException	if writing fails
+   */
+  protected static void writeSigned(ObjectOutput out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Reads an unsigned variable-length integer.
+   *
+   * @param in		the input to read from
+   * @return		the value
+   * @throws IOException	if reading fails
+   */
+  protected static long readVarLong(ObjectInput in) throws IOException {
+    long	result;
+    int		shift;
+    int		b;
+
+    result = 0;
+    shift  = 0;
+    do {
+      if (shift > 63)
+	throw new StreamCorruptedException("Malformed variable-length integer");
+      b       = in.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      shift  += 7;
+    }
+    while ((b & 0x80) != 0);
+    return result;
+  }
+
+  /**
+   * Reads a signed variable-length integer (zig-zag encoded).
+   *
+   * @param in		the input to read from
+   * @return		the value
+   * @throws IOException	if reading fails
+   */
+  protected static long readSigned(ObjectInput in) throws IOException {
+    long	value;
+
+    value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Reads a non-negative int (eg a count).
+   *
+   * @param in		the input to read from
+   * @return		the value
+   * @throws IOException	if reading fails or out of range
+   */
+  protected static int readCount(ObjectInput in) throws IOException {
+    long	result;
+
+    result = readVarLong(in);
+    if (result > Integer.MAX_VALUE)
+      throw new StreamCorruptedException("Invalid count: " + result);
+    return (int) result;
+  }
+
+  /**
+   * Writes the string as length (0 for null, otherwise length + 1) and UTF-8 bytes.
+   *
+   * @param out		the output to write to
+   * @param s		the string, can be null
+   * @throws IOException	if writing fails
+   */
+  protected static void writeLiteral(ObjectOutput out, String s) throws IOException {
+    byte[]	bytes;
+
+    if (s == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    bytes = s.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(out, bytes.length + 1);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeLiteral(ObjectOutput, String)}.
+   *
+   * @param in		the input to read from
+   * @return		the string, can be null
+   * @throws IOException	if reading fails
+   */
+  protected static String readLiteral(ObjectInput in) throws IOException {
+    byte[]	bytes;
+    int		len;
+
+    len = readCount(in);
+    if (len == 0)
+      return null;
+    bytes = new byte[len - 1];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the string via the string table: 0 for null, 1 followed by the
+   * literal for the first occurrence, otherwise index + 2.
+   *
+   * @param out		the output to write to
+   * @param s		the string, can be null
+   * @throws IOException	if writing fails
+   */
+  protected void writeShared(ObjectOutput out, String s) throws IOException {
+    Integer	index;
+
+    if (s == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    index = m_Table.get(s);
+    if (index != null) {
+      writeVarLong(out, index + 2);
+      return;
+    }
+    m_Table.put(s, m_Table.size());
+    writeVarLong(out, 1);
+    writeLiteral(out, s);
+  }
+
+  /**
+   * Reads a string written by {@link #writeShared(ObjectOutput, String)}.
+   *
+   * @param in		the input to read from
+   * @return		the string, can be null
+   * @throws IOException	if reading fails
+   */
+  protected String readShared(ObjectInput in) throws IOException {
+    String	result;
+    int		code;
+
+    code = readCount(in);
+    if (code == 0)
+      return null;
+    if (code == 1) {
+      result = readLiteral(in);
+      m_Strings.add(result);
+      return result;
+    }
+    if (code - 2 >= m_Strings.size())
+      throw new StreamCorruptedException("Invalid string reference: " + (code - 2));
+    return m_Strings.get(code - 2);
+  }
+
+  /**
+   * Writes the meta-data.
+   *
+   * @param out		the output to write to
+   * @param meta	the meta-data
+   * @throws IOException	if writing fails
+   */
+  protected void writeMeta(ObjectOutput out, Map<String,String> meta) throws IOException {
+    writeVarLong(out, meta.size());
+    for (Map.Entry<String,String> entry: meta.entrySet()) {
+      writeShared(out, entry.getKey());
+      writeLiteral(out, entry.getValue());
+    }
+  }
+
+  /**
+   * Reads the meta-data.
+   *
+   * @param in		the input to read from
+   * @return		the meta-data
+   * @throws IOException	if reading fails
+   */
+  protected Map<String,String> readMeta(ObjectInput in) throws IOException {
+    Map<String,String>	result;
+    int			num;
+    int			i;
+
+    num    = readCount(in);
+    result = new HashMap<>();
+    for (i = 0; i < num; i++)
+      result.put(readShared(in), readLiteral(in));
+    return result;
+  }
+
+  /**
+   * Writes the bbox.
+   *
+   * @param out		the output to write to
+   * @param bbox	the bbox
+   * @throws IOException	if writing fails
+   */
+  protected void writeBBox(ObjectOutput out, BBox bbox) throws IOException {
+    writeSigned(out, bbox.getLeft());
+    writeSigned(out, bbox.getTop());
+    writeSigned(out, (long) bbox.getRight() - bbox.getLeft());
+    writeSigned(out, (long) bbox.getBottom() - bbox.getTop());
+  }
+
+  /**
+   * Reads a bbox.
+   *
+   * @param in		the input to read from
+   * @return		the bbox
+   * @throws IOException	if reading fails
+   */
+  protected BBox readBBox(ObjectInput in) throws IOException {
+    int		left;
+    int		top;
+
+    left = (int) readSigned(in);
+    top  = (int) readSigned(in);
+    return new BBox(left, top, (int) (left + readSigned(in)), (int) (top + readSigned(in)), false);
+  }
+
+  /**
+   * Writes the polygon as delta-encoded points.
+   *
+   * @param out		the output to write to
+   * @param polygon	the polygon
+   * @throws IOException	if writing fails
+   */
+  protected void writePolygon(ObjectOutput out, Polygon polygon) throws IOException {
+    long	x;
+    long	y;
+
+    writeVarLong(out, polygon.size());
+    x = 0;
+    y = 0;
+    for (Point p: polygon.getPoints()) {
+      writeSigned(out, p.x - x);
+      writeSigned(out, p.y - y);
+      x = p.x;
+      y = p.y;
+    }
+  }
+
+  /**
+   * Reads a polygon.
+   *
+   * @param in		the input to read from
+   * @return		the polygon
+   * @throws IOException	if reading fails
+   */
+  protected Polygon readPolygon(ObjectInput in) throws IOException {
+    List<Point>	points;
+    int		num;
+    int		x;
+    int		y;
+    int		i;
+
+    num    = readCount(in);
+    points = new ArrayList<>(Math.min(num, 4096));
+    x      = 0;
+    y      = 0;
+    for (i = 0; i < num; i++) {
+      x += (int) readSigned(in);
+      y += (int) readSigned(in);
+      points.add(new Point(x, y));
+    }
+    return new Polygon(points, false);
+  }
+
+  /**
+   * Writes the object.
+   *
+   * @param out		the output to write to
+   * @param obj		the object
+   * @throws IOException	if writing fails
+   */
+  protected void writeObject(ObjectOutput out, ObjectPrediction obj) throws IOException {
+    int		flags;
+
+    flags = 0;
+    if (obj.getScore() != null)
+      flags |= FLAG_SCORE;
+    if (obj.getBBox() != null)
+      flags |= FLAG_BBOX;
+    // rectangles get derived from the bbox again
+    if (!obj.isPolygonDerived() && (obj.getPolygon() != null))
+      flags |= FLAG_POLYGON;
+    out.writeByte(flags);
+    writeShared(out, obj.getLabel());
+    if (obj.getScore() != null)
+      out.writeDouble(obj.getScore());
+    if (obj.getBBox() != null)
+      writeBBox(out, obj.getBBox());
+    if ((flags & FLAG_POLYGON) != 0)
+      writePolygon(out, obj.getPolygon());
+    writeMeta(out, obj.getMeta());
+  }
+
+  /**
+   * Reads an object.
+   *
+   * @param in		the input to read from
+   * @return		the object
+   * @throws IOException	if reading fails
+   */
+  protected ObjectPrediction readObject(ObjectInput in) throws IOException {
+    int		flags;
+    String	label;
+    Double	score;
+    BBox	bbox;
+    Polygon	polygon;
+
+    flags   = in.readUnsignedByte();
+    label   = readShared(in);
+    score   = ((flags & FLAG_SCORE) != 0) ? in.readDouble() : null;
+    bbox    = ((flags & FLAG_BBOX) != 0) ? readBBox(in) : null;
+    polygon = ((flags & FLAG_POLYGON) != 0) ? readPolygon(in) : null;
+    return new ObjectPrediction(label, score, bbox, polygon, readMeta(in));
+  }
+
+  /**
+   * Writes the predictions.
+   *
+   * @param out		the output to write to
+   * @param preds	the predictions
+   * @throws IOException	if writing fails
+   */
+  protected void writeObjects(ObjectOutput out, ObjectPredictions preds) throws IOException {
+    LocalDateTime	timestamp;
+
+    timestamp = preds.getTimestamp();
+    out.writeByte((timestamp != null) ? FLAG_TIMESTAMP : 0);
+    if (timestamp != null) {
+      writeSigned(out, timestamp.toEpochSecond(ZoneOffset.UTC));
+      writeVarLong(out, timestamp.getNano());
+    }
+    writeLiteral(out, preds.getID());
+    writeVarLong(out, preds.getObjects().size());
+    for (ObjectPrediction obj: preds.getObjects())
+      writeObject(out, obj);
+    writeMeta(out, preds.getMeta());
+  }
+
+  /**
+   * Reads predictions.
+   *
+   * @param in		the input to read from
+   * @return		the predictions
+   * @throws IOException	if reading fails
+   */
+  protected ObjectPredictions readObjects(ObjectInput in) throws IOException {
+    int				flags;
+    LocalDateTime		timestamp;
+    String			id;
+    List<ObjectPrediction>	objects;
+    int				num;
+    int				i;
+
+    flags     = in.readUnsignedByte();
+    timestamp = null;
+    if ((flags & FLAG_TIMESTAMP) != 0)
+      timestamp = LocalDateTime.ofEpochSecond(readSigned(in), readCount(in), ZoneOffset.UTC);
+    id      = readLiteral(in);
+    num     = readCount(in);
+    objects = new ArrayList<>(Math.min(num, 4096));
+    for (i = 0; i < num; i++)
+      objects.add(readObject(in));
+    return new ObjectPredictions(timestamp, id, objects, readMeta(in));
+  }
+
+  /**
+   * Writes the proxied object.
+   *
+   * @param out		the output to write to
+   * @throws IOException	if writing fails
+   */
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    m_Table = new HashMap<>();
+    out.writeByte(VERSION);
+    if (m_Value instanceof BBox) {
+      out.writeByte(TYPE_BBOX);
+      writeBBox(out, (BBox) m_Value);
+    }
+    else if (m_Value instanceof Polygon) {
+      out.writeByte(TYPE_POLYGON);
+      writePolygon(out, (Polygon) m_Value);
+    }
+    else if (m_Value instanceof ObjectPrediction) {
+      out.writeByte(TYPE_OBJECT);
+      writeObject(out, (ObjectPrediction) m_Value);
+    }
+    else if (m_Value instanceof ObjectPredictions) {
+      out.writeByte(TYPE_OBJECTS);
+      writeObjects(out, (ObjectPredictions) m_Value);
+    }
+    else {
+      throw new InvalidObjectException("Unsupported class: " + m_Value.getClass().getName());
+    }
+    m_Table = null;
+  }
+
+  /**
+   * Reads the proxied object.
+   *
+   * @param in		the input to read from
+   * @throws IOException	if reading fails
+   */
+  @Override
+  public void readExternal(ObjectInput in) throws IOException {
+    int		version;
+    int		type;
+
+    version = in.readUnsignedByte();
+    if (version != VERSION)
+      throw new InvalidObjectException("Unsupported format version: " + version);
+    m_Strings = new ArrayList<>();
+    type      = in.readUnsignedByte();
+    try {
+      switch (type) {
+	case TYPE_BBOX:
+	  m_Value = readBBox(in);
+	  break;
+	case TYPE_POLYGON:
+	  m_Value = readPolygon(in);
+	  break;
+	case TYPE_OBJECT:
+	  m_Value = readObject(in);
+	  break;
+	case TYPE_OBJECTS:
+	  m_Value = readObjects(in);
+	  break;
+	default:
+	  throw new InvalidObjectException("Unsupported type: " + type);
+      }
+    }
+    catch (IllegalArgumentException | DateTimeException e) {
+      throw new InvalidObjectException("Invalid content: " + e.getMessage());
+    }
+    m_Strings = null;
+  }
+
+  /**
+   * Returns the restored object.
+   *
+   * @return		the object
+   */
+  protected Object readResolve() {
+    return m_Value;
+  }
+}
@@ -0,0 +1,567 @@
+/*
+ * PredictionsArena.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.arena;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+
+import java.awt.Point;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stores {@link ObjectPredictions} in a compact binary layout in large
+ * (by default direct, i.e., off-heap) {@link ByteBuffer} segments. Apart
+ * from the segments and a table of labels/meta-data keys, no objects get
+ * kept on the heap, which keeps large caches out of the way of the garbage
+ * collector.
+ * <br>
+ * Adding predictions returns a handle, which can be read via the
+ * {@link PredictionsView} flyweight or turned back into
+ * {@link ObjectPredictions}. Memory is released in bulk, either completely
+ * ({@link #clear()}) or segment-wise for all records older than a handle
+ * ({@link #releaseBefore(long)}), e.g., for a sliding window of recent
+ * predictions. Handles of released records are detected when accessed.
+ * <br>
+ * Layout of a record (big endian):
+ * <pre>
+ * int    record length
+ * byte   has timestamp
+ * long   epoch seconds (UTC)
+ * int    nanos
+ * int    number of objects
+ * int    offset of meta-data (relative to record)
+ * int    length of ID, followed by the UTF-8 bytes
+ * int[]  offsets of objects (relative to record)
+ * ...    objects
+ * ...    meta-data
+ * </pre>
+ * Layout of an object:
+ * <pre>
+ * byte   flags (1: score, 2: bbox, 4: polygon)
+ * int    label (index in string table, -1 if null)
+ * double score
+ * int    left, top, right, bottom
+ * int    number of points
+ * int    offset of meta-data (relative to object)
+ * int[]  x/y pairs
+ * ...    meta-data
+ * </pre>
+ * Meta-data consists of the number of entries, followed by the key (index
+ * in the string table) and the length (-1 for null) plus UTF-8 bytes of the
+ * value per entry.
+ * <br>
+ * Adding is synchronized, reading can be done concurrently (using one view
+ * per thread).
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PredictionsArena {
+
+  /** the default segment size (16MB). */
+  public final static int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  /** the size of the record header (excluding the ID bytes). */
+  protected final static int RECORD_HEADER = 29;
+
+  /** the size of the object header (excluding the points). */
+  protected final static int OBJECT_HEADER = 37;
+
+  /** flag for score. */
+  protected final static int FLAG_SCORE = 1;
+
+  /** flag for bbox. */
+  protected final static int FLAG_BBOX = 2;
+
+  /** flag for polygon. */
+  protected final static int FLAG_POLYGON = 4;
+
+  /** the segment size. */
+  protected int m_SegmentSize;
+
+  /** whether to use direct buffers. */
+  protected boolean m_Direct;
+
+  /** the segments (null if released), republished after each change. */
+  protected volatile ByteBuffer[] m_Segments;
+
+  /** the number of used bytes per segment. */
+  protected int[] m_Used;
+
+  /** the number of records per segment. */
+  protected int[] m_Records;
+
+  /** the number of segments. */
+  protected int m_NumSegments;
+
+  /** the index of the first segment that hasn't been released. */
+  protected int m_First;
+
+  /** the buffer for writing into the current segment. */
+  protected ByteBuffer m_Writer;
+
+  /** the string table, republished after each change. */
+  protected volatile String[] m_Strings;
+
+  /** the number of strings in the table. */
+  protected int m_NumStrings;
+
+  /** the lookup for the string table. */
+  protected Map<String,Integer> m_StringIndex;
+
+  /** for serializing a record before copying it into a segment. */
+  protected ByteBuffer m_Scratch;
+
+  /** the number of live records. */
+  protected volatile long m_Size;
+
+  /**
+   * Initializes the arena with direct buffers of the default size.
+   */
+  public PredictionsArena() {
+    this(DEFAULT_SEGMENT_SIZE, true);
+  }
+
+  /**
+   * Initializes the arena.
+   *
+   * @param segmentSize	the size of the segments in bytes
+   * @param direct	whether to use direct (off-heap) buffers
+   */
+  public PredictionsArena(int segmentSize, boolean direct) {
+    if (segmentSize < 1024)
+      throw new IllegalArgumentException("Segment size must be at least 1024, provided: " + segmentSize);
+    m_SegmentSize = segmentSize;
+    m_Direct      = direct;
+    m_Segments    = new ByteBuffer[8];
+    m_Used        = new int[8];
+    m_Records     = new int[8];
+    m_Strings     = new String[64];
+    m_StringIndex = new HashMap<>();
+    m_Scratch     = ByteBuffer.allocate(4096);
+  }
+
+  /**
+   * Returns the segment size.
+   *
+   * @return		the size in bytes
+   */
+  public int getSegmentSize() {
+    return m_SegmentSize;
+  }
+
+  /**
+   * Returns whether direct buffers are used.
+   *
+   * @return		true if direct
+   */
+  public boolean isDirect() {
+    return m_Direct;
+  }
+
+  /**
+   * Returns the index of the string in the table, adds it if necessary.
+   *
+   * @param s		the string
+   * @return		the index, -1 for null
+   */
+  protected int intern(String s) {
+    Integer	result;
+    String[]	strings;
+
+    if (s == null)
+      return -1;
+    result = m_StringIndex.get(s);
+    if (result == null) {
+      strings = m_Strings;
+      if (m_NumStrings == strings.length)
+	strings = Arrays.copyOf(strings, strings.length * 2);
+      strings[m_NumStrings] = s;
+      result = m_NumStrings++;
+      m_StringIndex.put(s, result);
+      m_Strings = strings;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the string from the table.
+   *
+   * @param index	the index
+   * @return		the string, null if index is -1
+   */
+  protected String string(int index) {
+    if (index == -1)
+      return null;
+    return m_Strings[index];
+  }
+
+  /**
+   * Ensures that the scratch buffer can hold the specified number of additional bytes.
+   *
+   * @param len		the number of bytes
+   */
+  protected void ensure(int len) {
+    ByteBuffer	scratch;
+
+    if (m_Scratch.remaining() >= len)
+      return;
+    scratch = ByteBuffer.allocate(Math.max(m_Scratch.capacity() * 2, m_Scratch.position() + len));
+    m_Scratch.flip();
+    scratch.put(m_Scratch);
+    m_Scratch = scratch;
+  }
+
+  /**
+   * Writes the string as length and UTF-8 bytes.
+   *
+   * @param s		the string, can be null
+   */
+  protected void writeString(String s) {
+    byte[]	bytes;
+
+    if (s == null) {
+      ensure(4);
+      m_Scratch.putInt(-1);
+      return;
+    }
+    bytes = s.getBytes(StandardCharsets.UTF_8);
+    ensure(4 + bytes.length);
+    m_Scratch.putInt(bytes.length);
+    m_Scratch.put(bytes);
+  }
+
+  /**
+   * Writes the meta-data.
+   *
+   * @param meta	the meta-data
+   */
+  protected void writeMeta(Map<String,String> meta) {
+    ensure(4);
+    m_Scratch.putInt(meta.size());
+    for (Map.Entry<String,String> entry: meta.entrySet()) {
+      ensure(4);
+      m_Scratch.putInt(intern(entry.getKey()));
+      writeString(entry.getValue());
+    }
+  }
+
+  /**
+   * Serializes the predictions into the scratch buffer.
+   *
+   * @param preds	the predictions to serialize
+   */
+  protected void serialize(ObjectPredictions preds) {
+    List<ObjectPrediction>	objects;
+    ObjectPrediction		obj;
+    List<Point>			points;
+    int				table;
+    int				start;
+    int				flags;
+    int				i;
+
+    objects = preds.getObjects();
+    m_Scratch.clear();
+    ensure(RECORD_HEADER);
+    m_Scratch.putInt(0);
+    if (preds.getTimestamp() != null) {
+      m_Scratch.put((byte) 1);
+      m_Scratch.putLong(preds.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+      m_Scratch.putInt(preds.getTimestamp().getNano());
+    }
+    else {
+      m_Scratch.put((byte) 0);
+      m_Scratch.putLong(0);
+      m_Scratch.putInt(0);
+    }
+    m_Scratch.putInt(objects.size());
+    m_Scratch.putInt(0);
+    writeString(preds.getID());
+
+    table = m_Scratch.position();
+    ensure(objects.size() * 4);
+    m_Scratch.position(table + objects.size() * 4);
+    for (i = 0; i < objects.size(); i++) {
+      obj   = objects.get(i);
+      start = m_Scratch.position();
+      m_Scratch.putInt(table + i * 4, start);
+      flags = 0;
+      if (obj.getScore() != null)
+	flags |= FLAG_SCORE;
+      if (obj.getBBox() != null)
+	flags |= FLAG_BBOX;
+      if (obj.getPolygon() != null)
+	flags |= FLAG_POLYGON;
+      points = (obj.getPolygon() != null) ? obj.getPolygon().getPoints() : null;
+      ensure(OBJECT_HEADER + ((points != null) ? points.size() * 8 : 0));
+      m_Scratch.put((byte) flags);
+      m_Scratch.putInt(intern(obj.getLabel()));
+      m_Scratch.putDouble((obj.getScore() != null) ? obj.getScore() : Double.NaN);
+      if (obj.getBBox() != null) {
+	m_Scratch.putInt(obj.getBBox().getLeft());
+	m_Scratch.putInt(obj.getBBox().getTop());
+	m_Scratch.putInt(obj.getBBox().getRight());
+	m_Scratch.putInt(obj.getBBox().getBottom());
+      }
+      else {
+	m_Scratch.putLong(0);
+	m_Scratch.putLong(0);
+      }
+      m_Scratch.putInt((points != null) ? points.size() : 0);
+      m_Scratch.putInt(0);
+      if (points != null) {
+	for (Point p: points) {
+	  m_Scratch.putInt(p.x);
+	  m_Scratch.putInt(p.y);
+	}
+      }
+      m_Scratch.putInt(start + OBJECT_HEADER - 4, m_Scratch.position() - start);
+      writeMeta(obj.getMeta());
+    }
+
+    m_Scratch.putInt(RECORD_HEADER - 8, m_Scratch.position());
+    writeMeta(preds.getMeta());
+    m_Scratch.putInt(0, m_Scratch.position());
+    m_Scratch.flip();
+  }
+
+  /**
+   * Adds a new segment, which becomes the current one.
+   *
+   * @param minSize	the minimum size of the segment
+   */
+  protected void addSegment(int minSize) {
+    ByteBuffer[]	segments;
+    ByteBuffer		segment;
+    int			size;
+
+    size     = Math.max(m_SegmentSize, minSize);
+    segment  = m_Direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    segments = m_Segments;
+    if (m_NumSegments == segments.length) {
+      segments  = Arrays.copyOf(segments, segments.length * 2);
+      m_Used    = Arrays.copyOf(m_Used, segments.length);
+      m_Records = Arrays.copyOf(m_Records, segments.length);
+    }
+    segments[m_NumSegments] = segment;
+    m_NumSegments++;
+    m_Writer   = segment.duplicate();
+    m_Segments = segments;
+  }
+
+  /**
+   * Stores the predictions.
+   *
+   * @param preds	the predictions to store
+   * @return		the handle for accessing the record
+   */
+  public synchronized long add(ObjectPredictions preds) {
+    int		len;
+    int		seg;
+    int		offset;
+
+    serialize(preds);
+    len = m_Scratch.remaining();
+    if ((m_Writer == null) || (m_Writer.remaining() < len))
+      addSegment(len);
+    seg    = m_NumSegments - 1;
+    offset = m_Writer.position();
+    m_Writer.put(m_Scratch);
+    m_Used[seg]    = m_Writer.position();
+    m_Records[seg]++;
+    m_Size++;
+    // publishes the record to readers
+    m_Segments = m_Segments;
+    return ((long) seg << 32) | offset;
+  }
+
+  /**
+   * Returns the segment of the handle.
+   *
+   * @param handle	the handle
+   * @return		the segment
+   * @throws IllegalStateException	if the segment has been released
+   */
+  protected ByteBuffer segment(long handle) {
+    ByteBuffer[]	segments;
+    int			seg;
+
+    segments = m_Segments;
+    seg      = (int) (handle >>> 32);
+    if ((seg < 0) || (seg >= segments.length) || (segments[seg] == null))
+      throw new IllegalStateException("Invalid or released handle: " + handle);
+    return segments[seg];
+  }
+
+  /**
+   * Returns a new view positioned at the record.
+   *
+   * @param handle	the handle of the record
+   * @return		the view
+   */
+  public PredictionsView view(long handle) {
+    return new PredictionsView(this).moveTo(handle);
+  }
+
+  /**
+   * Turns the record back into predictions.
+   *
+   * @param handle	the handle of the record
+   * @return		the predictions
+   */
+  public ObjectPredictions get(long handle) {
+    return view(handle).toPredictions();
+  }
+
+  /**
+   * Returns whether the handle points to a record that hasn't been released.
+   *
+   * @param handle	the handle to check
+   * @return		true if still available
+   */
+  public boolean isValid(long handle) {
+    ByteBuffer[]	segments;
+    int			seg;
+
+    segments = m_Segments;
+    seg      = (int) (handle >>> 32);
+    return (seg >= 0) && (seg < segments.length) && (segments[seg] != null);
+  }
+
+  /**
+   * Iterates over all the live records in the order they were added, using
+   * the same view instance for all of them.
+   *
+   * @param action	the action to apply
+   */
+  public void forEach(Consumer<PredictionsView> action) {
+    PredictionsView	view;
+    ByteBuffer[]	segments;
+    int[]		used;
+    int			first;
+    int			num;
+    int			seg;
+    int			offset;
+
+    synchronized (this) {
+      segments = m_Segments.clone();
+      used     = m_Used.clone();
+      first    = m_First;
+      num      = m_NumSegments;
+    }
+    view = new PredictionsView(this);
+    for (seg = first; seg < num; seg++) {
+      if (segments[seg] == null)
+	continue;
+      offset = 0;
+      while (offset < used[seg]) {
+	view.moveTo(segments[seg], ((long) seg << 32) | offset, offset);
+	action.accept(view);
+	offset += segments[seg].getInt(offset);
+      }
+    }
+  }
+
+  /**
+   * Releases all segments that only contain records older than the one the
+   * handle points to. Depending on the segment size, some older records may
+   * remain available.
+   *
+   * @param handle	the handle of the oldest record to keep
+   * @return		the number of records that were released
+   */
+  public synchronized long releaseBefore(long handle) {
+    ByteBuffer[]	segments;
+    long		result;
+    int			seg;
+
+    result   = 0;
+    segments = m_Segments;
+    seg      = (int) Math.min(handle >>> 32, m_NumSegments - 1);
+    for (; m_First < seg; m_First++) {
+      if (segments[m_First] == null)
+	continue;
+      result += m_Records[m_First];
+      segments[m_First] = null;
+    }
+    m_Size    -= result;
+    m_Segments = segments;
+    return result;
+  }
+
+  /**
+   * Releases all the records. The string table is kept, as views that were
+   * positioned before clearing still resolve their labels/keys via it.
+   */
+  public synchronized void clear() {
+    ByteBuffer[]	segments;
+
+    segments = m_Segments;
+    for (; m_First < m_NumSegments; m_First++)
+      segments[m_First] = null;
+    m_Writer   = null;
+    m_Size     = 0;
+    m_Segments = segments;
+  }
+
+  /**
+   * Returns the number of live records.
+   *
+   * @return		the number of records
+   */
+  public long size() {
+    return m_Size;
+  }
+
+  /**
+   * Returns the number of bytes allocated by the live segments.
+   *
+   * @return		the number of bytes
+   */
+  public synchronized long getAllocatedBytes() {
+    long	result;
+    int		i;
+
+    result = 0;
+    for (i = m_First; i < m_NumSegments; i++) {
+      if (m_Segments[i] != null)
+	result += m_Segments[i].capacity();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of bytes occupied by the live records.
+   *
+   * @return		the number of bytes
+   */
+  public synchronized long getUsedBytes() {
+    long	result;
+    int		i;
+
+    result = 0;
+    for (i = m_First; i < m_NumSegments; i++) {
+      if (m_Segments[i] != null)
+	result += m_Used[i];
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of strings (labels and meta-data keys) in the table.
+   *
+   * @return		the number of strings
+   */
+  public synchronized int getStringCount() {
+    return m_NumStrings;
+  }
+}
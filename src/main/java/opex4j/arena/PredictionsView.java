@@ -0,0 +1,587 @@
+/*
+ * PredictionsView.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.arena;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+
+import java.awt.Point;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flyweight for reading a record of a {@link PredictionsArena} in place.
+ * Numeric values, labels and meta-data keys are returned without allocating
+ * any objects; the ID and meta-data values get decoded on demand.
+ * <br>
+ * Objects are accessed by their index, meta-data entries either by index or
+ * by key (linear scan). A view can be repositioned via {@link #moveTo(long)}.
+ * Not thread-safe, use one view per thread.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PredictionsView {
+
+  /** the arena. */
+  protected PredictionsArena m_Arena;
+
+  /** the current segment. */
+  protected ByteBuffer m_Buffer;
+
+  /** the handle of the current record. */
+  protected long m_Handle;
+
+  /** the start of the current record. */
+  protected int m_Offset;
+
+  /** for decoding strings. */
+  protected byte[] m_Bytes;
+
+  /**
+   * Initializes the view (not positioned).
+   *
+   * @param arena	the arena to read from
+   */
+  public PredictionsView(PredictionsArena arena) {
+    m_Arena  = arena;
+    m_Handle = -1;
+    m_Bytes  = new byte[64];
+  }
+
+  /**
+   * Positions the view on the record.
+   *
+   * @param handle	the handle of the record
+   * @return		itself
+   * @throws IllegalStateException	if the record has been released
+   */
+  public PredictionsView moveTo(long handle) {
+    return moveTo(m_Arena.segment(handle), handle, (int) handle);
+  }
+
+  /**
+   * Positions the view on the record.
+   *
+   * @param buffer	the segment
+   * @param handle	the handle of the record
+   * @param offset	the offset of the record in the segment
+   * @return		itself
+   */
+  protected PredictionsView moveTo(ByteBuffer buffer, long handle, int offset) {
+    m_Buffer = buffer;
+    m_Handle = handle;
+    m_Offset = offset;
+    return this;
+  }
+
+  /**
+   * Returns the handle of the current record.
+   *
+   * @return		the handle, -1 if not positioned
+   */
+  public long getHandle() {
+    return m_Handle;
+  }
+
+  /**
+   * Returns the size of the current record.
+   *
+   * @return		the size in bytes
+   */
+  public int getRecordSize() {
+    return m_Buffer.getInt(m_Offset);
+  }
+
+  /**
+   * Decodes the UTF-8 string stored at the position (length + bytes).
+   *
+   * @param pos		the absolute position
+   * @return		the string, null if stored as such
+   */
+  protected String decode(int pos) {
+    int		len;
+    int		i;
+
+    len = m_Buffer.getInt(pos);
+    if (len == -1)
+      return null;
+    if (m_Bytes.length < len)
+      m_Bytes = new byte[Math.max(len, m_Bytes.length * 2)];
+    pos += 4;
+    for (i = 0; i < len; i++)
+      m_Bytes[i] = m_Buffer.get(pos + i);
+    return new String(m_Bytes, 0, len, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Checks whether the UTF-8 string stored at the position equals the
+   * sequence, without allocating for ASCII sequences.
+   *
+   * @param pos		the absolute position
+   * @param s		the sequence to compare with
+   * @return		true if equal
+   */
+  protected boolean matches(int pos, CharSequence s) {
+    int		len;
+    int		i;
+    char	c;
+
+    len = m_Buffer.getInt(pos);
+    if (len == -1)
+      return (s == null);
+    if (s == null)
+      return false;
+    for (i = 0; i < s.length(); i++) {
+      if (s.charAt(i) >= 0x80)
+	return s.toString().equals(decode(pos));
+    }
+    if (len != s.length())
+      return false;
+    pos += 4;
+    for (i = 0; i < len; i++) {
+      c = s.charAt(i);
+      if (m_Buffer.get(pos + i) != (byte) c)
+	return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether a timestamp is present.
+   *
+   * @return		true if available
+   */
+  public boolean hasTimestamp() {
+    return m_Buffer.get(m_Offset + 4) != 0;
+  }
+
+  /**
+   * Returns the seconds of the timestamp since the epoch (UTC).
+   *
+   * @return		the seconds, 0 if no timestamp
+   */
+  public long getEpochSecond() {
+    return m_Buffer.getLong(m_Offset + 5);
+  }
+
+  /**
+   * Returns the nano-seconds part of the timestamp.
+   *
+   * @return		the nano-seconds, 0 if no timestamp
+   */
+  public int getNano() {
+    return m_Buffer.getInt(m_Offset + 13);
+  }
+
+  /**
+   * Returns the timestamp.
+   *
+   * @return		the timestamp, null if none available
+   */
+  public LocalDateTime getTimestamp() {
+    if (!hasTimestamp())
+      return null;
+    return LocalDateTime.ofEpochSecond(getEpochSecond(), getNano(), ZoneOffset.UTC);
+  }
+
+  /**
+   * Returns the ID.
+   *
+   * @return		the ID
+   */
+  public String getID() {
+    return decode(m_Offset + PredictionsArena.RECORD_HEADER - 4);
+  }
+
+  /**
+   * Checks whether the ID matches the sequence.
+   *
+   * @param id		the ID to compare with
+   * @return		true if a match
+   */
+  public boolean matchesID(CharSequence id) {
+    return matches(m_Offset + PredictionsArena.RECORD_HEADER - 4, id);
+  }
+
+  /**
+   * Returns the number of objects.
+   *
+   * @return		the number of objects
+   */
+  public int getObjectCount() {
+    return m_Buffer.getInt(m_Offset + 17);
+  }
+
+  /**
+   * Returns the absolute position of the object.
+   *
+   * @param index	the index of the object
+   * @return		the position
+   */
+  protected int object(int index) {
+    int		table;
+
+    if ((index < 0) || (index >= getObjectCount()))
+      throw new IndexOutOfBoundsException("Invalid object index: " + index);
+    table = m_Offset + PredictionsArena.RECORD_HEADER + m_Buffer.getInt(m_Offset + PredictionsArena.RECORD_HEADER - 4);
+    return m_Offset + m_Buffer.getInt(table + index * 4);
+  }
+
+  /**
+   * Returns the label of the object.
+   *
+   * @param index	the index of the object
+   * @return		the label
+   */
+  public String getLabel(int index) {
+    return m_Arena.string(m_Buffer.getInt(object(index) + 1));
+  }
+
+  /**
+   * Returns whether the object has a score.
+   *
+   * @param index	the index of the object
+   * @return		true if available
+   */
+  public boolean hasScore(int index) {
+    return (m_Buffer.get(object(index)) & PredictionsArena.FLAG_SCORE) != 0;
+  }
+
+  /**
+   * Returns the score of the object.
+   *
+   * @param index	the index of the object
+   * @return		the score, NaN if not available
+   */
+  public double getScore(int index) {
+    return m_Buffer.getDouble(object(index) + 5);
+  }
+
+  /**
+   * Returns whether the object has a bbox.
+   *
+   * @param index	the index of the object
+   * @return		true if available
+   */
+  public boolean hasBBox(int index) {
+    return (m_Buffer.get(object(index)) & PredictionsArena.FLAG_BBOX) != 0;
+  }
+
+  /**
+   * Returns the left coordinate of the bbox.
+   *
+   * @param index	the index of the object
+   * @return		the coordinate
+   */
+  public int getLeft(int index) {
+    return m_Buffer.getInt(object(index) + 13);
+  }
+
+  /**
+   * Returns the top coordinate of the bbox.
+   *
+   * @param index	the index of the object
+   * @return		the coordinate
+   */
+  public int getTop(int index) {
+    return m_Buffer.getInt(object(index) + 17);
+  }
+
+  /**
+   * Returns the right coordinate of the bbox.
+   *
+   * @param index	the index of the object
+   * @return		the coordinate
+   */
+  public int getRight(int index) {
+    return m_Buffer.getInt(object(index) + 21);
+  }
+
+  /**
+   * Returns the bottom coordinate of the bbox.
+   *
+   * @param index	the index of the object
+   * @return		the coordinate
+   */
+  public int getBottom(int index) {
+    return m_Buffer.getInt(object(index) + 25);
+  }
+
+  /**
+   * Returns whether the object has a polygon.
+   *
+   * @param index	the index of the object
+   * @return		true if available
+   */
+  public boolean hasPolygon(int index) {
+    return (m_Buffer.get(object(index)) & PredictionsArena.FLAG_POLYGON) != 0;
+  }
+
+  /**
+   * Returns the number of polygon points of the object.
+   *
+   * @param index	the index of the object
+   * @return		the number of points
+   */
+  public int getPointCount(int index) {
+    return m_Buffer.getInt(object(index) + 29);
+  }
+
+  /**
+   * Returns the x coordinate of a polygon point.
+   *
+   * @param index	the index of the object
+   * @param point	the index of the point
+   * @return		the coordinate
+   */
+  public int getX(int index, int point) {
+    return m_Buffer.getInt(object(index) + PredictionsArena.OBJECT_HEADER + point * 8);
+  }
+
+  /**
+   * Returns the y coordinate of a polygon point.
+   *
+   * @param index	the index of the object
+   * @param point	the index of the point
+   * @return		the coordinate
+   */
+  public int getY(int index, int point) {
+    return m_Buffer.getInt(object(index) + PredictionsArena.OBJECT_HEADER + point * 8 + 4);
+  }
+
+  /**
+   * Returns the absolute position of the record's meta-data.
+   *
+   * @return		the position
+   */
+  protected int meta() {
+    return m_Offset + m_Buffer.getInt(m_Offset + 21);
+  }
+
+  /**
+   * Returns the absolute position of the object's meta-data.
+   *
+   * @param index	the index of the object
+   * @return		the position
+   */
+  protected int meta(int index) {
+    int		pos;
+
+    pos = object(index);
+    return pos + m_Buffer.getInt(pos + 33);
+  }
+
+  /**
+   * Returns the absolute position of the meta-data entry.
+   *
+   * @param meta	the position of the meta-data
+   * @param entry	the index of the entry
+   * @return		the position of the entry
+   */
+  protected int entry(int meta, int entry) {
+    int		pos;
+    int		len;
+    int		i;
+
+    if ((entry < 0) || (entry >= m_Buffer.getInt(meta)))
+      throw new IndexOutOfBoundsException("Invalid meta-data index: " + entry);
+    pos = meta + 4;
+    for (i = 0; i < entry; i++) {
+      len  = m_Buffer.getInt(pos + 4);
+      pos += 8 + Math.max(0, len);
+    }
+    return pos;
+  }
+
+  /**
+   * Returns the value for the key.
+   *
+   * @param meta	the position of the meta-data
+   * @param key		the key to look for
+   * @return		the value, null if not found
+   */
+  protected String lookup(int meta, String key) {
+    String[]	strings;
+    int		num;
+    int		pos;
+    int		i;
+    int		k;
+
+    num     = m_Buffer.getInt(meta);
+    pos     = meta + 4;
+    strings = m_Arena.m_Strings;
+    for (i = 0; i < num; i++) {
+      k = m_Buffer.getInt(pos);
+      if ((k != -1) && strings[k].equals(key))
+	return decode(pos + 4);
+      pos += 8 + Math.max(0, m_Buffer.getInt(pos + 4));
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of meta-data entries of the record.
+   *
+   * @return		the number of entries
+   */
+  public int getMetaCount() {
+    return m_Buffer.getInt(meta());
+  }
+
+  /**
+   * Returns the key of the record's meta-data entry.
+   *
+   * @param entry	the index of the entry
+   * @return		the key
+   */
+  public String getMetaKey(int entry) {
+    return m_Arena.string(m_Buffer.getInt(entry(meta(), entry)));
+  }
+
+  /**
+   * Returns the value of the record's meta-data entry.
+   *
+   * @param entry	the index of the entry
+   * @return		the value
+   */
+  public String getMetaValue(int entry) {
+    return decode(entry(meta(), entry) + 4);
+  }
+
+  /**
+   * Returns the value of the record's meta-data.
+   *
+   * @param key		the key to look for
+   * @return		the value, null if not present
+   */
+  public String getMeta(String key) {
+    return lookup(meta(), key);
+  }
+
+  /**
+   * Returns the number of meta-data entries of the object.
+   *
+   * @param index	the index of the object
+   * @return		the number of entries
+   */
+  public int getMetaCount(int index) {
+    return m_Buffer.getInt(meta(index));
+  }
+
+  /**
+   * Returns the key of the object's meta-data entry.
+   *
+   * @param index	the index of the object
+   * @param entry	the index of the entry
+   * @return		the key
+   */
+  public String getMetaKey(int index, int entry) {
+    return m_Arena.string(m_Buffer.getInt(entry(meta(index), entry)));
+  }
+
+  /**
+   * Returns the value of the object's meta-data entry.
+   *
+   * @param index	the index of the object
+   * @param entry	the index of the entry
+   * @return		the value
+   */
+  public String getMetaValue(int index, int entry) {
+    return decode(entry(meta(index), entry) + 4);
+  }
+
+  /**
+   * Returns the value of the object's meta-data.
+   *
+   * @param index	the index of the object
+   * @param key		the key to look for
+   * @return		the value, null if not present
+   */
+  public String getMeta(int index, String key) {
+    return lookup(meta(index), key);
+  }
+
+  /**
+   * Decodes the meta-data.
+   *
+   * @param meta	the position of the meta-data
+   * @return		the meta-data
+   */
+  protected Map<String,String> toMap(int meta) {
+    Map<String,String>	result;
+    int			num;
+    int			pos;
+    int			i;
+
+    num    = m_Buffer.getInt(meta);
+    result = new HashMap<>();
+    pos    = meta + 4;
+    for (i = 0; i < num; i++) {
+      result.put(m_Arena.string(m_Buffer.getInt(pos)), decode(pos + 4));
+      pos += 8 + Math.max(0, m_Buffer.getInt(pos + 4));
+    }
+    return result;
+  }
+
+  /**
+   * Turns the object into a heap-based one. Like deserialization, the
+   * geometry does not get validated again, i.e., degenerate boxes/polygons
+   * that were stored come back as they are.
+   *
+   * @param index	the index of the object
+   * @return		the object
+   */
+  public ObjectPrediction toObject(int index) {
+    BBox	bbox;
+    Polygon	polygon;
+    List<Point>	points;
+    int		num;
+    int		i;
+
+    bbox = null;
+    if (hasBBox(index))
+      bbox = BBox.newUnchecked(getLeft(index), getTop(index), getRight(index), getBottom(index));
+    polygon = null;
+    if (hasPolygon(index)) {
+      num    = getPointCount(index);
+      points = new ArrayList<>(num);
+      for (i = 0; i < num; i++)
+	points.add(new Point(getX(index, i), getY(index, i)));
+      polygon = Polygon.newUnchecked(points);
+    }
+    return new ObjectPrediction(
+      getLabel(index),
+      hasScore(index) ? getScore(index) : null,
+      bbox,
+      polygon,
+      toMap(meta(index)));
+  }
+
+  /**
+   * Turns the record into heap-based predictions.
+   *
+   * @return		the predictions
+   */
+  public ObjectPredictions toPredictions() {
+    List<ObjectPrediction>	objects;
+    int				num;
+    int				i;
+
+    num     = getObjectCount();
+    objects = new ArrayList<>(num);
+    for (i = 0; i < num; i++)
+      objects.add(toObject(i));
+    return new ObjectPredictions(getTimestamp(), getID(), objects, toMap(meta()));
+  }
+}
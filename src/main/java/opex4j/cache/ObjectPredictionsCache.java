@@ -0,0 +1,452 @@
+/*
+ * ObjectPredictionsCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.cache;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weight-bounded LRU cache for {@link ObjectPredictions} loaded from files.
+ * <br>
+ * Entries are keyed by the absolute path of the file and get invalidated
+ * automatically when the modification time or the size of the file changes.
+ * Concurrent requests for the same file version only trigger a single load.
+ * <br>
+ * NB: cached instances are shared between callers and must not be modified.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ObjectPredictionsCache {
+
+  /**
+   * Interface for loading predictions from a file.
+   */
+  public interface Loader {
+
+    /**
+     * Loads the predictions from the file.
+     *
+     * @param file	the file to load
+     * @return		the predictions
+     * @throws Exception	if loading fails
+     */
+    public ObjectPredictions load(File file) throws Exception;
+  }
+
+  /**
+   * Interface for determining the weight of predictions.
+   */
+  public interface Weigher {
+
+    /**
+     * Returns the weight of the predictions.
+     *
+     * @param preds	the predictions to weigh
+     * @return		the weight, must be at least 1
+     */
+    public long weigh(ObjectPredictions preds);
+  }
+
+  /**
+   * Container for a cached file.
+   */
+  protected static class Entry {
+
+    /** the predictions. */
+    public final ObjectPredictions predictions;
+
+    /** the modification timestamp of the file. */
+    public final long lastModified;
+
+    /** the size of the file. */
+    public final long length;
+
+    /** the weight of the predictions. */
+    public final long weight;
+
+    /**
+     * Initializes the entry.
+     *
+     * @param predictions	the predictions
+     * @param lastModified	the modification timestamp of the file
+     * @param length		the size of the file
+     * @param weight		the weight of the predictions
+     */
+    public Entry(ObjectPredictions predictions, long lastModified, long length, long weight) {
+      this.predictions  = predictions;
+      this.lastModified = lastModified;
+      this.length       = length;
+      this.weight       = weight;
+    }
+
+    /**
+     * Checks whether the entry is still current.
+     *
+     * @param lastModified	the current modification timestamp of the file
+     * @param length		the current size of the file
+     * @return			true if still current
+     */
+    public boolean isCurrent(long lastModified, long length) {
+      return (this.lastModified == lastModified) && (this.length == length);
+    }
+  }
+
+  /** the default loader. */
+  public final static Loader DEFAULT_LOADER = ObjectPredictions::newInstance;
+
+  /** the default weigher: 1 + number of objects + number of polygon vertices. */
+  public final static Weigher DEFAULT_WEIGHER = (ObjectPredictions preds) -> {
+    long result = 1 + preds.getObjects().size();
+    for (ObjectPrediction obj: preds.getObjects()) {
+      if (obj.getPolygon() != null)
+	result += obj.getPolygon().size();
+    }
+    return result;
+  };
+
+  /** the maximum total weight. */
+  protected long m_MaxWeight;
+
+  /** the loader to use. */
+  protected Loader m_Loader;
+
+  /** the weigher to use. */
+  protected Weigher m_Weigher;
+
+  /** the cached entries (access order). */
+  protected LinkedHashMap<String,Entry> m_Entries;
+
+  /** the current total weight. */
+  protected long m_Weight;
+
+  /** the loads currently in progress (path + modified + length). */
+  protected ConcurrentHashMap<String,CompletableFuture<ObjectPredictions>> m_Loading;
+
+  /** the number of hits. */
+  protected AtomicLong m_Hits;
+
+  /** the number of misses. */
+  protected AtomicLong m_Misses;
+
+  /** the number of loads. */
+  protected AtomicLong m_Loads;
+
+  /** the number of evictions. */
+  protected AtomicLong m_Evictions;
+
+  /** the number of invalidations due to changed files. */
+  protected AtomicLong m_Invalidations;
+
+  /**
+   * Initializes the cache with the default loader and weigher.
+   *
+   * @param maxWeight	the maximum total weight of the cached predictions
+   */
+  public ObjectPredictionsCache(long maxWeight) {
+    this(maxWeight, DEFAULT_LOADER, DEFAULT_WEIGHER);
+  }
+
+  /**
+   * Initializes the cache.
+   *
+   * @param maxWeight	the maximum total weight of the cached predictions
+   * @param loader	the loader to use
+   * @param weigher	the weigher to use
+   */
+  public ObjectPredictionsCache(long maxWeight, Loader loader, Weigher weigher) {
+    if (maxWeight < 1)
+      throw new IllegalArgumentException("Maximum weight must be at least 1, provided: " + maxWeight);
+    if (loader == null)
+      throw new IllegalArgumentException("Loader cannot be null!");
+    if (weigher == null)
+      throw new IllegalArgumentException("Weigher cannot be null!");
+    m_MaxWeight     = maxWeight;
+    m_Loader        = loader;
+    m_Weigher       = weigher;
+    m_Entries       = new LinkedHashMap<>(16, 0.75f, true);
+    m_Weight        = 0;
+    m_Loading       = new ConcurrentHashMap<>();
+    m_Hits          = new AtomicLong();
+    m_Misses        = new AtomicLong();
+    m_Loads         = new AtomicLong();
+    m_Evictions     = new AtomicLong();
+    m_Invalidations = new AtomicLong();
+  }
+
+  /**
+   * Returns the maximum total weight.
+   *
+   * @return		the maximum
+   */
+  public long getMaxWeight() {
+    return m_MaxWeight;
+  }
+
+  /**
+   * Returns the predictions for the specified file, loading them if necessary.
+   *
+   * @param file	the file to get the predictions for
+   * @return		the predictions
+   * @throws Exception	if loading fails
+   */
+  public ObjectPredictions get(File file) throws Exception {
+    String					path;
+    long					modified;
+    long					length;
+    Entry					entry;
+    String					loadKey;
+    CompletableFuture<ObjectPredictions>	future;
+    CompletableFuture<ObjectPredictions>	existing;
+    ObjectPredictions				result;
+
+    path     = file.getAbsolutePath();
+    modified = file.lastModified();
+    length   = file.length();
+
+    synchronized (m_Entries) {
+      entry = m_Entries.get(path);
+      if (entry != null) {
+	if (entry.isCurrent(modified, length)) {
+	  m_Hits.incrementAndGet();
+	  return entry.predictions;
+	}
+	m_Entries.remove(path);
+	m_Weight -= entry.weight;
+	m_Invalidations.incrementAndGet();
+      }
+    }
+    m_Misses.incrementAndGet();
+
+    // single-flight
+    loadKey  = path + "\t" + modified + "\t" + length;
+    future   = new CompletableFuture<>();
+    existing = m_Loading.putIfAbsent(loadKey, future);
+    if (existing != null)
+      return await(existing);
+
+    try {
+      // another thread may have completed the load in the meantime
+      synchronized (m_Entries) {
+	entry = m_Entries.get(path);
+      }
+      if ((entry != null) && entry.isCurrent(modified, length)) {
+	future.complete(entry.predictions);
+	return entry.predictions;
+      }
+      m_Loads.incrementAndGet();
+      result = m_Loader.load(file);
+      put(path, entry, new Entry(result, modified, length, Math.max(1, m_Weigher.weigh(result))));
+      future.complete(result);
+      return result;
+    }
+    catch (Throwable t) {
+      // waiting threads must not hang, whatever the loader throws
+      future.completeExceptionally(t);
+      throw t;
+    }
+    finally {
+      m_Loading.remove(loadKey, future);
+    }
+  }
+
+  /**
+   * Waits for a load initiated by another thread.
+   *
+   * @param future	the load to wait for
+   * @return		the loaded predictions
+   * @throws Exception	if loading failed
+   */
+  protected ObjectPredictions await(CompletableFuture<ObjectPredictions> future) throws Exception {
+    try {
+      return future.get();
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception)
+	throw (Exception) e.getCause();
+      if (e.getCause() instanceof Error)
+	throw (Error) e.getCause();
+      throw e;
+    }
+  }
+
+  /**
+   * Adds the entry and evicts least recently used entries if the maximum
+   * weight is exceeded. Entries heavier than the maximum weight are not cached.
+   * The entry only gets added if the cached entry for the path is still the
+   * one that was present when the load started, so that a slow load of an
+   * older version of the file cannot replace a newer one.
+   *
+   * @param path	the path of the file
+   * @param expected	the entry present when the load started, can be null
+   * @param entry	the entry to add
+   */
+  protected void put(String path, Entry expected, Entry entry) {
+    Entry			old;
+    Iterator<Map.Entry<String,Entry>>	iter;
+    Map.Entry<String,Entry>	eldest;
+
+    if (entry.weight > m_MaxWeight)
+      return;
+
+    synchronized (m_Entries) {
+      if (m_Entries.get(path) != expected)
+	return;
+      old = m_Entries.put(path, entry);
+      if (old != null)
+	m_Weight -= old.weight;
+      m_Weight += entry.weight;
+      iter = m_Entries.entrySet().iterator();
+      while ((m_Weight > m_MaxWeight) && iter.hasNext()) {
+	eldest = iter.next();
+	if (eldest.getValue() == entry)
+	  continue;
+	iter.remove();
+	m_Weight -= eldest.getValue().weight;
+	m_Evictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Removes the cached predictions of the specified file.
+   *
+   * @param file	the file to remove
+   */
+  public void invalidate(File file) {
+    Entry	entry;
+
+    synchronized (m_Entries) {
+      entry = m_Entries.remove(file.getAbsolutePath());
+      if (entry != null)
+	m_Weight -= entry.weight;
+    }
+  }
+
+  /**
+   * Removes all cached predictions.
+   */
+  public void invalidateAll() {
+    synchronized (m_Entries) {
+      m_Entries.clear();
+      m_Weight = 0;
+    }
+  }
+
+  /**
+   * Returns the number of cached files.
+   *
+   * @return		the number of files
+   */
+  public int size() {
+    synchronized (m_Entries) {
+      return m_Entries.size();
+    }
+  }
+
+  /**
+   * Returns the current total weight of the cached predictions.
+   *
+   * @return		the weight
+   */
+  public long getWeight() {
+    synchronized (m_Entries) {
+      return m_Weight;
+    }
+  }
+
+  /**
+   * Returns the number of cache hits.
+   *
+   * @return		the hits
+   */
+  public long getHitCount() {
+    return m_Hits.get();
+  }
+
+  /**
+   * Returns the number of cache misses.
+   *
+   * @return		the misses
+   */
+  public long getMissCount() {
+    return m_Misses.get();
+  }
+
+  /**
+   * Returns the number of actual loads (misses minus collapsed concurrent loads).
+   *
+   * @return		the loads
+   */
+  public long getLoadCount() {
+    return m_Loads.get();
+  }
+
+  /**
+   * Returns the number of entries evicted due to the weight limit.
+   *
+   * @return		the evictions
+   */
+  public long getEvictionCount() {
+    return m_Evictions.get();
+  }
+
+  /**
+   * Returns the number of entries invalidated due to modified files.
+   *
+   * @return		the invalidations
+   */
+  public long getInvalidationCount() {
+    return m_Invalidations.get();
+  }
+
+  /**
+   * Returns the ratio of hits to requests.
+   *
+   * @return		the hit rate, 0 if no requests yet
+   */
+  public double getHitRate() {
+    long	hits;
+    long	total;
+
+    hits  = m_Hits.get();
+    total = hits + m_Misses.get();
+    if (total == 0)
+      return 0.0;
+    return (double) hits / total;
+  }
+
+  /**
+   * Resets the statistics.
+   */
+  public void resetStatistics() {
+    m_Hits.set(0);
+    m_Misses.set(0);
+    m_Loads.set(0);
+    m_Evictions.set(0);
+    m_Invalidations.set(0);
+  }
+
+  /**
+   * Returns a short description of the cache state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "size=" + size() + ", weight=" + getWeight() + "/" + m_MaxWeight
+      + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", loads=" + getLoadCount()
+      + ", evictions=" + getEvictionCount() + ", invalidations=" + getInvalidationCount();
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * CategoryTable.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe mapping between labels and category IDs. Labels that are not
+ * yet known get the next available ID assigned. To obtain the same IDs when
+ * processing in parallel, all labels should be added upfront.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CategoryTable {
+
+  /** the ID of the first category. */
+  protected int m_FirstID;
+
+  /** label to ID. */
+  protected ConcurrentHashMap<String,Integer> m_IDs;
+
+  /** the labels in order of their IDs. */
+  protected List<String> m_Labels;
+
+  /**
+   * Initializes the table.
+   *
+   * @param firstID	the ID of the first category (COCO: 1, YOLO: 0)
+   */
+  public CategoryTable(int firstID) {
+    m_FirstID = firstID;
+    m_IDs     = new ConcurrentHashMap<>();
+    m_Labels  = new ArrayList<>();
+  }
+
+  /**
+   * Initializes the table with the labels.
+   *
+   * @param firstID	the ID of the first category (COCO: 1, YOLO: 0)
+   * @param labels	the labels to add in order
+   */
+  public CategoryTable(int firstID, List<String> labels) {
+    this(firstID);
+    for (String label: labels)
+      getID(label);
+  }
+
+  /**
+   * Returns the ID of the first category.
+   *
+   * @return		the ID
+   */
+  public int getFirstID() {
+    return m_FirstID;
+  }
+
+  /**
+   * Returns the ID for the label, adding it if necessary.
+   *
+   * @param label	the label
+   * @return		the ID
+   */
+  public int getID(String label) {
+    Integer	result;
+
+    result = m_IDs.get(label);
+    if (result != null)
+      return result;
+    synchronized (m_Labels) {
+      result = m_IDs.get(label);
+      if (result == null) {
+	result = m_FirstID + m_Labels.size();
+	m_Labels.add(label);
+	m_IDs.put(label, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the label for the ID.
+   *
+   * @param id		the ID
+   * @return		the label, null if unknown
+   */
+  public String getLabel(int id) {
+    synchronized (m_Labels) {
+      if ((id < m_FirstID) || (id - m_FirstID >= m_Labels.size()))
+	return null;
+      return m_Labels.get(id - m_FirstID);
+    }
+  }
+
+  /**
+   * Sets the label for the ID, e.g., when reading a table. Gaps get filled
+   * with the IDs as labels.
+   *
+   * @param id		the ID
+   * @param label	the label
+   */
+  public void setLabel(int id, String label) {
+    synchronized (m_Labels) {
+      while (m_Labels.size() <= id - m_FirstID) {
+	m_Labels.add("" + (m_FirstID + m_Labels.size()));
+	m_IDs.put(m_Labels.get(m_Labels.size() - 1), m_FirstID + m_Labels.size() - 1);
+      }
+      m_IDs.remove(m_Labels.get(id - m_FirstID));
+      m_Labels.set(id - m_FirstID, label);
+      m_IDs.put(label, id);
+    }
+  }
+
+  /**
+   * Returns the labels, in order of their IDs.
+   *
+   * @return		the labels
+   */
+  public List<String> getLabels() {
+    synchronized (m_Labels) {
+      return new ArrayList<>(m_Labels);
+    }
+  }
+
+  /**
+   * Returns the number of categories.
+   *
+   * @return		the number
+   */
+  public int size() {
+    synchronized (m_Labels) {
+      return m_Labels.size();
+    }
+  }
+
+  /**
+   * Writes the labels to a text file, one label per line (YOLO classes file).
+   *
+   * @param file	the file to write to
+   * @throws IOException	if writing fails
+   */
+  public void write(File file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      for (String label: getLabels()) {
+	writer.write(label);
+	writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Reads the labels from a text file, one label per line (YOLO classes file).
+   *
+   * @param file	the file to read
+   * @param firstID	the ID of the first label
+   * @return		the table
+   * @throws IOException	if reading fails
+   */
+  public static CategoryTable read(File file, int firstID) throws IOException {
+    CategoryTable	result;
+    String		line;
+
+    result = new CategoryTable(firstID);
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      while ((line = reader.readLine()) != null) {
+	line = line.trim();
+	if (!line.isEmpty())
+	  result.getID(line);
+      }
+    }
+    return result;
+  }
+}
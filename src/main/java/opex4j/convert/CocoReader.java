@@ -0,0 +1,471 @@
+/*
+ * CocoReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.core.Compression;
+import opex4j.core.TimestampCodec;
+import opex4j.io.PredictionsSink;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads COCO detection/segmentation JSON files and turns them into predictions
+ * (one per image, using the "file_name" as ID) in a streaming fashion.
+ * <br>
+ * The file gets read twice: the first pass collects the categories, the
+ * image entries and the number of annotations per image; the second pass
+ * streams the annotations and emits the predictions of an image as soon
+ * as all its annotations have been read. Images without annotations get
+ * emitted first. Memory therefore depends on the number of images and how
+ * well the annotations are grouped by image, not on the number of annotations.
+ * <br>
+ * The "score" and "meta" fields of annotations and the "timestamp" and "meta"
+ * fields of images (as written by {@link CocoWriter}) are restored. Only the
+ * first polygon of a segmentation is used; RLE segmentations are replaced
+ * with the bbox. Boxes are expanded to at least 2 pixels width/height.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CocoReader {
+
+  /**
+   * Container for an image.
+   */
+  protected static class ImageEntry {
+
+    /** the file name. */
+    public String fileName;
+
+    /** the timestamp. */
+    public LocalDateTime timestamp;
+
+    /** the meta-data. */
+    public Map<String,String> meta;
+
+    /** the number of annotations still to read. */
+    public int remaining;
+
+    /** the objects collected so far. */
+    public List<ObjectPrediction> objects;
+  }
+
+  /**
+   * Container for an annotation.
+   */
+  protected static class AnnotationEntry {
+
+    /** the image ID. */
+    public long imageID;
+
+    /** the object. */
+    public ObjectPrediction object;
+  }
+
+  /** the images (ID -&gt; entry). */
+  protected Map<Long,ImageEntry> m_Images;
+
+  /** the categories. */
+  protected CategoryTable m_Categories;
+
+  /**
+   * Initializes the reader.
+   */
+  public CocoReader() {
+    m_Categories = new CategoryTable(1);
+  }
+
+  /**
+   * Returns the categories of the last file read.
+   *
+   * @return		the categories
+   */
+  public CategoryTable getCategories() {
+    return m_Categories;
+  }
+
+  /**
+   * Opens the JSON reader, decompressing gzip/deflate files transparently.
+   *
+   * @param file	the file to open
+   * @return		the reader
+   * @throws IOException	if opening fails
+   */
+  protected JsonReader open(File file) throws IOException {
+    return new JsonReader(new InputStreamReader(Compression.openInput(file), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads a meta-data object.
+   *
+   * @param json	the reader to use
+   * @return		the meta-data
+   * @throws IOException	if reading fails
+   */
+  protected Map<String,String> readMeta(JsonReader json) throws IOException {
+    Map<String,String>	result;
+
+    result = new HashMap<>();
+    json.beginObject();
+    while (json.hasNext())
+      result.put(json.nextName(), json.nextString());
+    json.endObject();
+    return result;
+  }
+
+  /**
+   * Reads a value as string, returns null for JSON null.
+   *
+   * @param json	the reader to use
+   * @return		the string
+   * @throws IOException	if reading fails
+   */
+  protected String nextStringOrNull(JsonReader json) throws IOException {
+    if (json.peek() == JsonToken.NULL) {
+      json.nextNull();
+      return null;
+    }
+    return json.nextString();
+  }
+
+  /**
+   * First pass: categories, images and annotation counts.
+   *
+   * @param file	the file to read
+   * @throws IOException	if reading fails
+   */
+  protected void readIndex(File file) throws IOException {
+    String		name;
+    long		id;
+    String		catName;
+    String		ts;
+    ImageEntry		entry;
+    ImageEntry		counted;
+    Map<Long,Integer>	counts;
+    Long		imageID;
+
+    m_Images     = new LinkedHashMap<>();
+    m_Categories = new CategoryTable(1);
+    counts       = new HashMap<>();
+
+    try (JsonReader json = open(file)) {
+      json.beginObject();
+      while (json.hasNext()) {
+	name = json.nextName();
+	switch (name) {
+	  case "images":
+	    json.beginArray();
+	    while (json.hasNext()) {
+	      entry   = new ImageEntry();
+	      entry.objects = new ArrayList<>();
+	      id = -1;
+	      json.beginObject();
+	      while (json.hasNext()) {
+		switch (json.nextName()) {
+		  case "id":
+		    id = json.nextLong();
+		    break;
+		  case "file_name":
+		    entry.fileName = json.nextString();
+		    break;
+		  case "timestamp":
+		    ts = nextStringOrNull(json);
+		    entry.timestamp = (ts == null) ? null : TimestampCodec.parse(ts);
+		    break;
+		  case "meta":
+		    entry.meta = readMeta(json);
+		    break;
+		  default:
+		    json.skipValue();
+		}
+	      }
+	      json.endObject();
+	      if ((entry.fileName == null) || entry.fileName.isEmpty())
+		entry.fileName = "" + id;
+	      m_Images.put(id, entry);
+	    }
+	    json.endArray();
+	    break;
+
+	  case "categories":
+	    json.beginArray();
+	    while (json.hasNext()) {
+	      id      = -1;
+	      catName = null;
+	      json.beginObject();
+	      while (json.hasNext()) {
+		switch (json.nextName()) {
+		  case "id":
+		    id = json.nextLong();
+		    break;
+		  case "name":
+		    catName = json.nextString();
+		    break;
+		  default:
+		    json.skipValue();
+		}
+	      }
+	      json.endObject();
+	      if ((id >= 1) && (catName != null))
+		m_Categories.setLabel((int) id, catName);
+	    }
+	    json.endArray();
+	    break;
+
+	  case "annotations":
+	    json.beginArray();
+	    while (json.hasNext()) {
+	      json.beginObject();
+	      while (json.hasNext()) {
+		if (json.nextName().equals("image_id")) {
+		  imageID = json.nextLong();
+		  counts.merge(imageID, 1, Integer::sum);
+		}
+		else {
+		  json.skipValue();
+		}
+	      }
+	      json.endObject();
+	    }
+	    json.endArray();
+	    break;
+
+	  default:
+	    json.skipValue();
+	}
+      }
+      json.endObject();
+    }
+
+    for (Map.Entry<Long,Integer> count: counts.entrySet()) {
+      counted = m_Images.get(count.getKey());
+      if (counted == null)
+	throw new IOException("Annotations refer to unknown image ID: " + count.getKey());
+      counted.remaining = count.getValue();
+    }
+  }
+
+  /**
+   * Reads a single annotation.
+   *
+   * @param json	the reader to use
+   * @param index	the index of the annotation, for error messages
+   * @return		the image ID and the object
+   * @throws IOException	if reading fails or the annotation is incomplete
+   */
+  protected AnnotationEntry readAnnotation(JsonReader json, int index) throws IOException {
+    AnnotationEntry	result;
+    Long		imageID;
+    String		annID;
+    int			categoryID;
+    double[]		box;
+    List<Point>		points;
+    Double		score;
+    Map<String,String>	meta;
+    BBox		bbox;
+    Polygon		polygon;
+    int			i;
+    int			left;
+    int			top;
+    double		x;
+    double		y;
+    String		label;
+
+    imageID    = null;
+    annID      = "#" + index;
+    categoryID = -1;
+    box        = null;
+    points     = null;
+    score      = null;
+    meta       = null;
+    json.beginObject();
+    while (json.hasNext()) {
+      switch (json.nextName()) {
+	case "id":
+	  annID = json.nextString();
+	  break;
+	case "image_id":
+	  imageID = json.nextLong();
+	  break;
+	case "category_id":
+	  categoryID = json.nextInt();
+	  break;
+	case "bbox":
+	  box = new double[4];
+	  json.beginArray();
+	  for (i = 0; i < 4; i++)
+	    box[i] = json.nextDouble();
+	  while (json.hasNext())
+	    json.skipValue();
+	  json.endArray();
+	  break;
+	case "segmentation":
+	  if (json.peek() == JsonToken.BEGIN_ARRAY) {
+	    json.beginArray();
+	    if (json.hasNext() && (json.peek() == JsonToken.BEGIN_ARRAY)) {
+	      points = new ArrayList<>();
+	      json.beginArray();
+	      while (json.hasNext()) {
+		x = json.nextDouble();
+		y = json.nextDouble();
+		points.add(new Point((int) Math.round(x), (int) Math.round(y)));
+	      }
+	      json.endArray();
+	    }
+	    while (json.hasNext())
+	      json.skipValue();
+	    json.endArray();
+	  }
+	  else {
+	    json.skipValue();
+	  }
+	  break;
+	case "score":
+	  if (json.peek() == JsonToken.NULL)
+	    json.nextNull();
+	  else
+	    score = json.nextDouble();
+	  break;
+	case "meta":
+	  meta = readMeta(json);
+	  break;
+	default:
+	  json.skipValue();
+      }
+    }
+    json.endObject();
+
+    if (imageID == null)
+      throw new IOException("Annotation without image_id: " + annID);
+    if (box == null)
+      throw new IOException("Annotation without bbox for image ID: " + imageID);
+    left    = (int) Math.round(box[0]);
+    top     = (int) Math.round(box[1]);
+    bbox    = new BBox(left, top, left + Math.max(2, (int) Math.round(box[2])) - 1, top + Math.max(2, (int) Math.round(box[3])) - 1);
+    polygon = ((points != null) && (points.size() >= 3)) ? new Polygon(points) : bbox.toPolygon();
+    label   = m_Categories.getLabel(categoryID);
+    if (label == null)
+      label = "" + categoryID;
+
+    result         = new AnnotationEntry();
+    result.imageID = imageID;
+    result.object  = new ObjectPrediction(label, score, bbox, polygon, meta);
+    return result;
+  }
+
+  /**
+   * Turns the entry into predictions.
+   *
+   * @param entry	the entry to convert
+   * @return		the predictions
+   */
+  protected ObjectPredictions toPredictions(ImageEntry entry) {
+    return new ObjectPredictions(entry.timestamp, entry.fileName, entry.objects, entry.meta);
+  }
+
+  /**
+   * Reads the COCO file and passes the predictions to the sink.
+   *
+   * @param file	the file to read
+   * @param sink	the sink for the predictions
+   * @throws IOException	if reading fails
+   */
+  public void read(File file, PredictionsSink sink) throws IOException {
+    Iterator<ImageEntry>	iter;
+    ImageEntry			entry;
+    AnnotationEntry		ann;
+    int				index;
+
+    readIndex(file);
+
+    // images without annotations
+    iter = m_Images.values().iterator();
+    while (iter.hasNext()) {
+      entry = iter.next();
+      if (entry.remaining == 0) {
+	sink.accept(toPredictions(entry));
+	iter.remove();
+      }
+    }
+
+    try (JsonReader json = open(file)) {
+      json.beginObject();
+      while (json.hasNext()) {
+	if (json.nextName().equals("annotations")) {
+	  json.beginArray();
+	  index = 0;
+	  while (json.hasNext()) {
+	    ann   = readAnnotation(json, index++);
+	    entry = m_Images.get(ann.imageID);
+	    entry.objects.add(ann.object);
+	    entry.remaining--;
+	    if (entry.remaining == 0) {
+	      sink.accept(toPredictions(entry));
+	      m_Images.remove(ann.imageID);
+	    }
+	  }
+	  json.endArray();
+	}
+	else {
+	  json.skipValue();
+	}
+      }
+      json.endObject();
+    }
+
+    m_Images = null;
+  }
+
+  /**
+   * Reads the COCO file into a list.
+   *
+   * @param file	the file to read
+   * @return		the predictions
+   * @throws IOException	if reading fails
+   */
+  public static List<ObjectPredictions> read(File file) throws IOException {
+    final List<ObjectPredictions>	result;
+
+    result = new ArrayList<>();
+    new CocoReader().read(file, result::add);
+    return result;
+  }
+
+  /**
+   * Reads multiple COCO files in parallel. Calls to the sink are synchronized.
+   *
+   * @param files	the files to read
+   * @param threads	the number of threads to use
+   * @param sink	the sink for the predictions
+   * @throws IOException	if reading fails
+   */
+  public static void read(List<File> files, int threads, final PredictionsSink sink) throws IOException {
+    final PredictionsSink	synced;
+
+    synced = (ObjectPredictions preds) -> {
+      synchronized (sink) {
+	sink.accept(preds);
+      }
+    };
+    Parallel.forEach(files, threads, (File file) -> new CocoReader().read(file, synced));
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * CocoWriter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import com.google.gson.stream.JsonWriter;
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.core.Compression;
+import opex4j.io.PredictionsSink;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes predictions as a COCO detection/segmentation JSON file in a streaming
+ * fashion: annotations get written straight away, the (small) image entries
+ * get spilled to a temporary file and appended when closing the writer,
+ * followed by the category table.
+ * <br>
+ * In addition to the standard COCO fields, the annotations store the "score"
+ * and the "meta" data of the objects and the images store the "timestamp"
+ * and the "meta" data of the predictions. The "file_name" of an image is
+ * the ID of the predictions.
+ * <br>
+ * Not thread-safe; use {@link #accept(ObjectPredictions)} from a single
+ * thread or synchronize externally.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CocoWriter
+  implements Closeable, PredictionsSink {
+
+  /**
+   * Writer that ignores close() calls, for the per-element JSON writers.
+   */
+  protected static class NonClosingWriter
+    extends FilterWriter {
+
+    /**
+     * Initializes the writer.
+     *
+     * @param out	the underlying writer
+     */
+    public NonClosingWriter(Writer out) {
+      super(out);
+    }
+
+    @Override
+    public void close() {
+      // ignored
+    }
+  }
+
+  /** the output. */
+  protected Writer m_Writer;
+
+  /** the writer for the annotations. */
+  protected NonClosingWriter m_Annotations;
+
+  /** the temp file for the images. */
+  protected File m_ImagesFile;
+
+  /** the writer for the images. */
+  protected Writer m_ImagesWriter;
+
+  /** the images. */
+  protected NonClosingWriter m_Images;
+
+  /** the categories. */
+  protected CategoryTable m_Categories;
+
+  /** for determining the image sizes. */
+  protected ImageSizeProvider m_Sizes;
+
+  /** the number of images written. */
+  protected long m_ImageCount;
+
+  /** the number of annotations written. */
+  protected long m_AnnotationCount;
+
+  /** whether the writer has been closed. */
+  protected boolean m_Closed;
+
+  /**
+   * Initializes the writer. Image sizes get read from the "width"/"height"
+   * meta-data, if available (otherwise 0).
+   *
+   * @param file	the file to write to
+   * @throws IOException	if the files cannot be created
+   */
+  public CocoWriter(File file) throws IOException {
+    this(file, new CategoryTable(1), ImageSizeProvider.fromMeta("width", "height"));
+  }
+
+  /**
+   * Initializes the writer. Compresses the output if the file extension is
+   * .gz or .deflate/.zz.
+   *
+   * @param file	the file to write to
+   * @param categories	the category table to use/extend
+   * @param sizes	for determining the image sizes (missing sizes are output as 0)
+   * @throws IOException	if the files cannot be created
+   */
+  public CocoWriter(File file, CategoryTable categories, ImageSizeProvider sizes) throws IOException {
+    m_Categories   = categories;
+    m_Sizes        = sizes;
+    m_ImagesFile   = File.createTempFile("opex4j-coco-", ".json");
+    m_ImagesWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(m_ImagesFile), StandardCharsets.UTF_8), 65536);
+    m_Images       = new NonClosingWriter(m_ImagesWriter);
+    m_Writer       = new BufferedWriter(new OutputStreamWriter(Compression.openOutput(file), StandardCharsets.UTF_8), 65536);
+    m_Annotations  = new NonClosingWriter(m_Writer);
+    m_Writer.write("{\"annotations\": [");
+  }
+
+  /**
+   * Returns the category table.
+   *
+   * @return		the table
+   */
+  public CategoryTable getCategories() {
+    return m_Categories;
+  }
+
+  /**
+   * Writes the meta-data as object.
+   *
+   * @param json	the writer to use
+   * @param meta	the meta-data to write
+   * @throws IOException	if writing fails
+   */
+  protected void writeMeta(JsonWriter json, Map<String,String> meta) throws IOException {
+    if ((meta == null) || meta.isEmpty())
+      return;
+    json.name("meta");
+    json.beginObject();
+    for (Map.Entry<String,String> entry: meta.entrySet())
+      json.name(entry.getKey()).value(entry.getValue());
+    json.endObject();
+  }
+
+  /**
+   * Computes the area of the polygon (shoelace formula).
+   *
+   * @param points	the points of the polygon
+   * @return		the area
+   */
+  protected static double area(List<Point> points) {
+    double	result;
+    int		i;
+    Point	p;
+    Point	q;
+
+    result = 0;
+    for (i = 0; i < points.size(); i++) {
+      p       = points.get(i);
+      q       = points.get((i + 1) % points.size());
+      result += (double) p.x * q.y - (double) q.x * p.y;
+    }
+    return Math.abs(result) / 2.0;
+  }
+
+  /**
+   * Writes the predictions.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   */
+  @Override
+  public void accept(ObjectPredictions preds) throws IOException {
+    JsonWriter	json;
+    long	imageID;
+    int[]	size;
+    BBox	bbox;
+
+    imageID = ++m_ImageCount;
+    size    = m_Sizes.getSize(preds.getID(), preds.getMeta());
+
+    // image
+    if (imageID > 1)
+      m_Images.write(", ");
+    json = new JsonWriter(m_Images);
+    json.beginObject();
+    json.name("id").value(imageID);
+    json.name("file_name").value(preds.getID());
+    json.name("width").value((size == null) ? 0 : size[0]);
+    json.name("height").value((size == null) ? 0 : size[1]);
+    if (preds.getTimestamp() != null)
+      json.name("timestamp").value(preds.getTimestampStr());
+    writeMeta(json, preds.getMeta());
+    json.endObject();
+    json.flush();
+
+    // annotations
+    for (ObjectPrediction obj: preds.getObjects()) {
+      if (++m_AnnotationCount > 1)
+	m_Annotations.write(", ");
+      bbox = obj.getBBox();
+      json = new JsonWriter(m_Annotations);
+      json.beginObject();
+      json.name("id").value(m_AnnotationCount);
+      json.name("image_id").value(imageID);
+      json.name("category_id").value(m_Categories.getID(obj.getLabel()));
+      json.name("bbox").beginArray()
+	.value(bbox.getLeft())
+	.value(bbox.getTop())
+	.value(bbox.getRight() - bbox.getLeft() + 1)
+	.value(bbox.getBottom() - bbox.getTop() + 1)
+	.endArray();
+      json.name("segmentation").beginArray().beginArray();
+      for (Point p: obj.getPolygon().getPoints())
+	json.value(p.x).value(p.y);
+      json.endArray().endArray();
+      json.name("area").value(area(obj.getPolygon().getPoints()));
+      json.name("iscrowd").value(0);
+      if (obj.getScore() != null)
+	json.name("score").value(obj.getScore());
+      writeMeta(json, obj.getMeta());
+      json.endObject();
+      json.flush();
+    }
+  }
+
+  /**
+   * Writes all the predictions.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   */
+  public void writeAll(Iterable<ObjectPredictions> preds) throws IOException {
+    for (ObjectPredictions p: preds)
+      accept(p);
+  }
+
+  /**
+   * Returns the number of images written so far.
+   *
+   * @return		the count
+   */
+  public long getImageCount() {
+    return m_ImageCount;
+  }
+
+  /**
+   * Returns the number of annotations written so far.
+   *
+   * @return		the count
+   */
+  public long getAnnotationCount() {
+    return m_AnnotationCount;
+  }
+
+  /**
+   * Appends the images and categories, then closes the file.
+   *
+   * @throws IOException	if writing fails
+   */
+  @Override
+  public void close() throws IOException {
+    JsonWriter	json;
+    List<String>	labels;
+    char[]	buffer;
+    int		read;
+    int		i;
+
+    if (m_Closed)
+      return;
+    m_Closed = true;
+
+    try {
+      m_ImagesWriter.close();
+      m_Writer.write("],\n\"images\": [");
+      buffer = new char[65536];
+      try (BufferedReader reader = Files.newBufferedReader(m_ImagesFile.toPath(), StandardCharsets.UTF_8)) {
+	while ((read = reader.read(buffer)) != -1)
+	  m_Writer.write(buffer, 0, read);
+      }
+      m_Writer.write("],\n\"categories\": ");
+      json   = new JsonWriter(m_Annotations);
+      labels = m_Categories.getLabels();
+      json.beginArray();
+      for (i = 0; i < labels.size(); i++) {
+	json.beginObject();
+	json.name("id").value(m_Categories.getFirstID() + i);
+	json.name("name").value(labels.get(i));
+	json.name("supercategory").value("");
+	json.endObject();
+      }
+      json.endArray();
+      json.flush();
+      m_Writer.write("}\n");
+    }
+    finally {
+      m_Writer.close();
+      if (!m_ImagesFile.delete())
+	m_ImagesFile.deleteOnExit();
+    }
+  }
+
+  /**
+   * Converts the predictions into a single COCO file.
+   *
+   * @param preds	the predictions to convert
+   * @param file	the COCO file to write
+   * @param categories	the category table to use/extend
+   * @param sizes	for determining the image sizes
+   * @throws IOException	if writing fails
+   */
+  public static void write(Iterable<ObjectPredictions> preds, File file, CategoryTable categories, ImageSizeProvider sizes) throws IOException {
+    try (CocoWriter writer = new CocoWriter(file, categories, sizes)) {
+      writer.writeAll(preds);
+    }
+  }
+}
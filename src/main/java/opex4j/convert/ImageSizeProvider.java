@@ -0,0 +1,58 @@
+/*
+ * ImageSizeProvider.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import java.util.Map;
+
+/**
+ * Supplies the dimensions of the images that predictions belong to, as
+ * OPEX does not store them.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface ImageSizeProvider {
+
+  /**
+   * Returns the size of the image.
+   *
+   * @param id		the ID of the predictions
+   * @param meta	the meta-data of the predictions, can be null
+   * @return		the width and height, null if not available
+   */
+  public int[] getSize(String id, Map<String,String> meta);
+
+  /**
+   * Returns a provider that uses the same size for all images.
+   *
+   * @param width	the width
+   * @param height	the height
+   * @return		the provider
+   */
+  public static ImageSizeProvider fixed(final int width, final int height) {
+    final int[] size = {width, height};
+    return (String id, Map<String,String> meta) -> size;
+  }
+
+  /**
+   * Returns a provider that reads the size from the meta-data of the predictions.
+   *
+   * @param widthKey	the key for the width
+   * @param heightKey	the key for the height
+   * @return		the provider
+   */
+  public static ImageSizeProvider fromMeta(final String widthKey, final String heightKey) {
+    return (String id, Map<String,String> meta) -> {
+      if ((meta == null) || !meta.containsKey(widthKey) || !meta.containsKey(heightKey))
+	return null;
+      try {
+	return new int[]{Integer.parseInt(meta.get(widthKey).trim()), Integer.parseInt(meta.get(heightKey).trim())};
+      }
+      catch (NumberFormatException e) {
+	return null;
+      }
+    };
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Parallel.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Helper for processing items in parallel with a bounded number of
+ * pending tasks, so that (streaming) iterables are not fully materialized.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+class Parallel {
+
+  /**
+   * Interface for tasks to execute.
+   *
+   * @param <T>	the type of item
+   */
+  public interface Task<T> {
+
+    /**
+     * Processes the item.
+     *
+     * @param item	the item
+     * @throws Exception	if processing fails
+     */
+    public void process(T item) throws Exception;
+  }
+
+  /**
+   * Processes all items. Stops at the first error.
+   *
+   * @param items	the items to process
+   * @param threads	the number of threads to use, less than 2 for sequential processing
+   * @param task	the task to apply
+   * @param <T>		the type of item
+   * @throws IOException	if processing fails
+   */
+  public static <T> void forEach(Iterable<T> items, int threads, final Task<T> task) throws IOException {
+    final ExecutorService			executor;
+    final Semaphore				pending;
+    final AtomicReference<Exception>	error;
+
+    if (threads < 2) {
+      for (T item: items) {
+	try {
+	  task.process(item);
+	}
+	catch (IOException e) {
+	  throw e;
+	}
+	catch (Exception e) {
+	  throw new IOException(e);
+	}
+      }
+      return;
+    }
+
+    executor = Executors.newFixedThreadPool(threads);
+    pending  = new Semaphore(threads * 4);
+    error    = new AtomicReference<>();
+    try {
+      for (final T item: items) {
+	if (error.get() != null)
+	  break;
+	pending.acquireUninterruptibly();
+	executor.execute(() -> {
+	  try {
+	    if (error.get() == null)
+	      task.process(item);
+	  }
+	  catch (Exception e) {
+	    error.compareAndSet(null, e);
+	  }
+	  finally {
+	    pending.release();
+	  }
+	});
+      }
+    }
+    finally {
+      executor.shutdown();
+      try {
+	while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+	  // waiting
+	}
+      }
+      catch (InterruptedException e) {
+	executor.shutdownNow();
+	Thread.currentThread().interrupt();
+      }
+    }
+
+    if (error.get() instanceof IOException)
+      throw (IOException) error.get();
+    if (error.get() != null)
+      throw new IOException(error.get());
+  }
+}
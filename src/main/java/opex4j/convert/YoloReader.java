@@ -0,0 +1,174 @@
+/*
+ * YoloReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.io.PredictionsSink;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads YOLO annotation files ("ID.txt", one object per line) and turns them
+ * into predictions, using the file name without extension as ID. The number
+ * of values determines the type of the line:
+ * <ul>
+ *   <li>class cx cy w h - bbox</li>
+ *   <li>class cx cy w h conf - bbox with score</li>
+ *   <li>class x1 y1 x2 y2 x3 y3 ... - polygon (even number of coordinates)</li>
+ *   <li>class x1 y1 x2 y2 x3 y3 ... conf - polygon with score (odd number of coordinates)</li>
+ * </ul>
+ * The normalized coordinates get converted back to pixels using the
+ * {@link ImageSizeProvider} (which gets called without meta-data).
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class YoloReader {
+
+  /** the categories (first ID should be 0). */
+  protected CategoryTable m_Categories;
+
+  /** for determining the image sizes. */
+  protected ImageSizeProvider m_Sizes;
+
+  /**
+   * Initializes the reader.
+   *
+   * @param categories	the category table to use for the labels, can be null to use the class IDs
+   * @param sizes	for determining the image sizes
+   */
+  public YoloReader(CategoryTable categories, ImageSizeProvider sizes) {
+    m_Categories = categories;
+    m_Sizes      = sizes;
+  }
+
+  /**
+   * Parses a single line.
+   *
+   * @param line	the line to parse
+   * @param width	the image width
+   * @param height	the image height
+   * @return		the object
+   * @throws IOException	if parsing fails
+   */
+  protected ObjectPrediction parse(String line, double width, double height) throws IOException {
+    String[]		parts;
+    double[]		values;
+    int			numCoords;
+    int			classID;
+    String		label;
+    Double		score;
+    BBox		bbox;
+    List<Point>		points;
+    Polygon		polygon;
+    int			i;
+    double		cx;
+    double		cy;
+    double		w;
+    double		h;
+    int			left;
+    int			top;
+
+    parts = line.trim().split("\\s+");
+    if (parts.length < 5)
+      throw new IOException("Expected at least 5 values, found " + parts.length + ": " + line);
+    try {
+      classID = Integer.parseInt(parts[0]);
+      values  = new double[parts.length - 1];
+      for (i = 1; i < parts.length; i++)
+	values[i - 1] = Double.parseDouble(parts[i]);
+    }
+    catch (NumberFormatException e) {
+      throw new IOException("Failed to parse line: " + line, e);
+    }
+
+    label = (m_Categories == null) ? null : m_Categories.getLabel(classID);
+    if (label == null)
+      label = "" + classID;
+
+    if (values.length <= 5) {
+      score = (values.length == 5) ? values[4] : null;
+      cx    = values[0] * width;
+      cy    = values[1] * height;
+      w     = values[2] * width;
+      h     = values[3] * height;
+      left  = (int) Math.round(cx - w / 2);
+      top   = (int) Math.round(cy - h / 2);
+      bbox  = new BBox(left, top, left + Math.max(2, (int) Math.round(w)) - 1, top + Math.max(2, (int) Math.round(h)) - 1);
+      return new ObjectPrediction(label, score, bbox, bbox.toPolygon(), null);
+    }
+
+    numCoords = values.length - (values.length % 2);
+    score     = (values.length % 2 == 1) ? values[values.length - 1] : null;
+    points    = new ArrayList<>();
+    for (i = 0; i < numCoords; i += 2)
+      points.add(new Point((int) Math.round(values[i] * width), (int) Math.round(values[i + 1] * height)));
+    polygon = new Polygon(points);
+    return new ObjectPrediction(label, score, polygon.toBBox(), polygon, null);
+  }
+
+  /**
+   * Reads a single YOLO file.
+   *
+   * @param file	the file to read
+   * @return		the predictions
+   * @throws IOException	if reading fails or image size unknown
+   */
+  public ObjectPredictions read(File file) throws IOException {
+    List<ObjectPrediction>	objects;
+    String			id;
+    int[]			size;
+    String			line;
+
+    id   = file.getName().replaceFirst("\\.txt$", "");
+    size = m_Sizes.getSize(id, null);
+    if ((size == null) || (size[0] <= 0) || (size[1] <= 0))
+      throw new IOException("Failed to determine image size for: " + id);
+
+    objects = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      while ((line = reader.readLine()) != null) {
+	if (!line.trim().isEmpty())
+	  objects.add(parse(line, size[0], size[1]));
+      }
+    }
+    return new ObjectPredictions(null, id, objects);
+  }
+
+  /**
+   * Reads all the ".txt" files in the directory, passing the predictions
+   * to the sink. Calls to the sink are synchronized.
+   *
+   * @param dir		the directory to read from
+   * @param threads	the number of threads to use
+   * @param sink	the sink for the predictions
+   * @throws IOException	if reading fails
+   */
+  public void readAll(File dir, int threads, final PredictionsSink sink) throws IOException {
+    File[]	files;
+
+    files = dir.listFiles((File f) -> f.isFile() && f.getName().endsWith(".txt"));
+    if (files == null)
+      throw new IOException("Failed to list directory: " + dir);
+    Arrays.sort(files);
+    Parallel.forEach(Arrays.asList(files), threads, (File file) -> {
+      ObjectPredictions preds = read(file);
+      synchronized (sink) {
+	sink.accept(preds);
+      }
+    });
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * YoloWriter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.io.PredictionsSink;
+
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes predictions in YOLO format, i.e., one "ID.txt" file per predictions
+ * (the extension of the ID gets replaced) with one line per object. Either
+ * bounding boxes ("class cx cy w h") or polygons ("class x1 y1 x2 y2 ...")
+ * get written, with coordinates normalized by the image size. Scores get
+ * appended as trailing confidence. Meta-data cannot be represented.
+ * <br>
+ * The class IDs start at 0, the labels can be written with
+ * {@link #writeClasses(File)}. Thread-safe, as long as the IDs are unique.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class YoloWriter
+  implements PredictionsSink {
+
+  /** the output directory. */
+  protected File m_OutputDir;
+
+  /** the categories. */
+  protected CategoryTable m_Categories;
+
+  /** for determining the image sizes. */
+  protected ImageSizeProvider m_Sizes;
+
+  /** whether to write polygons instead of bboxes. */
+  protected boolean m_Polygons;
+
+  /**
+   * Initializes the writer.
+   *
+   * @param outputDir	the directory to write the files to
+   * @param categories	the category table to use/extend (first ID should be 0)
+   * @param sizes	for determining the image sizes
+   * @param polygons	whether to write polygons instead of bboxes
+   */
+  public YoloWriter(File outputDir, CategoryTable categories, ImageSizeProvider sizes, boolean polygons) {
+    if (!outputDir.isDirectory())
+      throw new IllegalArgumentException("Output directory does not exist: " + outputDir);
+    m_OutputDir  = outputDir;
+    m_Categories = categories;
+    m_Sizes      = sizes;
+    m_Polygons   = polygons;
+  }
+
+  /**
+   * Returns the category table.
+   *
+   * @return		the table
+   */
+  public CategoryTable getCategories() {
+    return m_Categories;
+  }
+
+  /**
+   * Appends the normalized value with 6 decimals, without going through
+   * String.format.
+   *
+   * @param buffer	the buffer to append to
+   * @param value	the value to append (0-1)
+   */
+  protected static void append(StringBuilder buffer, double value) {
+    long	scaled;
+    long	fraction;
+    int		i;
+
+    buffer.append(' ');
+    scaled = Math.round(value * 1000000.0);
+    if (scaled < 0) {
+      buffer.append('-');
+      scaled = -scaled;
+    }
+    buffer.append(scaled / 1000000);
+    buffer.append('.');
+    fraction = scaled % 1000000;
+    for (i = 100000; i > 1; i /= 10) {
+      if (fraction < i)
+	buffer.append('0');
+      else
+	break;
+    }
+    buffer.append(fraction);
+  }
+
+  /**
+   * Generates the file name for the ID.
+   *
+   * @param id		the ID of the predictions
+   * @return		the file name
+   */
+  public static String toFileName(String id) {
+    int		pos;
+
+    pos = id.lastIndexOf('.');
+    if ((pos > 0) && (pos > id.lastIndexOf('/')) && (pos > id.lastIndexOf('\\')))
+      id = id.substring(0, pos);
+    return id.replace('/', '_').replace('\\', '_') + ".txt";
+  }
+
+  /**
+   * Writes the predictions to their own file.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails or image size unknown
+   */
+  @Override
+  public void accept(ObjectPredictions preds) throws IOException {
+    StringBuilder	buffer;
+    int[]		size;
+    double		width;
+    double		height;
+    BBox		bbox;
+
+    size = m_Sizes.getSize(preds.getID(), preds.getMeta());
+    if ((size == null) || (size[0] <= 0) || (size[1] <= 0))
+      throw new IOException("Failed to determine image size for: " + preds.getID());
+    width  = size[0];
+    height = size[1];
+
+    buffer = new StringBuilder();
+    for (ObjectPrediction obj: preds.getObjects()) {
+      buffer.append(m_Categories.getID(obj.getLabel()));
+      if (m_Polygons) {
+	for (Point p: obj.getPolygon().getPoints()) {
+	  append(buffer, p.x / width);
+	  append(buffer, p.y / height);
+	}
+      }
+      else {
+	bbox = obj.getBBox();
+	append(buffer, (bbox.getLeft() + bbox.getRight() + 1) / 2.0 / width);
+	append(buffer, (bbox.getTop() + bbox.getBottom() + 1) / 2.0 / height);
+	append(buffer, (bbox.getRight() - bbox.getLeft() + 1) / width);
+	append(buffer, (bbox.getBottom() - bbox.getTop() + 1) / height);
+      }
+      if (obj.getScore() != null)
+	append(buffer, obj.getScore());
+      buffer.append('\n');
+    }
+
+    try (BufferedWriter writer = Files.newBufferedWriter(new File(m_OutputDir, toFileName(preds.getID())).toPath(), StandardCharsets.UTF_8)) {
+      writer.write(buffer.toString());
+    }
+  }
+
+  /**
+   * Writes all the predictions.
+   *
+   * @param preds	the predictions to write
+   * @param threads	the number of threads to use
+   * @throws IOException	if writing fails
+   */
+  public void writeAll(Iterable<ObjectPredictions> preds, int threads) throws IOException {
+    Parallel.forEach(preds, threads, this::accept);
+  }
+
+  /**
+   * Writes the labels, one per line, ordered by class ID.
+   *
+   * @param file	the file to write to
+   * @throws IOException	if writing fails
+   */
+  public void writeClasses(File file) throws IOException {
+    m_Categories.write(file);
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * AsyncIO.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads and writes whole files without blocking the calling thread, using
+ * {@link AsynchronousFileChannel}. The returned futures get completed via
+ * the supplied executor, so that dependent stages (eg parsing) do not run
+ * on the I/O threads of the channel.
+ * <br>
+ * By default, the common fork/join pool and the default thread pool of the
+ * JVM for the channels are used. On Java 21+, virtual threads get used for
+ * both instead (multi-release jar). The default executor can be replaced
+ * with {@link #setDefaultExecutor(Executor)}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class AsyncIO {
+
+  /** the default executor. */
+  protected static volatile Executor m_DefaultExecutor = DefaultExecutors.executor();
+
+  private AsyncIO() {
+  }
+
+  /**
+   * Sets the default executor for completing the futures and for parsing
+   * and serializing.
+   *
+   * @param value	the executor, null to restore the default one
+   */
+  public static void setDefaultExecutor(Executor value) {
+    m_DefaultExecutor = (value == null) ? DefaultExecutors.executor() : value;
+  }
+
+  /**
+   * Returns the default executor.
+   *
+   * @return		the executor, never null
+   */
+  public static Executor getDefaultExecutor() {
+    return m_DefaultExecutor;
+  }
+
+  /**
+   * Opens the channel.
+   *
+   * @param file	the file to open
+   * @param options	the options
+   * @return		the channel
+   * @throws IOException	if opening fails
+   */
+  protected static AsynchronousFileChannel open(File file, OpenOption... options) throws IOException {
+    return AsynchronousFileChannel.open(file.toPath(), new HashSet<>(Arrays.asList(options)), DefaultExecutors.channelExecutor());
+  }
+
+  /**
+   * Closes the channel quietly.
+   *
+   * @param channel	the channel to close
+   */
+  protected static void close(AsynchronousFileChannel channel) {
+    try {
+      channel.close();
+    }
+    catch (Exception e) {
+      // ignored
+    }
+  }
+
+  /**
+   * Completes the future via the executor, or directly if the executor
+   * fails to accept the task.
+   *
+   * @param result	the future to complete
+   * @param value	the value, ignored if an error is supplied
+   * @param error	the error, null if successful
+   * @param executor	the executor to use
+   * @param <T>		the type of value
+   */
+  protected static <T> void complete(final CompletableFuture<T> result, final T value, final Throwable error, Executor executor) {
+    Runnable	task;
+
+    task = () -> {
+      if (error == null)
+	result.complete(value);
+      else
+	result.completeExceptionally(error);
+    };
+    try {
+      executor.execute(task);
+    }
+    catch (RuntimeException e) {
+      task.run();
+    }
+  }
+
+  /**
+   * Reads the file, using the default executor.
+   *
+   * @param file	the file to read
+   * @return		the future for the content
+   */
+  public static CompletableFuture<byte[]> read(File file) {
+    return read(file, m_DefaultExecutor);
+  }
+
+  /**
+   * Reads the file.
+   *
+   * @param file	the file to read
+   * @param executor	the executor for completing the future
+   * @return		the future for the content
+   */
+  public static CompletableFuture<byte[]> read(File file, Executor executor) {
+    CompletableFuture<byte[]>	result;
+    AsynchronousFileChannel	channel;
+    long			size;
+
+    result = new CompletableFuture<>();
+    try {
+      channel = open(file, StandardOpenOption.READ);
+    }
+    catch (Exception e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    try {
+      size = channel.size();
+      if (size > Integer.MAX_VALUE - 8)
+	throw new IOException("File too large: " + file + " (" + size + " bytes)");
+    }
+    catch (Exception e) {
+      close(channel);
+      result.completeExceptionally(e);
+      return result;
+    }
+    read(channel, ByteBuffer.allocate((int) size), result, executor);
+    return result;
+  }
+
+  /**
+   * Reads from the channel until the buffer is full or the end of the file
+   * is reached.
+   *
+   * @param channel	the channel to read from
+   * @param buffer	the buffer to fill
+   * @param result	the future to complete
+   * @param executor	the executor for completing the future
+   */
+  protected static void read(final AsynchronousFileChannel channel, final ByteBuffer buffer, final CompletableFuture<byte[]> result, final Executor executor) {
+    channel.read(buffer, buffer.position(), null, new CompletionHandler<Integer,Void>() {
+      @Override
+      public void completed(Integer read, Void attachment) {
+	if ((read == -1) || !buffer.hasRemaining()) {
+	  close(channel);
+	  if (buffer.hasRemaining())
+	    complete(result, Arrays.copyOf(buffer.array(), buffer.position()), null, executor);
+	  else
+	    complete(result, buffer.array(), null, executor);
+	}
+	else {
+	  read(channel, buffer, result, executor);
+	}
+      }
+
+      @Override
+      public void failed(Throwable exc, Void attachment) {
+	close(channel);
+	complete(result, null, exc, executor);
+      }
+    });
+  }
+
+  /**
+   * Writes the data to the file, using the default executor. Existing files
+   * get overwritten.
+   *
+   * @param file	the file to write to
+   * @param data	the data to write
+   * @return		the future
+   */
+  public static CompletableFuture<Void> write(File file, byte[] data) {
+    return write(file, data, m_DefaultExecutor);
+  }
+
+  /**
+   * Writes the data to the file. Existing files get overwritten.
+   *
+   * @param file	the file to write to
+   * @param data	the data to write
+   * @param executor	the executor for completing the future
+   * @return		the future
+   */
+  public static CompletableFuture<Void> write(File file, byte[] data, Executor executor) {
+    CompletableFuture<Void>	result;
+    AsynchronousFileChannel	channel;
+
+    result = new CompletableFuture<>();
+    try {
+      channel = open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    catch (Exception e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    write(channel, ByteBuffer.wrap(data), result, executor);
+    return result;
+  }
+
+  /**
+   * Writes the buffer to the channel.
+   *
+   * @param channel	the channel to write to
+   * @param buffer	the buffer to write
+   * @param result	the future to complete
+   * @param executor	the executor for completing the future
+   */
+  protected static void write(final AsynchronousFileChannel channel, final ByteBuffer buffer, final CompletableFuture<Void> result, final Executor executor) {
+    if (!buffer.hasRemaining()) {
+      close(channel);
+      complete(result, null, null, executor);
+      return;
+    }
+    channel.write(buffer, buffer.position(), null, new CompletionHandler<Integer,Void>() {
+      @Override
+      public void completed(Integer written, Void attachment) {
+	write(channel, buffer, result, executor);
+      }
+
+      @Override
+      public void failed(Throwable exc, Void attachment) {
+	close(channel);
+	complete(result, null, exc, executor);
+      }
+    });
+  }
+}
@@ -0,0 +1,336 @@
+/*
+ * Compression.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Transparent gzip/deflate (zlib) compression using the compression support
+ * of the JDK. When reading, the compression gets detected from the magic
+ * bytes; when writing, it gets determined from the file extension (.gz,
+ * .deflate/.zz) unless specified explicitly via {@link Options}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class Compression {
+
+  /**
+   * The supported compression types.
+   */
+  public enum Type {
+    /** no compression. */
+    NONE,
+    /** gzip (RFC 1952). */
+    GZIP,
+    /** deflate with zlib wrapper (RFC 1950). */
+    DEFLATE,
+  }
+
+  /**
+   * The options for writing compressed data.
+   */
+  public static class Options {
+
+    /** the compression type, null to determine from file extension. */
+    protected Type m_Type;
+
+    /** the compression level. */
+    protected int m_Level;
+
+    /** the buffer size. */
+    protected int m_BufferSize;
+
+    /**
+     * Initializes the options with compression based on the file extension,
+     * the default compression level and the default buffer size.
+     */
+    public Options() {
+      m_Type       = null;
+      m_Level      = Deflater.DEFAULT_COMPRESSION;
+      m_BufferSize = DEFAULT_BUFFER_SIZE;
+    }
+
+    /**
+     * Sets the compression type.
+     *
+     * @param value	the type, null to determine from the file extension
+     * @return		the options
+     */
+    public Options setType(Type value) {
+      m_Type = value;
+      return this;
+    }
+
+    /**
+     * Returns the compression type.
+     *
+     * @return		the type, null if determined from the file extension
+     */
+    public Type getType() {
+      return m_Type;
+    }
+
+    /**
+     * Sets the compression level.
+     *
+     * @param value	the level (0-9, -1 for default)
+     * @return		the options
+     */
+    public Options setLevel(int value) {
+      if ((value < Deflater.DEFAULT_COMPRESSION) || (value > Deflater.BEST_COMPRESSION))
+	throw new IllegalArgumentException("Compression level must be between -1 and 9, provided: " + value);
+      m_Level = value;
+      return this;
+    }
+
+    /**
+     * Returns the compression level.
+     *
+     * @return		the level (0-9, -1 for default)
+     */
+    public int getLevel() {
+      return m_Level;
+    }
+
+    /**
+     * Sets the buffer size, used for the compressor and the file buffer.
+     *
+     * @param value	the size in bytes
+     * @return		the options
+     */
+    public Options setBufferSize(int value) {
+      if (value < 1)
+	throw new IllegalArgumentException("Buffer size must be at least 1, provided: " + value);
+      m_BufferSize = value;
+      return this;
+    }
+
+    /**
+     * Returns the buffer size.
+     *
+     * @return		the size in bytes
+     */
+    public int getBufferSize() {
+      return m_BufferSize;
+    }
+
+    /**
+     * Returns the compression type to use for the file.
+     *
+     * @param file	the file to write
+     * @return		the type
+     */
+    public Type getType(File file) {
+      if (m_Type != null)
+	return m_Type;
+      return fromFileName(file);
+    }
+  }
+
+  /** the default buffer size. */
+  public final static int DEFAULT_BUFFER_SIZE = 65536;
+
+  /**
+   * Utility class, no instances.
+   */
+  private Compression() {
+  }
+
+  /**
+   * Determines the compression from the file extension.
+   *
+   * @param file	the file to check
+   * @return		the compression type
+   */
+  public static Type fromFileName(File file) {
+    String	name;
+
+    name = file.getName().toLowerCase();
+    if (name.endsWith(".gz"))
+      return Type.GZIP;
+    if (name.endsWith(".deflate") || name.endsWith(".zz"))
+      return Type.DEFLATE;
+    return Type.NONE;
+  }
+
+  /**
+   * Determines the compression from the first two bytes. JSON cannot start
+   * with either of the magic bytes, so there are no false positives.
+   *
+   * @param b0		the first byte, -1 if not available
+   * @param b1		the second byte, -1 if not available
+   * @return		the compression type
+   */
+  public static Type detect(int b0, int b1) {
+    if ((b0 < 0) || (b1 < 0))
+      return Type.NONE;
+    if ((b0 == 0x1f) && (b1 == 0x8b))
+      return Type.GZIP;
+    // zlib: CM=8 (deflate), window size <= 32K, header checksum
+    if (((b0 & 0x0f) == 8) && ((b0 >> 4) <= 7) && ((((b0 << 8) | b1) % 31) == 0))
+      return Type.DEFLATE;
+    return Type.NONE;
+  }
+
+  /**
+   * Determines the compression from the first two remaining bytes of the
+   * buffer. The position of the buffer remains unchanged.
+   *
+   * @param buffer	the buffer to check
+   * @return		the compression type
+   */
+  public static Type detect(ByteBuffer buffer) {
+    if (buffer.remaining() < 2)
+      return Type.NONE;
+    return detect(buffer.get(buffer.position()) & 0xff, buffer.get(buffer.position() + 1) & 0xff);
+  }
+
+  /**
+   * Wraps the stream in a decompressing stream if the magic bytes indicate
+   * compressed data. Blocks until the first two bytes are available.
+   *
+   * @param in		the stream to wrap
+   * @param bufferSize	the buffer size to use
+   * @return		the (buffered) stream
+   * @throws IOException	if reading the magic bytes fails
+   */
+  public static InputStream decompress(InputStream in, int bufferSize) throws IOException {
+    BufferedInputStream	buffered;
+    int			b0;
+    int			b1;
+
+    buffered = new BufferedInputStream(in, bufferSize);
+    buffered.mark(2);
+    b0 = buffered.read();
+    b1 = buffered.read();
+    buffered.reset();
+
+    switch (detect(b0, b1)) {
+      case GZIP:
+	return new BufferedInputStream(new GZIPInputStream(buffered, bufferSize), bufferSize);
+      case DEFLATE:
+	return new BufferedInputStream(new InflaterInputStream(buffered, new Inflater(), bufferSize) {
+	  @Override
+	  public void close() throws IOException {
+	    super.close();
+	    inf.end();
+	  }
+	}, bufferSize);
+      default:
+	return buffered;
+    }
+  }
+
+  /**
+   * Wraps the stream in a compressing stream.
+   *
+   * @param out		the stream to wrap
+   * @param type	the compression type
+   * @param options	the options (level, buffer size)
+   * @return		the (buffered) stream
+   * @throws IOException	if writing the header fails
+   */
+  public static OutputStream compress(OutputStream out, Type type, final Options options) throws IOException {
+    switch (type) {
+      case GZIP:
+	return new BufferedOutputStream(new GZIPOutputStream(out, options.getBufferSize()) {
+	  {
+	    def.setLevel(options.getLevel());
+	  }
+	}, options.getBufferSize());
+      case DEFLATE:
+	return new BufferedOutputStream(new DeflaterOutputStream(out, new Deflater(options.getLevel()), options.getBufferSize()) {
+	  @Override
+	  public void close() throws IOException {
+	    super.close();
+	    def.end();
+	  }
+	}, options.getBufferSize());
+      default:
+	return new BufferedOutputStream(out, options.getBufferSize());
+    }
+  }
+
+  /**
+   * Opens the file for reading, decompressing it if necessary.
+   *
+   * @param file	the file to open
+   * @param bufferSize	the buffer size to use
+   * @return		the (buffered) stream
+   * @throws IOException	if opening fails
+   */
+  public static InputStream openInput(File file, int bufferSize) throws IOException {
+    FileInputStream	in;
+
+    in = new FileInputStream(file);
+    try {
+      return decompress(in, bufferSize);
+    }
+    catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens the file for reading with the default buffer size, decompressing
+   * it if necessary.
+   *
+   * @param file	the file to open
+   * @return		the (buffered) stream
+   * @throws IOException	if opening fails
+   */
+  public static InputStream openInput(File file) throws IOException {
+    return openInput(file, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Opens the file for writing, compressing it according to the options.
+   *
+   * @param file	the file to create
+   * @param options	the options
+   * @return		the (buffered) stream
+   * @throws IOException	if opening fails
+   */
+  public static OutputStream openOutput(File file, Options options) throws IOException {
+    FileOutputStream	out;
+
+    out = new FileOutputStream(file);
+    try {
+      return compress(out, options.getType(file), options);
+    }
+    catch (IOException e) {
+      out.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens the file for writing with the default options, i.e., the compression
+   * is determined by the file extension.
+   *
+   * @param file	the file to create
+   * @return		the (buffered) stream
+   * @throws IOException	if opening fails
+   */
+  public static OutputStream openOutput(File file) throws IOException {
+    return openOutput(file, new Options());
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * ContentHasher.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Streaming 64-bit hash over canonical field values (not over their JSON
+ * representation), i.e., independent of formatting, escaping and field
+ * order. Strings are hashed over their characters, doubles over their bits
+ * (same semantics as {@link Double#equals(Object)}) and maps without regard
+ * to the iteration order of their entries.
+ * <br>
+ * The mixing follows the xxHash64 round and MurmurHash3 finalizer. Not a
+ * cryptographic hash. Not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ContentHasher {
+
+  /** the first prime. */
+  protected final static long PRIME1 = 0x9E3779B185EBCA87L;
+
+  /** the second prime. */
+  protected final static long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+
+  /** the seed. */
+  protected final static long SEED = 0x27D4EB2F165667C5L;
+
+  /** marker for null values. */
+  protected final static long NULL = 0x165667B19E3779F9L;
+
+  /** the current state. */
+  protected long m_State;
+
+  /**
+   * Initializes the hasher.
+   */
+  public ContentHasher() {
+    reset();
+  }
+
+  /**
+   * Resets the hasher.
+   *
+   * @return		itself
+   */
+  public ContentHasher reset() {
+    m_State = SEED;
+    return this;
+  }
+
+  /**
+   * Mixes the value into the state.
+   *
+   * @param value	the value to add
+   * @return		itself
+   */
+  public ContentHasher putLong(long value) {
+    m_State ^= Long.rotateLeft(value * PRIME2, 31) * PRIME1;
+    m_State  = Long.rotateLeft(m_State, 27) * PRIME1 + PRIME2;
+    return this;
+  }
+
+  /**
+   * Mixes the value into the state.
+   *
+   * @param value	the value to add
+   * @return		itself
+   */
+  public ContentHasher putInt(int value) {
+    return putLong(value);
+  }
+
+  /**
+   * Mixes the value into the state.
+   *
+   * @param value	the value to add
+   * @return		itself
+   */
+  public ContentHasher putBoolean(boolean value) {
+    return putLong(value ? 1 : 0);
+  }
+
+  /**
+   * Mixes the value into the state.
+   *
+   * @param value	the value to add, can be null
+   * @return		itself
+   */
+  public ContentHasher putDouble(Double value) {
+    if (value == null)
+      return putLong(NULL);
+    return putLong(Double.doubleToLongBits(value));
+  }
+
+  /**
+   * Mixes the characters of the string into the state.
+   *
+   * @param value	the value to add, can be null
+   * @return		itself
+   */
+  public ContentHasher putString(CharSequence value) {
+    int		len;
+    int		i;
+
+    if (value == null)
+      return putLong(NULL);
+    len = value.length();
+    putLong(len);
+    for (i = 0; i + 4 <= len; i += 4)
+      putLong(((long) value.charAt(i) << 48) | ((long) value.charAt(i + 1) << 32) | ((long) value.charAt(i + 2) << 16) | value.charAt(i + 3));
+    for (; i < len; i++)
+      putLong(value.charAt(i));
+    return this;
+  }
+
+  /**
+   * Mixes the timestamp into the state.
+   *
+   * @param value	the value to add, can be null
+   * @return		itself
+   */
+  public ContentHasher putTimestamp(LocalDateTime value) {
+    if (value == null)
+      return putLong(NULL);
+    putLong(value.toEpochSecond(ZoneOffset.UTC));
+    return putLong(value.getNano());
+  }
+
+  /**
+   * Mixes the entries of the map into the state, regardless of their order.
+   *
+   * @param value	the value to add, can be null
+   * @return		itself
+   */
+  public ContentHasher putMap(Map<String,String> value) {
+    ContentHasher	entry;
+    long		sum;
+
+    if (value == null)
+      return putLong(NULL);
+    entry = new ContentHasher();
+    sum   = 0;
+    for (Map.Entry<String,String> e: value.entrySet())
+      sum += entry.reset().putString(e.getKey()).putString(e.getValue()).getValue();
+    putLong(value.size());
+    return putLong(sum);
+  }
+
+  /**
+   * Returns the hash of the values added so far.
+   *
+   * @return		the hash
+   */
+  public long getValue() {
+    long	result;
+
+    result  = m_State;
+    result ^= result >>> 33;
+    result *= 0xFF51AFD7ED558CCDL;
+    result ^= result >>> 33;
+    result *= 0xC4CEB9FE1A85EC53L;
+    result ^= result >>> 33;
+    return result;
+  }
+
+  /**
+   * Folds the 64-bit hash into an int, for use in {@link Object#hashCode()}.
+   *
+   * @param hash	the hash to fold
+   * @return		the folded hash
+   */
+  public static int fold(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * CountingInputStream.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that counts the bytes read.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CountingInputStream
+  extends FilterInputStream {
+
+  /** the number of bytes read. */
+  protected long m_Count;
+
+  /**
+   * Initializes the stream.
+   *
+   * @param in		the underlying stream
+   */
+  public CountingInputStream(InputStream in) {
+    super(in);
+    m_Count = 0;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int		result;
+
+    result = super.read();
+    if (result != -1)
+      m_Count++;
+    return result;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int		result;
+
+    result = super.read(b, off, len);
+    if (result > 0)
+      m_Count += result;
+    return result;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long	result;
+
+    result = super.skip(n);
+    m_Count += result;
+    return result;
+  }
+
+  /**
+   * Returns the number of bytes read so far.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count;
+  }
+}
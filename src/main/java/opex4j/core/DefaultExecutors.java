@@ -0,0 +1,40 @@
+/*
+ * DefaultExecutors.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The default executors of {@link AsyncIO}. On Java 21+, the multi-release
+ * jar replaces this class with one that uses virtual threads.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+final class DefaultExecutors {
+
+  private DefaultExecutors() {
+  }
+
+  /**
+   * Returns the executor for parsing/serializing and completing the futures.
+   *
+   * @return		the common fork/join pool
+   */
+  static Executor executor() {
+    return ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Returns the executor for the asynchronous file channels.
+   *
+   * @return		null, i.e., the default thread pool of the JVM
+   */
+  static ExecutorService channelExecutor() {
+    return null;
+  }
+}
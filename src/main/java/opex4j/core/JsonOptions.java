@@ -0,0 +1,87 @@
+/*
+ * JsonOptions.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+/**
+ * Options for generating the JSON representation of predictions. The
+ * defaults produce the full representation.
+ * <br>
+ * Null values (score, timestamp) and empty meta-data are never written.
+ * Documents written with any of the options read back to the same
+ * predictions: omitted polygons get derived from the bbox and omitted
+ * object arrays result in no objects.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonOptions {
+
+  /** whether to omit polygons that are just the bbox rectangle. */
+  protected boolean m_OmitDerivedPolygons;
+
+  /** whether to omit empty fields. */
+  protected boolean m_OmitEmpty;
+
+  /**
+   * Initializes the options (full representation).
+   */
+  public JsonOptions() {
+    m_OmitDerivedPolygons = false;
+    m_OmitEmpty           = false;
+  }
+
+  /**
+   * Sets whether to omit polygons that consist of the four corners of the
+   * bbox (clockwise from top-left, as generated by {@link opex4j.BBox#toPolygon()}).
+   *
+   * @param value	true if to omit
+   * @return		the options
+   */
+  public JsonOptions setOmitDerivedPolygons(boolean value) {
+    m_OmitDerivedPolygons = value;
+    return this;
+  }
+
+  /**
+   * Returns whether to omit polygons that consist of the four corners of the bbox.
+   *
+   * @return		true if to omit
+   */
+  public boolean getOmitDerivedPolygons() {
+    return m_OmitDerivedPolygons;
+  }
+
+  /**
+   * Sets whether to omit empty fields, i.e., the objects array of
+   * documents without objects.
+   *
+   * @param value	true if to omit
+   * @return		the options
+   */
+  public JsonOptions setOmitEmpty(boolean value) {
+    m_OmitEmpty = value;
+    return this;
+  }
+
+  /**
+   * Returns whether to omit empty fields.
+   *
+   * @return		true if to omit
+   */
+  public boolean getOmitEmpty() {
+    return m_OmitEmpty;
+  }
+
+  /**
+   * Returns options for the most compact output (all omissions enabled).
+   *
+   * @return		the options
+   */
+  public static JsonOptions compact() {
+    return new JsonOptions()
+      .setOmitDerivedPolygons(true)
+      .setOmitEmpty(true);
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * LatencyHistogram.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram for non-negative values (e.g., latencies in nano-seconds)
+ * with logarithmic buckets, each split into 32 linear sub-buckets (HDR-style).
+ * The relative error of reported values is therefore about 3%, independent
+ * of the magnitude.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LatencyHistogram
+  implements Serializable {
+
+  private static final long serialVersionUID = 6201953856381766442L;
+
+  /** the number of bits for the sub-buckets. */
+  protected final static int SUB_BITS = 5;
+
+  /** the number of sub-buckets. */
+  protected final static int SUB_COUNT = 1 << SUB_BITS;
+
+  /** the counts per bucket. */
+  protected AtomicLongArray m_Counts;
+
+  /** the total number of values. */
+  protected LongAdder m_Count;
+
+  /** the sum of all values. */
+  protected LongAdder m_Sum;
+
+  /** the maximum value. */
+  protected LongAccumulator m_Max;
+
+  /**
+   * Initializes the histogram.
+   */
+  public LatencyHistogram() {
+    m_Counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB_COUNT);
+    m_Count  = new LongAdder();
+    m_Sum    = new LongAdder();
+    m_Max    = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * Returns the bucket index for the value.
+   *
+   * @param value	the value
+   * @return		the index
+   */
+  protected static int indexOf(long value) {
+    int		shift;
+
+    if (value < SUB_COUNT)
+      return (int) value;
+    shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+  }
+
+  /**
+   * Returns the lower bound of the values in the bucket.
+   *
+   * @param index	the bucket index
+   * @return		the lower bound
+   */
+  protected static long lowerBound(int index) {
+    int		shift;
+
+    if (index < SUB_COUNT)
+      return index;
+    shift = index / SUB_COUNT - 1;
+    return ((long) (SUB_COUNT + index % SUB_COUNT)) << shift;
+  }
+
+  /**
+   * Returns the value representing the bucket (its mid-point).
+   *
+   * @param index	the bucket index
+   * @return		the value
+   */
+  protected static long valueOf(int index) {
+    int		shift;
+
+    if (index < SUB_COUNT)
+      return index;
+    shift = index / SUB_COUNT - 1;
+    return lowerBound(index) + ((1L << shift) >>> 1);
+  }
+
+  /**
+   * Records the value. Negative values are recorded as 0.
+   *
+   * @param value	the value to record
+   */
+  public void record(long value) {
+    if (value < 0)
+      value = 0;
+    m_Counts.incrementAndGet(indexOf(value));
+    m_Count.increment();
+    m_Sum.add(value);
+    m_Max.accumulate(value);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count.sum();
+  }
+
+  /**
+   * Returns the sum of all recorded values.
+   *
+   * @return		the sum
+   */
+  public long getSum() {
+    return m_Sum.sum();
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return		the mean, 0 if no values recorded
+   */
+  public double getMean() {
+    long	count;
+
+    count = getCount();
+    return (count == 0) ? 0.0 : (double) getSum() / count;
+  }
+
+  /**
+   * Returns the maximum recorded value.
+   *
+   * @return		the maximum, 0 if no values recorded
+   */
+  public long getMax() {
+    return m_Max.get();
+  }
+
+  /**
+   * Returns the (approximate) value at the specified percentile.
+   *
+   * @param percentile	the percentile (0-100)
+   * @return		the value, 0 if no values recorded
+   */
+  public long getPercentile(double percentile) {
+    long	total;
+    long	threshold;
+    long	seen;
+    int		i;
+
+    total = 0;
+    for (i = 0; i < m_Counts.length(); i++)
+      total += m_Counts.get(i);
+    if (total == 0)
+      return 0;
+    threshold = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+    seen      = 0;
+    for (i = 0; i < m_Counts.length(); i++) {
+      seen += m_Counts.get(i);
+      if (seen >= threshold)
+	return Math.min(valueOf(i), getMax());
+    }
+    return getMax();
+  }
+
+  /**
+   * Removes all recorded values.
+   */
+  public void reset() {
+    int		i;
+
+    for (i = 0; i < m_Counts.length(); i++)
+      m_Counts.set(i, 0);
+    m_Count.reset();
+    m_Sum.reset();
+    m_Max.reset();
+  }
+
+  /**
+   * Returns a short summary.
+   *
+   * @return		the summary
+   */
+  @Override
+  public String toString() {
+    return "count=" + getCount() + ", mean=" + Math.round(getMean()) + ", p50=" + getPercentile(50)
+      + ", p99=" + getPercentile(99) + ", max=" + getMax();
+  }
+}
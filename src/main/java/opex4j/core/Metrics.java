@@ -0,0 +1,40 @@
+/*
+ * Metrics.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+/**
+ * Manages the global {@link MetricsListener} that the read/write operations
+ * report to. By default, {@link NullMetricsListener} is used, which disables
+ * all measurements.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class Metrics {
+
+  /** the current listener. */
+  protected static volatile MetricsListener m_Listener = NullMetricsListener.INSTANCE;
+
+  private Metrics() {
+  }
+
+  /**
+   * Sets the listener to report to.
+   *
+   * @param value	the listener, null to disable
+   */
+  public static void setListener(MetricsListener value) {
+    m_Listener = (value == null) ? NullMetricsListener.INSTANCE : value;
+  }
+
+  /**
+   * Returns the listener to report to.
+   *
+   * @return		the listener, never null
+   */
+  public static MetricsListener getListener() {
+    return m_Listener;
+  }
+}
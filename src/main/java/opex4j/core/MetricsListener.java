@@ -0,0 +1,58 @@
+/*
+ * MetricsListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+/**
+ * Interface for listeners that get notified about read/write operations
+ * of the library, e.g., for collecting metrics.
+ * <br>
+ * Sizes are in bytes for streams and files, and in characters for strings,
+ * readers and writers. A size of -1 means unknown. Durations are in nano-seconds.
+ * <br>
+ * Implementations must be thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see Metrics#setListener(MetricsListener)
+ */
+public interface MetricsListener {
+
+  /**
+   * Returns whether the listener is enabled. If not, no measurements are
+   * taken and none of the other methods get called.
+   *
+   * @return		true if enabled
+   */
+  public boolean isEnabled();
+
+  /**
+   * Gets called after a document has been read.
+   *
+   * @param size	the size of the document, -1 if unknown
+   * @param parseNanos	the time spent on parsing the JSON (tree building)
+   * @param buildNanos	the time spent on constructing the objects from the JSON
+   * @param objects	the number of objects
+   * @param vertices	the total number of polygon vertices
+   */
+  public void documentRead(long size, long parseNanos, long buildNanos, int objects, int vertices);
+
+  /**
+   * Gets called after a document has been written.
+   *
+   * @param size	the size of the document, -1 if unknown
+   * @param serializeNanos	the time spent on generating and writing the JSON
+   * @param objects	the number of objects
+   * @param vertices	the total number of polygon vertices
+   */
+  public void documentWritten(long size, long serializeNanos, int objects, int vertices);
+
+  /**
+   * Gets called after a timestamp has been parsed.
+   *
+   * @param format	the detected format
+   * @param success	whether the timestamp could be parsed
+   */
+  public void timestampParsed(TimestampCodec.Format format, boolean success);
+}
@@ -0,0 +1,52 @@
+/*
+ * NullMetricsListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+/**
+ * Dummy listener that does nothing (default).
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class NullMetricsListener
+  implements MetricsListener {
+
+  /** the singleton. */
+  public final static NullMetricsListener INSTANCE = new NullMetricsListener();
+
+  private NullMetricsListener() {
+  }
+
+  /**
+   * Returns whether the listener is enabled.
+   *
+   * @return		always false
+   */
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void documentRead(long size, long parseNanos, long buildNanos, int objects, int vertices) {
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void documentWritten(long size, long serializeNanos, int objects, int vertices) {
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void timestampParsed(TimestampCodec.Format format, boolean success) {
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * PredictionsVisitor.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Interface for processing documents event by event, without materializing
+ * predictions, objects, bboxes, polygons or points.
+ * <br>
+ * Sequence of events per document:
+ * <pre>
+ * onDocumentStart
+ *   (onObject (onPolygonPoint)* (onMeta)* onObjectEnd)*
+ *   (onMeta)*
+ * onDocumentEnd
+ * </pre>
+ * The {@link #onMeta(String, String)} events between {@link #onObject}
+ * and {@link #onObjectEnd()} belong to the object, the ones after the last
+ * object to the document.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see Utf8PredictionsEventParser
+ * @see PredictionsVisitorAdapter
+ */
+public interface PredictionsVisitor {
+
+  /**
+   * Gets called at the start of a document.
+   *
+   * @param id		the ID of the document
+   * @param timestamp	the timestamp, null if not available
+   * @throws IOException	if processing fails
+   */
+  public void onDocumentStart(String id, LocalDateTime timestamp) throws IOException;
+
+  /**
+   * Gets called at the start of an object.
+   *
+   * @param label	the label
+   * @param score	the score, {@link Double#NaN} if not available
+   * @param left	the left coordinate of the bbox
+   * @param top		the top coordinate of the bbox
+   * @param right	the right coordinate of the bbox
+   * @param bottom	the bottom coordinate of the bbox
+   * @return		true if to receive the polygon points and meta-data of the
+   * 			object, false to skip them (the end of the object still
+   * 			gets reported)
+   * @throws IOException	if processing fails
+   */
+  public boolean onObject(String label, double score, int left, int top, int right, int bottom) throws IOException;
+
+  /**
+   * Gets called for each point of the polygon of the current object.
+   *
+   * @param x		the x coordinate
+   * @param y		the y coordinate
+   * @throws IOException	if processing fails
+   */
+  public void onPolygonPoint(int x, int y) throws IOException;
+
+  /**
+   * Gets called for each meta-data entry of the current object or, after
+   * the last object, of the document.
+   *
+   * @param key		the key
+   * @param value	the value, can be null
+   * @throws IOException	if processing fails
+   */
+  public void onMeta(String key, String value) throws IOException;
+
+  /**
+   * Gets called at the end of an object.
+   *
+   * @throws IOException	if processing fails
+   */
+  public void onObjectEnd() throws IOException;
+
+  /**
+   * Gets called at the end of a document.
+   *
+   * @throws IOException	if processing fails
+   */
+  public void onDocumentEnd() throws IOException;
+}
@@ -0,0 +1,64 @@
+/*
+ * PredictionsVisitorAdapter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Visitor that ignores all events, for subclasses that are only interested
+ * in some of them.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PredictionsVisitorAdapter
+  implements PredictionsVisitor {
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void onDocumentStart(String id, LocalDateTime timestamp) throws IOException {
+  }
+
+  /**
+   * Does nothing.
+   *
+   * @return		always true
+   */
+  @Override
+  public boolean onObject(String label, double score, int left, int top, int right, int bottom) throws IOException {
+    return true;
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void onPolygonPoint(int x, int y) throws IOException {
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void onMeta(String key, String value) throws IOException {
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void onObjectEnd() throws IOException {
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void onDocumentEnd() throws IOException {
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * StatisticsMetricsListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects statistics using lock-free counters and latency histograms.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class StatisticsMetricsListener
+  implements MetricsListener {
+
+  /** the number of documents read. */
+  protected LongAdder m_DocumentsRead;
+
+  /** the number of bytes/characters read. */
+  protected LongAdder m_BytesRead;
+
+  /** the number of objects read. */
+  protected LongAdder m_ObjectsRead;
+
+  /** the number of vertices read. */
+  protected LongAdder m_VerticesRead;
+
+  /** the number of documents written. */
+  protected LongAdder m_DocumentsWritten;
+
+  /** the number of bytes/characters written. */
+  protected LongAdder m_BytesWritten;
+
+  /** the number of objects written. */
+  protected LongAdder m_ObjectsWritten;
+
+  /** the number of vertices written. */
+  protected LongAdder m_VerticesWritten;
+
+  /** the number of timestamps not in the default format. */
+  protected LongAdder m_TimestampFallbacks;
+
+  /** the number of timestamps that could not be parsed. */
+  protected LongAdder m_TimestampFailures;
+
+  /** the parse latencies (tree building). */
+  protected LatencyHistogram m_ParseLatency;
+
+  /** the build latencies (object construction). */
+  protected LatencyHistogram m_BuildLatency;
+
+  /** the serialize latencies. */
+  protected LatencyHistogram m_SerializeLatency;
+
+  /**
+   * Initializes the listener.
+   */
+  public StatisticsMetricsListener() {
+    m_DocumentsRead      = new LongAdder();
+    m_BytesRead          = new LongAdder();
+    m_ObjectsRead        = new LongAdder();
+    m_VerticesRead       = new LongAdder();
+    m_DocumentsWritten   = new LongAdder();
+    m_BytesWritten       = new LongAdder();
+    m_ObjectsWritten     = new LongAdder();
+    m_VerticesWritten    = new LongAdder();
+    m_TimestampFallbacks = new LongAdder();
+    m_TimestampFailures  = new LongAdder();
+    m_ParseLatency       = new LatencyHistogram();
+    m_BuildLatency       = new LatencyHistogram();
+    m_SerializeLatency   = new LatencyHistogram();
+  }
+
+  /**
+   * Returns whether the listener is enabled.
+   *
+   * @return		always true
+   */
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Gets called after a document has been read.
+   *
+   * @param size	the size of the document, -1 if unknown
+   * @param parseNanos	the time spent on parsing the JSON (tree building)
+   * @param buildNanos	the time spent on constructing the objects from the JSON
+   * @param objects	the number of objects
+   * @param vertices	the total number of polygon vertices
+   */
+  @Override
+  public void documentRead(long size, long parseNanos, long buildNanos, int objects, int vertices) {
+    m_DocumentsRead.increment();
+    if (size > 0)
+      m_BytesRead.add(size);
+    m_ObjectsRead.add(objects);
+    m_VerticesRead.add(vertices);
+    m_ParseLatency.record(parseNanos);
+    m_BuildLatency.record(buildNanos);
+  }
+
+  /**
+   * Gets called after a document has been written.
+   *
+   * @param size	the size of the document, -1 if unknown
+   * @param serializeNanos	the time spent on generating and writing the JSON
+   * @param objects	the number of objects
+   * @param vertices	the total number of polygon vertices
+   */
+  @Override
+  public void documentWritten(long size, long serializeNanos, int objects, int vertices) {
+    m_DocumentsWritten.increment();
+    if (size > 0)
+      m_BytesWritten.add(size);
+    m_ObjectsWritten.add(objects);
+    m_VerticesWritten.add(vertices);
+    m_SerializeLatency.record(serializeNanos);
+  }
+
+  /**
+   * Gets called after a timestamp has been parsed.
+   *
+   * @param format	the detected format
+   * @param success	whether the timestamp could be parsed
+   */
+  @Override
+  public void timestampParsed(TimestampCodec.Format format, boolean success) {
+    if (!success)
+      m_TimestampFailures.increment();
+    else if (format != TimestampCodec.Format.COMPACT)
+      m_TimestampFallbacks.increment();
+  }
+
+  /**
+   * Returns the number of documents read.
+   *
+   * @return		the count
+   */
+  public long getDocumentsRead() {
+    return m_DocumentsRead.sum();
+  }
+
+  /**
+   * Returns the number of bytes (or characters) read.
+   *
+   * @return		the count
+   */
+  public long getBytesRead() {
+    return m_BytesRead.sum();
+  }
+
+  /**
+   * Returns the number of objects read.
+   *
+   * @return		the count
+   */
+  public long getObjectsRead() {
+    return m_ObjectsRead.sum();
+  }
+
+  /**
+   * Returns the number of polygon vertices read.
+   *
+   * @return		the count
+   */
+  public long getVerticesRead() {
+    return m_VerticesRead.sum();
+  }
+
+  /**
+   * Returns the number of documents written.
+   *
+   * @return		the count
+   */
+  public long getDocumentsWritten() {
+    return m_DocumentsWritten.sum();
+  }
+
+  /**
+   * Returns the number of bytes (or characters) written.
+   *
+   * @return		the count
+   */
+  public long getBytesWritten() {
+    return m_BytesWritten.sum();
+  }
+
+  /**
+   * Returns the number of objects written.
+   *
+   * @return		the count
+   */
+  public long getObjectsWritten() {
+    return m_ObjectsWritten.sum();
+  }
+
+  /**
+   * Returns the number of polygon vertices written.
+   *
+   * @return		the count
+   */
+  public long getVerticesWritten() {
+    return m_VerticesWritten.sum();
+  }
+
+  /**
+   * Returns the number of timestamps that were not in the default format.
+   *
+   * @return		the count
+   */
+  public long getTimestampFallbacks() {
+    return m_TimestampFallbacks.sum();
+  }
+
+  /**
+   * Returns the number of timestamps that could not be parsed.
+   *
+   * @return		the count
+   */
+  public long getTimestampFailures() {
+    return m_TimestampFailures.sum();
+  }
+
+  /**
+   * Returns the latencies for parsing the JSON (tree building).
+   *
+   * @return		the histogram
+   */
+  public LatencyHistogram getParseLatency() {
+    return m_ParseLatency;
+  }
+
+  /**
+   * Returns the latencies for constructing the objects from the JSON.
+   *
+   * @return		the histogram
+   */
+  public LatencyHistogram getBuildLatency() {
+    return m_BuildLatency;
+  }
+
+  /**
+   * Returns the latencies for serializing.
+   *
+   * @return		the histogram
+   */
+  public LatencyHistogram getSerializeLatency() {
+    return m_SerializeLatency;
+  }
+
+  /**
+   * Resets all statistics.
+   */
+  public void reset() {
+    m_DocumentsRead.reset();
+    m_BytesRead.reset();
+    m_ObjectsRead.reset();
+    m_VerticesRead.reset();
+    m_DocumentsWritten.reset();
+    m_BytesWritten.reset();
+    m_ObjectsWritten.reset();
+    m_VerticesWritten.reset();
+    m_TimestampFallbacks.reset();
+    m_TimestampFailures.reset();
+    m_ParseLatency.reset();
+    m_BuildLatency.reset();
+    m_SerializeLatency.reset();
+  }
+
+  /**
+   * Returns a summary of the statistics.
+   *
+   * @return		the summary
+   */
+  @Override
+  public String toString() {
+    return "read: documents=" + getDocumentsRead() + ", bytes=" + getBytesRead()
+      + ", objects=" + getObjectsRead() + ", vertices=" + getVerticesRead() + "\n"
+      + "written: documents=" + getDocumentsWritten() + ", bytes=" + getBytesWritten()
+      + ", objects=" + getObjectsWritten() + ", vertices=" + getVerticesWritten() + "\n"
+      + "timestamps: fallbacks=" + getTimestampFallbacks() + ", failures=" + getTimestampFailures() + "\n"
+      + "parse latency: " + m_ParseLatency + "\n"
+      + "build latency: " + m_BuildLatency + "\n"
+      + "serialize latency: " + m_SerializeLatency;
+  }
+}
@@ -0,0 +1,473 @@
+/*
+ * TimestampCodec.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses and formats OPEX timestamps without going through {@link DateTimeFormatter}
+ * and without relying on exceptions for detecting the format.
+ * <br>
+ * Supported formats (detected in a single pass):
+ * <ul>
+ *   <li>{@link Format#COMPACT}: yyyyMMdd_HHmmss.SSSSSS (Python: %Y%m%d_%H%M%S.%f)</li>
+ *   <li>{@link Format#ALT}: yyyy-MM-dd HH:mm:ss.SSSSSS (Python: %Y-%m-%d %H:%M:%S.%f)</li>
+ *   <li>{@link Format#ISO}: ISO-8601, e.g., yyyy-MM-ddTHH:mm:ss.SSS with optional Z/offset (converted to UTC)</li>
+ *   <li>{@link Format#EPOCH_MILLIS}: milli-seconds since 1970-01-01 00:00:00 UTC</li>
+ * </ul>
+ * The fractional seconds are optional and can have 1-9 digits.
+ * Failures are reported through an {@link ErrorHandler}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class TimestampCodec {
+
+  /**
+   * The supported formats.
+   */
+  public enum Format {
+    /** yyyyMMdd_HHmmss.SSSSSS. */
+    COMPACT,
+    /** yyyy-MM-dd HH:mm:ss.SSSSSS. */
+    ALT,
+    /** ISO-8601. */
+    ISO,
+    /** epoch milli-seconds. */
+    EPOCH_MILLIS,
+    /** unknown/unparseable format. */
+    UNKNOWN,
+  }
+
+  /** the fallback formatter for years outside 0-9999. */
+  protected final static DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss.SSSSSS");
+
+  /** the fallback (alternative) formatter for years outside 0-9999. */
+  protected final static DateTimeFormatter FORMATTER_ALT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+  /**
+   * Interface for handling timestamps that cannot be parsed.
+   */
+  public interface ErrorHandler {
+
+    /**
+     * Gets called when a timestamp cannot be parsed.
+     *
+     * @param timestamp	the offending timestamp
+     * @param reason	the reason why it failed
+     */
+    public void handle(CharSequence timestamp, String reason);
+  }
+
+  /** outputs failures on stderr. */
+  public final static ErrorHandler STDERR = (CharSequence timestamp, String reason) ->
+    System.err.println("Failed to parse timestamp '" + timestamp + "': " + reason);
+
+  /** ignores failures. */
+  public final static ErrorHandler IGNORE = (CharSequence timestamp, String reason) -> {};
+
+  /** the powers of ten for scaling fractions to nano-seconds. */
+  protected final static int[] NANO_SCALE = {
+    1000000000, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1,
+  };
+
+  /** the handler used by {@link #parse(CharSequence)}, silent by default. */
+  protected static volatile ErrorHandler m_DefaultErrorHandler = IGNORE;
+
+  private TimestampCodec() {
+  }
+
+  /**
+   * Sets the error handler that {@link #parse(CharSequence)} uses.
+   * Use {@link #STDERR} for outputting failures on stderr.
+   *
+   * @param value	the handler, null to ignore errors
+   */
+  public static void setDefaultErrorHandler(ErrorHandler value) {
+    m_DefaultErrorHandler = (value == null) ? IGNORE : value;
+  }
+
+  /**
+   * Returns the error handler that {@link #parse(CharSequence)} uses.
+   *
+   * @return		the handler
+   */
+  public static ErrorHandler getDefaultErrorHandler() {
+    return m_DefaultErrorHandler;
+  }
+
+  /**
+   * Parses the specified number of digits.
+   *
+   * @param s		the string to parse
+   * @param start	the start position
+   * @param count	the number of digits
+   * @return		the value, -1 if not all characters are digits or out of bounds
+   */
+  protected static int digits(CharSequence s, int start, int count) {
+    int		result;
+    int		i;
+    char	c;
+
+    if (start + count > s.length())
+      return -1;
+    result = 0;
+    for (i = start; i < start + count; i++) {
+      c = s.charAt(i);
+      if ((c < '0') || (c > '9'))
+	return -1;
+      result = result * 10 + (c - '0');
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether the character at the position matches.
+   *
+   * @param s		the string to check
+   * @param pos		the position
+   * @param c		the expected character
+   * @return		true if matching
+   */
+  protected static boolean charAt(CharSequence s, int pos, char c) {
+    return (pos < s.length()) && (s.charAt(pos) == c);
+  }
+
+  /**
+   * Returns the length of the month.
+   *
+   * @param year	the year
+   * @param month	the month (1-12)
+   * @return		the number of days
+   */
+  protected static int monthLength(int year, int month) {
+    switch (month) {
+      case 2:
+	return (((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0))) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+	return 30;
+      default:
+	return 31;
+    }
+  }
+
+  /**
+   * Detects the format of the timestamp, without validating it fully.
+   *
+   * @param s		the timestamp to check
+   * @return		the format, {@link Format#UNKNOWN} if not recognized
+   */
+  public static Format detect(CharSequence s) {
+    int		i;
+    int		start;
+    char	c;
+
+    if ((s == null) || (s.length() == 0))
+      return Format.UNKNOWN;
+    if (charAt(s, 8, '_'))
+      return Format.COMPACT;
+    if (charAt(s, 4, '-') && charAt(s, 10, ' '))
+      return Format.ALT;
+    if (charAt(s, 4, '-') && charAt(s, 10, 'T'))
+      return Format.ISO;
+    start = (s.charAt(0) == '-') ? 1 : 0;
+    if ((s.length() == start) || (s.length() - start > 18))
+      return Format.UNKNOWN;
+    for (i = start; i < s.length(); i++) {
+      c = s.charAt(i);
+      if ((c < '0') || (c > '9'))
+	return Format.UNKNOWN;
+    }
+    return Format.EPOCH_MILLIS;
+  }
+
+  /**
+   * Parses the timestamp, reporting failures to the default error handler.
+   *
+   * @param s		the timestamp to parse
+   * @return		the timestamp, null if failed to parse
+   * @see		#setDefaultErrorHandler(ErrorHandler)
+   */
+  public static LocalDateTime parse(CharSequence s) {
+    return parse(s, m_DefaultErrorHandler);
+  }
+
+  /**
+   * Parses the timestamp.
+   *
+   * @param s		the timestamp to parse
+   * @param handler	the handler for reporting failures
+   * @return		the timestamp, null if failed to parse
+   */
+  public static LocalDateTime parse(CharSequence s, ErrorHandler handler) {
+    switch (detect(s)) {
+      case COMPACT:
+	return parseDateTime(s, 0, 4, 6, 9, 11, 13, 15, handler);
+      case ALT:
+	return parseDateTime(s, 0, 5, 8, 11, 14, 17, 19, handler);
+      case ISO:
+	return parseISO(s, handler);
+      case EPOCH_MILLIS:
+	return parseEpochMillis(s);
+      default:
+	handler.handle(s, "unknown format");
+	return null;
+    }
+  }
+
+  /**
+   * Parses the fraction of seconds, if present.
+   *
+   * @param s		the timestamp
+   * @param pos		the position of the '.'
+   * @return		the nano-seconds (lower 32 bits) and the end position (upper 32 bits), -1 if invalid
+   */
+  protected static long fraction(CharSequence s, int pos) {
+    int		nanos;
+    int		count;
+    char	c;
+
+    if (!charAt(s, pos, '.'))
+      return ((long) pos) << 32;
+    pos++;
+    nanos = 0;
+    count = 0;
+    while (pos < s.length()) {
+      c = s.charAt(pos);
+      if ((c < '0') || (c > '9'))
+	break;
+      if (count == 9)
+	return -1;
+      nanos = nanos * 10 + (c - '0');
+      count++;
+      pos++;
+    }
+    if (count == 0)
+      return -1;
+    return (((long) pos) << 32) | (nanos * NANO_SCALE[count]);
+  }
+
+  /**
+   * Validates the fields and creates the timestamp.
+   *
+   * @param s		the original timestamp string
+   * @param year	the year
+   * @param month	the month
+   * @param day		the day
+   * @param hour	the hour
+   * @param minute	the minute
+   * @param second	the second
+   * @param nanos	the nano-seconds
+   * @param handler	for reporting errors
+   * @return		the timestamp, null if invalid
+   */
+  protected static LocalDateTime create(CharSequence s, int year, int month, int day, int hour, int minute, int second, int nanos, ErrorHandler handler) {
+    if ((year < 0) || (month < 1) || (month > 12) || (day < 1) || (hour < 0) || (minute < 0) || (second < 0)) {
+      handler.handle(s, "invalid digits");
+      return null;
+    }
+    if ((day > monthLength(year, month)) || (hour > 23) || (minute > 59) || (second > 59)) {
+      handler.handle(s, "field out of range");
+      return null;
+    }
+    return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+  }
+
+  /**
+   * Parses a fixed-position date/time (4-digit year, 2-digit other fields).
+   *
+   * @param s		the timestamp
+   * @param y		the position of the year
+   * @param mo		the position of the month
+   * @param d		the position of the day
+   * @param h		the position of the hour
+   * @param mi		the position of the minute
+   * @param se		the position of the second
+   * @param f		the position of the fraction separator
+   * @param handler	for reporting errors
+   * @return		the timestamp, null if failed to parse
+   */
+  protected static LocalDateTime parseDateTime(CharSequence s, int y, int mo, int d, int h, int mi, int se, int f, ErrorHandler handler) {
+    long	frac;
+
+    frac = fraction(s, f);
+    if ((frac == -1) || ((int) (frac >>> 32) != s.length())) {
+      handler.handle(s, "invalid fraction or trailing characters");
+      return null;
+    }
+    if ((f == 19) && (!charAt(s, 7, '-') || !charAt(s, 13, ':') || !charAt(s, 16, ':'))) {
+      handler.handle(s, "invalid separators");
+      return null;
+    }
+    return create(s, digits(s, y, 4), digits(s, mo, 2), digits(s, d, 2),
+      digits(s, h, 2), digits(s, mi, 2), digits(s, se, 2), (int) frac, handler);
+  }
+
+  /**
+   * Parses an ISO-8601 timestamp: yyyy-MM-ddTHH:mm[:ss[.fraction]][Z|(+|-)HH[:]mm].
+   * Timestamps with zone information get converted to UTC.
+   *
+   * @param s		the timestamp
+   * @param handler	for reporting errors
+   * @return		the timestamp, null if failed to parse
+   */
+  protected static LocalDateTime parseISO(CharSequence s, ErrorHandler handler) {
+    int			second;
+    int			pos;
+    long		frac;
+    int			nanos;
+    int			offset;
+    int			sign;
+    int			oh;
+    int			om;
+    LocalDateTime	result;
+
+    if (!charAt(s, 7, '-') || !charAt(s, 13, ':')) {
+      handler.handle(s, "invalid separators");
+      return null;
+    }
+    pos    = 16;
+    second = 0;
+    nanos  = 0;
+    if (charAt(s, 16, ':')) {
+      second = digits(s, 17, 2);
+      frac   = fraction(s, 19);
+      if (frac == -1) {
+	handler.handle(s, "invalid fraction");
+	return null;
+      }
+      pos   = (int) (frac >>> 32);
+      nanos = (int) frac;
+    }
+
+    offset = 0;
+    if (pos < s.length()) {
+      if ((s.charAt(pos) == 'Z') && (pos + 1 == s.length())) {
+	// UTC
+      }
+      else if ((s.charAt(pos) == '+') || (s.charAt(pos) == '-')) {
+	sign = (s.charAt(pos) == '-') ? -1 : 1;
+	oh   = digits(s, pos + 1, 2);
+	om   = charAt(s, pos + 3, ':') ? digits(s, pos + 4, 2) : digits(s, pos + 3, 2);
+	if ((oh < 0) || (oh > 18) || (om < 0) || (om > 59)
+	  || (s.length() != pos + (charAt(s, pos + 3, ':') ? 6 : 5))) {
+	  handler.handle(s, "invalid offset");
+	  return null;
+	}
+	offset = sign * (oh * 3600 + om * 60);
+      }
+      else {
+	handler.handle(s, "trailing characters");
+	return null;
+      }
+    }
+
+    result = create(s, digits(s, 0, 4), digits(s, 5, 2), digits(s, 8, 2),
+      digits(s, 11, 2), digits(s, 14, 2), second, nanos, handler);
+    if ((result != null) && (offset != 0))
+      result = result.minusSeconds(offset);
+    return result;
+  }
+
+  /**
+   * Parses epoch milli-seconds (already validated by {@link #detect(CharSequence)}).
+   *
+   * @param s		the timestamp
+   * @return		the timestamp (UTC)
+   */
+  protected static LocalDateTime parseEpochMillis(CharSequence s) {
+    long	millis;
+    int		i;
+    boolean	negative;
+
+    negative = (s.charAt(0) == '-');
+    millis   = 0;
+    for (i = negative ? 1 : 0; i < s.length(); i++)
+      millis = millis * 10 + (s.charAt(i) - '0');
+    if (negative)
+      millis = -millis;
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1000000, ZoneOffset.UTC);
+  }
+
+  /**
+   * Appends the value as zero-padded digits.
+   *
+   * @param buf		the buffer to write to
+   * @param pos		the position to start at
+   * @param value	the value to write
+   * @param count	the number of digits
+   */
+  protected static void pad(char[] buf, int pos, int value, int count) {
+    int		i;
+
+    for (i = pos + count - 1; i >= pos; i--) {
+      buf[i] = (char) ('0' + (value % 10));
+      value /= 10;
+    }
+  }
+
+  /**
+   * Formats the timestamp using {@link Format#COMPACT}.
+   *
+   * @param timestamp	the timestamp to format
+   * @return		the generated string
+   */
+  public static String format(LocalDateTime timestamp) {
+    return format(timestamp, false);
+  }
+
+  /**
+   * Formats the timestamp using {@link Format#COMPACT} or {@link Format#ALT}.
+   * Sub-microsecond precision gets truncated.
+   *
+   * @param timestamp	the timestamp to format
+   * @param alt		whether to use the alternative format
+   * @return		the generated string
+   */
+  public static String format(LocalDateTime timestamp, boolean alt) {
+    char[]	buf;
+    int		year;
+
+    year = timestamp.getYear();
+    if ((year < 0) || (year > 9999))
+      return (alt ? FORMATTER_ALT : FORMATTER).format(timestamp);
+
+    if (alt) {
+      buf = new char[26];
+      pad(buf, 0, year, 4);
+      buf[4] = '-';
+      pad(buf, 5, timestamp.getMonthValue(), 2);
+      buf[7] = '-';
+      pad(buf, 8, timestamp.getDayOfMonth(), 2);
+      buf[10] = ' ';
+      pad(buf, 11, timestamp.getHour(), 2);
+      buf[13] = ':';
+      pad(buf, 14, timestamp.getMinute(), 2);
+      buf[16] = ':';
+      pad(buf, 17, timestamp.getSecond(), 2);
+      buf[19] = '.';
+      pad(buf, 20, timestamp.getNano() / 1000, 6);
+    }
+    else {
+      buf = new char[22];
+      pad(buf, 0, year, 4);
+      pad(buf, 4, timestamp.getMonthValue(), 2);
+      pad(buf, 6, timestamp.getDayOfMonth(), 2);
+      buf[8] = '_';
+      pad(buf, 9, timestamp.getHour(), 2);
+      pad(buf, 11, timestamp.getMinute(), 2);
+      pad(buf, 13, timestamp.getSecond(), 2);
+      buf[15] = '.';
+      pad(buf, 16, timestamp.getNano() / 1000, 6);
+    }
+
+    return new String(buf);
+  }
+}
@@ -0,0 +1,756 @@
+/*
+ * Utf8JsonTokenizer.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull tokenizer for UTF-8 encoded JSON that works directly on the bytes
+ * of a {@link ByteBuffer} (heap, direct or memory-mapped), without decoding
+ * the data into characters first. Numbers get parsed straight from the bytes
+ * and strings only get created on request ({@link #getString()}), optionally
+ * via a small cache that avoids creating strings for repeated values like
+ * labels and meta-data keys ({@link #getCachedString()}).
+ * <br>
+ * The tokenizer uses absolute reads between the position and the limit of
+ * the buffer at construction time, i.e., the buffer's position is not changed.
+ * Structure is only checked loosely (commas/colons get skipped), the
+ * tokenizer is meant for reading documents rather than validating them.
+ * <br>
+ * Not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Utf8JsonTokenizer {
+
+  /**
+   * The tokens.
+   */
+  public enum Token {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL,
+    END_DOCUMENT,
+  }
+
+  /** the powers of ten that can be represented exactly as double. */
+  protected final static double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+  };
+
+  /** the size of the string cache (power of 2). */
+  protected final static int CACHE_SIZE = 256;
+
+  /**
+   * View of the current string/number token as ASCII characters.
+   */
+  protected class AsciiView
+    implements CharSequence {
+
+    /** the start offset. */
+    protected int m_Offset;
+
+    /** the length. */
+    protected int m_Length;
+
+    @Override
+    public int length() {
+      return m_Length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if ((index < 0) || (index >= m_Length))
+	throw new IndexOutOfBoundsException("Index: " + index + ", length: " + m_Length);
+      return (char) (m_Buffer.get(m_Offset + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return decode(m_Offset, m_Offset + m_Length);
+    }
+  }
+
+  /** the buffer. */
+  protected ByteBuffer m_Buffer;
+
+  /** the current position. */
+  protected int m_Pos;
+
+  /** the limit. */
+  protected int m_Limit;
+
+  /** the current token. */
+  protected Token m_Token;
+
+  /** the start of the token value (strings: after the quote). */
+  protected int m_Start;
+
+  /** the end of the token value (exclusive, strings: before the quote). */
+  protected int m_End;
+
+  /** whether the current string contains escapes. */
+  protected boolean m_Escaped;
+
+  /** whether the current number is an integer. */
+  protected boolean m_Integer;
+
+  /** the nesting (true = object). */
+  protected boolean[] m_Stack;
+
+  /** the current depth. */
+  protected int m_Depth;
+
+  /** whether a name is expected next. */
+  protected boolean m_ExpectName;
+
+  /** the view for ASCII access. */
+  protected AsciiView m_View;
+
+  /** for copying bytes of non-heap buffers. */
+  protected byte[] m_Scratch;
+
+  /** the cached strings. */
+  protected String[] m_CacheStrings;
+
+  /** the bytes of the cached strings. */
+  protected byte[][] m_CacheBytes;
+
+  /**
+   * Initializes the tokenizer with the byte array.
+   *
+   * @param data	the data to tokenize
+   */
+  public Utf8JsonTokenizer(byte[] data) {
+    this(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Initializes the tokenizer with the remaining bytes of the buffer.
+   *
+   * @param buffer	the buffer to tokenize
+   */
+  public Utf8JsonTokenizer(ByteBuffer buffer) {
+    m_View         = new AsciiView();
+    m_Scratch      = new byte[64];
+    m_CacheStrings = new String[CACHE_SIZE];
+    m_CacheBytes   = new byte[CACHE_SIZE][];
+    reset(buffer);
+  }
+
+  /**
+   * Resets the tokenizer to use the remaining bytes of the buffer. Keeps the
+   * string cache.
+   *
+   * @param buffer	the buffer to tokenize
+   */
+  public void reset(ByteBuffer buffer) {
+    m_Buffer     = buffer;
+    m_Pos        = buffer.position();
+    m_Limit      = buffer.limit();
+    m_Token      = null;
+    m_Stack      = new boolean[32];
+    m_Depth      = 0;
+    m_ExpectName = false;
+    // skip BOM
+    if ((m_Limit - m_Pos >= 3)
+      && ((buffer.get(m_Pos) & 0xff) == 0xEF) && ((buffer.get(m_Pos + 1) & 0xff) == 0xBB) && ((buffer.get(m_Pos + 2) & 0xff) == 0xBF))
+      m_Pos += 3;
+  }
+
+  /**
+   * Returns the current token.
+   *
+   * @return		the token, null if {@link #next()} hasn't been called yet
+   */
+  public Token getToken() {
+    return m_Token;
+  }
+
+  /**
+   * Returns the current position in the buffer.
+   *
+   * @return		the position
+   */
+  public int getPosition() {
+    return m_Pos;
+  }
+
+  /**
+   * Returns the current nesting depth.
+   *
+   * @return		the depth
+   */
+  public int getDepth() {
+    return m_Depth;
+  }
+
+  /**
+   * Returns a mark of the current state (position, depth), for returning to
+   * it later via {@link #seek(long)}.
+   *
+   * @return		the mark
+   */
+  public long mark() {
+    return ((long) m_Pos << 32) | ((long) m_Depth << 1) | (m_ExpectName ? 1 : 0);
+  }
+
+  /**
+   * Returns to the marked state. Only valid for marks within the current
+   * document whose enclosing objects/arrays are still the same, i.e.,
+   * marks taken within an object or array that has not been left yet, or
+   * taken after the end of the structures being returned from.
+   *
+   * @param mark	the mark obtained via {@link #mark()}
+   */
+  public void seek(long mark) {
+    m_Pos        = (int) (mark >>> 32);
+    m_Depth      = (int) ((mark & 0xffffffffL) >>> 1);
+    m_ExpectName = ((mark & 1) != 0);
+    m_Token      = null;
+  }
+
+  /**
+   * Generates an exception.
+   *
+   * @param msg		the message
+   * @return		the exception
+   */
+  protected IOException error(String msg) {
+    return new IOException(msg + " at position " + m_Pos);
+  }
+
+  /**
+   * Pushes the context.
+   *
+   * @param object	whether object or array
+   */
+  protected void push(boolean object) {
+    boolean[]	stack;
+
+    if (m_Depth == m_Stack.length) {
+      stack = new boolean[m_Stack.length * 2];
+      System.arraycopy(m_Stack, 0, stack, 0, m_Depth);
+      m_Stack = stack;
+    }
+    m_Stack[m_Depth++] = object;
+  }
+
+  /**
+   * Pops the context.
+   *
+   * @throws IOException	if nothing to pop
+   */
+  protected void pop() throws IOException {
+    if (m_Depth == 0)
+      throw error("Unbalanced brackets");
+    m_Depth--;
+  }
+
+  /**
+   * Skips whitespace, commas and colons.
+   *
+   * @return		the next byte, -1 if at end
+   */
+  protected int skip() {
+    int		c;
+
+    while (m_Pos < m_Limit) {
+      c = m_Buffer.get(m_Pos);
+      switch (c) {
+	case ' ':
+	case '\t':
+	case '\n':
+	case '\r':
+	case ':':
+	  m_Pos++;
+	  break;
+	case ',':
+	  m_ExpectName = (m_Depth > 0) && m_Stack[m_Depth - 1];
+	  m_Pos++;
+	  break;
+	default:
+	  return c;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks that the literal follows.
+   *
+   * @param literal	the literal to check
+   * @throws IOException	if the literal does not match
+   */
+  protected void literal(String literal) throws IOException {
+    int		i;
+
+    if (m_Pos + literal.length() > m_Limit)
+      throw error("Unexpected end of data");
+    for (i = 0; i < literal.length(); i++) {
+      if (m_Buffer.get(m_Pos + i) != literal.charAt(i))
+	throw error("Expected '" + literal + "'");
+    }
+    m_Pos += literal.length();
+  }
+
+  /**
+   * Advances to the next token.
+   *
+   * @return		the token
+   * @throws IOException	if the data is malformed
+   */
+  public Token next() throws IOException {
+    int		c;
+    boolean	name;
+
+    c = skip();
+    if (c == -1) {
+      if (m_Depth > 0)
+	throw error("Unexpected end of data");
+      m_Token = Token.END_DOCUMENT;
+      return m_Token;
+    }
+
+    switch (c) {
+      case '{':
+	m_Pos++;
+	push(true);
+	m_ExpectName = true;
+	m_Token      = Token.BEGIN_OBJECT;
+	break;
+
+      case '}':
+	m_Pos++;
+	pop();
+	m_ExpectName = false;
+	m_Token      = Token.END_OBJECT;
+	break;
+
+      case '[':
+	m_Pos++;
+	push(false);
+	m_ExpectName = false;
+	m_Token      = Token.BEGIN_ARRAY;
+	break;
+
+      case ']':
+	m_Pos++;
+	pop();
+	m_ExpectName = false;
+	m_Token      = Token.END_ARRAY;
+	break;
+
+      case '"':
+	name         = m_ExpectName;
+	m_ExpectName = false;
+	m_Pos++;
+	m_Start   = m_Pos;
+	m_Escaped = false;
+	while (true) {
+	  if (m_Pos >= m_Limit)
+	    throw error("Unterminated string");
+	  c = m_Buffer.get(m_Pos);
+	  if (c == '"')
+	    break;
+	  if (c == '\\') {
+	    m_Escaped = true;
+	    m_Pos++;
+	  }
+	  m_Pos++;
+	}
+	m_End   = m_Pos;
+	m_Pos++;
+	m_Token = name ? Token.NAME : Token.STRING;
+	break;
+
+      case 't':
+	literal("true");
+	m_Token = Token.TRUE;
+	break;
+
+      case 'f':
+	literal("false");
+	m_Token = Token.FALSE;
+	break;
+
+      case 'n':
+	literal("null");
+	m_Token = Token.NULL;
+	break;
+
+      default:
+	if ((c != '-') && ((c < '0') || (c > '9')))
+	  throw error("Unexpected character '" + (char) (c & 0xff) + "'");
+	m_Start   = m_Pos;
+	m_Integer = true;
+	while (m_Pos < m_Limit) {
+	  c = m_Buffer.get(m_Pos);
+	  if ((c >= '0') && (c <= '9') || (c == '-') || (c == '+'))
+	    m_Pos++;
+	  else if ((c == '.') || (c == 'e') || (c == 'E')) {
+	    m_Integer = false;
+	    m_Pos++;
+	  }
+	  else
+	    break;
+	}
+	m_End   = m_Pos;
+	m_Token = Token.NUMBER;
+    }
+
+    return m_Token;
+  }
+
+  /**
+   * Advances to the next token and checks that it is the expected one.
+   *
+   * @param expected	the expected token
+   * @throws IOException	if a different token was encountered
+   */
+  public void expect(Token expected) throws IOException {
+    if (next() != expected)
+      throw error("Expected " + expected + " but found " + m_Token);
+  }
+
+  /**
+   * Skips the value that starts with the current token, i.e., skips a
+   * complete object or array.
+   *
+   * @throws IOException	if the data is malformed
+   */
+  public void skipValue() throws IOException {
+    int		depth;
+
+    if ((m_Token != Token.BEGIN_OBJECT) && (m_Token != Token.BEGIN_ARRAY))
+      return;
+    depth = m_Depth;
+    while (m_Depth >= depth) {
+      if (next() == Token.END_DOCUMENT)
+	throw error("Unexpected end of data");
+    }
+  }
+
+  /**
+   * Returns whether the current name/string equals the ASCII string.
+   *
+   * @param s		the string to compare with
+   * @return		true if the same
+   */
+  public boolean isString(String s) {
+    int		i;
+
+    if (m_Escaped || (m_End - m_Start != s.length()))
+      return false;
+    for (i = 0; i < s.length(); i++) {
+      if (m_Buffer.get(m_Start + i) != s.charAt(i))
+	return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the current name/string/number as ASCII characters. Only valid
+   * until the next call of {@link #next()}. Strings with escapes or non-ASCII
+   * characters should be retrieved with {@link #getString()} instead.
+   *
+   * @return		the characters
+   */
+  public CharSequence getAscii() {
+    m_View.m_Offset = m_Start;
+    m_View.m_Length = m_End - m_Start;
+    return m_View;
+  }
+
+  /**
+   * Returns whether the current string contains escape sequences.
+   *
+   * @return		true if escapes present
+   */
+  public boolean isEscaped() {
+    return m_Escaped;
+  }
+
+  /**
+   * Decodes the bytes as UTF-8.
+   *
+   * @param start	the start position
+   * @param end		the end position (exclusive)
+   * @return		the string
+   */
+  protected String decode(int start, int end) {
+    int		i;
+
+    if (m_Buffer.hasArray())
+      return new String(m_Buffer.array(), m_Buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+    if (m_Scratch.length < end - start)
+      m_Scratch = new byte[Math.max(end - start, m_Scratch.length * 2)];
+    for (i = start; i < end; i++)
+      m_Scratch[i - start] = m_Buffer.get(i);
+    return new String(m_Scratch, 0, end - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Decodes the current string, taking escapes into account.
+   *
+   * @return		the string
+   * @throws IOException	if an escape sequence is invalid
+   */
+  protected String unescape() throws IOException {
+    StringBuilder	result;
+    int			pos;
+    int			run;
+    int			c;
+
+    result = new StringBuilder(m_End - m_Start);
+    pos    = m_Start;
+    run    = pos;
+    while (pos < m_End) {
+      c = m_Buffer.get(pos);
+      if (c != '\\') {
+	pos++;
+	continue;
+      }
+      if (run < pos)
+	result.append(decode(run, pos));
+      pos++;
+      c = m_Buffer.get(pos++);
+      switch (c) {
+	case '"':  result.append('"'); break;
+	case '\\': result.append('\\'); break;
+	case '/':  result.append('/'); break;
+	case 'b':  result.append('\b'); break;
+	case 'f':  result.append('\f'); break;
+	case 'n':  result.append('\n'); break;
+	case 'r':  result.append('\r'); break;
+	case 't':  result.append('\t'); break;
+	case 'u':
+	  if (pos + 4 > m_End)
+	    throw error("Invalid unicode escape");
+	  result.append((char) Integer.parseInt(decode(pos, pos + 4), 16));
+	  pos += 4;
+	  break;
+	default:
+	  throw error("Invalid escape '\\" + (char) (c & 0xff) + "'");
+      }
+      run = pos;
+    }
+    if (run < m_End)
+      result.append(decode(run, m_End));
+    return result.toString();
+  }
+
+  /**
+   * Returns the current name/string/number as string.
+   *
+   * @return		the string
+   * @throws IOException	if the string is malformed
+   */
+  public String getString() throws IOException {
+    if (m_Escaped)
+      return unescape();
+    return decode(m_Start, m_End);
+  }
+
+  /**
+   * Returns the current name/string as string, using the cache to avoid
+   * creating new strings for values that were seen before (eg labels or
+   * meta-data keys). The cache is small and direct-mapped, i.e., values
+   * can get evicted.
+   *
+   * @return		the (possibly cached) string
+   * @throws IOException	if the string is malformed
+   */
+  public String getCachedString() throws IOException {
+    int		hash;
+    int		len;
+    int		slot;
+    int		i;
+    byte[]	cached;
+    byte[]	bytes;
+    String	result;
+
+    len = m_End - m_Start;
+    if (m_Escaped || (len > 64))
+      return getString();
+
+    hash = len;
+    for (i = m_Start; i < m_End; i++)
+      hash = 31 * hash + m_Buffer.get(i);
+    slot   = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    cached = m_CacheBytes[slot];
+    if ((cached != null) && (cached.length == len)) {
+      for (i = 0; i < len; i++) {
+	if (cached[i] != m_Buffer.get(m_Start + i))
+	  break;
+      }
+      if (i == len)
+	return m_CacheStrings[slot];
+    }
+
+    bytes = new byte[len];
+    for (i = 0; i < len; i++)
+      bytes[i] = m_Buffer.get(m_Start + i);
+    result               = new String(bytes, StandardCharsets.UTF_8);
+    m_CacheBytes[slot]   = bytes;
+    m_CacheStrings[slot] = result;
+    return result;
+  }
+
+  /**
+   * Returns the current number as long.
+   *
+   * @return		the number
+   * @throws IOException	if not an integer or too large
+   */
+  public long getLong() throws IOException {
+    long	result;
+    boolean	negative;
+    int		pos;
+    int		c;
+
+    if (!m_Integer) {
+      if (getDouble() != Math.rint(getDouble()))
+	throw error("Not an integer: " + getAscii());
+      return (long) getDouble();
+    }
+    pos      = m_Start;
+    negative = (m_Buffer.get(pos) == '-');
+    if (negative)
+      pos++;
+    if ((pos == m_End) || (m_End - pos > 18))
+      throw error("Invalid or too large integer: " + getAscii());
+    result = 0;
+    while (pos < m_End) {
+      c = m_Buffer.get(pos++);
+      if ((c < '0') || (c > '9'))
+	throw error("Invalid integer: " + getAscii());
+      result = result * 10 + (c - '0');
+    }
+    return negative ? -result : result;
+  }
+
+  /**
+   * Returns the current number as int.
+   *
+   * @return		the number
+   * @throws IOException	if not an integer or out of range
+   */
+  public int getInt() throws IOException {
+    long	result;
+
+    result = getLong();
+    if ((result < Integer.MIN_VALUE) || (result > Integer.MAX_VALUE))
+      throw error("Integer out of range: " + result);
+    return (int) result;
+  }
+
+  /**
+   * Returns the current number as double. Numbers with up to 15 significant
+   * digits and small exponents are parsed directly, all others fall back
+   * to {@link Double#parseDouble(String)}.
+   *
+   * @return		the number
+   * @throws IOException	if not a number
+   */
+  public double getDouble() throws IOException {
+    long	mantissa;
+    int		digits;
+    int		exponent;
+    int		exp;
+    boolean	negative;
+    boolean	expNegative;
+    boolean	fraction;
+    boolean	sawDigit;
+    int		pos;
+    int		c;
+
+    pos      = m_Start;
+    negative = (m_Buffer.get(pos) == '-');
+    if (negative)
+      pos++;
+    mantissa = 0;
+    digits   = 0;
+    exponent = 0;
+    fraction = false;
+    sawDigit = false;
+    while (pos < m_End) {
+      c = m_Buffer.get(pos);
+      if ((c >= '0') && (c <= '9')) {
+	sawDigit = true;
+	if ((mantissa > 0) || (c != '0'))
+	  digits++;
+	mantissa = mantissa * 10 + (c - '0');
+	if (fraction)
+	  exponent--;
+	if (digits > 15)
+	  return fallback();
+      }
+      else if ((c == '.') && !fraction) {
+	fraction = true;
+      }
+      else {
+	break;
+      }
+      pos++;
+    }
+    if ((pos < m_End) && ((m_Buffer.get(pos) == 'e') || (m_Buffer.get(pos) == 'E'))) {
+      pos++;
+      expNegative = false;
+      if ((pos < m_End) && ((m_Buffer.get(pos) == '-') || (m_Buffer.get(pos) == '+'))) {
+	expNegative = (m_Buffer.get(pos) == '-');
+	pos++;
+      }
+      exp = 0;
+      while (pos < m_End) {
+	c = m_Buffer.get(pos++);
+	if ((c < '0') || (c > '9') || (exp > 1000))
+	  return fallback();
+	exp = exp * 10 + (c - '0');
+      }
+      exponent += expNegative ? -exp : exp;
+    }
+    if ((pos != m_End) || !sawDigit)
+      return fallback();
+    if ((exponent < -22) || (exponent > 22))
+      return fallback();
+    if (mantissa == 0)
+      return negative ? -0.0 : 0.0;
+    if (exponent < 0)
+      return (negative ? -mantissa : mantissa) / POWERS_OF_TEN[-exponent];
+    return (negative ? -mantissa : mantissa) * POWERS_OF_TEN[exponent];
+  }
+
+  /**
+   * Parses the current number with {@link Double#parseDouble(String)}.
+   *
+   * @return		the number
+   * @throws IOException	if not a number
+   */
+  protected double fallback() throws IOException {
+    try {
+      return Double.parseDouble(decode(m_Start, m_End));
+    }
+    catch (NumberFormatException e) {
+      throw error("Invalid number: " + getAscii());
+    }
+  }
+}
@@ -0,0 +1,540 @@
+/*
+ * Utf8PredictionsEventParser.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.core.Utf8JsonTokenizer.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Parses predictions straight from UTF-8 encoded bytes using the
+ * {@link Utf8JsonTokenizer} and reports them to a {@link PredictionsVisitor},
+ * without creating any predictions, objects, bboxes, polygons or points.
+ * The only objects created are the strings for ID, labels and meta-data
+ * (labels and meta-data keys go through the string cache of the tokenizer)
+ * and the timestamp. For objects without polygon, the corners of the bbox
+ * get reported as polygon points.
+ * <br>
+ * Documents get processed in a single pass if the fields appear in the
+ * order written by this library: timestamp and ID before the objects, and
+ * score, label and bbox before polygon and meta-data of an object.
+ * Mandatory fields that appear later (eg the ID after the objects) are
+ * handled by skipping the dependent fields and returning to them afterwards.
+ * Optional fields (timestamp, score) that appear after events depending on
+ * them have been reported result in an exception, unless
+ * {@link #setAnyOrder(boolean)} is enabled, which defers the events until
+ * the end of the object/document whenever an optional field has not been
+ * encountered yet (ie tokenizing parts of the document twice).
+ * <br>
+ * A parser instance can be reused for multiple documents (keeping its
+ * string cache), but is not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Utf8PredictionsEventParser {
+
+  /** the bbox fields found. */
+  protected final static int BBOX_COMPLETE = 15;
+
+  /** the tokenizer. */
+  protected Utf8JsonTokenizer m_Tokenizer;
+
+  /** whether to cache meta-data values as well. */
+  protected boolean m_CacheValues;
+
+  /** whether the optional fields can appear in any order. */
+  protected boolean m_AnyOrder;
+
+  /** the left coordinate of the current bbox. */
+  protected int m_Left;
+
+  /** the top coordinate of the current bbox. */
+  protected int m_Top;
+
+  /** the right coordinate of the current bbox. */
+  protected int m_Right;
+
+  /** the bottom coordinate of the current bbox. */
+  protected int m_Bottom;
+
+  /** the number of objects of the current document. */
+  protected int m_Objects;
+
+  /** the number of polygon points of the current document. */
+  protected int m_Vertices;
+
+  /**
+   * Initializes the parser.
+   */
+  public Utf8PredictionsEventParser() {
+    m_Tokenizer   = new Utf8JsonTokenizer(new byte[0]);
+    m_CacheValues = false;
+    m_AnyOrder    = false;
+  }
+
+  /**
+   * Sets whether to cache meta-data values as well (useful if the values
+   * only take a few distinct values).
+   *
+   * @param value	true if to cache
+   */
+  public void setCacheValues(boolean value) {
+    m_CacheValues = value;
+  }
+
+  /**
+   * Returns whether to cache meta-data values as well.
+   *
+   * @return		true if to cache
+   */
+  public boolean getCacheValues() {
+    return m_CacheValues;
+  }
+
+  /**
+   * Sets whether the optional fields (timestamp, score) can appear anywhere
+   * in the document/object, rather than before the objects/polygon.
+   *
+   * @param value	true if any order
+   */
+  public void setAnyOrder(boolean value) {
+    m_AnyOrder = value;
+  }
+
+  /**
+   * Returns whether the optional fields can appear anywhere.
+   *
+   * @return		true if any order
+   */
+  public boolean getAnyOrder() {
+    return m_AnyOrder;
+  }
+
+  /**
+   * Parses the byte array.
+   *
+   * @param data	the UTF-8 JSON to parse
+   * @param visitor	the visitor to notify
+   * @throws IOException	if parsing or the visitor fails
+   */
+  public void parse(byte[] data, PredictionsVisitor visitor) throws IOException {
+    parse(ByteBuffer.wrap(data), visitor);
+  }
+
+  /**
+   * Parses the remaining bytes of the buffer (eg a memory-mapped file).
+   * The position of the buffer remains unchanged.
+   *
+   * @param buffer	the UTF-8 JSON to parse
+   * @param visitor	the visitor to notify
+   * @throws IOException	if parsing or the visitor fails
+   */
+  public void parse(ByteBuffer buffer, PredictionsVisitor visitor) throws IOException {
+    m_Tokenizer.reset(buffer);
+    m_Tokenizer.expect(Token.BEGIN_OBJECT);
+    parseDocument(buffer.remaining(), visitor);
+  }
+
+  /**
+   * Parses all the documents in the remaining bytes of the buffer, eg a
+   * memory-mapped JSON Lines file. The position of the buffer remains
+   * unchanged.
+   *
+   * @param buffer	the UTF-8 JSON documents to parse
+   * @param visitor	the visitor to notify
+   * @return		the number of documents
+   * @throws IOException	if parsing or the visitor fails
+   */
+  public long parseAll(ByteBuffer buffer, PredictionsVisitor visitor) throws IOException {
+    long	result;
+    Token	token;
+
+    result = 0;
+    m_Tokenizer.reset(buffer);
+    while ((token = m_Tokenizer.next()) != Token.END_DOCUMENT) {
+      if (token != Token.BEGIN_OBJECT)
+	throw new IOException("Expected start of document but found " + token + " at position " + m_Tokenizer.getPosition());
+      parseDocument(-1, visitor);
+      result++;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the string value of the current token, null for JSON null.
+   *
+   * @param cached	whether to use the string cache
+   * @return		the string
+   * @throws IOException	if reading fails
+   */
+  protected String string(boolean cached) throws IOException {
+    switch (m_Tokenizer.getToken()) {
+      case NULL:
+	return null;
+      case STRING:
+      case NUMBER:
+	return cached ? m_Tokenizer.getCachedString() : m_Tokenizer.getString();
+      case TRUE:
+	return "true";
+      case FALSE:
+	return "false";
+      default:
+	throw new IOException("Expected string but found " + m_Tokenizer.getToken() + " at position " + m_Tokenizer.getPosition());
+    }
+  }
+
+  /**
+   * Skips the value following the current name and returns a mark for
+   * returning to it.
+   *
+   * @return		the mark
+   * @throws IOException	if parsing fails
+   */
+  protected long defer() throws IOException {
+    long	result;
+
+    result = m_Tokenizer.mark();
+    m_Tokenizer.next();
+    m_Tokenizer.skipValue();
+    return result;
+  }
+
+  /**
+   * Reports the meta-data object (the current token is the start of the object).
+   *
+   * @param visitor	the visitor to notify, null to skip
+   * @throws IOException	if parsing or the visitor fails
+   */
+  protected void parseMeta(PredictionsVisitor visitor) throws IOException {
+    String	key;
+
+    if (m_Tokenizer.getToken() == Token.NULL)
+      return;
+    if (m_Tokenizer.getToken() != Token.BEGIN_OBJECT)
+      throw new IOException("Expected meta-data object at position " + m_Tokenizer.getPosition());
+    if (visitor == null) {
+      m_Tokenizer.skipValue();
+      return;
+    }
+    while (m_Tokenizer.next() == Token.NAME) {
+      key = m_Tokenizer.getCachedString();
+      m_Tokenizer.next();
+      visitor.onMeta(key, string(m_CacheValues));
+    }
+  }
+
+  /**
+   * Parses the bbox into the coordinate fields (the current token is the
+   * start of the object).
+   *
+   * @throws IOException	if parsing fails
+   */
+  protected void parseBBox() throws IOException {
+    int		found;
+
+    found = 0;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("left")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	m_Left = m_Tokenizer.getInt();
+	found |= 1;
+      }
+      else if (m_Tokenizer.isString("top")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	m_Top = m_Tokenizer.getInt();
+	found |= 2;
+      }
+      else if (m_Tokenizer.isString("right")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	m_Right = m_Tokenizer.getInt();
+	found |= 4;
+      }
+      else if (m_Tokenizer.isString("bottom")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	m_Bottom = m_Tokenizer.getInt();
+	found |= 8;
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (found != BBOX_COMPLETE)
+      throw new IOException("Incomplete bbox before position " + m_Tokenizer.getPosition());
+  }
+
+  /**
+   * Reports the polygon points (the current token is the start of the object).
+   *
+   * @param visitor	the visitor to notify, null to skip
+   * @throws IOException	if parsing or the visitor fails
+   */
+  protected void parsePolygon(PredictionsVisitor visitor) throws IOException {
+    boolean	found;
+    int		x;
+    int		y;
+
+    if (visitor == null) {
+      m_Tokenizer.skipValue();
+      return;
+    }
+    found = false;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("points")) {
+	m_Tokenizer.expect(Token.BEGIN_ARRAY);
+	found = true;
+	while (m_Tokenizer.next() == Token.BEGIN_ARRAY) {
+	  m_Tokenizer.expect(Token.NUMBER);
+	  x = m_Tokenizer.getInt();
+	  m_Tokenizer.expect(Token.NUMBER);
+	  y = m_Tokenizer.getInt();
+	  m_Tokenizer.expect(Token.END_ARRAY);
+	  m_Vertices++;
+	  visitor.onPolygonPoint(x, y);
+	}
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (!found)
+      throw new IOException("Polygon without points before position " + m_Tokenizer.getPosition());
+  }
+
+  /**
+   * Reports the corners of the current bbox as polygon points, clockwise
+   * from top-left, for objects without polygon.
+   *
+   * @param visitor	the visitor to notify, null to skip
+   * @throws IOException	if the visitor fails
+   */
+  protected void derivePolygon(PredictionsVisitor visitor) throws IOException {
+    if (visitor == null)
+      return;
+    m_Vertices += 4;
+    visitor.onPolygonPoint(m_Left, m_Top);
+    visitor.onPolygonPoint(m_Right, m_Top);
+    visitor.onPolygonPoint(m_Right, m_Bottom);
+    visitor.onPolygonPoint(m_Left, m_Bottom);
+  }
+
+  /**
+   * Parses an object (the current token is the start of the object).
+   *
+   * @param visitor	the visitor to notify
+   * @throws IOException	if parsing or the visitor fails
+   */
+  protected void parseObject(PredictionsVisitor visitor) throws IOException {
+    double		score;
+    boolean		hasScore;
+    String		label;
+    boolean		hasBBox;
+    boolean		started;
+    PredictionsVisitor	target;
+    long		polygon;
+    long		meta;
+    long		end;
+
+    score    = Double.NaN;
+    hasScore = false;
+    label    = null;
+    hasBBox  = false;
+    started  = false;
+    target   = null;
+    polygon  = -1;
+    meta     = -1;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("score")) {
+	if (started)
+	  throw new IOException("Score after polygon/meta-data, enable 'any order', at position " + m_Tokenizer.getPosition());
+	hasScore = true;
+	if (m_Tokenizer.next() == Token.NUMBER)
+	  score = m_Tokenizer.getDouble();
+	else if (m_Tokenizer.getToken() != Token.NULL)
+	  throw new IOException("Invalid score at position " + m_Tokenizer.getPosition());
+      }
+      else if (m_Tokenizer.isString("label")) {
+	m_Tokenizer.next();
+	label = string(true);
+      }
+      else if (m_Tokenizer.isString("bbox")) {
+	m_Tokenizer.expect(Token.BEGIN_OBJECT);
+	parseBBox();
+	hasBBox = true;
+      }
+      else if (m_Tokenizer.isString("polygon")) {
+	if ((label != null) && hasBBox && (hasScore || !m_AnyOrder)) {
+	  started = true;
+	  target  = visitor.onObject(label, score, m_Left, m_Top, m_Right, m_Bottom) ? visitor : null;
+	  m_Tokenizer.expect(Token.BEGIN_OBJECT);
+	  parsePolygon(target);
+	}
+	else {
+	  polygon = defer();
+	}
+      }
+      else if (m_Tokenizer.isString("meta")) {
+	// without preceding polygon, the polygon may still follow or is missing
+	if (started) {
+	  m_Tokenizer.next();
+	  parseMeta(target);
+	}
+	else {
+	  meta = defer();
+	}
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if ((label == null) || !hasBBox)
+      throw new IOException("Object requires label and bbox, before position " + m_Tokenizer.getPosition());
+
+    end = m_Tokenizer.mark();
+    if (!started) {
+      target = visitor.onObject(label, score, m_Left, m_Top, m_Right, m_Bottom) ? visitor : null;
+      if (polygon == -1) {
+	derivePolygon(target);
+      }
+      else {
+	m_Tokenizer.seek(polygon);
+	m_Tokenizer.expect(Token.BEGIN_OBJECT);
+	parsePolygon(target);
+      }
+    }
+    // meta-data gets deferred until the polygon has been reported
+    if (meta != -1) {
+      m_Tokenizer.seek(meta);
+      m_Tokenizer.next();
+      parseMeta(target);
+    }
+    if ((polygon != -1) || (meta != -1))
+      m_Tokenizer.seek(end);
+    m_Objects++;
+    visitor.onObjectEnd();
+  }
+
+  /**
+   * Parses the objects (the current token is the start of the array).
+   *
+   * @param visitor	the visitor to notify
+   * @throws IOException	if parsing or the visitor fails
+   */
+  protected void parseObjects(PredictionsVisitor visitor) throws IOException {
+    if (m_Tokenizer.getToken() != Token.BEGIN_ARRAY)
+      throw new IOException("Expected array of objects at position " + m_Tokenizer.getPosition());
+    while (m_Tokenizer.next() == Token.BEGIN_OBJECT)
+      parseObject(visitor);
+  }
+
+  /**
+   * Parses the document (the current token is the start of the object).
+   *
+   * @param size	the size of the document, -1 if unknown
+   * @param visitor	the visitor to notify
+   * @throws IOException	if parsing or the visitor fails
+   */
+  protected void parseDocument(long size, PredictionsVisitor visitor) throws IOException {
+    LocalDateTime	timestamp;
+    boolean		hasTimestamp;
+    String		id;
+    boolean		started;
+    boolean		hasObjects;
+    long		objects;
+    long		meta;
+    long		end;
+    MetricsListener	listener;
+    CharSequence	ts;
+    long		start;
+
+    listener     = Metrics.getListener();
+    start        = listener.isEnabled() ? System.nanoTime() : 0;
+    timestamp    = null;
+    hasTimestamp = false;
+    id           = null;
+    started      = false;
+    hasObjects   = false;
+    objects      = -1;
+    meta         = -1;
+    m_Objects    = 0;
+    m_Vertices   = 0;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("timestamp")) {
+	if (started)
+	  throw new IOException("Timestamp after objects/meta-data, enable 'any order', at position " + m_Tokenizer.getPosition());
+	hasTimestamp = true;
+	if (m_Tokenizer.next() != Token.NULL) {
+	  ts        = m_Tokenizer.isEscaped() ? m_Tokenizer.getString() : m_Tokenizer.getAscii();
+	  timestamp = TimestampCodec.parse(ts);
+	  if (listener.isEnabled())
+	    listener.timestampParsed(TimestampCodec.detect(ts), timestamp != null);
+	}
+      }
+      else if (m_Tokenizer.isString("id")) {
+	m_Tokenizer.next();
+	id = string(false);
+      }
+      else if (m_Tokenizer.isString("objects") || m_Tokenizer.isString("meta")) {
+	if (!started && (id != null) && (hasTimestamp || !m_AnyOrder)) {
+	  started = true;
+	  visitor.onDocumentStart(id, timestamp);
+	}
+	if (m_Tokenizer.isString("objects")) {
+	  hasObjects = true;
+	  if (started) {
+	    m_Tokenizer.next();
+	    parseObjects(visitor);
+	  }
+	  else {
+	    objects = defer();
+	  }
+	}
+	else {
+	  // document meta-data gets reported after the objects
+	  if (started && hasObjects) {
+	    m_Tokenizer.next();
+	    parseMeta(visitor);
+	  }
+	  else {
+	    meta = defer();
+	  }
+	}
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (id == null)
+      throw new IOException("Document requires id!");
+
+    if (!started || (meta != -1)) {
+      end = m_Tokenizer.mark();
+      if (!started) {
+	visitor.onDocumentStart(id, timestamp);
+	if (objects != -1) {
+	  m_Tokenizer.seek(objects);
+	  m_Tokenizer.next();
+	  parseObjects(visitor);
+	}
+      }
+      if (meta != -1) {
+	m_Tokenizer.seek(meta);
+	m_Tokenizer.next();
+	parseMeta(visitor);
+      }
+      m_Tokenizer.seek(end);
+    }
+    visitor.onDocumentEnd();
+
+    if (listener.isEnabled())
+      listener.documentRead(size, System.nanoTime() - start, 0, m_Objects, m_Vertices);
+  }
+}
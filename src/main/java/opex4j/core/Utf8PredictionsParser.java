@@ -0,0 +1,362 @@
+/*
+ * Utf8PredictionsParser.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.core.Utf8JsonTokenizer.Token;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses predictions straight from UTF-8 encoded bytes using the
+ * {@link Utf8JsonTokenizer}, i.e., without decoding the bytes into characters
+ * and without building a JSON tree. Strings only get created for the ID,
+ * labels and meta-data; labels and meta-data keys go through the string
+ * cache of the tokenizer. Optionally, meta-data values can be cached as well
+ * and the content hashes can be computed while parsing, i.e., while the data
+ * is still in the CPU caches.
+ * <br>
+ * A parser instance can be reused for multiple documents (keeping its
+ * string cache), but is not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Utf8PredictionsParser {
+
+  /** the tokenizer. */
+  protected Utf8JsonTokenizer m_Tokenizer;
+
+  /** whether to cache meta-data values as well. */
+  protected boolean m_CacheValues;
+
+  /** whether to compute the content hashes. */
+  protected boolean m_ComputeHash;
+
+  /**
+   * Initializes the parser.
+   */
+  public Utf8PredictionsParser() {
+    m_Tokenizer   = new Utf8JsonTokenizer(new byte[0]);
+    m_CacheValues = false;
+    m_ComputeHash = false;
+  }
+
+  /**
+   * Sets whether to cache meta-data values as well (useful if the values
+   * only take a few distinct values).
+   *
+   * @param value	true if to cache
+   */
+  public void setCacheValues(boolean value) {
+    m_CacheValues = value;
+  }
+
+  /**
+   * Returns whether to cache meta-data values as well.
+   *
+   * @return		true if to cache
+   */
+  public boolean getCacheValues() {
+    return m_CacheValues;
+  }
+
+  /**
+   * Sets whether to compute the content hashes of the objects and the
+   * document while parsing.
+   *
+   * @param value	true if to compute
+   * @see		ObjectPredictions#contentHash()
+   */
+  public void setComputeHash(boolean value) {
+    m_ComputeHash = value;
+  }
+
+  /**
+   * Returns whether to compute the content hashes while parsing.
+   *
+   * @return		true if to compute
+   */
+  public boolean getComputeHash() {
+    return m_ComputeHash;
+  }
+
+  /**
+   * Parses the byte array.
+   *
+   * @param data	the UTF-8 JSON to parse
+   * @return		the predictions
+   * @throws IOException	if parsing fails
+   */
+  public ObjectPredictions parse(byte[] data) throws IOException {
+    return parse(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Parses the remaining bytes of the buffer (eg a memory-mapped file).
+   * The position of the buffer remains unchanged.
+   *
+   * @param buffer	the UTF-8 JSON to parse
+   * @return		the predictions
+   * @throws IOException	if parsing fails
+   */
+  public ObjectPredictions parse(ByteBuffer buffer) throws IOException {
+    m_Tokenizer.reset(buffer);
+    m_Tokenizer.expect(Token.BEGIN_OBJECT);
+    return parseDocument();
+  }
+
+  /**
+   * Returns the string value of the current token, null for JSON null.
+   *
+   * @param cached	whether to use the string cache
+   * @return		the string
+   * @throws IOException	if reading fails
+   */
+  protected String string(boolean cached) throws IOException {
+    switch (m_Tokenizer.getToken()) {
+      case NULL:
+	return null;
+      case STRING:
+      case NUMBER:
+	return cached ? m_Tokenizer.getCachedString() : m_Tokenizer.getString();
+      case TRUE:
+	return "true";
+      case FALSE:
+	return "false";
+      default:
+	throw new IOException("Expected string but found " + m_Tokenizer.getToken() + " at position " + m_Tokenizer.getPosition());
+    }
+  }
+
+  /**
+   * Parses the meta-data object (the current token is the start of the object).
+   *
+   * @return		the meta-data, null if JSON null
+   * @throws IOException	if parsing fails
+   */
+  protected Map<String,String> parseMeta() throws IOException {
+    Map<String,String>	result;
+    String		key;
+
+    if (m_Tokenizer.getToken() == Token.NULL)
+      return null;
+    if (m_Tokenizer.getToken() != Token.BEGIN_OBJECT)
+      throw new IOException("Expected meta-data object at position " + m_Tokenizer.getPosition());
+    result = new HashMap<>();
+    while (m_Tokenizer.next() == Token.NAME) {
+      key = m_Tokenizer.getCachedString();
+      m_Tokenizer.next();
+      result.put(key, string(m_CacheValues));
+    }
+    return result;
+  }
+
+  /**
+   * Parses the bbox (the current token is the start of the object).
+   *
+   * @return		the bbox
+   * @throws IOException	if parsing fails
+   */
+  protected BBox parseBBox() throws IOException {
+    int		left;
+    int		top;
+    int		right;
+    int		bottom;
+    int		found;
+
+    left   = 0;
+    top    = 0;
+    right  = 0;
+    bottom = 0;
+    found  = 0;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("left")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	left = m_Tokenizer.getInt();
+	found |= 1;
+      }
+      else if (m_Tokenizer.isString("top")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	top = m_Tokenizer.getInt();
+	found |= 2;
+      }
+      else if (m_Tokenizer.isString("right")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	right = m_Tokenizer.getInt();
+	found |= 4;
+      }
+      else if (m_Tokenizer.isString("bottom")) {
+	m_Tokenizer.expect(Token.NUMBER);
+	bottom = m_Tokenizer.getInt();
+	found |= 8;
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (found != 15)
+      throw new IOException("Incomplete bbox before position " + m_Tokenizer.getPosition());
+    return new BBox(left, top, right, bottom);
+  }
+
+  /**
+   * Parses the polygon (the current token is the start of the object).
+   *
+   * @return		the polygon
+   * @throws IOException	if parsing fails
+   */
+  protected Polygon parsePolygon() throws IOException {
+    List<Point>		points;
+    int			x;
+    int			y;
+
+    points = null;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("points")) {
+	m_Tokenizer.expect(Token.BEGIN_ARRAY);
+	points = new ArrayList<>();
+	while (m_Tokenizer.next() == Token.BEGIN_ARRAY) {
+	  m_Tokenizer.expect(Token.NUMBER);
+	  x = m_Tokenizer.getInt();
+	  m_Tokenizer.expect(Token.NUMBER);
+	  y = m_Tokenizer.getInt();
+	  m_Tokenizer.expect(Token.END_ARRAY);
+	  points.add(new Point(x, y));
+	}
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (points == null)
+      throw new IOException("Polygon without points before position " + m_Tokenizer.getPosition());
+    return new Polygon(points);
+  }
+
+  /**
+   * Parses an object (the current token is the start of the object).
+   *
+   * @return		the object
+   * @throws IOException	if parsing fails
+   */
+  protected ObjectPrediction parseObject() throws IOException {
+    ObjectPrediction	result;
+    Double		score;
+    String		label;
+    BBox		bbox;
+    Polygon		polygon;
+    Map<String,String>	meta;
+
+    score   = null;
+    label   = null;
+    bbox    = null;
+    polygon = null;
+    meta    = null;
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("score")) {
+	if (m_Tokenizer.next() == Token.NUMBER)
+	  score = m_Tokenizer.getDouble();
+	else if (m_Tokenizer.getToken() != Token.NULL)
+	  throw new IOException("Invalid score at position " + m_Tokenizer.getPosition());
+      }
+      else if (m_Tokenizer.isString("label")) {
+	m_Tokenizer.next();
+	label = string(true);
+      }
+      else if (m_Tokenizer.isString("bbox")) {
+	m_Tokenizer.expect(Token.BEGIN_OBJECT);
+	bbox = parseBBox();
+      }
+      else if (m_Tokenizer.isString("polygon")) {
+	m_Tokenizer.expect(Token.BEGIN_OBJECT);
+	polygon = parsePolygon();
+      }
+      else if (m_Tokenizer.isString("meta")) {
+	m_Tokenizer.next();
+	meta = parseMeta();
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    // a missing polygon gets derived from the bbox on demand
+    if ((label == null) || (bbox == null))
+      throw new IOException("Object requires label and bbox, before position " + m_Tokenizer.getPosition());
+    result = new ObjectPrediction(label, score, bbox, polygon, meta);
+    if (m_ComputeHash)
+      result.contentHash();
+    return result;
+  }
+
+  /**
+   * Parses the document (the current token is the start of the object).
+   *
+   * @return		the predictions
+   * @throws IOException	if parsing fails
+   */
+  protected ObjectPredictions parseDocument() throws IOException {
+    ObjectPredictions		result;
+    LocalDateTime		timestamp;
+    String			id;
+    List<ObjectPrediction>	objects;
+    Map<String,String>		meta;
+    MetricsListener		listener;
+    CharSequence		ts;
+
+    timestamp = null;
+    id        = null;
+    objects   = null;
+    meta      = null;
+    listener  = Metrics.getListener();
+    while (m_Tokenizer.next() == Token.NAME) {
+      if (m_Tokenizer.isString("timestamp")) {
+	if (m_Tokenizer.next() != Token.NULL) {
+	  ts        = m_Tokenizer.isEscaped() ? m_Tokenizer.getString() : m_Tokenizer.getAscii();
+	  timestamp = TimestampCodec.parse(ts);
+	  if (listener.isEnabled())
+	    listener.timestampParsed(TimestampCodec.detect(ts), timestamp != null);
+	}
+      }
+      else if (m_Tokenizer.isString("id")) {
+	m_Tokenizer.next();
+	id = string(false);
+      }
+      else if (m_Tokenizer.isString("objects")) {
+	m_Tokenizer.expect(Token.BEGIN_ARRAY);
+	objects = new ArrayList<>();
+	while (m_Tokenizer.next() == Token.BEGIN_OBJECT)
+	  objects.add(parseObject());
+      }
+      else if (m_Tokenizer.isString("meta")) {
+	m_Tokenizer.next();
+	meta = parseMeta();
+      }
+      else {
+	m_Tokenizer.next();
+	m_Tokenizer.skipValue();
+      }
+    }
+    if (id == null)
+      throw new IOException("Document requires id!");
+    result = new ObjectPredictions(timestamp, id, objects, meta);
+    if (m_ComputeHash)
+      result.contentHash();
+    return result;
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * DeltaDecoder.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.delta;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.core.TimestampCodec;
+
+import java.awt.Point;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes frames generated by {@link DeltaEncoder}. Decoding has to start
+ * at a keyframe.
+ * <br>
+ * Not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see DeltaEncoder
+ */
+public class DeltaDecoder {
+
+  /** the previous frame. */
+  protected ObjectPredictions m_Previous;
+
+  /**
+   * Initializes the decoder.
+   */
+  public DeltaDecoder() {
+    reset();
+  }
+
+  /**
+   * Resets the decoder, the next frame must be a keyframe.
+   */
+  public void reset() {
+    m_Previous = null;
+  }
+
+  /**
+   * Returns whether the encoded frame is a keyframe.
+   *
+   * @param frame	the encoded frame
+   * @return		true if keyframe
+   */
+  public static boolean isKeyframe(JsonObject frame) {
+    return frame.has(DeltaEncoder.KEY_KEYFRAME);
+  }
+
+  /**
+   * Returns whether a previous frame is available, i.e., delta frames can be decoded.
+   *
+   * @return		true if delta frames can be decoded
+   */
+  public boolean hasReference() {
+    return (m_Previous != null);
+  }
+
+  /**
+   * Reads the meta-data.
+   *
+   * @param obj		the JSON object with the meta-data
+   * @return		the meta-data
+   */
+  protected static Map<String,String> readMeta(JsonObject obj) {
+    Map<String,String>	result;
+
+    result = new HashMap<>();
+    for (String key: obj.keySet())
+      result.put(key, obj.get(key).getAsString());
+    return result;
+  }
+
+  /**
+   * Applies the changes to the object.
+   *
+   * @param prev	the previous object
+   * @param changes	the changes
+   * @return		the updated object
+   */
+  protected ObjectPrediction applyChanges(ObjectPrediction prev, JsonObject changes) {
+    BBox		bbox;
+    Polygon		polygon;
+    Double		score;
+    Map<String,String>	meta;
+    JsonArray		deltas;
+    List<Point>		points;
+    Point		p;
+    int			i;
+
+    bbox = prev.getBBox();
+    if (changes.has("b")) {
+      deltas = changes.getAsJsonArray("b");
+      bbox   = new BBox(
+	bbox.getLeft() + deltas.get(0).getAsInt(),
+	bbox.getTop() + deltas.get(1).getAsInt(),
+	bbox.getRight() + deltas.get(2).getAsInt(),
+	bbox.getBottom() + deltas.get(3).getAsInt());
+    }
+
+    polygon = prev.getPolygon();
+    if (changes.has("polygon")) {
+      polygon = Polygon.newInstance(changes.getAsJsonObject("polygon"));
+    }
+    else if (changes.has("p")) {
+      deltas = changes.getAsJsonArray("p");
+      points = new ArrayList<>();
+      for (i = 0; i < polygon.getPoints().size(); i++) {
+	p = polygon.getPoints().get(i);
+	points.add(new Point(p.x + deltas.get(i * 2).getAsInt(), p.y + deltas.get(i * 2 + 1).getAsInt()));
+      }
+      polygon = new Polygon(points);
+    }
+
+    score = prev.getScore();
+    if (changes.has("noscore"))
+      score = null;
+    else if (changes.has("score"))
+      score = changes.get("score").getAsDouble();
+
+    meta = prev.getMeta();
+    if (changes.has("meta"))
+      meta = readMeta(changes.getAsJsonObject("meta"));
+
+    return new ObjectPrediction(prev.getLabel(), score, bbox, polygon, meta);
+  }
+
+  /**
+   * Decodes the delta frame.
+   *
+   * @param delta	the delta
+   * @return		the frame
+   */
+  protected ObjectPredictions decodeDelta(JsonObject delta) {
+    LocalDateTime		timestamp;
+    Map<String,String>		meta;
+    List<ObjectPrediction>	prevObjs;
+    List<ObjectPrediction>	objects;
+    JsonArray			array;
+    JsonObject			obj;
+
+    timestamp = null;
+    if (delta.has("dt"))
+      timestamp = m_Previous.getTimestamp().plus(delta.get("dt").getAsLong(), ChronoUnit.MICROS);
+    else if (delta.has("timestamp"))
+      timestamp = TimestampCodec.parse(delta.get("timestamp").getAsString());
+
+    meta = m_Previous.getMeta();
+    if (delta.has("meta"))
+      meta = readMeta(delta.getAsJsonObject("meta"));
+
+    prevObjs = m_Previous.getObjects();
+    objects  = new ArrayList<>();
+    array    = delta.getAsJsonArray("objects");
+    for (JsonElement element: array) {
+      if (element.isJsonPrimitive()) {
+	objects.add(prevObjs.get(element.getAsInt()));
+      }
+      else {
+	obj = element.getAsJsonObject();
+	if (obj.has("r"))
+	  objects.add(applyChanges(prevObjs.get(obj.get("r").getAsInt()), obj));
+	else
+	  objects.add(ObjectPrediction.newInstance(obj));
+      }
+    }
+
+    return new ObjectPredictions(timestamp, delta.get("id").getAsString(), objects, meta);
+  }
+
+  /**
+   * Decodes the next frame.
+   *
+   * @param frame	the encoded frame
+   * @return		the decoded frame
+   * @throws IllegalStateException	if a delta frame is encountered without a preceding keyframe
+   * @throws IllegalArgumentException	if neither keyframe nor delta frame
+   */
+  public ObjectPredictions decode(JsonObject frame) {
+    ObjectPredictions	result;
+
+    if (frame.has(DeltaEncoder.KEY_KEYFRAME)) {
+      result = ObjectPredictions.newInstance(frame.getAsJsonObject(DeltaEncoder.KEY_KEYFRAME));
+    }
+    else if (frame.has(DeltaEncoder.KEY_DELTA)) {
+      if (m_Previous == null)
+	throw new IllegalStateException("Delta frame without preceding keyframe!");
+      result = decodeDelta(frame.getAsJsonObject(DeltaEncoder.KEY_DELTA));
+    }
+    else {
+      throw new IllegalArgumentException("Neither keyframe nor delta frame!");
+    }
+    m_Previous = result;
+
+    return result;
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * DeltaEncoder.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.delta;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.core.TimestampCodec;
+
+import java.awt.Point;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes consecutive predictions (eg the frames of a video) relative to
+ * the previous ones. Every n-th frame is stored in full as keyframe, to
+ * allow decoding to start at any keyframe.
+ * <br>
+ * Keyframes have the form <code>{"k": {...predictions...}}</code>, delta
+ * frames the form <code>{"d": {...}}</code> with the following fields:
+ * <ul>
+ *   <li>id - the ID of the frame</li>
+ *   <li>dt - the micro-seconds since the previous frame; or timestamp - the
+ *   full timestamp if the previous frame had none (neither if no timestamp)</li>
+ *   <li>meta - the new meta-data, only if changed</li>
+ *   <li>objects - one entry per object: the index of the matching object in
+ *   the previous frame if unchanged; an object with the index ("r") and only
+ *   the changes if modified (bbox deltas "b" as left/top/right/bottom,
+ *   polygon deltas "p" as x/y pairs or the full "polygon" if the number of
+ *   points changed, "score"/"noscore", "meta"); the full object if new</li>
+ *   <li>removed - the indices of the objects of the previous frame that are
+ *   no longer present</li>
+ * </ul>
+ * Objects in the previous frame are matched by label, preferring identical
+ * objects, then the one with the closest bbox center. The encoding is lossless
+ * (timestamps with micro-second precision, like the JSON format itself).
+ * <br>
+ * Not thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see DeltaDecoder
+ */
+public class DeltaEncoder {
+
+  /** the default keyframe interval. */
+  public final static int DEFAULT_KEYFRAME_INTERVAL = 30;
+
+  /** the key for keyframes. */
+  public final static String KEY_KEYFRAME = "k";
+
+  /** the key for delta frames. */
+  public final static String KEY_DELTA = "d";
+
+  /** the keyframe interval. */
+  protected int m_KeyframeInterval;
+
+  /** the previous frame. */
+  protected ObjectPredictions m_Previous;
+
+  /** the number of frames since the last keyframe. */
+  protected int m_SinceKeyframe;
+
+  /** the number of frames encoded. */
+  protected long m_Count;
+
+  /** the number of keyframes encoded. */
+  protected long m_KeyframeCount;
+
+  /**
+   * Initializes the encoder with the default keyframe interval.
+   *
+   * @see #DEFAULT_KEYFRAME_INTERVAL
+   */
+  public DeltaEncoder() {
+    this(DEFAULT_KEYFRAME_INTERVAL);
+  }
+
+  /**
+   * Initializes the encoder.
+   *
+   * @param keyframeInterval	every n-th frame is a keyframe (1 = only keyframes)
+   */
+  public DeltaEncoder(int keyframeInterval) {
+    if (keyframeInterval < 1)
+      throw new IllegalArgumentException("Keyframe interval must be at least 1: " + keyframeInterval);
+    m_KeyframeInterval = keyframeInterval;
+    reset();
+  }
+
+  /**
+   * Resets the encoder, the next frame will be a keyframe.
+   */
+  public void reset() {
+    m_Previous      = null;
+    m_SinceKeyframe = 0;
+  }
+
+  /**
+   * Returns the keyframe interval.
+   *
+   * @return		the interval
+   */
+  public int getKeyframeInterval() {
+    return m_KeyframeInterval;
+  }
+
+  /**
+   * Returns the number of frames encoded so far.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count;
+  }
+
+  /**
+   * Returns the number of keyframes encoded so far.
+   *
+   * @return		the count
+   */
+  public long getKeyframeCount() {
+    return m_KeyframeCount;
+  }
+
+  /**
+   * Checks whether the two objects are identical.
+   *
+   * @param a		the first object
+   * @param b		the second object
+   * @return		true if identical
+   */
+  protected static boolean isSame(ObjectPrediction a, ObjectPrediction b) {
+    return sameBBox(a.getBBox(), b.getBBox())
+      && a.getPolygon().getPoints().equals(b.getPolygon().getPoints())
+      && Objects.equals(a.getScore(), b.getScore())
+      && a.getMeta().equals(b.getMeta());
+  }
+
+  /**
+   * Checks whether the two boxes are identical.
+   *
+   * @param a		the first box
+   * @param b		the second box
+   * @return		true if identical
+   */
+  protected static boolean sameBBox(BBox a, BBox b) {
+    return (a.getLeft() == b.getLeft())
+      && (a.getTop() == b.getTop())
+      && (a.getRight() == b.getRight())
+      && (a.getBottom() == b.getBottom());
+  }
+
+  /**
+   * Returns the squared distance between the centers of the boxes (doubled coordinates).
+   *
+   * @param a		the first box
+   * @param b		the second box
+   * @return		the distance
+   */
+  protected static long distance(BBox a, BBox b) {
+    long	dx;
+    long	dy;
+
+    dx = ((long) a.getLeft() + a.getRight()) - ((long) b.getLeft() + b.getRight());
+    dy = ((long) a.getTop() + a.getBottom()) - ((long) b.getTop() + b.getBottom());
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Matches the objects of the current frame against the previous one.
+   *
+   * @param previous	the objects of the previous frame
+   * @param current	the objects of the current frame
+   * @return		the index in the previous frame for each current object, -1 if new
+   */
+  protected int[] match(List<ObjectPrediction> previous, List<ObjectPrediction> current) {
+    int[]			result;
+    Map<String,List<Integer>>	byLabel;
+    List<Integer>		candidates;
+    ObjectPrediction		obj;
+    int				i;
+    int				n;
+    int				best;
+    long			bestDist;
+    long			dist;
+
+    byLabel = new HashMap<>();
+    for (i = 0; i < previous.size(); i++)
+      byLabel.computeIfAbsent(previous.get(i).getLabel(), (String k) -> new ArrayList<>()).add(i);
+
+    result = new int[current.size()];
+    for (i = 0; i < current.size(); i++) {
+      obj        = current.get(i);
+      result[i]  = -1;
+      candidates = byLabel.get(obj.getLabel());
+      if ((candidates == null) || candidates.isEmpty())
+	continue;
+      best     = -1;
+      bestDist = Long.MAX_VALUE;
+      for (n = 0; n < candidates.size(); n++) {
+	if (isSame(previous.get(candidates.get(n)), obj)) {
+	  best = n;
+	  break;
+	}
+	dist = distance(previous.get(candidates.get(n)).getBBox(), obj.getBBox());
+	if (dist < bestDist) {
+	  bestDist = dist;
+	  best     = n;
+	}
+      }
+      result[i] = candidates.remove(best);
+    }
+
+    return result;
+  }
+
+  /**
+   * Encodes the changes of the object.
+   *
+   * @param index	the index of the object in the previous frame
+   * @param prev	the previous object
+   * @param curr	the current object
+   * @return		the encoded changes
+   */
+  protected JsonObject encodeChanges(int index, ObjectPrediction prev, ObjectPrediction curr) {
+    JsonObject		result;
+    JsonArray		deltas;
+    JsonObject		meta;
+    List<Point>		prevPoints;
+    List<Point>		currPoints;
+    boolean		changed;
+    int			i;
+
+    result = new JsonObject();
+    result.addProperty("r", index);
+
+    if (!sameBBox(prev.getBBox(), curr.getBBox())) {
+      deltas = new JsonArray();
+      deltas.add(curr.getBBox().getLeft() - prev.getBBox().getLeft());
+      deltas.add(curr.getBBox().getTop() - prev.getBBox().getTop());
+      deltas.add(curr.getBBox().getRight() - prev.getBBox().getRight());
+      deltas.add(curr.getBBox().getBottom() - prev.getBBox().getBottom());
+      result.add("b", deltas);
+    }
+
+    prevPoints = prev.getPolygon().getPoints();
+    currPoints = curr.getPolygon().getPoints();
+    if (prevPoints.size() != currPoints.size()) {
+      result.add("polygon", curr.getPolygon().toJson());
+    }
+    else if (!prevPoints.equals(currPoints)) {
+      deltas = new JsonArray();
+      for (i = 0; i < currPoints.size(); i++) {
+	deltas.add(currPoints.get(i).x - prevPoints.get(i).x);
+	deltas.add(currPoints.get(i).y - prevPoints.get(i).y);
+      }
+      result.add("p", deltas);
+    }
+
+    if (!Objects.equals(prev.getScore(), curr.getScore())) {
+      if (curr.getScore() == null)
+	result.addProperty("noscore", true);
+      else
+	result.addProperty("score", curr.getScore());
+    }
+
+    changed = !prev.getMeta().equals(curr.getMeta());
+    if (changed) {
+      meta = new JsonObject();
+      for (Map.Entry<String,String> entry: curr.getMeta().entrySet())
+	meta.addProperty(entry.getKey(), entry.getValue());
+      result.add("meta", meta);
+    }
+
+    return result;
+  }
+
+  /**
+   * Encodes the frame relative to the previous one.
+   *
+   * @param prev	the previous frame
+   * @param curr	the current frame
+   * @return		the encoded delta
+   */
+  protected JsonObject encodeDelta(ObjectPredictions prev, ObjectPredictions curr) {
+    JsonObject			result;
+    JsonArray			objects;
+    JsonArray			removed;
+    JsonObject			meta;
+    List<ObjectPrediction>	prevObjs;
+    List<ObjectPrediction>	currObjs;
+    LocalDateTime		prevTS;
+    LocalDateTime		currTS;
+    boolean[]			used;
+    int[]			matches;
+    int				i;
+
+    result = new JsonObject();
+    result.addProperty("id", curr.getID());
+
+    prevTS = prev.getTimestamp();
+    currTS = curr.getTimestamp();
+    if (currTS != null) {
+      if (prevTS != null)
+	result.addProperty("dt", ChronoUnit.MICROS.between(prevTS.truncatedTo(ChronoUnit.MICROS), currTS.truncatedTo(ChronoUnit.MICROS)));
+      else
+	result.addProperty("timestamp", TimestampCodec.format(currTS));
+    }
+
+    if (!prev.getMeta().equals(curr.getMeta())) {
+      meta = new JsonObject();
+      for (Map.Entry<String,String> entry: curr.getMeta().entrySet())
+	meta.addProperty(entry.getKey(), entry.getValue());
+      result.add("meta", meta);
+    }
+
+    prevObjs = prev.getObjects();
+    currObjs = curr.getObjects();
+    matches  = match(prevObjs, currObjs);
+    used     = new boolean[prevObjs.size()];
+    objects  = new JsonArray();
+    for (i = 0; i < currObjs.size(); i++) {
+      if (matches[i] == -1) {
+	objects.add(currObjs.get(i).toJson());
+      }
+      else {
+	used[matches[i]] = true;
+	if (isSame(prevObjs.get(matches[i]), currObjs.get(i)))
+	  objects.add(matches[i]);
+	else
+	  objects.add(encodeChanges(matches[i], prevObjs.get(matches[i]), currObjs.get(i)));
+      }
+    }
+    result.add("objects", objects);
+
+    removed = new JsonArray();
+    for (i = 0; i < used.length; i++) {
+      if (!used[i])
+	removed.add(i);
+    }
+    if (removed.size() > 0)
+      result.add("removed", removed);
+
+    return result;
+  }
+
+  /**
+   * Encodes the next frame.
+   *
+   * @param preds	the frame to encode
+   * @return		the encoded frame
+   */
+  public JsonObject encode(ObjectPredictions preds) {
+    JsonObject	result;
+
+    result = new JsonObject();
+    if ((m_Previous == null) || (m_SinceKeyframe >= m_KeyframeInterval)) {
+      result.add(KEY_KEYFRAME, preds.toJson());
+      m_SinceKeyframe = 0;
+      m_KeyframeCount++;
+    }
+    else {
+      result.add(KEY_DELTA, encodeDelta(m_Previous, preds));
+    }
+    m_SinceKeyframe++;
+    m_Count++;
+    m_Previous = preds;
+
+    return result;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * DeltaReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.delta;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import opex4j.ObjectPredictions;
+import opex4j.io.JsonLinesReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Reads delta-encoded predictions in JSON Lines format, as written by
+ * {@link DeltaWriter}. Delta frames before the first keyframe get skipped,
+ * so reading can start anywhere in the stream (eg after seeking to an
+ * offset in the file): decoding starts with the next keyframe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see DeltaDecoder
+ */
+public class DeltaReader
+  extends JsonLinesReader {
+
+  /** the decoder. */
+  protected DeltaDecoder m_Decoder;
+
+  /** the number of frames skipped. */
+  protected long m_Skipped;
+
+  /**
+   * Initializes the reader with a file (UTF-8).
+   *
+   * @param file	the file to read from
+   * @throws IOException	if the file cannot be opened
+   */
+  public DeltaReader(File file) throws IOException {
+    super(file);
+    m_Decoder = new DeltaDecoder();
+  }
+
+  /**
+   * Initializes the reader (UTF-8).
+   *
+   * @param stream	the stream to read from, gets closed when closing the reader
+   */
+  public DeltaReader(InputStream stream) {
+    super(stream);
+    m_Decoder = new DeltaDecoder();
+  }
+
+  /**
+   * Initializes the reader.
+   *
+   * @param reader	the reader to read from, gets closed when closing this reader
+   */
+  public DeltaReader(Reader reader) {
+    super(reader);
+    m_Decoder = new DeltaDecoder();
+  }
+
+  /**
+   * Reads and decodes the next frame.
+   *
+   * @return		the predictions, null if no more available
+   * @throws IOException	if reading or decoding fails
+   */
+  @Override
+  public ObjectPredictions read() throws IOException {
+    String	line;
+    JsonObject	frame;
+
+    while ((line = m_Reader.readLine()) != null) {
+      m_LineNo++;
+      if (line.trim().isEmpty())
+	continue;
+      try {
+	frame = JsonParser.parseString(line).getAsJsonObject();
+	if (!m_Decoder.hasReference() && !DeltaDecoder.isKeyframe(frame)) {
+	  m_Skipped++;
+	  continue;
+	}
+	return m_Decoder.decode(frame);
+      }
+      catch (Exception e) {
+	throw new IOException("Failed to decode line #" + m_LineNo + "!", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of delta frames that were skipped while waiting for a keyframe.
+   *
+   * @return		the number of frames
+   */
+  public long getSkipped() {
+    return m_Skipped;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * DeltaWriter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.delta;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import opex4j.ObjectPredictions;
+import opex4j.io.JsonLinesWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Writes consecutive predictions delta-encoded in JSON Lines format, one
+ * keyframe or delta frame per line.
+ * <br>
+ * The predictions must not get modified after they were written, as they
+ * are used as reference for the next frame.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @see DeltaEncoder
+ * @see DeltaReader
+ */
+public class DeltaWriter
+  extends JsonLinesWriter {
+
+  /** for generating compact JSON. */
+  protected Gson m_Gson;
+
+  /** the encoder. */
+  protected DeltaEncoder m_Encoder;
+
+  /**
+   * Initializes the writer with a new file (UTF-8).
+   *
+   * @param file		the file to write to
+   * @param keyframeInterval	every n-th frame is a keyframe
+   * @throws IOException	if the file cannot be created
+   */
+  public DeltaWriter(File file, int keyframeInterval) throws IOException {
+    super(file);
+    init(keyframeInterval);
+  }
+
+  /**
+   * Initializes the writer (UTF-8).
+   *
+   * @param stream		the stream to write to, gets closed when closing the writer
+   * @param keyframeInterval	every n-th frame is a keyframe
+   */
+  public DeltaWriter(OutputStream stream, int keyframeInterval) {
+    super(stream);
+    init(keyframeInterval);
+  }
+
+  /**
+   * Initializes the writer.
+   *
+   * @param writer		the writer to write to, gets closed when closing this writer
+   * @param keyframeInterval	every n-th frame is a keyframe
+   */
+  public DeltaWriter(Writer writer, int keyframeInterval) {
+    super(writer);
+    init(keyframeInterval);
+  }
+
+  /**
+   * Initializes the members.
+   *
+   * @param keyframeInterval	every n-th frame is a keyframe
+   */
+  protected void init(int keyframeInterval) {
+    m_Encoder = new DeltaEncoder(keyframeInterval);
+    m_Gson    = new GsonBuilder().create();
+  }
+
+  /**
+   * Returns the encoder in use.
+   *
+   * @return		the encoder
+   */
+  public DeltaEncoder getEncoder() {
+    return m_Encoder;
+  }
+
+  /**
+   * Writes the predictions as keyframe or delta frame.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   */
+  @Override
+  public void write(ObjectPredictions preds) throws IOException {
+    m_Gson.toJson(m_Encoder.encode(preds), m_Writer);
+    m_Writer.write('\n');
+    m_Count++;
+  }
+
+  /**
+   * Forces the next frame to be a keyframe, eg at a scene cut.
+   */
+  public void forceKeyframe() {
+    m_Encoder.reset();
+  }
+}
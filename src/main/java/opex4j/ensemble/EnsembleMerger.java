@@ -0,0 +1,531 @@
+/*
+ * EnsembleMerger.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.ensemble;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fuses the predictions of several models (sources) for the same image.
+ * <br>
+ * Objects get clustered per label, in descending order of their (calibrated
+ * and weighted) score: an object joins the cluster whose fused box overlaps
+ * it most, provided the IoU is at least the threshold, otherwise it starts
+ * a new cluster. Clusters are indexed in a uniform grid, so that only
+ * clusters in neighbouring cells need to be compared, which keeps the
+ * clustering near-linear in the number of objects.
+ * <br>
+ * With {@link Method#WEIGHTED_BOX_FUSION}, the fused box is the average of
+ * the member boxes weighted by their scores. With {@link Method#VOTING},
+ * the box/polygon of the best member are used. In both cases, clusters
+ * with fewer than the minimum number of votes (distinct sources) get
+ * dropped and the score is the weighted average score of the members,
+ * scaled down by the fraction of the total source weight that voted for it.
+ * <br>
+ * The fused objects inherit the meta-data of their best member, plus the
+ * provenance in {@link #META_SOURCES} and {@link #META_VOTES}.
+ * <br>
+ * Once set up, {@link #merge(List)} can be called from multiple threads.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class EnsembleMerger {
+
+  /** the meta-data key for the comma-separated names of the sources. */
+  public final static String META_SOURCES = "ensemble_sources";
+
+  /** the meta-data key for the number of sources that agreed. */
+  public final static String META_VOTES = "ensemble_votes";
+
+  /** the maximum number of sources. */
+  public final static int MAX_SOURCES = 64;
+
+  /**
+   * The fusion methods.
+   */
+  public enum Method {
+    /** score-weighted average of the boxes. */
+    WEIGHTED_BOX_FUSION,
+    /** box of the best member. */
+    VOTING,
+  }
+
+  /**
+   * An object of a source.
+   */
+  protected static class Member {
+
+    /** the index of the source. */
+    public int source;
+
+    /** the calibrated and weighted score. */
+    public double score;
+
+    /** the object. */
+    public ObjectPrediction object;
+  }
+
+  /**
+   * A cluster of overlapping objects.
+   */
+  protected static class Cluster {
+
+    /** the members, best first. */
+    public final List<Member> members = new ArrayList<>();
+
+    /** the sources (bitmask). */
+    public long sources;
+
+    /** the score-weighted coordinate sums. */
+    public double left, top, right, bottom;
+
+    /** the sum of the scores. */
+    public double scores;
+
+    /** the current fused box. */
+    public double[] box = new double[4];
+
+    /** the last visit, for avoiding duplicate checks. */
+    public int visit;
+  }
+
+  /** the source names. */
+  protected List<String> m_Names;
+
+  /** the source weights. */
+  protected List<Double> m_Weights;
+
+  /** the calibrations. */
+  protected List<ScoreCalibration> m_Calibrations;
+
+  /** the method. */
+  protected Method m_Method;
+
+  /** the IoU threshold. */
+  protected double m_IoUThreshold;
+
+  /** the minimum calibrated score for objects to be considered. */
+  protected double m_MinScore;
+
+  /** the minimum number of votes. */
+  protected int m_MinVotes;
+
+  /** the grid cell size. */
+  protected int m_CellSize;
+
+  /**
+   * Initializes the merger with weighted box fusion, an IoU threshold of 0.55
+   * and a grid cell size of 64 pixels.
+   */
+  public EnsembleMerger() {
+    m_Names        = new ArrayList<>();
+    m_Weights      = new ArrayList<>();
+    m_Calibrations = new ArrayList<>();
+    m_Method       = Method.WEIGHTED_BOX_FUSION;
+    m_IoUThreshold = 0.55;
+    m_MinScore     = 0.0;
+    m_MinVotes     = 1;
+    m_CellSize     = 64;
+  }
+
+  /**
+   * Adds a source with weight 1 and no calibration.
+   *
+   * @param name	the name of the source (eg the model)
+   * @return		the merger
+   */
+  public EnsembleMerger addSource(String name) {
+    return addSource(name, 1.0, ScoreCalibration.IDENTITY);
+  }
+
+  /**
+   * Adds a source.
+   *
+   * @param name	the name of the source (eg the model)
+   * @param weight	the weight of the source (&gt; 0)
+   * @param calibration	the score calibration to apply
+   * @return		the merger
+   */
+  public EnsembleMerger addSource(String name, double weight, ScoreCalibration calibration) {
+    if (weight <= 0)
+      throw new IllegalArgumentException("Weight must be positive: " + weight);
+    if (m_Names.size() == MAX_SOURCES)
+      throw new IllegalArgumentException("At most " + MAX_SOURCES + " sources supported!");
+    m_Names.add(name);
+    m_Weights.add(weight);
+    m_Calibrations.add(calibration);
+    return this;
+  }
+
+  /**
+   * Returns the number of sources.
+   *
+   * @return		the number of sources
+   */
+  public int getNumSources() {
+    return m_Names.size();
+  }
+
+  /**
+   * Sets the fusion method.
+   *
+   * @param value	the method
+   * @return		the merger
+   */
+  public EnsembleMerger setMethod(Method value) {
+    m_Method = value;
+    return this;
+  }
+
+  /**
+   * Sets the IoU threshold for objects to end up in the same cluster.
+   *
+   * @param value	the threshold (0-1]
+   * @return		the merger
+   */
+  public EnsembleMerger setIoUThreshold(double value) {
+    if ((value <= 0) || (value > 1))
+      throw new IllegalArgumentException("IoU threshold must be in (0, 1]: " + value);
+    m_IoUThreshold = value;
+    return this;
+  }
+
+  /**
+   * Sets the minimum calibrated score that objects need to have.
+   *
+   * @param value	the minimum score
+   * @return		the merger
+   */
+  public EnsembleMerger setMinScore(double value) {
+    m_MinScore = value;
+    return this;
+  }
+
+  /**
+   * Sets the minimum number of sources that need to agree on an object.
+   *
+   * @param value	the minimum number of votes (at least 1)
+   * @return		the merger
+   */
+  public EnsembleMerger setMinVotes(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Minimum votes must be at least 1: " + value);
+    m_MinVotes = value;
+    return this;
+  }
+
+  /**
+   * Sets the size of the grid cells, should be roughly the typical object size.
+   *
+   * @param value	the size in pixels (at least 1)
+   * @return		the merger
+   */
+  public EnsembleMerger setCellSize(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Cell size must be at least 1: " + value);
+    m_CellSize = value;
+    return this;
+  }
+
+  /**
+   * Computes the intersection over union of the two boxes (inclusive coordinates).
+   *
+   * @param a		the first box (left, top, right, bottom)
+   * @param b		the second box (left, top, right, bottom)
+   * @return		the IoU
+   */
+  protected static double iou(double[] a, double[] b) {
+    double	w;
+    double	h;
+    double	inter;
+
+    w = Math.min(a[2], b[2]) - Math.max(a[0], b[0]) + 1;
+    h = Math.min(a[3], b[3]) - Math.max(a[1], b[1]) + 1;
+    if ((w <= 0) || (h <= 0))
+      return 0;
+    inter = w * h;
+    return inter / ((a[2] - a[0] + 1) * (a[3] - a[1] + 1) + (b[2] - b[0] + 1) * (b[3] - b[1] + 1) - inter);
+  }
+
+  /**
+   * Returns the key of the grid cell.
+   *
+   * @param x		the cell column
+   * @param y		the cell row
+   * @return		the key
+   */
+  protected static long cellKey(long x, long y) {
+    return (x << 32) ^ (y & 0xffffffffL);
+  }
+
+  /**
+   * Adds the cluster to all the grid cells that its box overlaps, skipping
+   * the ones already covered by the previous box.
+   *
+   * @param grid	the grid
+   * @param cluster	the cluster to register
+   * @param previous	the previous box of the cluster, can be null
+   */
+  protected void register(Map<Long,List<Cluster>> grid, Cluster cluster, double[] previous) {
+    long	x;
+    long	y;
+    long	x0;
+    long	y0;
+    long	x1;
+    long	y1;
+
+    x0 = (long) Math.floor(cluster.box[0] / m_CellSize);
+    y0 = (long) Math.floor(cluster.box[1] / m_CellSize);
+    x1 = (long) Math.floor(cluster.box[2] / m_CellSize);
+    y1 = (long) Math.floor(cluster.box[3] / m_CellSize);
+    for (y = y0; y <= y1; y++) {
+      for (x = x0; x <= x1; x++) {
+	if ((previous != null)
+	  && (x >= (long) Math.floor(previous[0] / m_CellSize)) && (x <= (long) Math.floor(previous[2] / m_CellSize))
+	  && (y >= (long) Math.floor(previous[1] / m_CellSize)) && (y <= (long) Math.floor(previous[3] / m_CellSize)))
+	  continue;
+	grid.computeIfAbsent(cellKey(x, y), (Long k) -> new ArrayList<>()).add(cluster);
+      }
+    }
+  }
+
+  /**
+   * Adds the member to the cluster and updates the fused box.
+   *
+   * @param cluster	the cluster to update
+   * @param member	the member to add
+   */
+  protected void add(Cluster cluster, Member member) {
+    BBox	bbox;
+    double	w;
+
+    bbox = member.object.getBBox();
+    w    = Math.max(member.score, 1e-12);
+    cluster.members.add(member);
+    cluster.sources |= 1L << member.source;
+    cluster.left    += w * bbox.getLeft();
+    cluster.top     += w * bbox.getTop();
+    cluster.right   += w * bbox.getRight();
+    cluster.bottom  += w * bbox.getBottom();
+    cluster.scores  += w;
+    if (m_Method == Method.WEIGHTED_BOX_FUSION) {
+      cluster.box = new double[]{
+	cluster.left / cluster.scores,
+	cluster.top / cluster.scores,
+	cluster.right / cluster.scores,
+	cluster.bottom / cluster.scores,
+      };
+    }
+    else if (cluster.members.size() == 1) {
+      cluster.box = new double[]{bbox.getLeft(), bbox.getTop(), bbox.getRight(), bbox.getBottom()};
+    }
+  }
+
+  /**
+   * Clusters the members of a single label.
+   *
+   * @param members	the members, sorted by descending score
+   * @return		the clusters
+   */
+  protected List<Cluster> cluster(List<Member> members) {
+    List<Cluster>		result;
+    Map<Long,List<Cluster>>	grid;
+    List<Cluster>		cell;
+    double[]			box;
+    double[]			previous;
+    Cluster			best;
+    double			bestIoU;
+    double			iou;
+    BBox			bbox;
+    long			x;
+    long			y;
+    int				visit;
+
+    result = new ArrayList<>();
+    grid   = new HashMap<>();
+    visit  = 0;
+    for (Member member: members) {
+      bbox    = member.object.getBBox();
+      box     = new double[]{bbox.getLeft(), bbox.getTop(), bbox.getRight(), bbox.getBottom()};
+      best    = null;
+      bestIoU = m_IoUThreshold;
+      visit++;
+      for (y = (long) Math.floor(box[1] / m_CellSize); y <= (long) Math.floor(box[3] / m_CellSize); y++) {
+	for (x = (long) Math.floor(box[0] / m_CellSize); x <= (long) Math.floor(box[2] / m_CellSize); x++) {
+	  cell = grid.get(cellKey(x, y));
+	  if (cell == null)
+	    continue;
+	  for (Cluster c: cell) {
+	    if (c.visit == visit)
+	      continue;
+	    c.visit = visit;
+	    iou     = iou(box, c.box);
+	    if (iou >= bestIoU) {
+	      bestIoU = iou;
+	      best    = c;
+	    }
+	  }
+	}
+      }
+
+      if (best == null) {
+	best = new Cluster();
+	add(best, member);
+	register(grid, best, null);
+	result.add(best);
+      }
+      else {
+	previous = best.box;
+	add(best, member);
+	if (best.box != previous)
+	  register(grid, best, previous);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Turns the cluster into a fused object.
+   *
+   * @param label	the label of the cluster
+   * @param cluster	the cluster to convert
+   * @param totalWeight	the sum of all source weights
+   * @return		the object
+   */
+  protected ObjectPrediction fuse(String label, Cluster cluster, double totalWeight) {
+    Member		best;
+    BBox		bbox;
+    double		memberWeights;
+    double		voteWeights;
+    double		score;
+    Map<String,String>	meta;
+    StringBuilder	names;
+    int			i;
+
+    best          = cluster.members.get(0);
+    memberWeights = 0;
+    score         = 0;
+    for (Member m: cluster.members) {
+      memberWeights += m_Weights.get(m.source);
+      score         += m.score;
+    }
+    voteWeights = 0;
+    names       = new StringBuilder();
+    for (i = 0; i < m_Names.size(); i++) {
+      if ((cluster.sources & (1L << i)) != 0) {
+	voteWeights += m_Weights.get(i);
+	if (names.length() > 0)
+	  names.append(',');
+	names.append(m_Names.get(i));
+      }
+    }
+    score = score / memberWeights * Math.min(voteWeights, totalWeight) / totalWeight;
+
+    meta = new HashMap<>(best.object.getMeta());
+    meta.put(META_SOURCES, names.toString());
+    meta.put(META_VOTES, "" + Long.bitCount(cluster.sources));
+
+    if ((m_Method == Method.VOTING) || (cluster.members.size() == 1))
+      return new ObjectPrediction(label, score, best.object.getBBox(), best.object.getPolygon(), meta);
+
+    bbox = new BBox(
+      (int) Math.round(cluster.box[0]),
+      (int) Math.round(cluster.box[1]),
+      (int) Math.round(cluster.box[2]),
+      (int) Math.round(cluster.box[3]));
+    return new ObjectPrediction(label, score, bbox, bbox.toPolygon(), meta);
+  }
+
+  /**
+   * Fuses the predictions, one per source (in the order the sources were added).
+   *
+   * @param preds	the predictions to merge, entries can be null if a source has no predictions
+   * @return		the fused predictions, with timestamp and meta-data of the first non-null predictions
+   */
+  public ObjectPredictions merge(ObjectPredictions... preds) {
+    return merge(Arrays.asList(preds));
+  }
+
+  /**
+   * Fuses the predictions, one per source (in the order the sources were added).
+   *
+   * @param preds	the predictions to merge, entries can be null if a source has no predictions
+   * @return		the fused predictions, with timestamp and meta-data of the first non-null predictions
+   */
+  public ObjectPredictions merge(List<ObjectPredictions> preds) {
+    ObjectPredictions			first;
+    Map<String,List<Member>>		labels;
+    List<ObjectPrediction>		result;
+    List<Cluster>			clusters;
+    ObjectPrediction			fused;
+    Member				member;
+    ScoreCalibration			calibration;
+    double				totalWeight;
+    double				weight;
+    double				score;
+    int					i;
+
+    if (preds.size() != m_Names.size())
+      throw new IllegalArgumentException("Expected predictions for " + m_Names.size() + " sources, but got: " + preds.size());
+
+    first = null;
+    for (ObjectPredictions p: preds) {
+      if (p == null)
+	continue;
+      if (first == null)
+	first = p;
+      else if ((first.getID() == null) ? (p.getID() != null) : !first.getID().equals(p.getID()))
+	throw new IllegalArgumentException("Predictions are for different IDs: " + first.getID() + " != " + p.getID());
+    }
+    if (first == null)
+      throw new IllegalArgumentException("No predictions provided!");
+
+    // collect
+    labels      = new HashMap<>();
+    totalWeight = 0;
+    for (i = 0; i < preds.size(); i++) {
+      weight       = m_Weights.get(i);
+      totalWeight += weight;
+      if (preds.get(i) == null)
+	continue;
+      calibration = m_Calibrations.get(i);
+      for (ObjectPrediction obj: preds.get(i).getObjects()) {
+	score = calibration.calibrate((obj.getScore() == null) ? 1.0 : obj.getScore());
+	if (score < m_MinScore)
+	  continue;
+	member        = new Member();
+	member.source = i;
+	member.score  = score * weight;
+	member.object = obj;
+	labels.computeIfAbsent(obj.getLabel(), (String k) -> new ArrayList<>()).add(member);
+      }
+    }
+
+    // cluster and fuse
+    result = new ArrayList<>();
+    for (Map.Entry<String,List<Member>> entry: labels.entrySet()) {
+      entry.getValue().sort((Member m1, Member m2) -> Double.compare(m2.score, m1.score));
+      clusters = cluster(entry.getValue());
+      for (Cluster c: clusters) {
+	if (Long.bitCount(c.sources) < m_MinVotes)
+	  continue;
+	fused = fuse(entry.getKey(), c, totalWeight);
+	result.add(fused);
+      }
+    }
+    result.sort((ObjectPrediction o1, ObjectPrediction o2) -> Double.compare(o2.getScore(), o1.getScore()));
+
+    return new ObjectPredictions(first.getTimestamp(), first.getID(), result, first.getMeta());
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * ScoreCalibration.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.ensemble;
+
+/**
+ * Maps the raw scores of a model onto a common scale, so that the scores of
+ * different models can be compared when fusing their predictions.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface ScoreCalibration {
+
+  /** leaves the scores as they are. */
+  public final static ScoreCalibration IDENTITY = (double score) -> score;
+
+  /**
+   * Calibrates the score.
+   *
+   * @param score	the raw score
+   * @return		the calibrated score (0-1)
+   */
+  public double calibrate(double score);
+
+  /**
+   * Returns a linear calibration (scale * score + offset), limited to 0-1.
+   *
+   * @param scale	the scale factor
+   * @param offset	the offset
+   * @return		the calibration
+   */
+  public static ScoreCalibration linear(final double scale, final double offset) {
+    return (double score) -> Math.max(0.0, Math.min(1.0, scale * score + offset));
+  }
+
+  /**
+   * Returns a Platt scaling calibration: 1 / (1 + exp(a * score + b)).
+   *
+   * @param a		the slope (usually negative)
+   * @param b		the intercept
+   * @return		the calibration
+   */
+  public static ScoreCalibration platt(final double a, final double b) {
+    return (double score) -> 1.0 / (1.0 + Math.exp(a * score + b));
+  }
+
+  /**
+   * Returns a temperature scaling calibration for scores that are
+   * probabilities: the logit gets divided by the temperature.
+   *
+   * @param temperature	the temperature (&gt; 1 softens, &lt; 1 sharpens)
+   * @return		the calibration
+   */
+  public static ScoreCalibration temperature(final double temperature) {
+    if (temperature <= 0)
+      throw new IllegalArgumentException("Temperature must be positive: " + temperature);
+    return (double score) -> {
+      double p = Math.max(1e-12, Math.min(1.0 - 1e-12, score));
+      return 1.0 / (1.0 + Math.exp(-Math.log(p / (1.0 - p)) / temperature));
+    };
+  }
+}
@@ -0,0 +1,536 @@
+/*
+ * WorkloadGenerator.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.generator;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.io.JsonLinesWriter;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic, deterministic predictions for load and scale testing.
+ * Generators with the same settings and seed produce the same sequence of documents.
+ * <br>
+ * Objects are placed randomly within the image, the labels follow the configured
+ * distribution (default: Zipf-like) and the polygons are either rectangles,
+ * ellipses or jittered star-shaped outlines.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class WorkloadGenerator
+  implements Iterable<ObjectPredictions> {
+
+  /**
+   * The shapes of the polygons.
+   */
+  public enum Shape {
+    /** rectangle, using the bbox corners (4 vertices, ignores vertex counts). */
+    RECTANGLE,
+    /** ellipse inscribed in the bbox. */
+    ELLIPSE,
+    /** star-shaped polygon with random radius per vertex. */
+    JITTERED,
+  }
+
+  /** the default labels. */
+  public final static String[] DEFAULT_LABELS = {
+    "person", "car", "bicycle", "dog", "cat", "truck", "bus", "motorcycle", "bird", "traffic light"
+  };
+
+  /** the seed. */
+  protected long m_Seed;
+
+  /** the random number generator. */
+  protected SplittableRandom m_Random;
+
+  /** the minimum number of objects per document. */
+  protected int m_MinObjects;
+
+  /** the maximum number of objects per document. */
+  protected int m_MaxObjects;
+
+  /** the labels. */
+  protected String[] m_Labels;
+
+  /** the cumulative label probabilities. */
+  protected double[] m_LabelCDF;
+
+  /** the minimum number of polygon vertices. */
+  protected int m_MinVertices;
+
+  /** the maximum number of polygon vertices. */
+  protected int m_MaxVertices;
+
+  /** the polygon shape. */
+  protected Shape m_Shape;
+
+  /** the image width. */
+  protected int m_Width;
+
+  /** the image height. */
+  protected int m_Height;
+
+  /** the minimum object size. */
+  protected int m_MinSize;
+
+  /** the maximum object size. */
+  protected int m_MaxSize;
+
+  /** the number of meta-data entries per document. */
+  protected int m_DocumentMetaSize;
+
+  /** the number of meta-data entries per object. */
+  protected int m_ObjectMetaSize;
+
+  /** the length of the meta-data values. */
+  protected int m_MetaValueLength;
+
+  /** whether to generate scores. */
+  protected boolean m_Scores;
+
+  /** the timestamp of the first document, null for no timestamps. */
+  protected LocalDateTime m_Start;
+
+  /** the time between documents. */
+  protected Duration m_Cadence;
+
+  /** the prefix for the IDs. */
+  protected String m_IDPrefix;
+
+  /** the number of documents generated so far. */
+  protected long m_Count;
+
+  /**
+   * Initializes the generator with the default settings.
+   *
+   * @param seed	the seed to use
+   */
+  public WorkloadGenerator(long seed) {
+    m_Seed             = seed;
+    m_MinObjects       = 0;
+    m_MaxObjects       = 20;
+    m_MinVertices      = 4;
+    m_MaxVertices      = 32;
+    m_Shape            = Shape.JITTERED;
+    m_Width            = 1920;
+    m_Height           = 1080;
+    m_MinSize          = 10;
+    m_MaxSize          = 300;
+    m_DocumentMetaSize = 2;
+    m_ObjectMetaSize   = 0;
+    m_MetaValueLength  = 8;
+    m_Scores           = true;
+    m_Start            = LocalDateTime.of(2023, 1, 1, 0, 0, 0);
+    m_Cadence          = Duration.ofMillis(40);
+    m_IDPrefix         = "frame-";
+    setLabels(DEFAULT_LABELS, null);
+    reset();
+  }
+
+  /**
+   * Resets the generator to the first document.
+   */
+  public void reset() {
+    m_Random = new SplittableRandom(m_Seed);
+    m_Count  = 0;
+  }
+
+  /**
+   * Returns the seed.
+   *
+   * @return		the seed
+   */
+  public long getSeed() {
+    return m_Seed;
+  }
+
+  /**
+   * Sets the range for the number of objects per document.
+   *
+   * @param min		the minimum
+   * @param max		the maximum (incl)
+   */
+  public void setObjects(int min, int max) {
+    if ((min < 0) || (max < min))
+      throw new IllegalArgumentException("Invalid object range: " + min + "-" + max);
+    m_MinObjects = min;
+    m_MaxObjects = max;
+  }
+
+  /**
+   * Sets the labels and their (relative) weights.
+   *
+   * @param labels	the labels
+   * @param weights	the weights, null for a Zipf-like distribution (1/rank)
+   */
+  public void setLabels(String[] labels, double[] weights) {
+    double	sum;
+    int		i;
+
+    if ((labels == null) || (labels.length == 0))
+      throw new IllegalArgumentException("At least one label required!");
+    if ((weights != null) && (weights.length != labels.length))
+      throw new IllegalArgumentException("Number of labels and weights differ: " + labels.length + " != " + weights.length);
+    m_Labels   = labels.clone();
+    m_LabelCDF = new double[labels.length];
+    sum        = 0;
+    for (i = 0; i < labels.length; i++) {
+      sum          += (weights == null) ? 1.0 / (i + 1) : weights[i];
+      m_LabelCDF[i] = sum;
+    }
+    for (i = 0; i < labels.length; i++)
+      m_LabelCDF[i] /= sum;
+  }
+
+  /**
+   * Sets the range for the number of polygon vertices.
+   *
+   * @param min		the minimum (at least 3)
+   * @param max		the maximum (incl)
+   */
+  public void setVertices(int min, int max) {
+    if ((min < 3) || (max < min))
+      throw new IllegalArgumentException("Invalid vertex range: " + min + "-" + max);
+    m_MinVertices = min;
+    m_MaxVertices = max;
+  }
+
+  /**
+   * Sets the shape of the polygons.
+   *
+   * @param value	the shape
+   */
+  public void setShape(Shape value) {
+    m_Shape = value;
+  }
+
+  /**
+   * Sets the image dimensions.
+   *
+   * @param width	the width
+   * @param height	the height
+   */
+  public void setImageSize(int width, int height) {
+    if ((width < 10) || (height < 10))
+      throw new IllegalArgumentException("Image must be at least 10x10: " + width + "x" + height);
+    m_Width  = width;
+    m_Height = height;
+  }
+
+  /**
+   * Sets the range for the object sizes (width/height). Objects get limited
+   * to the image size.
+   *
+   * @param min		the minimum (at least 10)
+   * @param max		the maximum (incl)
+   */
+  public void setObjectSize(int min, int max) {
+    if ((min < 10) || (max < min))
+      throw new IllegalArgumentException("Invalid object size range: " + min + "-" + max);
+    m_MinSize = min;
+    m_MaxSize = max;
+  }
+
+  /**
+   * Sets the meta-data sizes.
+   *
+   * @param document	the number of entries per document
+   * @param object	the number of entries per object
+   * @param valueLength	the length of the values
+   */
+  public void setMeta(int document, int object, int valueLength) {
+    if ((document < 0) || (object < 0) || (valueLength < 0))
+      throw new IllegalArgumentException("Meta-data sizes cannot be negative!");
+    m_DocumentMetaSize = document;
+    m_ObjectMetaSize   = object;
+    m_MetaValueLength  = valueLength;
+  }
+
+  /**
+   * Sets whether to generate scores.
+   *
+   * @param value	true if to generate scores
+   */
+  public void setScores(boolean value) {
+    m_Scores = value;
+  }
+
+  /**
+   * Sets the timestamps.
+   *
+   * @param start	the timestamp of the first document, null for no timestamps
+   * @param cadence	the time between documents
+   */
+  public void setTimestamps(LocalDateTime start, Duration cadence) {
+    m_Start   = start;
+    m_Cadence = cadence;
+  }
+
+  /**
+   * Sets the prefix for the IDs (followed by the document index).
+   *
+   * @param value	the prefix
+   */
+  public void setIDPrefix(String value) {
+    m_IDPrefix = value;
+  }
+
+  /**
+   * Returns the number of documents generated so far.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count;
+  }
+
+  /**
+   * Returns a random integer in the range.
+   *
+   * @param min		the minimum
+   * @param max		the maximum (incl)
+   * @return		the value
+   */
+  protected int nextInt(int min, int max) {
+    return (min == max) ? min : m_Random.nextInt(min, max + 1);
+  }
+
+  /**
+   * Picks a label according to the distribution.
+   *
+   * @return		the label
+   */
+  protected String nextLabel() {
+    double	r;
+    int		i;
+
+    r = m_Random.nextDouble();
+    for (i = 0; i < m_LabelCDF.length - 1; i++) {
+      if (r < m_LabelCDF[i])
+	return m_Labels[i];
+    }
+    return m_Labels[m_Labels.length - 1];
+  }
+
+  /**
+   * Generates a random alphanumeric string.
+   *
+   * @param length	the length
+   * @return		the string
+   */
+  protected String nextString(int length) {
+    char[]	result;
+    int		i;
+    int		r;
+
+    result = new char[length];
+    for (i = 0; i < length; i++) {
+      r = m_Random.nextInt(36);
+      result[i] = (char) ((r < 10) ? ('0' + r) : ('a' + r - 10));
+    }
+    return new String(result);
+  }
+
+  /**
+   * Generates meta-data.
+   *
+   * @param size	the number of entries
+   * @return		the meta-data, null if size is 0
+   */
+  protected Map<String,String> nextMeta(int size) {
+    Map<String,String>	result;
+    int			i;
+
+    if (size == 0)
+      return null;
+    result = new HashMap<>();
+    for (i = 0; i < size; i++)
+      result.put("key" + i, nextString(m_MetaValueLength));
+    return result;
+  }
+
+  /**
+   * Generates a polygon within the box.
+   *
+   * @param left	the left of the box
+   * @param top		the top of the box
+   * @param width	the width of the box
+   * @param height	the height of the box
+   * @return		the polygon
+   */
+  protected Polygon nextPolygon(int left, int top, int width, int height) {
+    List<Point>	points;
+    int		vertices;
+    int		i;
+    double	angle;
+    double	scale;
+    double	cx;
+    double	cy;
+
+    points = new ArrayList<>();
+    if (m_Shape == Shape.RECTANGLE) {
+      points.add(new Point(left, top));
+      points.add(new Point(left + width - 1, top));
+      points.add(new Point(left + width - 1, top + height - 1));
+      points.add(new Point(left, top + height - 1));
+      return new Polygon(points);
+    }
+
+    vertices = nextInt(m_MinVertices, m_MaxVertices);
+    cx       = left + (width - 1) / 2.0;
+    cy       = top + (height - 1) / 2.0;
+    for (i = 0; i < vertices; i++) {
+      angle = 2 * Math.PI * i / vertices;
+      scale = (m_Shape == Shape.JITTERED) ? 0.5 + 0.5 * m_Random.nextDouble() : 1.0;
+      points.add(new Point(
+	(int) Math.round(cx + Math.cos(angle) * (width - 1) / 2.0 * scale),
+	(int) Math.round(cy + Math.sin(angle) * (height - 1) / 2.0 * scale)));
+    }
+    return new Polygon(points);
+  }
+
+  /**
+   * Generates the next document.
+   *
+   * @return		the predictions
+   */
+  public ObjectPredictions next() {
+    List<ObjectPrediction>	objects;
+    int				count;
+    int				i;
+    int				width;
+    int				height;
+    int				left;
+    int				top;
+    Polygon			polygon;
+    LocalDateTime		timestamp;
+
+    count   = nextInt(m_MinObjects, m_MaxObjects);
+    objects = new ArrayList<>(count);
+    for (i = 0; i < count; i++) {
+      width   = Math.min(m_Width, nextInt(m_MinSize, m_MaxSize));
+      height  = Math.min(m_Height, nextInt(m_MinSize, m_MaxSize));
+      left    = nextInt(0, m_Width - width);
+      top     = nextInt(0, m_Height - height);
+      polygon = nextPolygon(left, top, width, height);
+      objects.add(new ObjectPrediction(
+	nextLabel(),
+	m_Scores ? Math.round(m_Random.nextDouble() * 10000) / 10000.0 : null,
+	polygon.toBBox(),
+	polygon,
+	nextMeta(m_ObjectMetaSize)));
+    }
+
+    timestamp = null;
+    if ((m_Start != null) && (m_Cadence != null))
+      timestamp = m_Start.plusNanos(m_Cadence.toNanos() * m_Count);
+
+    return new ObjectPredictions(timestamp, m_IDPrefix + (m_Count++), objects, nextMeta(m_DocumentMetaSize));
+  }
+
+  /**
+   * Generates the specified number of documents.
+   *
+   * @param count	the number of documents
+   * @return		the documents
+   */
+  public List<ObjectPredictions> next(int count) {
+    List<ObjectPredictions>	result;
+    int				i;
+
+    result = new ArrayList<>(count);
+    for (i = 0; i < count; i++)
+      result.add(next());
+    return result;
+  }
+
+  /**
+   * Returns an endless iterator over generated documents.
+   *
+   * @return		the iterator
+   */
+  @Override
+  public Iterator<ObjectPredictions> iterator() {
+    return new Iterator<ObjectPredictions>() {
+      @Override
+      public boolean hasNext() {
+	return true;
+      }
+
+      @Override
+      public ObjectPredictions next() {
+	return WorkloadGenerator.this.next();
+      }
+    };
+  }
+
+  /**
+   * Writes the specified number of documents to a JSON Lines file.
+   *
+   * @param file	the file to write to
+   * @param count	the number of documents
+   * @throws IOException	if writing fails
+   */
+  public void writeJsonLines(File file, long count) throws IOException {
+    long	i;
+
+    try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+      for (i = 0; i < count; i++)
+	writer.write(next());
+    }
+  }
+
+  /**
+   * Writes documents to a JSON Lines file until the file reaches (at least)
+   * the specified size. As the generated JSON is ASCII, characters and bytes
+   * are the same, unless non-ASCII labels are used.
+   *
+   * @param file	the file to write to
+   * @param bytes	the minimum file size in bytes
+   * @return		the number of documents written
+   * @throws IOException	if writing fails
+   */
+  public long writeJsonLinesUpTo(File file, long bytes) throws IOException {
+    try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+      while (writer.getCharCount() < bytes)
+	writer.write(next());
+      return writer.getCount();
+    }
+  }
+
+  /**
+   * Writes the specified number of documents as individual JSON files
+   * (named after the IDs) to the directory.
+   *
+   * @param dir		the directory to write to
+   * @param count	the number of documents
+   * @param prettyPrint	whether to pretty print the JSON
+   * @throws IOException	if writing fails
+   */
+  public void writeFiles(File dir, int count, boolean prettyPrint) throws IOException {
+    ObjectPredictions	preds;
+    int			i;
+
+    if (!dir.isDirectory() && !dir.mkdirs())
+      throw new IOException("Failed to create directory: " + dir);
+    for (i = 0; i < count; i++) {
+      preds = next();
+      preds.write(new File(dir, preds.getID() + ".json"), prettyPrint);
+    }
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Geometry.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Geometric computations on polygons given as coordinate arrays. The
+ * signed area is positive for polygons that run clockwise in image
+ * coordinates (y axis pointing down), like the ones generated from bboxes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public final class Geometry {
+
+  private Geometry() {
+  }
+
+  /**
+   * Computes the signed area using the shoelace formula.
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of points
+   * @return		the signed area
+   */
+  public static double signedArea(int[] x, int[] y, int n) {
+    long	sum;
+    int		i;
+    int		j;
+
+    sum = 0;
+    for (i = 0, j = n - 1; i < n; j = i++)
+      sum += (long) x[j] * y[i] - (long) x[i] * y[j];
+    return sum / 2.0;
+  }
+
+  /**
+   * Computes the perimeter of the closed polygon.
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of points
+   * @return		the perimeter
+   */
+  public static double perimeter(int[] x, int[] y, int n) {
+    double	result;
+    int		i;
+    int		j;
+
+    result = 0;
+    if (n < 2)
+      return result;
+    for (i = 0, j = n - 1; i < n; j = i++)
+      result += Math.hypot(x[i] - x[j], y[i] - y[j]);
+    return result;
+  }
+
+  /**
+   * Computes the centroid of the area of the polygon. Falls back to the mean
+   * of the points for polygons without area.
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of points
+   * @param result	for storing x and y, NaN if no points
+   */
+  public static void centroid(int[] x, int[] y, int n, double[] result) {
+    double	area;
+    double	cx;
+    double	cy;
+    double	cross;
+    int		i;
+    int		j;
+
+    area = 0;
+    cx   = 0;
+    cy   = 0;
+    for (i = 0, j = n - 1; i < n; j = i++) {
+      cross = (double) x[j] * y[i] - (double) x[i] * y[j];
+      area += cross;
+      cx   += ((double) x[j] + x[i]) * cross;
+      cy   += ((double) y[j] + y[i]) * cross;
+    }
+    if (area != 0) {
+      result[0] = cx / (3 * area);
+      result[1] = cy / (3 * area);
+      return;
+    }
+    cx = 0;
+    cy = 0;
+    for (i = 0; i < n; i++) {
+      cx += x[i];
+      cy += y[i];
+    }
+    result[0] = cx / n;
+    result[1] = cy / n;
+  }
+
+  /**
+   * Computes the z component of the cross product of o-&gt;a and o-&gt;b.
+   *
+   * @param ox		the x of o
+   * @param oy		the y of o
+   * @param ax		the x of a
+   * @param ay		the y of a
+   * @param bx		the x of b
+   * @param by		the y of b
+   * @return		the cross product
+   */
+  protected static long cross(int ox, int oy, int ax, int ay, int bx, int by) {
+    return (long) (ax - ox) * (by - oy) - (long) (ay - oy) * (bx - ox);
+  }
+
+  /**
+   * Computes the convex hull using Andrew's monotone chain algorithm.
+   * The hull starts with the point with the smallest x (and y), has a
+   * positive signed area and contains no collinear points.
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of points
+   * @param hullX	for storing the x coordinates of the hull, at least n + 1 long
+   * @param hullY	for storing the y coordinates of the hull, at least n + 1 long
+   * @return		the number of points of the hull
+   */
+  public static int convexHull(int[] x, int[] y, int n, int[] hullX, int[] hullY) {
+    long[]	sorted;
+    int[]	sx;
+    int[]	sy;
+    int		count;
+    int		num;
+    int		lower;
+    int		i;
+
+    // sort by x, then y; flipping the sign bit of y orders it as unsigned
+    sorted = new long[n];
+    for (i = 0; i < n; i++)
+      sorted[i] = ((long) x[i] << 32) | ((y[i] ^ 0x80000000) & 0xffffffffL);
+    Arrays.sort(sorted);
+    sx  = new int[n];
+    sy  = new int[n];
+    num = 0;
+    for (i = 0; i < n; i++) {
+      if ((i > 0) && (sorted[i] == sorted[i - 1]))
+	continue;
+      sx[num] = (int) (sorted[i] >> 32);
+      sy[num] = ((int) sorted[i]) ^ 0x80000000;
+      num++;
+    }
+    if (num < 3) {
+      System.arraycopy(sx, 0, hullX, 0, num);
+      System.arraycopy(sy, 0, hullY, 0, num);
+      return num;
+    }
+
+    count = 0;
+    // lower chain (upper in image coordinates)
+    for (i = 0; i < num; i++) {
+      while ((count >= 2) && (cross(hullX[count - 2], hullY[count - 2], hullX[count - 1], hullY[count - 1], sx[i], sy[i]) <= 0))
+	count--;
+      hullX[count] = sx[i];
+      hullY[count] = sy[i];
+      count++;
+    }
+    // upper chain
+    lower = count + 1;
+    for (i = num - 2; i >= 0; i--) {
+      while ((count >= lower) && (cross(hullX[count - 2], hullY[count - 2], hullX[count - 1], hullY[count - 1], sx[i], sy[i]) <= 0))
+	count--;
+      hullX[count] = sx[i];
+      hullY[count] = sy[i];
+      count++;
+    }
+    // last point is the first one
+    count--;
+    if (count < 3)
+      count = Math.max(1, count);
+    return count;
+  }
+
+  /**
+   * Computes the minimum-area rectangle around the convex hull using
+   * rotating calipers (one side of the rectangle is collinear with an
+   * edge of the hull).
+   *
+   * @param x		the x coordinates of the hull, as returned by {@link #convexHull}
+   * @param y		the y coordinates of the hull
+   * @param n		the number of points of the hull
+   * @return		the rectangle, null if no points
+   */
+  public static RotatedRectangle minAreaRectangle(int[] x, int[] y, int n) {
+    RotatedRectangle	result;
+    double		best;
+    double		ux;
+    double		uy;
+    double		len;
+    double		minU;
+    double		maxU;
+    double		maxV;
+    double		baseU;
+    double		baseV;
+    double		area;
+    int			right;
+    int			top;
+    int			left;
+    int			i;
+    int			j;
+
+    if (n == 0)
+      return null;
+    if (n == 1)
+      return new RotatedRectangle(x[0], y[0], 0, 0, 0);
+    if (n == 2)
+      return new RotatedRectangle((x[0] + (double) x[1]) / 2, (y[0] + (double) y[1]) / 2,
+	Math.hypot(x[1] - x[0], y[1] - y[0]), 0, Math.atan2(y[1] - y[0], x[1] - x[0]));
+
+    result = null;
+    best   = Double.POSITIVE_INFINITY;
+    right  = 1;
+    top    = 1;
+    left   = 1;
+    for (i = 0; i < n; i++) {
+      j   = (i + 1) % n;
+      len = Math.hypot(x[j] - x[i], y[j] - y[i]);
+      ux  = (x[j] - x[i]) / len;
+      uy  = (y[j] - y[i]) / len;
+      // normal (-uy, ux) points into the hull, since the signed area is positive
+      if (i == 0) {
+	right = j;
+	while (dot(x, y, (right + 1) % n, ux, uy) > dot(x, y, right, ux, uy))
+	  right = (right + 1) % n;
+	top = right;
+      }
+      while (dot(x, y, (right + 1) % n, ux, uy) > dot(x, y, right, ux, uy))
+	right = (right + 1) % n;
+      while (dot(x, y, (top + 1) % n, -uy, ux) > dot(x, y, top, -uy, ux))
+	top = (top + 1) % n;
+      if (i == 0)
+	left = top;
+      while (dot(x, y, (left + 1) % n, ux, uy) < dot(x, y, left, ux, uy))
+	left = (left + 1) % n;
+
+      baseU = dot(x, y, i, ux, uy);
+      baseV = dot(x, y, i, -uy, ux);
+      minU  = dot(x, y, left, ux, uy);
+      maxU  = dot(x, y, right, ux, uy);
+      maxV  = dot(x, y, top, -uy, ux);
+      area  = (maxU - minU) * (maxV - baseV);
+      if (area < best) {
+	best   = area;
+	result = new RotatedRectangle(
+	  x[i] + ux * ((minU + maxU) / 2 - baseU) - uy * (maxV - baseV) / 2,
+	  y[i] + uy * ((minU + maxU) / 2 - baseU) + ux * (maxV - baseV) / 2,
+	  maxU - minU, maxV - baseV, Math.atan2(uy, ux));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Projects the point onto the direction.
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param i		the index of the point
+   * @param dx		the x of the direction
+   * @param dy		the y of the direction
+   * @return		the projection
+   */
+  protected static double dot(int[] x, int[] y, int i, double dx, double dy) {
+    return x[i] * dx + y[i] * dy;
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * RotatedRectangle.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.geometry;
+
+/**
+ * Immutable, arbitrarily rotated rectangle, eg the minimum-area rectangle
+ * around a polygon. The width is the length of the longer side, the angle
+ * the direction of that side (radians, in [0, pi), clockwise in image
+ * coordinates since the y axis points down).
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class RotatedRectangle {
+
+  /** the x of the center. */
+  protected double m_CenterX;
+
+  /** the y of the center. */
+  protected double m_CenterY;
+
+  /** the length of the longer side. */
+  protected double m_Width;
+
+  /** the length of the shorter side. */
+  protected double m_Height;
+
+  /** the angle of the longer side. */
+  protected double m_Angle;
+
+  /**
+   * Initializes the rectangle. Swaps the sides if the height is larger
+   * than the width and normalizes the angle.
+   *
+   * @param centerX	the x of the center
+   * @param centerY	the y of the center
+   * @param width	the length of the side along the angle
+   * @param height	the length of the other side
+   * @param angle	the angle of the first side in radians
+   */
+  public RotatedRectangle(double centerX, double centerY, double width, double height, double angle) {
+    if ((width < 0) || (height < 0))
+      throw new IllegalArgumentException("Sides cannot be negative: width=" + width + ", height=" + height);
+    if (height > width) {
+      m_Width  = height;
+      m_Height = width;
+      angle   += Math.PI / 2;
+    }
+    else {
+      m_Width  = width;
+      m_Height = height;
+    }
+    angle %= Math.PI;
+    if (angle < 0)
+      angle += Math.PI;
+    if (angle >= Math.PI)
+      angle = 0;
+    m_CenterX = centerX;
+    m_CenterY = centerY;
+    m_Angle   = angle;
+  }
+
+  /**
+   * Returns the x of the center.
+   *
+   * @return		the x
+   */
+  public double getCenterX() {
+    return m_CenterX;
+  }
+
+  /**
+   * Returns the y of the center.
+   *
+   * @return		the y
+   */
+  public double getCenterY() {
+    return m_CenterY;
+  }
+
+  /**
+   * Returns the length of the longer side.
+   *
+   * @return		the width
+   */
+  public double getWidth() {
+    return m_Width;
+  }
+
+  /**
+   * Returns the length of the shorter side.
+   *
+   * @return		the height
+   */
+  public double getHeight() {
+    return m_Height;
+  }
+
+  /**
+   * Returns the angle of the longer side.
+   *
+   * @return		the angle in radians, [0, pi)
+   */
+  public double getAngle() {
+    return m_Angle;
+  }
+
+  /**
+   * Returns the area.
+   *
+   * @return		the area
+   */
+  public double getArea() {
+    return m_Width * m_Height;
+  }
+
+  /**
+   * Returns the ratio between the shorter and the longer side.
+   *
+   * @return		the ratio in [0, 1], 0 if the width is 0
+   */
+  public double getElongation() {
+    if (m_Width == 0)
+      return 0;
+    return m_Height / m_Width;
+  }
+
+  /**
+   * Returns the corners as x/y pairs, starting with the one at the start
+   * of the longer side.
+   *
+   * @return		the corners (x0, y0, ..., x3, y3)
+   */
+  public double[] getCorners() {
+    double[]	result;
+    double	ux;
+    double	uy;
+    double	vx;
+    double	vy;
+
+    ux = Math.cos(m_Angle) * m_Width / 2;
+    uy = Math.sin(m_Angle) * m_Width / 2;
+    vx = -Math.sin(m_Angle) * m_Height / 2;
+    vy = Math.cos(m_Angle) * m_Height / 2;
+    result = new double[]{
+      m_CenterX - ux - vx, m_CenterY - uy - vy,
+      m_CenterX + ux - vx, m_CenterY + uy - vy,
+      m_CenterX + ux + vx, m_CenterY + uy + vy,
+      m_CenterX - ux + vx, m_CenterY - uy + vy,
+    };
+    return result;
+  }
+
+  /**
+   * Returns a short description.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "center=" + m_CenterX + "," + m_CenterY + ", width=" + m_Width + ", height=" + m_Height + ", angle=" + Math.toDegrees(m_Angle);
+  }
+}
@@ -0,0 +1,599 @@
+/*
+ * HeatmapAccumulator.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.heatmap;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+
+import java.awt.Point;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Accumulates the areas covered by the objects of many predictions (eg the
+ * frames of a camera) in a per-label density grid.
+ * <br>
+ * The image gets mapped onto a grid of the specified resolution. Each object
+ * adds its weight (1 or its score) to every grid cell that it covers: with
+ * {@link Shape#BBOX} all the cells overlapped by the bounding box, with
+ * {@link Shape#POLYGON} all the cells whose center lies inside the polygon
+ * (or at least the cell containing the center of the bbox, for objects that
+ * are smaller than a cell). Coverage gets stored as horizontal spans in
+ * per-row difference arrays, i.e., the cost of an object depends on the
+ * number of rows it covers and not on its area; the actual densities get
+ * computed when retrieving the grids.
+ * <br>
+ * Thread-safe: each thread that calls {@link #add(ObjectPredictions)}
+ * accumulates into its own grids, which get merged when retrieving the
+ * results. {@link #addAll(Iterable, int)} processes a stream of predictions
+ * with multiple threads, merging their grids into the ones of the calling
+ * thread.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class HeatmapAccumulator {
+
+  /**
+   * What shape of the objects to rasterize.
+   */
+  public enum Shape {
+    /** the bounding box. */
+    BBOX,
+    /** the polygon. */
+    POLYGON,
+  }
+
+  /**
+   * The grids of a single thread.
+   */
+  protected class Partial {
+
+    /** the difference arrays per label (height * (width + 1)). */
+    public final Map<String,double[]> grids = new HashMap<>();
+
+    /** the number of objects per label. */
+    public final Map<String,Long> counts = new HashMap<>();
+
+    /** the number of frames. */
+    public long frames;
+
+    /** buffer for the polygon intersections. */
+    public double[] xs = new double[16];
+
+    /**
+     * Returns the grid for the label.
+     *
+     * @param label	the label
+     * @return		the grid
+     */
+    public double[] grid(String label) {
+      double[]	result;
+
+      result = grids.get(label);
+      if (result == null) {
+	result = new double[m_GridHeight * (m_GridWidth + 1)];
+	grids.put(label, result);
+      }
+      return result;
+    }
+  }
+
+  /** the image width. */
+  protected int m_ImageWidth;
+
+  /** the image height. */
+  protected int m_ImageHeight;
+
+  /** the grid width. */
+  protected int m_GridWidth;
+
+  /** the grid height. */
+  protected int m_GridHeight;
+
+  /** the horizontal scale factor (image to grid). */
+  protected double m_ScaleX;
+
+  /** the vertical scale factor (image to grid). */
+  protected double m_ScaleY;
+
+  /** the shape to rasterize. */
+  protected Shape m_Shape;
+
+  /** whether to weight by score. */
+  protected boolean m_ScoreWeighted;
+
+  /** the partial results of all threads. */
+  protected List<Partial> m_Partials;
+
+  /** the partial result of the current thread. */
+  protected ThreadLocal<Partial> m_Local;
+
+  /**
+   * Initializes the accumulator.
+   *
+   * @param imageWidth	the width of the images
+   * @param imageHeight	the height of the images
+   * @param gridWidth	the number of columns of the grid
+   * @param gridHeight	the number of rows of the grid
+   */
+  public HeatmapAccumulator(int imageWidth, int imageHeight, int gridWidth, int gridHeight) {
+    if ((imageWidth < 1) || (imageHeight < 1))
+      throw new IllegalArgumentException("Invalid image size: " + imageWidth + "x" + imageHeight);
+    if ((gridWidth < 1) || (gridHeight < 1))
+      throw new IllegalArgumentException("Invalid grid size: " + gridWidth + "x" + gridHeight);
+    m_ImageWidth    = imageWidth;
+    m_ImageHeight   = imageHeight;
+    m_GridWidth     = gridWidth;
+    m_GridHeight    = gridHeight;
+    m_ScaleX        = (double) gridWidth / imageWidth;
+    m_ScaleY        = (double) gridHeight / imageHeight;
+    m_Shape         = Shape.BBOX;
+    m_ScoreWeighted = false;
+    clear();
+  }
+
+  /**
+   * Removes all accumulated data.
+   */
+  public void clear() {
+    m_Partials = new CopyOnWriteArrayList<>();
+    m_Local    = ThreadLocal.withInitial(() -> {
+      Partial partial = new Partial();
+      m_Partials.add(partial);
+      return partial;
+    });
+  }
+
+  /**
+   * Sets the shape to rasterize.
+   *
+   * @param value	the shape
+   * @return		the accumulator
+   */
+  public HeatmapAccumulator setShape(Shape value) {
+    m_Shape = value;
+    return this;
+  }
+
+  /**
+   * Returns the shape to rasterize.
+   *
+   * @return		the shape
+   */
+  public Shape getShape() {
+    return m_Shape;
+  }
+
+  /**
+   * Sets whether objects contribute their score (missing scores count as 1)
+   * rather than 1.
+   *
+   * @param value	true if to weight by score
+   * @return		the accumulator
+   */
+  public HeatmapAccumulator setScoreWeighted(boolean value) {
+    m_ScoreWeighted = value;
+    return this;
+  }
+
+  /**
+   * Returns whether objects contribute their score rather than 1.
+   *
+   * @return		true if weighted by score
+   */
+  public boolean isScoreWeighted() {
+    return m_ScoreWeighted;
+  }
+
+  /**
+   * Returns the number of columns of the grid.
+   *
+   * @return		the width
+   */
+  public int getGridWidth() {
+    return m_GridWidth;
+  }
+
+  /**
+   * Returns the number of rows of the grid.
+   *
+   * @return		the height
+   */
+  public int getGridHeight() {
+    return m_GridHeight;
+  }
+
+  /**
+   * Adds the span to the row.
+   *
+   * @param grid	the difference array
+   * @param row		the row
+   * @param from	the first column (gets clipped)
+   * @param to		the last column (incl, gets clipped)
+   * @param weight	the weight to add
+   * @return		true if the span was inside the grid
+   */
+  protected boolean span(double[] grid, int row, int from, int to, double weight) {
+    int		offset;
+
+    if ((row < 0) || (row >= m_GridHeight))
+      return false;
+    from = Math.max(0, from);
+    to   = Math.min(m_GridWidth - 1, to);
+    if (from > to)
+      return false;
+    offset              = row * (m_GridWidth + 1);
+    grid[offset + from]   += weight;
+    grid[offset + to + 1] -= weight;
+    return true;
+  }
+
+  /**
+   * Rasterizes the bounding box.
+   *
+   * @param grid	the difference array
+   * @param bbox	the box
+   * @param weight	the weight
+   */
+  protected void rasterize(double[] grid, BBox bbox, double weight) {
+    int		x0;
+    int		x1;
+    int		y0;
+    int		y1;
+    int		y;
+
+    x0 = (int) Math.floor(bbox.getLeft() * m_ScaleX);
+    x1 = (int) Math.floor(bbox.getRight() * m_ScaleX);
+    y0 = Math.max(0, (int) Math.floor(bbox.getTop() * m_ScaleY));
+    y1 = Math.min(m_GridHeight - 1, (int) Math.floor(bbox.getBottom() * m_ScaleY));
+    for (y = y0; y <= y1; y++)
+      span(grid, y, x0, x1, weight);
+  }
+
+  /**
+   * Rasterizes the polygon with a scanline fill, sampling at the cell centers.
+   *
+   * @param partial	the partial result (for the buffers)
+   * @param grid	the difference array
+   * @param obj		the object to rasterize
+   * @param weight	the weight
+   */
+  protected void rasterize(Partial partial, double[] grid, ObjectPrediction obj, double weight) {
+    List<Point>	points;
+    BBox	bbox;
+    int		y0;
+    int		y1;
+    int		y;
+    int		i;
+    int		n;
+    int		count;
+    double	cy;
+    Point	p;
+    Point	q;
+    boolean	filled;
+
+    points = obj.getPolygon().getPoints();
+    bbox   = obj.getBBox();
+    if (partial.xs.length < points.size())
+      partial.xs = new double[points.size() * 2];
+    filled = false;
+    y0     = Math.max(0, (int) Math.floor(bbox.getTop() * m_ScaleY));
+    y1     = Math.min(m_GridHeight - 1, (int) Math.floor(bbox.getBottom() * m_ScaleY));
+    for (y = y0; y <= y1; y++) {
+      cy    = (y + 0.5) / m_ScaleY;
+      count = 0;
+      for (i = 0; i < points.size(); i++) {
+	p = points.get(i);
+	q = points.get((i + 1) % points.size());
+	if ((p.y <= cy) == (q.y <= cy))
+	  continue;
+	partial.xs[count++] = p.x + (cy - p.y) * (q.x - p.x) / (double) (q.y - p.y);
+      }
+      Arrays.sort(partial.xs, 0, count);
+      for (n = 0; n + 1 < count; n += 2) {
+	if (span(grid, y,
+	  (int) Math.ceil(partial.xs[n] * m_ScaleX - 0.5),
+	  (int) Math.floor(partial.xs[n + 1] * m_ScaleX - 0.5),
+	  weight))
+	  filled = true;
+      }
+    }
+
+    // too small to cover any cell center
+    if (!filled) {
+      y = (int) Math.floor((bbox.getTop() + bbox.getBottom()) / 2.0 * m_ScaleY);
+      i = (int) Math.floor((bbox.getLeft() + bbox.getRight()) / 2.0 * m_ScaleX);
+      span(grid, y, i, i, weight);
+    }
+  }
+
+  /**
+   * Adds the objects of the predictions to the partial result.
+   *
+   * @param partial	the partial result to add to
+   * @param preds	the predictions to add
+   */
+  protected void add(Partial partial, ObjectPredictions preds) {
+    double	weight;
+
+    synchronized (partial) {
+      partial.frames++;
+      for (ObjectPrediction obj: preds.getObjects()) {
+	weight = 1.0;
+	if (m_ScoreWeighted && (obj.getScore() != null))
+	  weight = obj.getScore();
+	partial.counts.merge(obj.getLabel(), 1L, Long::sum);
+	if (m_Shape == Shape.POLYGON)
+	  rasterize(partial, partial.grid(obj.getLabel()), obj, weight);
+	else
+	  rasterize(partial.grid(obj.getLabel()), obj.getBBox(), weight);
+      }
+    }
+  }
+
+  /**
+   * Adds the objects of the predictions. Predictions are assumed to be
+   * for images of the size specified at construction time.
+   *
+   * @param preds	the predictions to add
+   */
+  public void add(ObjectPredictions preds) {
+    add(m_Local.get(), preds);
+  }
+
+  /**
+   * Merges the partial result into another one.
+   *
+   * @param from	the partial result to merge
+   * @param to		the partial result to merge into
+   */
+  protected void merge(Partial from, Partial to) {
+    double[]	grid;
+    int		i;
+
+    synchronized (to) {
+      to.frames += from.frames;
+      for (Map.Entry<String,Long> entry: from.counts.entrySet())
+	to.counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+      for (Map.Entry<String,double[]> entry: from.grids.entrySet()) {
+	grid = to.grid(entry.getKey());
+	for (i = 0; i < grid.length; i++)
+	  grid[i] += entry.getValue()[i];
+      }
+    }
+  }
+
+  /**
+   * Adds all the predictions using the specified number of threads.
+   * The worker threads accumulate into grids of their own, which get merged
+   * into the ones of the calling thread before returning, i.e., nothing is
+   * kept for the (short-lived) worker threads.
+   *
+   * @param preds	the predictions to add
+   * @param threads	the number of threads
+   * @throws IOException	if the iterator fails
+   */
+  public void addAll(Iterable<ObjectPredictions> preds, int threads) throws IOException {
+    final Iterator<ObjectPredictions>	iter;
+    final Partial			target;
+    ExecutorService			executor;
+    List<Future<?>>			futures;
+    int					i;
+
+    if (threads < 2) {
+      for (ObjectPredictions p: preds)
+	add(p);
+      return;
+    }
+
+    iter     = preds.iterator();
+    target   = m_Local.get();
+    executor = Executors.newFixedThreadPool(threads);
+    futures  = new ArrayList<>();
+    try {
+      for (i = 0; i < threads; i++) {
+	futures.add(executor.submit(() -> {
+	  Partial partial = new Partial();
+	  ObjectPredictions p;
+	  while (true) {
+	    synchronized (iter) {
+	      if (!iter.hasNext())
+		break;
+	      p = iter.next();
+	    }
+	    add(partial, p);
+	  }
+	  merge(partial, target);
+	}));
+      }
+      for (Future<?> future: futures)
+	future.get();
+    }
+    catch (Exception e) {
+      throw new IOException("Failed to accumulate predictions!", e);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the labels encountered so far.
+   *
+   * @return		the sorted labels
+   */
+  public List<String> getLabels() {
+    TreeSet<String>	result;
+
+    result = new TreeSet<>();
+    for (Partial partial: m_Partials) {
+      synchronized (partial) {
+	result.addAll(partial.grids.keySet());
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Returns the number of frames added so far.
+   *
+   * @return		the number of frames
+   */
+  public long getFrameCount() {
+    long	result;
+
+    result = 0;
+    for (Partial partial: m_Partials) {
+      synchronized (partial) {
+	result += partial.frames;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of objects with the label added so far.
+   *
+   * @param label	the label, null for all
+   * @return		the number of objects
+   */
+  public long getObjectCount(String label) {
+    long	result;
+
+    result = 0;
+    for (Partial partial: m_Partials) {
+      synchronized (partial) {
+	for (Map.Entry<String,Long> entry: partial.counts.entrySet()) {
+	  if ((label == null) || label.equals(entry.getKey()))
+	    result += entry.getValue();
+	}
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the density grid for the label, merging the results of all threads.
+   *
+   * @param label	the label, null for all labels combined
+   * @return		the densities, row-major (height x width)
+   */
+  public float[] getGrid(String label) {
+    float[]	result;
+    double[]	merged;
+    double	sum;
+    int		x;
+    int		y;
+    int		i;
+
+    merged = new double[m_GridHeight * (m_GridWidth + 1)];
+    for (Partial partial: m_Partials) {
+      synchronized (partial) {
+	for (Map.Entry<String,double[]> entry: partial.grids.entrySet()) {
+	  if ((label != null) && !label.equals(entry.getKey()))
+	    continue;
+	  for (i = 0; i < merged.length; i++)
+	    merged[i] += entry.getValue()[i];
+	}
+      }
+    }
+
+    result = new float[m_GridHeight * m_GridWidth];
+    for (y = 0; y < m_GridHeight; y++) {
+      sum = 0;
+      for (x = 0; x < m_GridWidth; x++) {
+	sum += merged[y * (m_GridWidth + 1) + x];
+	result[y * m_GridWidth + x] = (float) sum;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the density grids per label.
+   *
+   * @return		the grids
+   * @see		#getGrid(String)
+   */
+  public Map<String,float[]> getGrids() {
+    Map<String,float[]>	result;
+
+    result = new HashMap<>();
+    for (String label: getLabels())
+      result.put(label, getGrid(label));
+    return result;
+  }
+
+  /**
+   * Writes the density grid as binary PGM (P5), scaled to the maximum density.
+   *
+   * @param label	the label, null for all labels combined
+   * @param file	the file to write to
+   * @param sixteenBit	whether to use 16 bit rather than 8 bit gray values
+   * @throws IOException	if writing fails
+   */
+  public void writePGM(String label, File file, boolean sixteenBit) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+      writePGM(label, out, sixteenBit);
+    }
+  }
+
+  /**
+   * Writes the density grid as binary PGM (P5), scaled to the maximum density.
+   * Does not close the stream.
+   *
+   * @param label	the label, null for all labels combined
+   * @param out		the stream to write to
+   * @param sixteenBit	whether to use 16 bit rather than 8 bit gray values
+   * @throws IOException	if writing fails
+   */
+  public void writePGM(String label, OutputStream out, boolean sixteenBit) throws IOException {
+    float[]	grid;
+    float	max;
+    int		maxVal;
+    int		value;
+    byte[]	data;
+    int		i;
+
+    grid   = getGrid(label);
+    maxVal = sixteenBit ? 65535 : 255;
+    max    = 0;
+    for (float f: grid)
+      max = Math.max(max, f);
+
+    out.write(("P5\n" + m_GridWidth + " " + m_GridHeight + "\n" + maxVal + "\n").getBytes(StandardCharsets.US_ASCII));
+    data = new byte[grid.length * (sixteenBit ? 2 : 1)];
+    for (i = 0; i < grid.length; i++) {
+      value = (max > 0) ? Math.round(Math.max(0, grid[i]) / max * maxVal) : 0;
+      if (sixteenBit) {
+	data[i * 2]     = (byte) (value >> 8);
+	data[i * 2 + 1] = (byte) value;
+      }
+      else {
+	data[i] = (byte) value;
+      }
+    }
+    out.write(data);
+    out.flush();
+  }
+}
@@ -0,0 +1,804 @@
+/*
+ * ExternalSorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import opex4j.core.Compression;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts JSON Lines archives that are larger than memory by timestamp or ID,
+ * optionally removing duplicate IDs.
+ * <br>
+ * The input gets split into runs of bounded size (estimated from the length
+ * of the lines), which are sorted in memory and spilled to temporary files.
+ * The runs are then combined with a k-way merge (in several passes if there
+ * are more runs than the fan-in). The sort is stable, i.e., documents with the
+ * same key retain their input order. Documents without timestamp come first
+ * when sorting by timestamp.
+ * <br>
+ * When removing duplicates, only the document that appeared last in the input
+ * is kept for each ID. When sorting by timestamp, this requires an additional
+ * pass (merging by ID first), so memory stays bounded regardless of the number
+ * of distinct IDs.
+ * <br>
+ * The lines get written to the output as they were read, i.e., without
+ * re-formatting. Empty lines are skipped.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ExternalSorter {
+
+  /**
+   * The sort key.
+   */
+  public enum SortKey {
+    /** the timestamp. */
+    TIMESTAMP,
+    /** the ID. */
+    ID,
+  }
+
+  /** the default maximum size of a run in bytes (estimated). */
+  public final static long DEFAULT_MAX_RUN_BYTES = 64L * 1024 * 1024;
+
+  /** the default maximum number of runs to merge at once. */
+  public final static int DEFAULT_MAX_FAN_IN = 64;
+
+  /** the estimated overhead per record in bytes. */
+  protected final static int RECORD_OVERHEAD = 96;
+
+  /** the buffer size for the run files. */
+  protected final static int BUFFER_SIZE = 65536;
+
+  /** the key used for documents without timestamp. */
+  protected final static long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  /**
+   * A document with its keys.
+   */
+  protected static class Record {
+
+    /** the position in the input. */
+    public long seq;
+
+    /** the timestamp (micro-seconds since epoch). */
+    public long timestamp;
+
+    /** the ID. */
+    public String id;
+
+    /** the JSON line. */
+    public String line;
+
+    /**
+     * Returns the estimated memory size.
+     *
+     * @return		the size in bytes
+     */
+    public long size() {
+      return RECORD_OVERHEAD + 2L * (id.length() + line.length());
+    }
+  }
+
+  /**
+   * Consumer for records.
+   */
+  protected interface RecordSink {
+
+    /**
+     * Consumes the record.
+     *
+     * @param record	the record
+     * @throws IOException	if processing fails
+     */
+    public void accept(Record record) throws IOException;
+  }
+
+  /**
+   * Reads the records of a run.
+   */
+  protected class RunReader
+    implements Closeable {
+
+    /** the underlying stream. */
+    protected DataInputStream m_Input;
+
+    /** the current record, null if exhausted. */
+    protected Record m_Current;
+
+    /**
+     * Opens the run and reads the first record.
+     *
+     * @param run	the run to read
+     * @throws IOException	if opening fails
+     */
+    public RunReader(File run) throws IOException {
+      InputStream	in;
+
+      in = new FileInputStream(run);
+      if (m_CompressRuns)
+	in = Compression.decompress(in, BUFFER_SIZE);
+      else
+	in = new BufferedInputStream(in, BUFFER_SIZE);
+      m_Input = new DataInputStream(in);
+      advance();
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return		true if a record was read
+     * @throws IOException	if reading fails
+     */
+    public boolean advance() throws IOException {
+      Record	record;
+
+      record = new Record();
+      try {
+	record.seq = m_Input.readLong();
+      }
+      catch (EOFException e) {
+	m_Current = null;
+	return false;
+      }
+      record.timestamp = m_Input.readLong();
+      record.id        = readString(m_Input);
+      record.line      = readString(m_Input);
+      m_Current        = record;
+      return true;
+    }
+
+    /**
+     * Closes the run.
+     *
+     * @throws IOException	if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+      m_Input.close();
+    }
+  }
+
+  /**
+   * Collects records in memory and spills them as sorted runs.
+   */
+  protected class RunBuilder
+    implements RecordSink {
+
+    /** the records of the current run. */
+    protected List<Record> m_Buffer;
+
+    /** the estimated size of the current run. */
+    protected long m_Size;
+
+    /** the order. */
+    protected Comparator<Record> m_Order;
+
+    /** the runs written so far. */
+    protected List<File> m_Runs;
+
+    /**
+     * Initializes the builder.
+     *
+     * @param order	the order of the runs
+     */
+    public RunBuilder(Comparator<Record> order) {
+      m_Buffer = new ArrayList<>();
+      m_Order  = order;
+      m_Runs   = new ArrayList<>();
+    }
+
+    /**
+     * Adds the record, spills the run if full.
+     *
+     * @param record	the record
+     * @throws IOException	if spilling fails
+     */
+    @Override
+    public void accept(Record record) throws IOException {
+      m_Buffer.add(record);
+      m_Size += record.size();
+      if (m_Size >= m_MaxRunBytes)
+	spill();
+    }
+
+    /**
+     * Sorts and writes the current run.
+     *
+     * @throws IOException	if writing fails
+     */
+    protected void spill() throws IOException {
+      File	run;
+
+      if (m_Buffer.isEmpty())
+	return;
+      m_Buffer.sort(m_Order);
+      run = newRun();
+      try (DataOutputStream out = openRun(run)) {
+	for (Record record: m_Buffer)
+	  writeRecord(out, record);
+      }
+      m_Runs.add(run);
+      m_Buffer.clear();
+      m_Size = 0;
+    }
+
+    /**
+     * Spills the remaining records.
+     *
+     * @return		the runs
+     * @throws IOException	if writing fails
+     */
+    public List<File> finish() throws IOException {
+      spill();
+      return m_Runs;
+    }
+  }
+
+  /** the sort key. */
+  protected SortKey m_SortKey;
+
+  /** whether to remove duplicate IDs. */
+  protected boolean m_Deduplicate;
+
+  /** the maximum size of a run. */
+  protected long m_MaxRunBytes;
+
+  /** the maximum number of runs to merge at once. */
+  protected int m_MaxFanIn;
+
+  /** the directory for the runs, null for the system default. */
+  protected File m_TempDir;
+
+  /** whether to compress the runs. */
+  protected boolean m_CompressRuns;
+
+  /** the compression options for the output. */
+  protected Compression.Options m_OutputOptions;
+
+  /** the temporary files currently in use. */
+  protected List<File> m_TempFiles;
+
+  /** the number of documents read. */
+  protected long m_Read;
+
+  /** the number of documents written. */
+  protected long m_Written;
+
+  /** the number of duplicates that were removed. */
+  protected long m_Duplicates;
+
+  /** the number of runs that were generated. */
+  protected int m_RunCount;
+
+  /**
+   * Initializes the sorter.
+   */
+  public ExternalSorter() {
+    m_SortKey       = SortKey.TIMESTAMP;
+    m_Deduplicate   = false;
+    m_MaxRunBytes   = DEFAULT_MAX_RUN_BYTES;
+    m_MaxFanIn      = DEFAULT_MAX_FAN_IN;
+    m_TempDir       = null;
+    m_CompressRuns  = false;
+    m_OutputOptions = new Compression.Options();
+    m_TempFiles     = new ArrayList<>();
+  }
+
+  /**
+   * Sets the sort key.
+   *
+   * @param value	the key
+   * @return		itself
+   */
+  public ExternalSorter setSortKey(SortKey value) {
+    m_SortKey = value;
+    return this;
+  }
+
+  /**
+   * Returns the sort key.
+   *
+   * @return		the key
+   */
+  public SortKey getSortKey() {
+    return m_SortKey;
+  }
+
+  /**
+   * Sets whether to remove duplicate IDs (the last one in the input wins).
+   *
+   * @param value	true if to remove
+   * @return		itself
+   */
+  public ExternalSorter setDeduplicate(boolean value) {
+    m_Deduplicate = value;
+    return this;
+  }
+
+  /**
+   * Returns whether to remove duplicate IDs (the last one in the input wins).
+   *
+   * @return		true if to remove
+   */
+  public boolean getDeduplicate() {
+    return m_Deduplicate;
+  }
+
+  /**
+   * Sets the maximum size of a run (estimated memory usage).
+   *
+   * @param value	the size in bytes
+   * @return		itself
+   */
+  public ExternalSorter setMaxRunBytes(long value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum run size must be at least 1, provided: " + value);
+    m_MaxRunBytes = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum size of a run (estimated memory usage).
+   *
+   * @return		the size in bytes
+   */
+  public long getMaxRunBytes() {
+    return m_MaxRunBytes;
+  }
+
+  /**
+   * Sets the maximum number of runs to merge at once.
+   *
+   * @param value	the fan-in
+   * @return		itself
+   */
+  public ExternalSorter setMaxFanIn(int value) {
+    if (value < 2)
+      throw new IllegalArgumentException("Maximum fan-in must be at least 2, provided: " + value);
+    m_MaxFanIn = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of runs to merge at once.
+   *
+   * @return		the fan-in
+   */
+  public int getMaxFanIn() {
+    return m_MaxFanIn;
+  }
+
+  /**
+   * Sets the directory for the temporary files.
+   *
+   * @param value	the directory, null for the system default
+   * @return		itself
+   */
+  public ExternalSorter setTempDir(File value) {
+    m_TempDir = value;
+    return this;
+  }
+
+  /**
+   * Returns the directory for the temporary files.
+   *
+   * @return		the directory, null for the system default
+   */
+  public File getTempDir() {
+    return m_TempDir;
+  }
+
+  /**
+   * Sets whether to compress the temporary files (gzip, fastest level).
+   *
+   * @param value	true if to compress
+   * @return		itself
+   */
+  public ExternalSorter setCompressRuns(boolean value) {
+    m_CompressRuns = value;
+    return this;
+  }
+
+  /**
+   * Returns whether to compress the temporary files.
+   *
+   * @return		true if to compress
+   */
+  public boolean getCompressRuns() {
+    return m_CompressRuns;
+  }
+
+  /**
+   * Sets the compression options for the output file.
+   *
+   * @param value	the options
+   * @return		itself
+   */
+  public ExternalSorter setOutputOptions(Compression.Options value) {
+    m_OutputOptions = value;
+    return this;
+  }
+
+  /**
+   * Returns the compression options for the output file.
+   *
+   * @return		the options
+   */
+  public Compression.Options getOutputOptions() {
+    return m_OutputOptions;
+  }
+
+  /**
+   * Returns the number of documents read by the last sort.
+   *
+   * @return		the count
+   */
+  public long getReadCount() {
+    return m_Read;
+  }
+
+  /**
+   * Returns the number of documents written by the last sort.
+   *
+   * @return		the count
+   */
+  public long getWrittenCount() {
+    return m_Written;
+  }
+
+  /**
+   * Returns the number of duplicates removed by the last sort.
+   *
+   * @return		the count
+   */
+  public long getDuplicateCount() {
+    return m_Duplicates;
+  }
+
+  /**
+   * Returns the number of runs (incl. intermediate ones) generated by the last sort.
+   *
+   * @return		the count
+   */
+  public int getRunCount() {
+    return m_RunCount;
+  }
+
+  /**
+   * Returns the comparator for the key.
+   *
+   * @param key		the key
+   * @return		the comparator
+   */
+  protected static Comparator<Record> comparator(SortKey key) {
+    switch (key) {
+      case TIMESTAMP:
+	return (Record r1, Record r2) -> {
+	  int result = Long.compare(r1.timestamp, r2.timestamp);
+	  return (result != 0) ? result : Long.compare(r1.seq, r2.seq);
+	};
+      case ID:
+	return (Record r1, Record r2) -> {
+	  int result = r1.id.compareTo(r2.id);
+	  return (result != 0) ? result : Long.compare(r1.seq, r2.seq);
+	};
+      default:
+	throw new IllegalStateException("Unhandled sort key: " + key);
+    }
+  }
+
+  /**
+   * Writes a string as length and UTF-8 bytes.
+   *
+   * @param out		the stream to write to
+   * @param s		the string
+   * @throws IOException	if writing fails
+   */
+  protected static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[]	bytes;
+
+    bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+   *
+   * @param in		the stream to read from
+   * @return		the string
+   * @throws IOException	if reading fails
+   */
+  protected static String readString(DataInputStream in) throws IOException {
+    byte[]	bytes;
+
+    bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the record to the run.
+   *
+   * @param out		the run to write to
+   * @param record	the record
+   * @throws IOException	if writing fails
+   */
+  protected static void writeRecord(DataOutputStream out, Record record) throws IOException {
+    out.writeLong(record.seq);
+    out.writeLong(record.timestamp);
+    writeString(out, record.id);
+    writeString(out, record.line);
+  }
+
+  /**
+   * Creates a new temporary file for a run.
+   *
+   * @return		the file
+   * @throws IOException	if creating fails
+   */
+  protected File newRun() throws IOException {
+    File	result;
+
+    result = File.createTempFile("opex4j-run-", ".bin", m_TempDir);
+    result.deleteOnExit();
+    m_TempFiles.add(result);
+    m_RunCount++;
+    return result;
+  }
+
+  /**
+   * Opens a run for writing.
+   *
+   * @param run		the run
+   * @return		the stream
+   * @throws IOException	if opening fails
+   */
+  protected DataOutputStream openRun(File run) throws IOException {
+    OutputStream	out;
+
+    out = new FileOutputStream(run);
+    if (m_CompressRuns)
+      out = Compression.compress(out, Compression.Type.GZIP, new Compression.Options().setLevel(1).setBufferSize(BUFFER_SIZE));
+    else
+      out = new BufferedOutputStream(out, BUFFER_SIZE);
+    return new DataOutputStream(out);
+  }
+
+  /**
+   * Deletes the temporary file.
+   *
+   * @param file	the file to delete
+   */
+  protected void delete(File file) {
+    file.delete();
+    m_TempFiles.remove(file);
+  }
+
+  /**
+   * Merges the runs and passes the records on in sorted order. Duplicate IDs
+   * only get removed if the runs are sorted by ID.
+   *
+   * @param runs	the runs to merge (get deleted)
+   * @param order	the order of the runs
+   * @param dedup	whether to remove duplicate IDs
+   * @param sink	the sink for the merged records
+   * @throws IOException	if merging fails
+   */
+  protected void merge(List<File> runs, Comparator<Record> order, boolean dedup, RecordSink sink) throws IOException {
+    List<File>			level;
+    List<File>			next;
+    List<File>			group;
+    File			run;
+    int				i;
+
+    // intermediate passes
+    level = new ArrayList<>(runs);
+    while (level.size() > m_MaxFanIn) {
+      next = new ArrayList<>();
+      for (i = 0; i < level.size(); i += m_MaxFanIn) {
+	group = level.subList(i, Math.min(level.size(), i + m_MaxFanIn));
+	if (group.size() == 1) {
+	  next.add(group.get(0));
+	  continue;
+	}
+	run = newRun();
+	try (DataOutputStream out = openRun(run)) {
+	  mergeRuns(group, order, false, (Record record) -> writeRecord(out, record));
+	}
+	next.add(run);
+      }
+      level = next;
+    }
+
+    // final pass
+    mergeRuns(level, order, dedup, sink);
+  }
+
+  /**
+   * Merges the runs in a single pass.
+   *
+   * @param runs	the runs to merge (get deleted)
+   * @param order	the order of the runs
+   * @param dedup	whether to remove duplicate IDs
+   * @param sink	the sink for the merged records
+   * @throws IOException	if merging fails
+   */
+  protected void mergeRuns(List<File> runs, Comparator<Record> order, boolean dedup, RecordSink sink) throws IOException {
+    PriorityQueue<RunReader>	queue;
+    List<RunReader>		readers;
+    RunReader			reader;
+    Record			pending;
+    Record			record;
+
+    readers = new ArrayList<>();
+    queue   = new PriorityQueue<>(Math.max(1, runs.size()), (RunReader r1, RunReader r2) -> order.compare(r1.m_Current, r2.m_Current));
+    try {
+      for (File run: runs) {
+	reader = new RunReader(run);
+	readers.add(reader);
+	if (reader.m_Current != null)
+	  queue.add(reader);
+      }
+      pending = null;
+      while (!queue.isEmpty()) {
+	reader = queue.poll();
+	record = reader.m_Current;
+	if (reader.advance())
+	  queue.add(reader);
+	if (!dedup) {
+	  sink.accept(record);
+	  continue;
+	}
+	// runs are sorted by ID and sequence, i.e., the last of a group wins
+	if ((pending != null) && !pending.id.equals(record.id))
+	  sink.accept(pending);
+	else if (pending != null)
+	  m_Duplicates++;
+	pending = record;
+      }
+      if (pending != null)
+	sink.accept(pending);
+    }
+    finally {
+      for (RunReader r: readers)
+	r.close();
+      for (File run: new ArrayList<>(runs))
+	delete(run);
+    }
+  }
+
+  /**
+   * Reads the documents from the file into the sink.
+   *
+   * @param input	the JSON Lines file to read
+   * @param sink	the sink for the records
+   * @throws IOException	if reading or parsing fails
+   */
+  protected void read(File input, RecordSink sink) throws IOException {
+    ObjectPredictions	preds;
+    LocalDateTime	timestamp;
+    Record		record;
+    String		line;
+    long		lineNo;
+
+    lineNo = 0;
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(Compression.openInput(input), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      while ((line = reader.readLine()) != null) {
+	lineNo++;
+	if (line.trim().isEmpty())
+	  continue;
+	try {
+	  preds = ObjectPredictions.newInstance(line);
+	}
+	catch (IOException e) {
+	  throw e;
+	}
+	catch (Exception e) {
+	  throw new IOException("Failed to parse line #" + lineNo + " of " + input + "!", e);
+	}
+	timestamp     = preds.getTimestamp();
+	record        = new Record();
+	record.seq    = m_Read++;
+	record.id     = preds.getID();
+	record.line   = line;
+	if (timestamp == null)
+	  record.timestamp = NO_TIMESTAMP;
+	else
+	  record.timestamp = timestamp.toEpochSecond(ZoneOffset.UTC) * 1000000L + timestamp.getNano() / 1000;
+	sink.accept(record);
+      }
+    }
+  }
+
+  /**
+   * Sorts the JSON Lines file.
+   *
+   * @param input	the file to sort
+   * @param output	the file to write the sorted documents to
+   * @throws IOException	if sorting fails
+   */
+  public void sort(File input, File output) throws IOException {
+    sort(Collections.singletonList(input), output);
+  }
+
+  /**
+   * Sorts the JSON Lines files into a single output file.
+   *
+   * @param inputs	the files to sort
+   * @param output	the file to write the sorted documents to
+   * @throws IOException	if sorting fails
+   */
+  public void sort(List<File> inputs, File output) throws IOException {
+    RunBuilder		builder;
+    RunBuilder		second;
+    List<File>		runs;
+    Comparator<Record>	order;
+
+    m_Read       = 0;
+    m_Written    = 0;
+    m_Duplicates = 0;
+    m_RunCount   = 0;
+    order        = comparator(m_SortKey);
+
+    try {
+      // split into sorted runs (by ID first if duplicates need removing)
+      if (m_Deduplicate)
+	builder = new RunBuilder(comparator(SortKey.ID));
+      else
+	builder = new RunBuilder(order);
+      for (File input: inputs)
+	read(input, builder);
+      runs = builder.finish();
+
+      // remove duplicates while re-partitioning by timestamp
+      if (m_Deduplicate && (m_SortKey != SortKey.ID)) {
+	second = new RunBuilder(order);
+	merge(runs, comparator(SortKey.ID), true, second);
+	runs = second.finish();
+      }
+
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(Compression.openOutput(output, m_OutputOptions), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+	merge(runs, order, m_Deduplicate && (m_SortKey == SortKey.ID), (Record record) -> {
+	  writer.write(record.line);
+	  writer.write('\n');
+	  m_Written++;
+	});
+      }
+    }
+    finally {
+      for (File file: new ArrayList<>(m_TempFiles))
+	delete(file);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * JsonLinesReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import opex4j.core.Compression;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads predictions in JSON Lines format, i.e., one JSON document per line.
+ * Empty lines are skipped.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesReader
+  implements Closeable, Iterable<ObjectPredictions> {
+
+  /** the default buffer size. */
+  public final static int DEFAULT_BUFFER_SIZE = 65536;
+
+  /** the underlying reader. */
+  protected BufferedReader m_Reader;
+
+  /** the current line number (1-based). */
+  protected long m_LineNo;
+
+  /**
+   * Initializes the reader with a file (UTF-8). Gzip/deflate compressed
+   * files get decompressed transparently.
+   *
+   * @param file	the file to read from
+   * @throws IOException	if the file cannot be opened
+   */
+  public JsonLinesReader(File file) throws IOException {
+    this(file, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Initializes the reader with a file (UTF-8). Gzip/deflate compressed
+   * files get decompressed transparently.
+   *
+   * @param file	the file to read from
+   * @param bufferSize	the size of the read/decompression buffers
+   * @throws IOException	if the file cannot be opened
+   */
+  public JsonLinesReader(File file, int bufferSize) throws IOException {
+    this(Compression.openInput(file, bufferSize));
+  }
+
+  /**
+   * Initializes the reader (UTF-8).
+   *
+   * @param stream	the stream to read from, gets closed when closing the reader
+   */
+  public JsonLinesReader(InputStream stream) {
+    this(new InputStreamReader(stream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Initializes the reader.
+   *
+   * @param reader	the reader to read from, gets closed when closing this reader
+   */
+  public JsonLinesReader(Reader reader) {
+    if (reader instanceof BufferedReader)
+      m_Reader = (BufferedReader) reader;
+    else
+      m_Reader = new BufferedReader(reader, DEFAULT_BUFFER_SIZE);
+    m_LineNo = 0;
+  }
+
+  /**
+   * Reads the next predictions.
+   *
+   * @return		the predictions, null if no more available
+   * @throws IOException	if reading or parsing fails
+   */
+  public ObjectPredictions read() throws IOException {
+    String	line;
+
+    while ((line = m_Reader.readLine()) != null) {
+      m_LineNo++;
+      if (line.trim().isEmpty())
+	continue;
+      try {
+	return ObjectPredictions.newInstance(line);
+      }
+      catch (IOException e) {
+	throw e;
+      }
+      catch (Exception e) {
+	throw new IOException("Failed to parse line #" + m_LineNo + "!", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of lines read so far.
+   *
+   * @return		the line number
+   */
+  public long getLineNo() {
+    return m_LineNo;
+  }
+
+  /**
+   * Returns an iterator over the remaining predictions. Reading errors
+   * get thrown as {@link UncheckedIOException}.
+   *
+   * @return		the iterator
+   */
+  @Override
+  public Iterator<ObjectPredictions> iterator() {
+    return new Iterator<ObjectPredictions>() {
+      protected ObjectPredictions m_Next;
+
+      @Override
+      public boolean hasNext() {
+	if (m_Next == null) {
+	  try {
+	    m_Next = read();
+	  }
+	  catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	  }
+	}
+	return (m_Next != null);
+      }
+
+      @Override
+      public ObjectPredictions next() {
+	ObjectPredictions	result;
+
+	if (!hasNext())
+	  throw new NoSuchElementException();
+	result = m_Next;
+	m_Next = null;
+	return result;
+      }
+    };
+  }
+
+  /**
+   * Closes the reader.
+   *
+   * @throws IOException	if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    m_Reader.close();
+  }
+}
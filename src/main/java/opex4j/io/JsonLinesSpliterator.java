@@ -0,0 +1,418 @@
+/*
+ * JsonLinesSpliterator.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import opex4j.core.Compression;
+import opex4j.core.Utf8PredictionsParser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splittable spliterator over an uncompressed JSON Lines file, for parsing
+ * a single large file with a parallel stream. The file gets split into
+ * byte ranges and each range parses the lines that start within it, using
+ * positional reads on a shared {@link FileChannel} and its own buffer and
+ * {@link Utf8PredictionsParser}. Splitting does not read any data, the
+ * ranges get aligned to the line boundaries when they start reading: a
+ * range starting at offset <code>n</code> skips everything up to and
+ * including the first newline at or after <code>n - 1</code>, and the last
+ * line of a range may extend past its end.
+ * <br>
+ * Empty lines are skipped. Errors get thrown as {@link UncheckedIOException}.
+ * The file must not be modified while reading.
+ * <br>
+ * Example:
+ * <pre>
+ * try (Stream&lt;ObjectPredictions&gt; stream = JsonLinesSpliterator.stream(file, true)) {
+ *   long cars = stream.filter(p -&gt; p.getObjects().stream().anyMatch(o -&gt; "car".equals(o.getLabel()))).count();
+ * }
+ * </pre>
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpliterator
+  implements Spliterator<ObjectPredictions>, Closeable {
+
+  /** the default buffer size. */
+  public final static int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  /** the default minimum size of a split. */
+  public final static long DEFAULT_MIN_SPLIT_SIZE = 4 * 1024 * 1024;
+
+  /** the channel, shared by all splits. */
+  protected FileChannel m_Channel;
+
+  /** the size of the file. */
+  protected long m_Size;
+
+  /** the offset of the next line (if aligned) or the start of the range. */
+  protected long m_Position;
+
+  /** the end of the range (exclusive), lines starting before it get parsed. */
+  protected long m_End;
+
+  /** whether the position is aligned to the start of a line. */
+  protected boolean m_Aligned;
+
+  /** the size of the read buffer. */
+  protected int m_BufferSize;
+
+  /** the minimum size of a split. */
+  protected long m_MinSplitSize;
+
+  /** the read buffer, created when reading starts. */
+  protected byte[] m_Data;
+
+  /** the read buffer, wrapped. */
+  protected ByteBuffer m_Buffer;
+
+  /** the file offset of the read buffer. */
+  protected long m_BufferOffset;
+
+  /** the number of valid bytes in the read buffer. */
+  protected int m_Length;
+
+  /** the start of the current line in the buffer. */
+  protected int m_LineStart;
+
+  /** the end of the current line in the buffer (exclusive). */
+  protected int m_LineEnd;
+
+  /** the parser to use, created when reading starts. */
+  protected Utf8PredictionsParser m_Parser;
+
+  /**
+   * Initializes the spliterator over the whole file.
+   *
+   * @param file	the uncompressed file to read
+   * @throws IOException	if the file cannot be opened or is compressed
+   */
+  public JsonLinesSpliterator(File file) throws IOException {
+    m_Channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      m_Size = m_Channel.size();
+      if (isCompressed(m_Channel))
+	throw new IOException("Compressed files cannot be split: " + file);
+    }
+    catch (IOException e) {
+      m_Channel.close();
+      throw e;
+    }
+    m_Position     = 0;
+    m_End          = m_Size;
+    m_Aligned      = true;
+    m_BufferSize   = DEFAULT_BUFFER_SIZE;
+    m_MinSplitSize = DEFAULT_MIN_SPLIT_SIZE;
+    m_BufferOffset = -1;
+  }
+
+  /**
+   * Initializes a split of the spliterator.
+   *
+   * @param parent	the spliterator to split
+   * @param start	the start of the range
+   * @param end		the end of the range (exclusive)
+   * @param aligned	whether the start is aligned to a line
+   */
+  protected JsonLinesSpliterator(JsonLinesSpliterator parent, long start, long end, boolean aligned) {
+    m_Channel      = parent.m_Channel;
+    m_Size         = parent.m_Size;
+    m_Position     = start;
+    m_End          = end;
+    m_Aligned      = aligned;
+    m_BufferSize   = parent.m_BufferSize;
+    m_MinSplitSize = parent.m_MinSplitSize;
+    m_BufferOffset = -1;
+  }
+
+  /**
+   * Sets the initial size of the read buffer, which grows for longer lines.
+   *
+   * @param value	the size in bytes
+   * @return		the spliterator
+   */
+  public JsonLinesSpliterator setBufferSize(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Buffer size must be at least 1, provided: " + value);
+    m_BufferSize = value;
+    return this;
+  }
+
+  /**
+   * Returns the initial size of the read buffer.
+   *
+   * @return		the size in bytes
+   */
+  public int getBufferSize() {
+    return m_BufferSize;
+  }
+
+  /**
+   * Sets the minimum number of bytes of a split.
+   *
+   * @param value	the size in bytes
+   * @return		the spliterator
+   */
+  public JsonLinesSpliterator setMinSplitSize(long value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Minimum split size must be at least 1, provided: " + value);
+    m_MinSplitSize = value;
+    return this;
+  }
+
+  /**
+   * Returns the minimum number of bytes of a split.
+   *
+   * @return		the size in bytes
+   */
+  public long getMinSplitSize() {
+    return m_MinSplitSize;
+  }
+
+  /**
+   * Reads data from the file into the buffer, starting at the offset.
+   *
+   * @param offset	the file offset
+   * @throws IOException	if reading fails
+   */
+  protected void fill(long offset) throws IOException {
+    int		read;
+
+    m_Buffer.clear();
+    while (m_Buffer.hasRemaining()) {
+      read = m_Channel.read(m_Buffer, offset + m_Buffer.position());
+      if (read == -1)
+	break;
+    }
+    m_BufferOffset = offset;
+    m_Length       = m_Buffer.position();
+  }
+
+  /**
+   * Locates the line starting at the current position (which must be less
+   * than the file size) in the buffer and advances the position to the
+   * start of the next line.
+   *
+   * @throws IOException	if reading fails
+   */
+  protected void nextLine() throws IOException {
+    int		i;
+    int		j;
+
+    if (m_Data == null) {
+      m_Data   = new byte[m_BufferSize];
+      m_Buffer = ByteBuffer.wrap(m_Data);
+    }
+
+    while (true) {
+      if ((m_Position < m_BufferOffset) || (m_Position >= m_BufferOffset + m_Length))
+	fill(m_Position);
+      i = (int) (m_Position - m_BufferOffset);
+      for (j = i; j < m_Length; j++) {
+	if (m_Data[j] == '\n')
+	  break;
+      }
+      if (j < m_Length) {
+	m_LineStart = i;
+	m_LineEnd   = j;
+	m_Position += j - i + 1;
+	return;
+      }
+      if (m_BufferOffset + m_Length >= m_Size) {
+	m_LineStart = i;
+	m_LineEnd   = j;
+	m_Position += j - i;
+	return;
+      }
+      if (m_Length < m_Data.length)
+	throw new IOException("File truncated while reading, expected " + m_Size + " bytes!");
+      // line does not fit into remainder of buffer
+      if (i == 0) {
+	m_Data   = Arrays.copyOf(m_Data, m_Data.length * 2);
+	m_Buffer = ByteBuffer.wrap(m_Data);
+      }
+      fill(m_Position);
+    }
+  }
+
+  /**
+   * Checks whether the current line consists only of whitespace.
+   *
+   * @return		true if blank
+   */
+  protected boolean isBlank() {
+    int		i;
+
+    for (i = m_LineStart; i < m_LineEnd; i++) {
+      if ((m_Data[i] & 0xff) > ' ')
+	return false;
+    }
+    return true;
+  }
+
+  /**
+   * Parses the next line of the range, if any.
+   *
+   * @param action	the action to apply to the predictions
+   * @return		false if no lines remain
+   */
+  @Override
+  public boolean tryAdvance(Consumer<? super ObjectPredictions> action) {
+    long		start;
+    ObjectPredictions	preds;
+
+    start = -1;
+    try {
+      if (!m_Aligned) {
+	m_Aligned  = true;
+	m_Position = m_Position - 1;
+	nextLine();
+      }
+      while ((m_Position < m_End) && (m_Position < m_Size)) {
+	start = m_Position;
+	nextLine();
+	if (isBlank())
+	  continue;
+	if (m_Parser == null)
+	  m_Parser = new Utf8PredictionsParser();
+	m_Buffer.clear();
+	m_Buffer.limit(m_LineEnd);
+	m_Buffer.position(m_LineStart);
+	preds = m_Parser.parse(m_Buffer);
+	action.accept(preds);
+	return true;
+      }
+    }
+    catch (IOException e) {
+      if (start == -1)
+	throw new UncheckedIOException(e);
+      else
+	throw new UncheckedIOException(new IOException("Failed to parse line at offset " + start + "!", e));
+    }
+    return false;
+  }
+
+  /**
+   * Splits off the first half of the remaining range, if it is at least
+   * twice the minimum split size.
+   *
+   * @return		the spliterator for the first half, null if too small
+   */
+  @Override
+  public Spliterator<ObjectPredictions> trySplit() {
+    JsonLinesSpliterator	result;
+    long			end;
+    long			mid;
+
+    end = Math.min(m_End, m_Size);
+    if (end - m_Position < 2 * m_MinSplitSize)
+      return null;
+    mid        = m_Position + (end - m_Position) / 2;
+    result     = new JsonLinesSpliterator(this, m_Position, mid, m_Aligned);
+    m_Position = mid;
+    m_Aligned  = false;
+    return result;
+  }
+
+  /**
+   * Returns the number of remaining bytes as estimate.
+   *
+   * @return		the estimate
+   */
+  @Override
+  public long estimateSize() {
+    return Math.max(0, Math.min(m_End, m_Size) - m_Position);
+  }
+
+  /**
+   * Returns the characteristics.
+   *
+   * @return		ordered and non-null
+   */
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  /**
+   * Closes the channel, shared by all splits.
+   *
+   * @throws IOException	if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    m_Channel.close();
+  }
+
+  /**
+   * Checks the magic bytes whether the content of the channel is compressed.
+   *
+   * @param channel	the channel to check
+   * @return		true if compressed
+   * @throws IOException	if reading fails
+   */
+  protected static boolean isCompressed(FileChannel channel) throws IOException {
+    ByteBuffer	magic;
+
+    magic = ByteBuffer.allocate(2);
+    while (magic.hasRemaining() && (channel.read(magic, magic.position()) > 0));
+    magic.flip();
+    return (Compression.detect(magic) != Compression.Type.NONE);
+  }
+
+  /**
+   * Returns a stream over the predictions in the file. Uncompressed files
+   * get split for parallel streams, compressed ones get read sequentially
+   * with a {@link JsonLinesReader}. The stream must be closed to release
+   * the file.
+   *
+   * @param file	the file to read
+   * @param parallel	whether to return a parallel stream
+   * @return		the stream
+   * @throws IOException	if the file cannot be opened
+   */
+  public static Stream<ObjectPredictions> stream(File file, boolean parallel) throws IOException {
+    final Closeable			closeable;
+    final Spliterator<ObjectPredictions>	spliterator;
+    boolean				compressed;
+    JsonLinesReader			reader;
+    JsonLinesSpliterator		split;
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      compressed = isCompressed(channel);
+    }
+    if (compressed) {
+      reader      = new JsonLinesReader(file);
+      closeable   = reader;
+      spliterator = reader.spliterator();
+    }
+    else {
+      split       = new JsonLinesSpliterator(file);
+      closeable   = split;
+      spliterator = split;
+    }
+    return StreamSupport.stream(spliterator, parallel).onClose(() -> {
+      try {
+	closeable.close();
+      }
+      catch (IOException e) {
+	throw new UncheckedIOException(e);
+      }
+    });
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * JsonLinesWriter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import opex4j.core.Compression;
+import opex4j.core.JsonOptions;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes predictions in JSON Lines format, i.e., one compact JSON document per line.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesWriter
+  implements Closeable, Flushable, PredictionsSink {
+
+  /** the default buffer size. */
+  public final static int DEFAULT_BUFFER_SIZE = 65536;
+
+  /**
+   * Writer that counts the characters written.
+   */
+  protected static class CountingWriter
+    extends FilterWriter {
+
+    /** the number of characters. */
+    protected long m_Count;
+
+    /**
+     * Initializes the writer.
+     *
+     * @param out	the underlying writer
+     */
+    public CountingWriter(Writer out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      super.write(c);
+      m_Count++;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      super.write(cbuf, off, len);
+      m_Count += len;
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      super.write(str, off, len);
+      m_Count += len;
+    }
+  }
+
+  /** the underlying writer. */
+  protected CountingWriter m_Writer;
+
+  /** the number of documents written. */
+  protected long m_Count;
+
+  /** the options for generating the JSON, null for defaults. */
+  protected JsonOptions m_JsonOptions;
+
+  /**
+   * Initializes the writer with a new file (UTF-8). Compresses the file
+   * if the extension is .gz or .deflate/.zz.
+   *
+   * @param file	the file to write to
+   * @throws IOException	if the file cannot be created
+   */
+  public JsonLinesWriter(File file) throws IOException {
+    this(file, new Compression.Options());
+  }
+
+  /**
+   * Initializes the writer with a new file (UTF-8).
+   *
+   * @param file	the file to write to
+   * @param options	the compression options
+   * @throws IOException	if the file cannot be created
+   */
+  public JsonLinesWriter(File file, Compression.Options options) throws IOException {
+    this(Compression.openOutput(file, options));
+  }
+
+  /**
+   * Initializes the writer (UTF-8).
+   *
+   * @param stream	the stream to write to, gets closed when closing the writer
+   */
+  public JsonLinesWriter(OutputStream stream) {
+    this(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Initializes the writer.
+   *
+   * @param writer	the writer to write to, gets closed when closing this writer
+   */
+  public JsonLinesWriter(Writer writer) {
+    if (writer instanceof BufferedWriter)
+      m_Writer = new CountingWriter(writer);
+    else
+      m_Writer = new CountingWriter(new BufferedWriter(writer, DEFAULT_BUFFER_SIZE));
+    m_Count = 0;
+  }
+
+  /**
+   * Sets the options for generating the JSON, e.g., {@link JsonOptions#compact()}.
+   *
+   * @param value	the options, null for defaults
+   * @return		itself
+   */
+  public JsonLinesWriter setJsonOptions(JsonOptions value) {
+    m_JsonOptions = value;
+    return this;
+  }
+
+  /**
+   * Returns the options for generating the JSON.
+   *
+   * @return		the options, null for defaults
+   */
+  public JsonOptions getJsonOptions() {
+    return m_JsonOptions;
+  }
+
+  /**
+   * Writes the predictions as a single line.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   */
+  public void write(ObjectPredictions preds) throws IOException {
+    preds.write(m_Writer, false, m_JsonOptions);
+    m_Writer.write('\n');
+    m_Count++;
+  }
+
+  /**
+   * Writes the predictions as a single line.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   * @see		#write(ObjectPredictions)
+   */
+  @Override
+  public void accept(ObjectPredictions preds) throws IOException {
+    write(preds);
+  }
+
+  /**
+   * Writes all the predictions.
+   *
+   * @param preds	the predictions to write
+   * @throws IOException	if writing fails
+   */
+  public void writeAll(Iterable<ObjectPredictions> preds) throws IOException {
+    for (ObjectPredictions p: preds)
+      write(p);
+  }
+
+  /**
+   * Returns the number of documents written so far.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count;
+  }
+
+  /**
+   * Returns the number of characters written so far.
+   *
+   * @return		the count
+   */
+  public long getCharCount() {
+    return m_Writer.m_Count;
+  }
+
+  /**
+   * Flushes the writer.
+   *
+   * @throws IOException	if flushing fails
+   */
+  @Override
+  public void flush() throws IOException {
+    m_Writer.flush();
+  }
+
+  /**
+   * Closes the writer.
+   *
+   * @throws IOException	if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    m_Writer.close();
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * PredictionsSink.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+
+import java.io.IOException;
+
+/**
+ * Interface for classes that consume a stream of predictions.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface PredictionsSink {
+
+  /**
+   * Consumes the predictions.
+   *
+   * @param preds	the predictions
+   * @throws IOException	if processing fails
+   */
+  public void accept(ObjectPredictions preds) throws IOException;
+}
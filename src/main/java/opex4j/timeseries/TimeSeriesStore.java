@@ -0,0 +1,754 @@
+/*
+ * TimeSeriesStore.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.timeseries;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory store for {@link ObjectPredictions} ordered by their timestamp.
+ * <br>
+ * The predictions are stored in sorted chunks of fixed capacity, which allows
+ * range queries in O(log n) (plus the size of the result) and cheap eviction
+ * of old data. Predictions can arrive out of order. Predictions without
+ * timestamp are not accepted.
+ * <br>
+ * Ranges are half-open, i.e., the start is inclusive and the end exclusive.
+ * Timestamps are handled with micro-second precision.
+ * <br>
+ * The store is thread-safe, allowing concurrent queries.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class TimeSeriesStore {
+
+  /** the default chunk size. */
+  public final static int DEFAULT_CHUNK_SIZE = 1024;
+
+  /**
+   * A sorted block of predictions.
+   */
+  protected static class Chunk {
+
+    /** the keys (micro-seconds). */
+    public final long[] keys;
+
+    /** the predictions. */
+    public final ObjectPredictions[] values;
+
+    /** the number of used slots. */
+    public int size;
+
+    /**
+     * Initializes the chunk.
+     *
+     * @param capacity	the capacity
+     */
+    public Chunk(int capacity) {
+      keys   = new long[capacity];
+      values = new ObjectPredictions[capacity];
+      size   = 0;
+    }
+
+    /**
+     * Returns the first key.
+     *
+     * @return		the key
+     */
+    public long first() {
+      return keys[0];
+    }
+
+    /**
+     * Returns the last key.
+     *
+     * @return		the key
+     */
+    public long last() {
+      return keys[size - 1];
+    }
+
+    /**
+     * Returns the position of the first key that is equal or larger.
+     *
+     * @param key	the key to look for
+     * @return		the position
+     */
+    public int lowerBound(long key) {
+      int	low;
+      int	high;
+      int	mid;
+
+      low  = 0;
+      high = size;
+      while (low < high) {
+	mid = (low + high) >>> 1;
+	if (keys[mid] < key)
+	  low = mid + 1;
+	else
+	  high = mid;
+      }
+      return low;
+    }
+
+    /**
+     * Returns the position of the first key that is larger.
+     *
+     * @param key	the key to look for
+     * @return		the position
+     */
+    public int upperBound(long key) {
+      int	low;
+      int	high;
+      int	mid;
+
+      low  = 0;
+      high = size;
+      while (low < high) {
+	mid = (low + high) >>> 1;
+	if (keys[mid] <= key)
+	  low = mid + 1;
+	else
+	  high = mid;
+      }
+      return low;
+    }
+
+    /**
+     * Inserts the key/value at the specified position. Chunk must not be full.
+     *
+     * @param pos	the position
+     * @param key	the key
+     * @param value	the predictions
+     */
+    public void insert(int pos, long key, ObjectPredictions value) {
+      System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+      System.arraycopy(values, pos, values, pos + 1, size - pos);
+      keys[pos]   = key;
+      values[pos] = value;
+      size++;
+    }
+
+    /**
+     * Removes the first n elements.
+     *
+     * @param n		the number of elements to remove
+     */
+    public void removeHead(int n) {
+      System.arraycopy(keys, n, keys, 0, size - n);
+      System.arraycopy(values, n, values, 0, size - n);
+      Arrays.fill(values, size - n, size, null);
+      size -= n;
+    }
+
+    /**
+     * Moves the upper half into a new chunk.
+     *
+     * @return		the new chunk with the upper half
+     */
+    public Chunk split() {
+      Chunk	result;
+      int	half;
+
+      half        = size / 2;
+      result      = new Chunk(keys.length);
+      result.size = size - half;
+      System.arraycopy(keys, half, result.keys, 0, result.size);
+      System.arraycopy(values, half, result.values, 0, result.size);
+      Arrays.fill(values, half, size, null);
+      size = half;
+      return result;
+    }
+  }
+
+  /**
+   * Predictions ranked by object count, used for downsampling. The lowest
+   * count (and for equal counts the latest) comes first.
+   */
+  protected static class Ranked
+    implements Comparable<Ranked> {
+
+    /** the object count. */
+    public final int count;
+
+    /** the key. */
+    public final long key;
+
+    /** the predictions. */
+    public final ObjectPredictions preds;
+
+    /**
+     * Initializes the container.
+     *
+     * @param count	the object count
+     * @param key	the key
+     * @param preds	the predictions
+     */
+    public Ranked(int count, long key, ObjectPredictions preds) {
+      this.count = count;
+      this.key   = key;
+      this.preds = preds;
+    }
+
+    /**
+     * Compares by count (ascending) and key (descending).
+     *
+     * @param o		the other container
+     * @return		the comparison result
+     */
+    @Override
+    public int compareTo(Ranked o) {
+      if (count != o.count)
+	return Integer.compare(count, o.count);
+      return Long.compare(o.key, key);
+    }
+  }
+
+  /** the chunk size. */
+  protected int m_ChunkSize;
+
+  /** the chunks, ordered by keys. */
+  protected List<Chunk> m_Chunks;
+
+  /** the total number of predictions. */
+  protected int m_Size;
+
+  /** the latest key. */
+  protected long m_Latest;
+
+  /** the retention period in micro-seconds, relative to the latest timestamp (<= 0 for unlimited). */
+  protected long m_Retention;
+
+  /** the maximum number of predictions to keep (<= 0 for unlimited). */
+  protected int m_MaxSize;
+
+  /** the lock. */
+  protected ReentrantReadWriteLock m_Lock;
+
+  /**
+   * Initializes the store with unlimited retention.
+   */
+  public TimeSeriesStore() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Initializes the store with unlimited retention.
+   *
+   * @param chunkSize	the number of predictions per chunk
+   */
+  public TimeSeriesStore(int chunkSize) {
+    if (chunkSize < 2)
+      throw new IllegalArgumentException("Chunk size must be at least 2, provided: " + chunkSize);
+    m_ChunkSize = chunkSize;
+    m_Chunks    = new ArrayList<>();
+    m_Size      = 0;
+    m_Latest    = Long.MIN_VALUE;
+    m_Retention = 0;
+    m_MaxSize   = 0;
+    m_Lock      = new ReentrantReadWriteLock();
+  }
+
+  /**
+   * Turns the timestamp into a key.
+   *
+   * @param timestamp	the timestamp to convert
+   * @return		the key (micro-seconds since epoch, UTC)
+   */
+  protected static long toKey(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * 1000000L + timestamp.getNano() / 1000;
+  }
+
+  /**
+   * Turns the key back into a timestamp.
+   *
+   * @param key		the key to convert
+   * @return		the timestamp
+   */
+  protected static LocalDateTime fromKey(long key) {
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(key, 1000000L), (int) Math.floorMod(key, 1000000L) * 1000, ZoneOffset.UTC);
+  }
+
+  /**
+   * Sets the retention period, relative to the latest timestamp in the store.
+   *
+   * @param value	the period, null for unlimited
+   */
+  public void setRetention(Duration value) {
+    m_Lock.writeLock().lock();
+    try {
+      m_Retention = (value == null) ? 0 : value.toNanos() / 1000;
+      evict();
+    }
+    finally {
+      m_Lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the retention period, relative to the latest timestamp in the store.
+   *
+   * @return		the period, null if unlimited
+   */
+  public Duration getRetention() {
+    m_Lock.readLock().lock();
+    try {
+      return (m_Retention <= 0) ? null : Duration.ofNanos(m_Retention * 1000);
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Sets the maximum number of predictions to keep; the oldest ones get evicted.
+   *
+   * @param value	the maximum, <= 0 for unlimited
+   */
+  public void setMaxSize(int value) {
+    m_Lock.writeLock().lock();
+    try {
+      m_MaxSize = value;
+      evict();
+    }
+    finally {
+      m_Lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the maximum number of predictions to keep.
+   *
+   * @return		the maximum, <= 0 for unlimited
+   */
+  public int getMaxSize() {
+    m_Lock.readLock().lock();
+    try {
+      return m_MaxSize;
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of stored predictions.
+   *
+   * @return		the number of predictions
+   */
+  public int size() {
+    m_Lock.readLock().lock();
+    try {
+      return m_Size;
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the latest timestamp in the store.
+   *
+   * @return		the timestamp, null if empty
+   */
+  public LocalDateTime getLatest() {
+    m_Lock.readLock().lock();
+    try {
+      return (m_Size == 0) ? null : fromKey(m_Latest);
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the earliest timestamp in the store.
+   *
+   * @return		the timestamp, null if empty
+   */
+  public LocalDateTime getEarliest() {
+    m_Lock.readLock().lock();
+    try {
+      return (m_Size == 0) ? null : fromKey(m_Chunks.get(0).first());
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the index of the first chunk whose last key is equal or larger.
+   *
+   * @param key		the key to look for
+   * @return		the chunk index, number of chunks if none
+   */
+  protected int chunkFor(long key) {
+    int		low;
+    int		high;
+    int		mid;
+
+    low  = 0;
+    high = m_Chunks.size();
+    while (low < high) {
+      mid = (low + high) >>> 1;
+      if (m_Chunks.get(mid).last() < key)
+	low = mid + 1;
+      else
+	high = mid;
+    }
+    return low;
+  }
+
+  /**
+   * Adds the predictions. Evicts old predictions according to retention
+   * period and maximum size.
+   *
+   * @param preds	the predictions to add
+   * @return		true if added, false if no timestamp or outside retention period
+   */
+  public boolean add(ObjectPredictions preds) {
+    long	key;
+    int		index;
+    Chunk	chunk;
+    Chunk	upper;
+    int		pos;
+
+    if (preds.getTimestamp() == null)
+      return false;
+    key = toKey(preds.getTimestamp());
+
+    m_Lock.writeLock().lock();
+    try {
+      if ((m_Retention > 0) && (m_Size > 0) && (key < m_Latest - m_Retention))
+	return false;
+
+      if (m_Chunks.isEmpty()) {
+	chunk = new Chunk(m_ChunkSize);
+	m_Chunks.add(chunk);
+	index = 0;
+      }
+      else {
+	// locate chunk: for keys beyond all chunks use the last one
+	index = chunkFor(key);
+	if (index == m_Chunks.size())
+	  index--;
+	// prefer the previous chunk if the key fits after its last element
+	if ((index > 0) && (m_Chunks.get(index).first() > key) && (m_Chunks.get(index - 1).size < m_ChunkSize))
+	  index--;
+	chunk = m_Chunks.get(index);
+      }
+      pos = chunk.upperBound(key);
+
+      if (chunk.size == m_ChunkSize) {
+	if ((pos == chunk.size) && (index == m_Chunks.size() - 1)) {
+	  // in-order append: start a new chunk
+	  chunk = new Chunk(m_ChunkSize);
+	  m_Chunks.add(chunk);
+	  pos = 0;
+	}
+	else {
+	  upper = chunk.split();
+	  m_Chunks.add(index + 1, upper);
+	  if (pos > chunk.size) {
+	    pos  -= chunk.size;
+	    chunk = upper;
+	  }
+	}
+      }
+      chunk.insert(pos, key, preds);
+      m_Size++;
+      if (key > m_Latest)
+	m_Latest = key;
+      evict();
+      return true;
+    }
+    finally {
+      m_Lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds all the predictions.
+   *
+   * @param preds	the predictions to add
+   * @return		the number of predictions added
+   */
+  public int addAll(Iterable<ObjectPredictions> preds) {
+    int		result;
+
+    result = 0;
+    for (ObjectPredictions p: preds) {
+      if (add(p))
+	result++;
+    }
+    return result;
+  }
+
+  /**
+   * Removes the specified number of oldest predictions.
+   * Must be called with the write lock held.
+   *
+   * @param n		the number of predictions to remove
+   */
+  protected void removeOldest(int n) {
+    Chunk	chunk;
+
+    while ((n > 0) && !m_Chunks.isEmpty()) {
+      chunk = m_Chunks.get(0);
+      if (chunk.size <= n) {
+	n      -= chunk.size;
+	m_Size -= chunk.size;
+	m_Chunks.remove(0);
+      }
+      else {
+	chunk.removeHead(n);
+	m_Size -= n;
+	n       = 0;
+      }
+    }
+    if (m_Size == 0)
+      m_Latest = Long.MIN_VALUE;
+  }
+
+  /**
+   * Evicts predictions according to retention period and maximum size.
+   * Must be called with the write lock held.
+   */
+  protected void evict() {
+    long	cutoff;
+    int		count;
+    int		i;
+    Chunk	chunk;
+
+    if ((m_Retention > 0) && (m_Size > 0)) {
+      cutoff = m_Latest - m_Retention;
+      count  = 0;
+      for (i = 0; i < m_Chunks.size(); i++) {
+	chunk = m_Chunks.get(i);
+	if (chunk.last() < cutoff) {
+	  count += chunk.size;
+	}
+	else {
+	  count += chunk.lowerBound(cutoff);
+	  break;
+	}
+      }
+      removeOldest(count);
+    }
+
+    if ((m_MaxSize > 0) && (m_Size > m_MaxSize))
+      removeOldest(m_Size - m_MaxSize);
+  }
+
+  /**
+   * Removes all predictions.
+   */
+  public void clear() {
+    m_Lock.writeLock().lock();
+    try {
+      m_Chunks.clear();
+      m_Size   = 0;
+      m_Latest = Long.MIN_VALUE;
+    }
+    finally {
+      m_Lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Interface for visiting the predictions of a range.
+   */
+  protected interface RangeVisitor {
+
+    /**
+     * Gets called for each prediction in the range.
+     *
+     * @param key	the key of the predictions
+     * @param preds	the predictions
+     */
+    public void visit(long key, ObjectPredictions preds);
+  }
+
+  /**
+   * Visits all predictions in the range, in order. Acquires the read lock.
+   *
+   * @param start	the start (incl)
+   * @param end		the end (excl)
+   * @param visitor	the visitor to call
+   */
+  protected void visit(long start, long end, RangeVisitor visitor) {
+    int		index;
+    int		pos;
+    Chunk	chunk;
+
+    m_Lock.readLock().lock();
+    try {
+      for (index = chunkFor(start); index < m_Chunks.size(); index++) {
+	chunk = m_Chunks.get(index);
+	for (pos = chunk.lowerBound(start); pos < chunk.size; pos++) {
+	  if (chunk.keys[pos] >= end)
+	    return;
+	  visitor.visit(chunk.keys[pos], chunk.values[pos]);
+	}
+      }
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns all predictions in the range, in order.
+   *
+   * @param start	the start of the range (incl)
+   * @param end		the end of the range (excl)
+   * @return		the predictions
+   */
+  public List<ObjectPredictions> query(LocalDateTime start, LocalDateTime end) {
+    final List<ObjectPredictions>	result;
+
+    result = new ArrayList<>();
+    visit(toKey(start), toKey(end), (long key, ObjectPredictions preds) -> result.add(preds));
+    return result;
+  }
+
+  /**
+   * Returns all predictions of the specified period up to and including the
+   * latest timestamp in the store.
+   *
+   * @param period	the period
+   * @return		the predictions
+   */
+  public List<ObjectPredictions> queryLast(Duration period) {
+    long				latest;
+    final List<ObjectPredictions>	result;
+
+    result = new ArrayList<>();
+    m_Lock.readLock().lock();
+    try {
+      if (m_Size == 0)
+	return result;
+      latest = m_Latest;
+      visit(latest - period.toNanos() / 1000, latest + 1, (long key, ObjectPredictions preds) -> result.add(preds));
+    }
+    finally {
+      m_Lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Returns all objects with the specified label in the range, in order.
+   *
+   * @param start	the start of the range (incl)
+   * @param end		the end of the range (excl)
+   * @param label	the label to look for
+   * @return		the objects
+   */
+  public List<ObjectPrediction> queryObjects(LocalDateTime start, LocalDateTime end, final String label) {
+    final List<ObjectPrediction>	result;
+
+    result = new ArrayList<>();
+    visit(toKey(start), toKey(end), (long key, ObjectPredictions preds) -> {
+      for (ObjectPrediction obj: preds.getObjects()) {
+	if (label.equals(obj.getLabel()))
+	  result.add(obj);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Counts the objects in the predictions.
+   *
+   * @param preds	the predictions to count
+   * @param label	the label to restrict to, null for all
+   * @return		the count
+   */
+  protected static int count(ObjectPredictions preds, String label) {
+    int		result;
+
+    if (label == null)
+      return preds.getObjects().size();
+    result = 0;
+    for (ObjectPrediction obj: preds.getObjects()) {
+      if (label.equals(obj.getLabel()))
+	result++;
+    }
+    return result;
+  }
+
+  /**
+   * Adds the predictions kept in the heap to the result, in order, and
+   * empties the heap.
+   *
+   * @param heap	the heap with the top k predictions of an interval
+   * @param result	the list to add the predictions to
+   */
+  protected static void flush(PriorityQueue<Ranked> heap, List<ObjectPredictions> result) {
+    List<Ranked>	kept;
+
+    kept = new ArrayList<>(heap);
+    kept.sort((Ranked a, Ranked b) -> Long.compare(a.key, b.key));
+    for (Ranked r: kept)
+      result.add(r.preds);
+    heap.clear();
+  }
+
+  /**
+   * Downsamples the range by keeping the top k predictions (by number of
+   * objects) per interval. Ties are resolved in favor of earlier predictions.
+   * Since the range gets visited in order, only the heap of the current
+   * interval is kept.
+   *
+   * @param start	the start of the range (incl)
+   * @param end		the end of the range (excl)
+   * @param interval	the interval length
+   * @param k		the number of predictions to keep per interval
+   * @param label	the label to count, null to count all objects
+   * @return		the downsampled predictions, in order
+   */
+  public List<ObjectPredictions> downsample(LocalDateTime start, LocalDateTime end, Duration interval, final int k, final String label) {
+    final long				startKey;
+    final long				step;
+    final long[]			current;
+    final PriorityQueue<Ranked>		heap;
+    final List<ObjectPredictions>	result;
+
+    if (k < 1)
+      throw new IllegalArgumentException("k must be at least 1, provided: " + k);
+    step = interval.toNanos() / 1000;
+    if (step < 1)
+      throw new IllegalArgumentException("Interval must be at least 1 micro-second, provided: " + interval);
+
+    startKey = toKey(start);
+    current  = new long[]{-1};
+    heap     = new PriorityQueue<>(k + 1);
+    result   = new ArrayList<>();
+    visit(startKey, toKey(end), (long key, ObjectPredictions preds) -> {
+      long bucket = (key - startKey) / step;
+      if (bucket != current[0]) {
+	flush(heap, result);
+	current[0] = bucket;
+      }
+      heap.add(new Ranked(count(preds, label), key, preds));
+      if (heap.size() > k)
+	heap.poll();
+    });
+    flush(heap, result);
+
+    return result;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * LenientJsonLinesReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+import opex4j.ObjectPredictions;
+import opex4j.io.JsonLinesReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Reads predictions in JSON Lines format using a {@link LenientLoader}:
+ * invalid data gets handled according to the policies and recorded in
+ * the report, using the line number as source. Dropped documents get skipped.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LenientJsonLinesReader
+  extends JsonLinesReader {
+
+  /** the loader. */
+  protected LenientLoader m_Loader;
+
+  /** the report. */
+  protected ValidationReport m_Report;
+
+  /**
+   * Initializes the reader with a file (UTF-8).
+   *
+   * @param file	the file to read from
+   * @param loader	the loader to use
+   * @param report	the report to add the issues to
+   * @throws IOException	if the file cannot be opened
+   */
+  public LenientJsonLinesReader(File file, LenientLoader loader, ValidationReport report) throws IOException {
+    super(file);
+    m_Loader = loader;
+    m_Report = report;
+  }
+
+  /**
+   * Initializes the reader (UTF-8).
+   *
+   * @param stream	the stream to read from, gets closed when closing the reader
+   * @param loader	the loader to use
+   * @param report	the report to add the issues to
+   */
+  public LenientJsonLinesReader(InputStream stream, LenientLoader loader, ValidationReport report) {
+    super(stream);
+    m_Loader = loader;
+    m_Report = report;
+  }
+
+  /**
+   * Initializes the reader.
+   *
+   * @param reader	the reader to read from, gets closed when closing this reader
+   * @param loader	the loader to use
+   * @param report	the report to add the issues to
+   */
+  public LenientJsonLinesReader(Reader reader, LenientLoader loader, ValidationReport report) {
+    super(reader);
+    m_Loader = loader;
+    m_Report = report;
+  }
+
+  /**
+   * Returns the report.
+   *
+   * @return		the report
+   */
+  public ValidationReport getReport() {
+    return m_Report;
+  }
+
+  /**
+   * Reads the next predictions, skipping dropped documents.
+   *
+   * @return		the predictions, null if no more available
+   * @throws IOException	if reading fails
+   */
+  @Override
+  public ObjectPredictions read() throws IOException {
+    String		line;
+    ObjectPredictions	result;
+
+    while ((line = m_Reader.readLine()) != null) {
+      m_LineNo++;
+      if (line.trim().isEmpty())
+	continue;
+      result = m_Loader.load(line, "line " + m_LineNo, m_Report);
+      if (result != null)
+	return result;
+    }
+    return null;
+  }
+}
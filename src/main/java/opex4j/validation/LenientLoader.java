@@ -0,0 +1,518 @@
+/*
+ * LenientLoader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.core.Compression;
+import opex4j.core.TimestampCodec;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads predictions without failing on invalid data: instead of throwing
+ * exceptions, the problems get handled according to the configured
+ * {@link ValidationPolicy} per {@link ValidationIssue.Type} and recorded
+ * in a {@link ValidationReport}.
+ * <br>
+ * The JSON gets inspected before any of the validating constructors get
+ * called, so that invalid objects do not incur the cost of an exception.
+ * Only JSON syntax errors still result in (caught) exceptions, as they
+ * are raised by the JSON parser.
+ * <br>
+ * Policies:
+ * <ul>
+ *   <li>malformed documents/objects always get dropped</li>
+ *   <li>invalid timestamp: drop the document or use no timestamp</li>
+ *   <li>missing label: drop, use empty string (repair) or null (keep)</li>
+ *   <li>invalid score: drop or remove the score</li>
+ *   <li>degenerate bbox: drop, repair (swap coordinates, expand to at least
+ *   2 pixels) or keep as is</li>
+ *   <li>missing bbox: drop or derive from the polygon</li>
+ *   <li>degenerate polygon: drop, replace with bbox (repair) or keep as is</li>
+ *   <li>missing polygon: drop or derive from the bbox</li>
+ * </ul>
+ * The default policy is {@link ValidationPolicy#REPAIR}.
+ * <br>
+ * Thread-safe once configured.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LenientLoader {
+
+  /** the policies. */
+  protected Map<ValidationIssue.Type,ValidationPolicy> m_Policies;
+
+  /**
+   * Initializes the loader with {@link ValidationPolicy#REPAIR} for all issues.
+   */
+  public LenientLoader() {
+    this(ValidationPolicy.REPAIR);
+  }
+
+  /**
+   * Initializes the loader with the same policy for all issues.
+   *
+   * @param policy	the policy to use
+   */
+  public LenientLoader(ValidationPolicy policy) {
+    m_Policies = new EnumMap<>(ValidationIssue.Type.class);
+    for (ValidationIssue.Type type: ValidationIssue.Type.values())
+      setPolicy(type, policy);
+  }
+
+  /**
+   * Sets the policy for the type of issue.
+   *
+   * @param type	the type of issue
+   * @param policy	the policy
+   * @return		the loader
+   */
+  public LenientLoader setPolicy(ValidationIssue.Type type, ValidationPolicy policy) {
+    if ((type == ValidationIssue.Type.MALFORMED_DOCUMENT) || (type == ValidationIssue.Type.MALFORMED_OBJECT))
+      policy = ValidationPolicy.DROP;
+    m_Policies.put(type, policy);
+    return this;
+  }
+
+  /**
+   * Returns the policy for the type of issue.
+   *
+   * @param type	the type of issue
+   * @return		the policy
+   */
+  public ValidationPolicy getPolicy(ValidationIssue.Type type) {
+    return m_Policies.get(type);
+  }
+
+  /**
+   * Returns the primitive if the element is a number.
+   *
+   * @param element	the element to check, can be null
+   * @return		the number, null if not a number
+   */
+  protected static JsonPrimitive number(JsonElement element) {
+    if ((element == null) || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber())
+      return null;
+    return element.getAsJsonPrimitive();
+  }
+
+  /**
+   * Returns the string value of the element.
+   *
+   * @param element	the element
+   * @return		the string
+   */
+  protected static String string(JsonElement element) {
+    if (element.isJsonPrimitive())
+      return element.getAsString();
+    return element.toString();
+  }
+
+  /**
+   * Reads the meta-data.
+   *
+   * @param element	the element with the meta-data, can be null
+   * @return		the meta-data, null if not available
+   */
+  protected static Map<String,String> readMeta(JsonElement element) {
+    Map<String,String>	result;
+    JsonObject		obj;
+
+    if ((element == null) || !element.isJsonObject())
+      return null;
+    obj    = element.getAsJsonObject();
+    result = new HashMap<>();
+    for (String key: obj.keySet()) {
+      if (!obj.get(key).isJsonNull())
+	result.put(key, string(obj.get(key)));
+    }
+    return result;
+  }
+
+  /**
+   * Reads the bbox coordinates.
+   *
+   * @param element	the bbox element, can be null
+   * @return		left, top, right, bottom; null if missing or malformed
+   */
+  protected static int[] readBBox(JsonElement element) {
+    JsonObject		obj;
+    JsonPrimitive	left;
+    JsonPrimitive	top;
+    JsonPrimitive	right;
+    JsonPrimitive	bottom;
+
+    if ((element == null) || !element.isJsonObject())
+      return null;
+    obj    = element.getAsJsonObject();
+    left   = number(obj.get("left"));
+    top    = number(obj.get("top"));
+    right  = number(obj.get("right"));
+    bottom = number(obj.get("bottom"));
+    if ((left == null) || (top == null) || (right == null) || (bottom == null))
+      return null;
+    return new int[]{left.getAsInt(), top.getAsInt(), right.getAsInt(), bottom.getAsInt()};
+  }
+
+  /**
+   * Reads the polygon points.
+   *
+   * @param element	the polygon element, can be null
+   * @return		the points, null if missing or malformed
+   */
+  protected static List<Point> readPoints(JsonElement element) {
+    List<Point>		result;
+    JsonElement		points;
+    JsonArray		point;
+    JsonPrimitive	x;
+    JsonPrimitive	y;
+
+    if ((element == null) || !element.isJsonObject())
+      return null;
+    points = element.getAsJsonObject().get("points");
+    if ((points == null) || !points.isJsonArray())
+      return null;
+    result = new ArrayList<>();
+    for (JsonElement p: points.getAsJsonArray()) {
+      if (!p.isJsonArray() || (p.getAsJsonArray().size() < 2))
+	return null;
+      point = p.getAsJsonArray();
+      x     = number(point.get(0));
+      y     = number(point.get(1));
+      if ((x == null) || (y == null))
+	return null;
+      result.add(new Point(x.getAsInt(), y.getAsInt()));
+    }
+    return result;
+  }
+
+  /**
+   * Computes the extent of the points.
+   *
+   * @param points	the points
+   * @return		left, top, right, bottom
+   */
+  protected static int[] extent(List<Point> points) {
+    int[]	result;
+
+    result = new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+    for (Point p: points) {
+      result[0] = Math.min(result[0], p.x);
+      result[1] = Math.min(result[1], p.y);
+      result[2] = Math.max(result[2], p.x);
+      result[3] = Math.max(result[3], p.y);
+    }
+    return result;
+  }
+
+  /**
+   * Repairs the coordinates: swaps them if necessary and ensures a minimum
+   * extent of 2 pixels.
+   *
+   * @param coords	left, top, right, bottom; gets modified
+   * @return		the repaired box
+   */
+  protected static BBox repair(int[] coords) {
+    int		tmp;
+
+    if (coords[0] > coords[2]) {
+      tmp       = coords[0];
+      coords[0] = coords[2];
+      coords[2] = tmp;
+    }
+    if (coords[1] > coords[3]) {
+      tmp       = coords[1];
+      coords[1] = coords[3];
+      coords[3] = tmp;
+    }
+    // grow towards the origin if already at the maximum coordinate
+    if (coords[0] == coords[2]) {
+      if (coords[2] == Integer.MAX_VALUE)
+	coords[0]--;
+      else
+	coords[2]++;
+    }
+    if (coords[1] == coords[3]) {
+      if (coords[3] == Integer.MAX_VALUE)
+	coords[1]--;
+      else
+	coords[3]++;
+    }
+    return new BBox(coords[0], coords[1], coords[2], coords[3]);
+  }
+
+  /**
+   * Loads the object.
+   *
+   * @param element	the JSON to load
+   * @param source	the source for the report, can be null
+   * @param id		the ID of the document, can be null
+   * @param index	the index of the object
+   * @param report	the report to add issues to
+   * @return		the object, null if dropped
+   */
+  protected ObjectPrediction loadObject(JsonElement element, String source, String id, int index, ValidationReport report) {
+    JsonObject		obj;
+    String		label;
+    Double		score;
+    JsonPrimitive	jscore;
+    int[]		coords;
+    List<Point>		points;
+    int[]		ext;
+    BBox		bbox;
+    Polygon		polygon;
+    boolean		polyValid;
+    ValidationPolicy	policy;
+
+    if (!element.isJsonObject()) {
+      report.add(ValidationIssue.Type.MALFORMED_OBJECT, ValidationPolicy.DROP, source, id, index, null);
+      return null;
+    }
+    obj = element.getAsJsonObject();
+
+    // label
+    if (obj.has("label") && obj.get("label").isJsonPrimitive()) {
+      label = obj.get("label").getAsString();
+    }
+    else {
+      policy = m_Policies.get(ValidationIssue.Type.MISSING_LABEL);
+      report.add(ValidationIssue.Type.MISSING_LABEL, policy, source, id, index, null);
+      if (policy == ValidationPolicy.DROP)
+	return null;
+      label = (policy == ValidationPolicy.REPAIR) ? "" : null;
+    }
+
+    // score
+    score = null;
+    if (obj.has("score") && !obj.get("score").isJsonNull()) {
+      jscore = number(obj.get("score"));
+      if ((jscore != null) && !Double.isNaN(jscore.getAsDouble()) && !Double.isInfinite(jscore.getAsDouble())) {
+	score = jscore.getAsDouble();
+      }
+      else {
+	policy = m_Policies.get(ValidationIssue.Type.INVALID_SCORE);
+	report.add(ValidationIssue.Type.INVALID_SCORE, policy, source, id, index, string(obj.get("score")));
+	if (policy == ValidationPolicy.DROP)
+	  return null;
+      }
+    }
+
+    coords    = readBBox(obj.get("bbox"));
+    points    = readPoints(obj.get("polygon"));
+    ext       = ((points == null) || points.isEmpty()) ? null : extent(points);
+    polyValid = (ext != null) && (points.size() >= 3) && BBox.isValid(ext[0], ext[1], ext[2], ext[3]);
+
+    // bbox
+    if (coords == null) {
+      policy = m_Policies.get(ValidationIssue.Type.MISSING_BBOX);
+      if (ext == null)
+	policy = ValidationPolicy.DROP;
+      report.add(ValidationIssue.Type.MISSING_BBOX, policy, source, id, index, null);
+      if (policy == ValidationPolicy.DROP)
+	return null;
+      if (polyValid)
+	bbox = new BBox(ext[0], ext[1], ext[2], ext[3]);
+      else if (policy == ValidationPolicy.REPAIR)
+	bbox = repair(ext);
+      else
+	bbox = BBox.newUnchecked(ext[0], ext[1], ext[2], ext[3]);
+    }
+    else if (!BBox.isValid(coords[0], coords[1], coords[2], coords[3])) {
+      policy = m_Policies.get(ValidationIssue.Type.DEGENERATE_BBOX);
+      report.add(ValidationIssue.Type.DEGENERATE_BBOX, policy, source, id, index,
+	coords[0] + "," + coords[1] + "," + coords[2] + "," + coords[3]);
+      if (policy == ValidationPolicy.DROP)
+	return null;
+      if (policy == ValidationPolicy.REPAIR)
+	bbox = repair(coords);
+      else
+	bbox = BBox.newUnchecked(coords[0], coords[1], coords[2], coords[3]);
+    }
+    else {
+      bbox = new BBox(coords[0], coords[1], coords[2], coords[3]);
+    }
+
+    // polygon
+    if (points == null) {
+      policy = m_Policies.get(ValidationIssue.Type.MISSING_POLYGON);
+      report.add(ValidationIssue.Type.MISSING_POLYGON, policy, source, id, index, null);
+      if (policy == ValidationPolicy.DROP)
+	return null;
+      polygon = bbox.toPolygon();
+    }
+    else if (!polyValid) {
+      policy = m_Policies.get(ValidationIssue.Type.DEGENERATE_POLYGON);
+      report.add(ValidationIssue.Type.DEGENERATE_POLYGON, policy, source, id, index, points.size() + " points");
+      if (policy == ValidationPolicy.DROP)
+	return null;
+      if (policy == ValidationPolicy.REPAIR)
+	polygon = bbox.toPolygon();
+      else
+	polygon = Polygon.newUnchecked(points);
+    }
+    else {
+      polygon = new Polygon(points);
+    }
+
+    return new ObjectPrediction(label, score, bbox, polygon, readMeta(obj.get("meta")));
+  }
+
+  /**
+   * Loads the predictions from the JSON.
+   *
+   * @param element	the JSON to load
+   * @param source	the source for the report (eg file name or line number), can be null
+   * @param report	the report to add the issues to
+   * @return		the predictions, null if dropped
+   */
+  public ObjectPredictions load(JsonElement element, String source, ValidationReport report) {
+    JsonObject			obj;
+    JsonElement			objects;
+    String			id;
+    String			timestampStr;
+    LocalDateTime		timestamp;
+    List<ObjectPrediction>	list;
+    ObjectPrediction		pred;
+    ValidationPolicy		policy;
+    int				i;
+
+    if ((element == null) || !element.isJsonObject()
+      || !element.getAsJsonObject().has("id") || !element.getAsJsonObject().get("id").isJsonPrimitive()
+      || element.getAsJsonObject().get("id").getAsString().isEmpty()
+      || !element.getAsJsonObject().has("objects") || !element.getAsJsonObject().get("objects").isJsonArray()) {
+      report.add(ValidationIssue.Type.MALFORMED_DOCUMENT, ValidationPolicy.DROP, source, null, -1, null);
+      report.processed(0);
+      return null;
+    }
+    obj     = element.getAsJsonObject();
+    id      = obj.get("id").getAsString();
+    objects = obj.get("objects");
+
+    timestamp = null;
+    if (obj.has("timestamp") && !obj.get("timestamp").isJsonNull()) {
+      timestampStr = string(obj.get("timestamp"));
+      timestamp    = TimestampCodec.parse(timestampStr, TimestampCodec.IGNORE);
+      if (timestamp == null) {
+	policy = m_Policies.get(ValidationIssue.Type.INVALID_TIMESTAMP);
+	report.add(ValidationIssue.Type.INVALID_TIMESTAMP, policy, source, id, -1, timestampStr);
+	if (policy == ValidationPolicy.DROP) {
+	  report.processed(0);
+	  return null;
+	}
+      }
+    }
+
+    list = new ArrayList<>();
+    i    = 0;
+    for (JsonElement o: objects.getAsJsonArray()) {
+      pred = loadObject(o, source, id, i++, report);
+      if (pred != null)
+	list.add(pred);
+    }
+    report.processed(i);
+
+    return new ObjectPredictions(timestamp, id, list, readMeta(obj.get("meta")));
+  }
+
+  /**
+   * Loads the predictions from the JSON string.
+   *
+   * @param json	the JSON to parse
+   * @param source	the source for the report (eg file name or line number), can be null
+   * @param report	the report to add the issues to
+   * @return		the predictions, null if dropped
+   */
+  public ObjectPredictions load(String json, String source, ValidationReport report) {
+    JsonElement		element;
+
+    try {
+      element = JsonParser.parseString(json);
+    }
+    catch (Exception e) {
+      report.add(ValidationIssue.Type.MALFORMED_DOCUMENT, ValidationPolicy.DROP, source, null, -1, e.getMessage());
+      report.processed(0);
+      return null;
+    }
+    return load(element, source, report);
+  }
+
+  /**
+   * Loads the predictions from the reader. Caller must close the reader.
+   *
+   * @param reader	the reader to parse
+   * @param source	the source for the report (eg file name), can be null
+   * @param report	the report to add the issues to
+   * @return		the predictions, null if dropped
+   */
+  public ObjectPredictions load(Reader reader, String source, ValidationReport report) {
+    JsonElement		element;
+
+    try {
+      element = JsonParser.parseReader(reader);
+    }
+    catch (Exception e) {
+      report.add(ValidationIssue.Type.MALFORMED_DOCUMENT, ValidationPolicy.DROP, source, null, -1, e.getMessage());
+      report.processed(0);
+      return null;
+    }
+    return load(element, source, report);
+  }
+
+  /**
+   * Loads the predictions from the file (UTF-8). Gzip/deflate compressed
+   * files get decompressed transparently.
+   *
+   * @param file	the file to load
+   * @param report	the report to add the issues to
+   * @return		the predictions, null if dropped
+   * @throws IOException	if the file cannot be read
+   */
+  public ObjectPredictions load(File file, ValidationReport report) throws IOException {
+    try (Reader reader = new InputStreamReader(Compression.openInput(file), StandardCharsets.UTF_8)) {
+      return load(reader, file.getPath(), report);
+    }
+  }
+
+  /**
+   * Loads the predictions from the files, skipping dropped documents.
+   *
+   * @param files	the files to load
+   * @param report	the report to add the issues to
+   * @return		the predictions
+   * @throws IOException	if a file cannot be read
+   */
+  public List<ObjectPredictions> loadAll(Iterable<File> files, ValidationReport report) throws IOException {
+    List<ObjectPredictions>	result;
+    ObjectPredictions		preds;
+
+    result = new ArrayList<>();
+    for (File file: files) {
+      preds = load(file, report);
+      if (preds != null)
+	result.add(preds);
+    }
+    return result;
+  }
+}
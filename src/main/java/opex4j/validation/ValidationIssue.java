@@ -0,0 +1,174 @@
+/*
+ * ValidationIssue.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+/**
+ * A single problem encountered while loading leniently. The human-readable
+ * message only gets generated when calling {@link #toString()}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ValidationIssue {
+
+  /**
+   * The types of problems.
+   */
+  public enum Type {
+    /** the document is not a JSON object or lacks the id/objects. */
+    MALFORMED_DOCUMENT(true),
+    /** the timestamp cannot be parsed. */
+    INVALID_TIMESTAMP(true),
+    /** the object is not a JSON object or lacks required fields. */
+    MALFORMED_OBJECT(false),
+    /** the object has no label. */
+    MISSING_LABEL(false),
+    /** the score is not a finite number. */
+    INVALID_SCORE(false),
+    /** the bbox has zero or negative width or height. */
+    DEGENERATE_BBOX(false),
+    /** the bbox is missing. */
+    MISSING_BBOX(false),
+    /** the polygon has fewer than three points or a bbox of zero width/height. */
+    DEGENERATE_POLYGON(false),
+    /** the polygon is missing. */
+    MISSING_POLYGON(false);
+
+    /** whether the issue concerns the document rather than an object. */
+    private final boolean m_Document;
+
+    /**
+     * Initializes the type.
+     *
+     * @param document	whether document-level
+     */
+    Type(boolean document) {
+      m_Document = document;
+    }
+
+    /**
+     * Returns whether the issue concerns the whole document.
+     *
+     * @return		true if document-level
+     */
+    public boolean isDocumentLevel() {
+      return m_Document;
+    }
+  }
+
+  /** the type of issue. */
+  protected Type m_Type;
+
+  /** the action that was taken. */
+  protected ValidationPolicy m_Action;
+
+  /** the source, eg file or line number, can be null. */
+  protected String m_Source;
+
+  /** the ID of the document, can be null. */
+  protected String m_ID;
+
+  /** the index of the object, -1 for document-level issues. */
+  protected int m_ObjectIndex;
+
+  /** the offending value, can be null. */
+  protected String m_Value;
+
+  /**
+   * Initializes the issue.
+   *
+   * @param type	the type of issue
+   * @param action	the action that was taken
+   * @param source	the source (eg file or line number), can be null
+   * @param id		the ID of the document, can be null
+   * @param objectIndex	the index of the object, -1 for document-level issues
+   * @param value	the offending value, can be null
+   */
+  public ValidationIssue(Type type, ValidationPolicy action, String source, String id, int objectIndex, String value) {
+    m_Type        = type;
+    m_Action      = action;
+    m_Source      = source;
+    m_ID          = id;
+    m_ObjectIndex = objectIndex;
+    m_Value       = value;
+  }
+
+  /**
+   * Returns the type of issue.
+   *
+   * @return		the type
+   */
+  public Type getType() {
+    return m_Type;
+  }
+
+  /**
+   * Returns the action that was taken.
+   *
+   * @return		the action
+   */
+  public ValidationPolicy getAction() {
+    return m_Action;
+  }
+
+  /**
+   * Returns the source, eg file or line number.
+   *
+   * @return		the source, can be null
+   */
+  public String getSource() {
+    return m_Source;
+  }
+
+  /**
+   * Returns the ID of the document.
+   *
+   * @return		the ID, can be null
+   */
+  public String getID() {
+    return m_ID;
+  }
+
+  /**
+   * Returns the index of the object.
+   *
+   * @return		the index, -1 for document-level issues
+   */
+  public int getObjectIndex() {
+    return m_ObjectIndex;
+  }
+
+  /**
+   * Returns the offending value.
+   *
+   * @return		the value, can be null
+   */
+  public String getValue() {
+    return m_Value;
+  }
+
+  /**
+   * Returns a short description of the issue.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    StringBuilder	result;
+
+    result = new StringBuilder();
+    if (m_Source != null)
+      result.append(m_Source).append(": ");
+    if (m_ID != null)
+      result.append("id=").append(m_ID).append(", ");
+    if (m_ObjectIndex > -1)
+      result.append("object #").append(m_ObjectIndex).append(", ");
+    result.append(m_Type);
+    if (m_Value != null)
+      result.append(" (").append(m_Value).append(")");
+    result.append(" -> ").append(m_Action);
+    return result.toString();
+  }
+}
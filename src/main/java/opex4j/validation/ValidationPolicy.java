@@ -0,0 +1,20 @@
+/*
+ * ValidationPolicy.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+/**
+ * How to deal with invalid data when loading leniently.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public enum ValidationPolicy {
+  /** removes the offending object (or document). */
+  DROP,
+  /** fixes the data, eg by clamping coordinates. */
+  REPAIR,
+  /** keeps the data as it is, bypassing the validation of the constructors. */
+  KEEP,
+}
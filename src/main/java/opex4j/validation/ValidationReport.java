@@ -0,0 +1,189 @@
+/*
+ * ValidationReport.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the issues encountered while loading leniently. The counts are
+ * always exact, but only the first n issues are stored in detail.
+ * <br>
+ * Thread-safe, can be shared by multiple loaders.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ValidationReport {
+
+  /** the default maximum number of issues to store. */
+  public final static int DEFAULT_MAX_ISSUES = 1000;
+
+  /** the issues. */
+  protected List<ValidationIssue> m_Issues;
+
+  /** the maximum number of issues to store. */
+  protected int m_MaxIssues;
+
+  /** the counts per type. */
+  protected long[] m_Counts;
+
+  /** the counts per action. */
+  protected long[] m_Actions;
+
+  /** the number of documents processed. */
+  protected long m_Documents;
+
+  /** the number of objects processed. */
+  protected long m_Objects;
+
+  /**
+   * Initializes the report with the default maximum number of stored issues.
+   *
+   * @see #DEFAULT_MAX_ISSUES
+   */
+  public ValidationReport() {
+    this(DEFAULT_MAX_ISSUES);
+  }
+
+  /**
+   * Initializes the report.
+   *
+   * @param maxIssues	the maximum number of issues to store in detail
+   */
+  public ValidationReport(int maxIssues) {
+    if (maxIssues < 0)
+      throw new IllegalArgumentException("Maximum number of issues cannot be negative: " + maxIssues);
+    m_MaxIssues = maxIssues;
+    clear();
+  }
+
+  /**
+   * Removes all issues and resets the counts.
+   */
+  public synchronized void clear() {
+    m_Issues    = new ArrayList<>();
+    m_Counts    = new long[ValidationIssue.Type.values().length];
+    m_Actions   = new long[ValidationPolicy.values().length];
+    m_Documents = 0;
+    m_Objects   = 0;
+  }
+
+  /**
+   * Records the issue.
+   *
+   * @param type	the type of issue
+   * @param action	the action that was taken
+   * @param source	the source (eg file or line number), can be null
+   * @param id		the ID of the document, can be null
+   * @param objectIndex	the index of the object, -1 for document-level issues
+   * @param value	the offending value, can be null
+   */
+  public synchronized void add(ValidationIssue.Type type, ValidationPolicy action, String source, String id, int objectIndex, String value) {
+    m_Counts[type.ordinal()]++;
+    m_Actions[action.ordinal()]++;
+    if (m_Issues.size() < m_MaxIssues)
+      m_Issues.add(new ValidationIssue(type, action, source, id, objectIndex, value));
+  }
+
+  /**
+   * Records the processing of a document.
+   *
+   * @param objects	the number of objects in the document
+   */
+  public synchronized void processed(int objects) {
+    m_Documents++;
+    m_Objects += objects;
+  }
+
+  /**
+   * Returns whether no issues were encountered.
+   *
+   * @return		true if no issues
+   */
+  public synchronized boolean isClean() {
+    return getCount() == 0;
+  }
+
+  /**
+   * Returns the total number of issues.
+   *
+   * @return		the count
+   */
+  public synchronized long getCount() {
+    long	result;
+
+    result = 0;
+    for (long count: m_Counts)
+      result += count;
+    return result;
+  }
+
+  /**
+   * Returns the number of issues of the specified type.
+   *
+   * @param type	the type
+   * @return		the count
+   */
+  public synchronized long getCount(ValidationIssue.Type type) {
+    return m_Counts[type.ordinal()];
+  }
+
+  /**
+   * Returns the number of times the action was taken.
+   *
+   * @param action	the action
+   * @return		the count
+   */
+  public synchronized long getCount(ValidationPolicy action) {
+    return m_Actions[action.ordinal()];
+  }
+
+  /**
+   * Returns the number of documents processed.
+   *
+   * @return		the count
+   */
+  public synchronized long getDocuments() {
+    return m_Documents;
+  }
+
+  /**
+   * Returns the number of objects processed.
+   *
+   * @return		the count
+   */
+  public synchronized long getObjects() {
+    return m_Objects;
+  }
+
+  /**
+   * Returns the stored issues.
+   *
+   * @return		a copy of the issues
+   */
+  public synchronized List<ValidationIssue> getIssues() {
+    return new ArrayList<>(m_Issues);
+  }
+
+  /**
+   * Returns a summary of the counts.
+   *
+   * @return		the summary
+   */
+  @Override
+  public synchronized String toString() {
+    StringBuilder	result;
+
+    result = new StringBuilder();
+    result.append("documents=").append(m_Documents);
+    result.append(", objects=").append(m_Objects);
+    for (ValidationIssue.Type type: ValidationIssue.Type.values()) {
+      if (m_Counts[type.ordinal()] > 0)
+	result.append(", ").append(type).append("=").append(m_Counts[type.ordinal()]);
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,757 @@
+/*
+ * Zone.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.zone;
+
+import opex4j.BBox;
+import opex4j.Polygon;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A static region (eg a store aisle or a restricted area), with precomputed
+ * structures for fast point-in-polygon tests and overlap computations.
+ * <br>
+ * The bounding box of the zone is divided into a grid whose cells are
+ * classified as fully inside, fully outside or crossed by the boundary.
+ * Points in inside/outside cells are answered by a lookup; for boundary cells,
+ * a crossing-number test over the edge table of the horizontal band
+ * containing the point is used (i.e., only the edges overlapping that band).
+ * <br>
+ * Points are treated as continuous coordinates, using the half-open
+ * crossing-number rule (even-odd). Immutable and thread-safe.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Zone {
+
+  /** cell is outside. */
+  protected final static byte OUTSIDE = 0;
+
+  /** cell is inside. */
+  protected final static byte INSIDE = 1;
+
+  /** cell is crossed by the boundary. */
+  protected final static byte BOUNDARY = 2;
+
+  /** the default number of samples per axis for approximating overlaps. */
+  public final static int DEFAULT_SAMPLES = 16;
+
+  /** the name. */
+  protected String m_Name;
+
+  /** the polygon. */
+  protected Polygon m_Polygon;
+
+  /** the x coordinates of the vertices. */
+  protected double[] m_X;
+
+  /** the y coordinates of the vertices. */
+  protected double[] m_Y;
+
+  /** the left of the bounding box. */
+  protected double m_Left;
+
+  /** the top of the bounding box. */
+  protected double m_Top;
+
+  /** the right of the bounding box. */
+  protected double m_Right;
+
+  /** the bottom of the bounding box. */
+  protected double m_Bottom;
+
+  /** the area. */
+  protected double m_Area;
+
+  /** whether the polygon is convex. */
+  protected boolean m_Convex;
+
+  /** the number of grid columns. */
+  protected int m_Cols;
+
+  /** the number of grid rows. */
+  protected int m_Rows;
+
+  /** the width of a cell. */
+  protected double m_CellWidth;
+
+  /** the height of a cell. */
+  protected double m_CellHeight;
+
+  /** the state of the cells (row-major). */
+  protected byte[] m_Cells;
+
+  /** the indices of the edges overlapping each row (band). */
+  protected int[][] m_Bands;
+
+  /**
+   * Initializes the zone, using a grid resolution based on the number of vertices.
+   *
+   * @param name	the name of the zone
+   * @param polygon	the region
+   */
+  public Zone(String name, Polygon polygon) {
+    this(name, polygon, Math.max(4, Math.min(256, (int) Math.ceil(2 * Math.sqrt(polygon.size())))));
+  }
+
+  /**
+   * Initializes the zone.
+   *
+   * @param name	the name of the zone
+   * @param polygon	the region
+   * @param gridSize	the number of grid cells per axis
+   */
+  public Zone(String name, Polygon polygon, int gridSize) {
+    List<Point>	points;
+    int		i;
+
+    if ((name == null) || name.isEmpty())
+      throw new IllegalArgumentException("Name cannot be null or empty!");
+    if (polygon.size() < 3)
+      throw new IllegalArgumentException("Zone requires at least three points, provided: " + polygon.size());
+    if (gridSize < 1)
+      throw new IllegalArgumentException("Grid size must be at least 1, provided: " + gridSize);
+
+    m_Name    = name;
+    m_Polygon = polygon;
+    points    = polygon.getPoints();
+    m_X       = new double[points.size()];
+    m_Y       = new double[points.size()];
+    m_Left    = Double.POSITIVE_INFINITY;
+    m_Top     = Double.POSITIVE_INFINITY;
+    m_Right   = Double.NEGATIVE_INFINITY;
+    m_Bottom  = Double.NEGATIVE_INFINITY;
+    for (i = 0; i < points.size(); i++) {
+      m_X[i]   = points.get(i).x;
+      m_Y[i]   = points.get(i).y;
+      m_Left   = Math.min(m_Left, m_X[i]);
+      m_Top    = Math.min(m_Top, m_Y[i]);
+      m_Right  = Math.max(m_Right, m_X[i]);
+      m_Bottom = Math.max(m_Bottom, m_Y[i]);
+    }
+    m_Area   = Math.abs(signedArea(m_X, m_Y, m_X.length));
+    m_Convex = isConvex(m_X, m_Y, m_X.length);
+
+    m_Cols       = gridSize;
+    m_Rows       = gridSize;
+    m_CellWidth  = Math.max(1e-9, (m_Right - m_Left) / m_Cols);
+    m_CellHeight = Math.max(1e-9, (m_Bottom - m_Top) / m_Rows);
+    buildBands();
+    buildCells();
+  }
+
+  /**
+   * Builds the edge tables of the horizontal bands.
+   */
+  protected void buildBands() {
+    List<List<Integer>>	bands;
+    int			i;
+    int			j;
+    int			r0;
+    int			r1;
+    int			r;
+
+    bands = new ArrayList<>();
+    for (r = 0; r < m_Rows; r++)
+      bands.add(new ArrayList<>());
+    for (i = 0; i < m_X.length; i++) {
+      j  = (i + 1) % m_X.length;
+      r0 = row(Math.min(m_Y[i], m_Y[j]));
+      r1 = row(Math.max(m_Y[i], m_Y[j]));
+      for (r = r0; r <= r1; r++)
+	bands.get(r).add(i);
+    }
+    m_Bands = new int[m_Rows][];
+    for (r = 0; r < m_Rows; r++) {
+      m_Bands[r] = new int[bands.get(r).size()];
+      for (i = 0; i < m_Bands[r].length; i++)
+	m_Bands[r][i] = bands.get(r).get(i);
+    }
+  }
+
+  /**
+   * Classifies the grid cells.
+   */
+  protected void buildCells() {
+    int		i;
+    int		j;
+    int		c;
+    int		r;
+    int		c0;
+    int		c1;
+    int		r0;
+    int		r1;
+
+    m_Cells = new byte[m_Cols * m_Rows];
+    for (i = 0; i < m_X.length; i++) {
+      j  = (i + 1) % m_X.length;
+      c0 = col(Math.min(m_X[i], m_X[j]));
+      c1 = col(Math.max(m_X[i], m_X[j]));
+      r0 = row(Math.min(m_Y[i], m_Y[j]));
+      r1 = row(Math.max(m_Y[i], m_Y[j]));
+      for (r = r0; r <= r1; r++) {
+	for (c = c0; c <= c1; c++) {
+	  if (m_Cells[r * m_Cols + c] == BOUNDARY)
+	    continue;
+	  if (intersects(m_X[i], m_Y[i], m_X[j], m_Y[j],
+	    m_Left + c * m_CellWidth, m_Top + r * m_CellHeight,
+	    m_Left + (c + 1) * m_CellWidth, m_Top + (r + 1) * m_CellHeight))
+	    m_Cells[r * m_Cols + c] = BOUNDARY;
+	}
+      }
+    }
+    for (r = 0; r < m_Rows; r++) {
+      for (c = 0; c < m_Cols; c++) {
+	if (m_Cells[r * m_Cols + c] != BOUNDARY)
+	  m_Cells[r * m_Cols + c] = crossing(m_Left + (c + 0.5) * m_CellWidth, m_Top + (r + 0.5) * m_CellHeight, r) ? INSIDE : OUTSIDE;
+      }
+    }
+  }
+
+  /**
+   * Returns the grid column for the x coordinate (clipped).
+   *
+   * @param x		the coordinate
+   * @return		the column
+   */
+  protected int col(double x) {
+    return Math.max(0, Math.min(m_Cols - 1, (int) Math.floor((x - m_Left) / m_CellWidth)));
+  }
+
+  /**
+   * Returns the grid row for the y coordinate (clipped).
+   *
+   * @param y		the coordinate
+   * @return		the row
+   */
+  protected int row(double y) {
+    return Math.max(0, Math.min(m_Rows - 1, (int) Math.floor((y - m_Top) / m_CellHeight)));
+  }
+
+  /**
+   * Checks whether the segment intersects the (slightly enlarged) rectangle,
+   * using Liang-Barsky clipping.
+   *
+   * @param x0		the x of the start
+   * @param y0		the y of the start
+   * @param x1		the x of the end
+   * @param y1		the y of the end
+   * @param left	the left of the rectangle
+   * @param top		the top of the rectangle
+   * @param right	the right of the rectangle
+   * @param bottom	the bottom of the rectangle
+   * @return		true if intersecting
+   */
+  protected static boolean intersects(double x0, double y0, double x1, double y1, double left, double top, double right, double bottom) {
+    double	eps;
+    double	dx;
+    double	dy;
+    double	t0;
+    double	t1;
+    double[]	p;
+    double[]	q;
+    double	t;
+    int		i;
+
+    eps    = 1e-9 * Math.max(1.0, Math.max(right - left, bottom - top));
+    left   -= eps;
+    top    -= eps;
+    right  += eps;
+    bottom += eps;
+    dx = x1 - x0;
+    dy = y1 - y0;
+    t0 = 0;
+    t1 = 1;
+    p  = new double[]{-dx, dx, -dy, dy};
+    q  = new double[]{x0 - left, right - x0, y0 - top, bottom - y0};
+    for (i = 0; i < 4; i++) {
+      if (p[i] == 0) {
+	if (q[i] < 0)
+	  return false;
+      }
+      else {
+	t = q[i] / p[i];
+	if (p[i] < 0)
+	  t0 = Math.max(t0, t);
+	else
+	  t1 = Math.min(t1, t);
+	if (t0 > t1)
+	  return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Crossing-number test using the edges of the band.
+   *
+   * @param x		the x coordinate
+   * @param y		the y coordinate
+   * @param band	the band (row) to use
+   * @return		true if inside
+   */
+  protected boolean crossing(double x, double y, int band) {
+    boolean	result;
+    int		i;
+    int		j;
+
+    result = false;
+    for (int e: m_Bands[band]) {
+      i = e;
+      j = (e + 1) % m_X.length;
+      if (((m_Y[i] > y) != (m_Y[j] > y)) && (x < (m_X[j] - m_X[i]) * (y - m_Y[i]) / (m_Y[j] - m_Y[i]) + m_X[i]))
+	result = !result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the name of the zone.
+   *
+   * @return		the name
+   */
+  public String getName() {
+    return m_Name;
+  }
+
+  /**
+   * Returns the region.
+   *
+   * @return		the polygon
+   */
+  public Polygon getPolygon() {
+    return m_Polygon;
+  }
+
+  /**
+   * Returns the area of the region.
+   *
+   * @return		the area
+   */
+  public double getArea() {
+    return m_Area;
+  }
+
+  /**
+   * Returns whether the region is convex.
+   *
+   * @return		true if convex
+   */
+  public boolean isConvex() {
+    return m_Convex;
+  }
+
+  /**
+   * Returns the left of the bounding box.
+   *
+   * @return		the left
+   */
+  public double getLeft() {
+    return m_Left;
+  }
+
+  /**
+   * Returns the top of the bounding box.
+   *
+   * @return		the top
+   */
+  public double getTop() {
+    return m_Top;
+  }
+
+  /**
+   * Returns the right of the bounding box.
+   *
+   * @return		the right
+   */
+  public double getRight() {
+    return m_Right;
+  }
+
+  /**
+   * Returns the bottom of the bounding box.
+   *
+   * @return		the bottom
+   */
+  public double getBottom() {
+    return m_Bottom;
+  }
+
+  /**
+   * Checks whether the point lies inside the zone.
+   *
+   * @param x		the x coordinate
+   * @param y		the y coordinate
+   * @return		true if inside
+   */
+  public boolean contains(double x, double y) {
+    int		r;
+    byte	state;
+
+    if ((x < m_Left) || (x > m_Right) || (y < m_Top) || (y > m_Bottom))
+      return false;
+    r     = row(y);
+    state = m_Cells[r * m_Cols + col(x)];
+    if (state != BOUNDARY)
+      return (state == INSIDE);
+    return crossing(x, y, r);
+  }
+
+  /**
+   * Classifies the grid cells covered by the rectangle.
+   *
+   * @param left	the left of the rectangle
+   * @param top		the top of the rectangle
+   * @param right	the right of the rectangle
+   * @param bottom	the bottom of the rectangle
+   * @return		INSIDE/OUTSIDE if all cells have that state, otherwise BOUNDARY
+   */
+  protected byte classify(double left, double top, double right, double bottom) {
+    int		c0;
+    int		c1;
+    int		r0;
+    int		r1;
+    int		r;
+    int		c;
+    byte	result;
+    byte	state;
+
+    if ((right < m_Left) || (left > m_Right) || (bottom < m_Top) || (top > m_Bottom))
+      return OUTSIDE;
+    // extends beyond the zone
+    if ((left < m_Left) || (right > m_Right) || (top < m_Top) || (bottom > m_Bottom))
+      result = OUTSIDE;
+    else
+      result = -1;
+    c0 = col(left);
+    c1 = col(right);
+    r0 = row(top);
+    r1 = row(bottom);
+    for (r = r0; r <= r1; r++) {
+      for (c = c0; c <= c1; c++) {
+	state = m_Cells[r * m_Cols + c];
+	if (state == BOUNDARY)
+	  return BOUNDARY;
+	if (result == -1)
+	  result = state;
+	else if (result != state)
+	  return BOUNDARY;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the fraction of the bbox that overlaps with the zone.
+   *
+   * @param bbox	the bbox to check
+   * @return		the overlap ratio (0-1)
+   */
+  public double bboxOverlap(BBox bbox) {
+    double	left;
+    double	top;
+    double	right;
+    double	bottom;
+    double	area;
+    double[]	rectX;
+    double[]	rectY;
+
+    left   = bbox.getLeft();
+    top    = bbox.getTop();
+    right  = bbox.getRight();
+    bottom = bbox.getBottom();
+    area   = (right - left) * (bottom - top);
+    if (area <= 0)
+      return contains((left + right) / 2, (top + bottom) / 2) ? 1.0 : 0.0;
+
+    switch (classify(left, top, right, bottom)) {
+      case INSIDE:
+	return 1.0;
+      case OUTSIDE:
+	return 0.0;
+      default:
+	rectX = new double[]{left, right, right, left};
+	rectY = new double[]{top, top, bottom, bottom};
+	return Math.min(1.0, Math.abs(clippedArea(m_X, m_Y, m_X.length, rectX, rectY, 4)) / area);
+    }
+  }
+
+  /**
+   * Returns the fraction of the polygon that overlaps with the zone. Exact
+   * if the zone or the polygon is convex, otherwise approximated by sampling
+   * the bbox of the polygon with {@link #DEFAULT_SAMPLES} points per axis.
+   *
+   * @param polygon	the polygon to check
+   * @return		the overlap ratio (0-1)
+   */
+  public double polygonOverlap(Polygon polygon) {
+    return polygonOverlap(polygon, DEFAULT_SAMPLES);
+  }
+
+  /**
+   * Returns the fraction of the polygon that overlaps with the zone. Exact
+   * if the zone or the polygon is convex, otherwise approximated by sampling
+   * the bbox of the polygon.
+   *
+   * @param polygon	the polygon to check
+   * @param samples	the number of samples per axis when approximating
+   * @return		the overlap ratio (0-1)
+   */
+  public double polygonOverlap(Polygon polygon, int samples) {
+    List<Point>	points;
+    double[]	x;
+    double[]	y;
+    double	left;
+    double	top;
+    double	right;
+    double	bottom;
+    double	area;
+    int		i;
+
+    points = polygon.getPoints();
+    x      = new double[points.size()];
+    y      = new double[points.size()];
+    left   = Double.POSITIVE_INFINITY;
+    top    = Double.POSITIVE_INFINITY;
+    right  = Double.NEGATIVE_INFINITY;
+    bottom = Double.NEGATIVE_INFINITY;
+    for (i = 0; i < x.length; i++) {
+      x[i]   = points.get(i).x;
+      y[i]   = points.get(i).y;
+      left   = Math.min(left, x[i]);
+      top    = Math.min(top, y[i]);
+      right  = Math.max(right, x[i]);
+      bottom = Math.max(bottom, y[i]);
+    }
+    area = Math.abs(signedArea(x, y, x.length));
+    if (area <= 0)
+      return contains((left + right) / 2, (top + bottom) / 2) ? 1.0 : 0.0;
+
+    switch (classify(left, top, right, bottom)) {
+      case INSIDE:
+	return 1.0;
+      case OUTSIDE:
+	return 0.0;
+      default:
+	if (m_Convex)
+	  return Math.min(1.0, Math.abs(clippedArea(x, y, x.length, m_X, m_Y, m_X.length)) / area);
+	if (isConvex(x, y, x.length))
+	  return Math.min(1.0, Math.abs(clippedArea(m_X, m_Y, m_X.length, x, y, x.length)) / area);
+	return sampledOverlap(x, y, left, top, right, bottom, samples);
+    }
+  }
+
+  /**
+   * Approximates the overlap by sampling the bbox of the polygon.
+   *
+   * @param x		the x coordinates of the polygon
+   * @param y		the y coordinates of the polygon
+   * @param left	the left of the bbox
+   * @param top		the top of the bbox
+   * @param right	the right of the bbox
+   * @param bottom	the bottom of the bbox
+   * @param samples	the number of samples per axis
+   * @return		the overlap ratio (0-1)
+   */
+  protected double sampledOverlap(double[] x, double[] y, double left, double top, double right, double bottom, int samples) {
+    int		inside;
+    int		both;
+    int		sx;
+    int		sy;
+    double	px;
+    double	py;
+
+    inside = 0;
+    both   = 0;
+    for (sy = 0; sy < samples; sy++) {
+      py = top + (sy + 0.5) * (bottom - top) / samples;
+      for (sx = 0; sx < samples; sx++) {
+	px = left + (sx + 0.5) * (right - left) / samples;
+	if (contains(x, y, x.length, px, py)) {
+	  inside++;
+	  if (contains(px, py))
+	    both++;
+	}
+      }
+    }
+    return (inside == 0) ? 0.0 : (double) both / inside;
+  }
+
+  /**
+   * Crossing-number test over all edges.
+   *
+   * @param x		the x coordinates of the polygon
+   * @param y		the y coordinates of the polygon
+   * @param n		the number of vertices
+   * @param px		the x of the point
+   * @param py		the y of the point
+   * @return		true if inside
+   */
+  protected static boolean contains(double[] x, double[] y, int n, double px, double py) {
+    boolean	result;
+    int		i;
+    int		j;
+
+    result = false;
+    for (i = 0, j = n - 1; i < n; j = i++) {
+      if (((y[i] > py) != (y[j] > py)) && (px < (x[j] - x[i]) * (py - y[i]) / (y[j] - y[i]) + x[i]))
+	result = !result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the signed area of the polygon (shoelace formula).
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of vertices
+   * @return		the signed area
+   */
+  protected static double signedArea(double[] x, double[] y, int n) {
+    double	result;
+    int		i;
+    int		j;
+
+    result = 0;
+    for (i = 0, j = n - 1; i < n; j = i++)
+      result += (x[j] * y[i]) - (x[i] * y[j]);
+    return result / 2;
+  }
+
+  /**
+   * Checks whether the polygon is convex (collinear vertices are allowed).
+   *
+   * @param x		the x coordinates
+   * @param y		the y coordinates
+   * @param n		the number of vertices
+   * @return		true if convex
+   */
+  protected static boolean isConvex(double[] x, double[] y, int n) {
+    int		sign;
+    double	cross;
+    double	angle;
+    double	prev;
+    double	curr;
+    int		i;
+    int		j;
+    int		k;
+
+    sign  = 0;
+    angle = 0;
+    prev  = Double.NaN;
+    for (i = 0; i < n; i++) {
+      j     = (i + 1) % n;
+      k     = (i + 2) % n;
+      cross = (x[j] - x[i]) * (y[k] - y[j]) - (y[j] - y[i]) * (x[k] - x[j]);
+      if (cross != 0) {
+	if (sign == 0)
+	  sign = (cross > 0) ? 1 : -1;
+	else if ((cross > 0) != (sign > 0))
+	  return false;
+      }
+      // total turning must be one revolution (rules out self-intersecting polygons)
+      if ((x[j] != x[i]) || (y[j] != y[i])) {
+	curr = Math.atan2(y[j] - y[i], x[j] - x[i]);
+	if (!Double.isNaN(prev))
+	  angle += Math.IEEEremainder(curr - prev, 2 * Math.PI);
+	prev = curr;
+      }
+    }
+    return (sign != 0) && (Math.abs(Math.abs(angle) - 2 * Math.PI) < Math.PI);
+  }
+
+  /**
+   * Clips the subject polygon against the convex clip polygon
+   * (Sutherland-Hodgman) and returns the area of the result.
+   *
+   * @param sx		the x coordinates of the subject
+   * @param sy		the y coordinates of the subject
+   * @param sn		the number of vertices of the subject
+   * @param cx		the x coordinates of the convex clip polygon
+   * @param cy		the y coordinates of the convex clip polygon
+   * @param cn		the number of vertices of the clip polygon
+   * @return		the area of the intersection
+   */
+  protected static double clippedArea(double[] sx, double[] sy, int sn, double[] cx, double[] cy, int cn) {
+    double[]	inX;
+    double[]	inY;
+    double[]	outX;
+    double[]	outY;
+    double[]	tmp;
+    double	orientation;
+    double	ax;
+    double	ay;
+    double	bx;
+    double	by;
+    double	px;
+    double	py;
+    double	qx;
+    double	qy;
+    double	dp;
+    double	dq;
+    double	t;
+    int		n;
+    int		m;
+    int		i;
+    int		e;
+
+    orientation = Math.signum(signedArea(cx, cy, cn));
+    if (orientation == 0)
+      return 0;
+    inX  = new double[sn + cn + 1];
+    inY  = new double[sn + cn + 1];
+    outX = new double[sn * 2 + cn * 2 + 2];
+    outY = new double[outX.length];
+    System.arraycopy(sx, 0, inX, 0, sn);
+    System.arraycopy(sy, 0, inY, 0, sn);
+    n = sn;
+    for (e = 0; (e < cn) && (n > 0); e++) {
+      ax = cx[e];
+      ay = cy[e];
+      bx = cx[(e + 1) % cn];
+      by = cy[(e + 1) % cn];
+      if (outX.length < 2 * n + 2) {
+	outX = new double[2 * n + 2];
+	outY = new double[outX.length];
+      }
+      m = 0;
+      for (i = 0; i < n; i++) {
+	px = inX[(i + n - 1) % n];
+	py = inY[(i + n - 1) % n];
+	qx = inX[i];
+	qy = inY[i];
+	dp = orientation * ((bx - ax) * (py - ay) - (by - ay) * (px - ax));
+	dq = orientation * ((bx - ax) * (qy - ay) - (by - ay) * (qx - ax));
+	if (dq >= 0) {
+	  if (dp < 0) {
+	    t = dp / (dp - dq);
+	    outX[m] = px + t * (qx - px);
+	    outY[m] = py + t * (qy - py);
+	    m++;
+	  }
+	  outX[m] = qx;
+	  outY[m] = qy;
+	  m++;
+	}
+	else if (dp >= 0) {
+	  t = dp / (dp - dq);
+	  outX[m] = px + t * (qx - px);
+	  outY[m] = py + t * (qy - py);
+	  m++;
+	}
+      }
+      tmp = inX; inX = outX; outX = tmp;
+      tmp = inY; inY = outY; outY = tmp;
+      n = m;
+    }
+    if (n < 3)
+      return 0;
+    return signedArea(inX, inY, n);
+  }
+}
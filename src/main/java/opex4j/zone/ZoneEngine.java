@@ -0,0 +1,356 @@
+/*
+ * ZoneEngine.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.zone;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classifies the objects of predictions by zone and counts them per frame.
+ * <br>
+ * The zones get indexed in a uniform grid (cell to overlapping zones), so
+ * only the zones near an object get tested. Each zone uses its own
+ * acceleration structures (see {@link Zone}), i.e., the cost per object
+ * is nearly independent of the number of zones and their complexity.
+ * <br>
+ * Once configured, an engine can be shared between threads.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ZoneEngine {
+
+  /**
+   * How to determine whether an object belongs to a zone.
+   */
+  public enum Membership {
+    /** the centroid of the polygon lies in the zone. */
+    CENTROID,
+    /** the fraction of the bbox overlapping the zone reaches the threshold. */
+    BBOX_OVERLAP,
+    /** the fraction of the polygon overlapping the zone reaches the threshold. */
+    POLYGON_OVERLAP,
+  }
+
+  /** the default cell size of the index. */
+  public final static int DEFAULT_CELL_SIZE = 64;
+
+  /** the zones. */
+  protected List<Zone> m_Zones;
+
+  /** the left of the index. */
+  protected double m_Left;
+
+  /** the top of the index. */
+  protected double m_Top;
+
+  /** the cell size of the index. */
+  protected double m_CellSize;
+
+  /** the number of columns of the index. */
+  protected int m_Cols;
+
+  /** the number of rows of the index. */
+  protected int m_Rows;
+
+  /** the zone indices per cell of the index. */
+  protected int[][] m_Index;
+
+  /** the membership rule. */
+  protected Membership m_Membership;
+
+  /** the minimum overlap ratio for the overlap rules. */
+  protected double m_MinOverlap;
+
+  /**
+   * Initializes the engine with the default cell size.
+   *
+   * @param zones	the zones
+   */
+  public ZoneEngine(List<Zone> zones) {
+    this(zones, DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * Initializes the engine.
+   *
+   * @param zones	the zones
+   * @param cellSize	the size of the cells of the index (in pixels)
+   */
+  public ZoneEngine(List<Zone> zones, int cellSize) {
+    Set<String>	names;
+
+    if (zones.isEmpty())
+      throw new IllegalArgumentException("At least one zone required!");
+    if (cellSize < 1)
+      throw new IllegalArgumentException("Cell size must be at least 1, provided: " + cellSize);
+    names = new HashSet<>();
+    for (Zone zone: zones) {
+      if (!names.add(zone.getName()))
+	throw new IllegalArgumentException("Duplicate zone name: " + zone.getName());
+    }
+
+    m_Zones      = new ArrayList<>(zones);
+    m_CellSize   = cellSize;
+    m_Membership = Membership.CENTROID;
+    m_MinOverlap = 0.5;
+    buildIndex();
+  }
+
+  /**
+   * Builds the grid index.
+   */
+  protected void buildIndex() {
+    List<List<Integer>>	cells;
+    double		right;
+    double		bottom;
+    Zone		zone;
+    int			i;
+    int			n;
+    int			r;
+    int			c;
+
+    m_Left = Double.POSITIVE_INFINITY;
+    m_Top  = Double.POSITIVE_INFINITY;
+    right  = Double.NEGATIVE_INFINITY;
+    bottom = Double.NEGATIVE_INFINITY;
+    for (Zone z: m_Zones) {
+      m_Left = Math.min(m_Left, z.getLeft());
+      m_Top  = Math.min(m_Top, z.getTop());
+      right  = Math.max(right, z.getRight());
+      bottom = Math.max(bottom, z.getBottom());
+    }
+    m_Cols = (int) Math.floor((right - m_Left) / m_CellSize) + 1;
+    m_Rows = (int) Math.floor((bottom - m_Top) / m_CellSize) + 1;
+
+    cells = new ArrayList<>();
+    for (i = 0; i < m_Cols * m_Rows; i++)
+      cells.add(new ArrayList<>());
+    for (i = 0; i < m_Zones.size(); i++) {
+      zone = m_Zones.get(i);
+      for (r = row(zone.getTop()); r <= row(zone.getBottom()); r++) {
+	for (c = col(zone.getLeft()); c <= col(zone.getRight()); c++)
+	  cells.get(r * m_Cols + c).add(i);
+      }
+    }
+    m_Index = new int[cells.size()][];
+    for (i = 0; i < cells.size(); i++) {
+      m_Index[i] = new int[cells.get(i).size()];
+      for (n = 0; n < m_Index[i].length; n++)
+	m_Index[i][n] = cells.get(i).get(n);
+    }
+  }
+
+  /**
+   * Returns the index column for the x coordinate (clipped).
+   *
+   * @param x		the coordinate
+   * @return		the column
+   */
+  protected int col(double x) {
+    return Math.max(0, Math.min(m_Cols - 1, (int) Math.floor((x - m_Left) / m_CellSize)));
+  }
+
+  /**
+   * Returns the index row for the y coordinate (clipped).
+   *
+   * @param y		the coordinate
+   * @return		the row
+   */
+  protected int row(double y) {
+    return Math.max(0, Math.min(m_Rows - 1, (int) Math.floor((y - m_Top) / m_CellSize)));
+  }
+
+  /**
+   * Returns the zones.
+   *
+   * @return		the zones
+   */
+  public List<Zone> getZones() {
+    return m_Zones;
+  }
+
+  /**
+   * Sets the membership rule.
+   *
+   * @param value	the rule
+   * @return		the engine
+   */
+  public ZoneEngine setMembership(Membership value) {
+    m_Membership = value;
+    return this;
+  }
+
+  /**
+   * Returns the membership rule.
+   *
+   * @return		the rule
+   */
+  public Membership getMembership() {
+    return m_Membership;
+  }
+
+  /**
+   * Sets the minimum overlap ratio for the overlap rules.
+   *
+   * @param value	the ratio (0-1], objects overlapping at least that much belong to the zone
+   * @return		the engine
+   */
+  public ZoneEngine setMinOverlap(double value) {
+    if ((value <= 0) || (value > 1))
+      throw new IllegalArgumentException("Minimum overlap must be in (0, 1], provided: " + value);
+    m_MinOverlap = value;
+    return this;
+  }
+
+  /**
+   * Returns the minimum overlap ratio for the overlap rules.
+   *
+   * @return		the ratio
+   */
+  public double getMinOverlap() {
+    return m_MinOverlap;
+  }
+
+  /**
+   * Returns the indices of the zones containing the point.
+   *
+   * @param x		the x coordinate
+   * @param y		the y coordinate
+   * @return		the zone indices
+   */
+  public int[] zonesAt(double x, double y) {
+    int[]	candidates;
+    int[]	result;
+    int		n;
+
+    if ((x < m_Left) || (y < m_Top) || (x > m_Left + m_Cols * m_CellSize) || (y > m_Top + m_Rows * m_CellSize))
+      return new int[0];
+    candidates = m_Index[row(y) * m_Cols + col(x)];
+    result     = new int[candidates.length];
+    n          = 0;
+    for (int i: candidates) {
+      if (m_Zones.get(i).contains(x, y))
+	result[n++] = i;
+    }
+    return (n == result.length) ? result : Arrays.copyOf(result, n);
+  }
+
+  /**
+   * Computes the centroid of the polygon of the object, falling back to
+   * the center of the bbox for degenerate polygons.
+   *
+   * @param obj		the object
+   * @param centroid	for storing x and y
+   */
+  protected void centroid(ObjectPrediction obj, double[] centroid) {
+    Polygon	polygon;
+    BBox	bbox;
+
+    polygon = obj.getPolygon();
+    if (polygon.getSignedArea() != 0) {
+      centroid[0] = polygon.getCentroidX();
+      centroid[1] = polygon.getCentroidY();
+    }
+    else {
+      bbox        = obj.getBBox();
+      centroid[0] = (bbox.getLeft() + bbox.getRight()) / 2.0;
+      centroid[1] = (bbox.getTop() + bbox.getBottom()) / 2.0;
+    }
+  }
+
+  /**
+   * Returns the indices of the zones the object belongs to, according to
+   * the membership rule.
+   *
+   * @param obj		the object to classify
+   * @return		the zone indices
+   */
+  public int[] classify(ObjectPrediction obj) {
+    return classify(obj, new double[2], new boolean[m_Zones.size()]);
+  }
+
+  /**
+   * Returns the indices of the zones the object belongs to, according to
+   * the membership rule.
+   *
+   * @param obj		the object to classify
+   * @param centroid	buffer for the centroid
+   * @param visited	buffer for marking visited zones (all false)
+   * @return		the zone indices
+   */
+  protected int[] classify(ObjectPrediction obj, double[] centroid, boolean[] visited) {
+    BBox	bbox;
+    int[]	result;
+    int		n;
+    int		r;
+    int		c;
+    double	overlap;
+    Zone	zone;
+
+    if (m_Membership == Membership.CENTROID) {
+      centroid(obj, centroid);
+      return zonesAt(centroid[0], centroid[1]);
+    }
+
+    bbox   = obj.getBBox();
+    result = new int[m_Zones.size()];
+    n      = 0;
+    for (r = row(bbox.getTop()); r <= row(bbox.getBottom()); r++) {
+      for (c = col(bbox.getLeft()); c <= col(bbox.getRight()); c++) {
+	for (int i: m_Index[r * m_Cols + c]) {
+	  if (visited[i])
+	    continue;
+	  visited[i] = true;
+	  zone       = m_Zones.get(i);
+	  if ((bbox.getRight() < zone.getLeft()) || (bbox.getLeft() > zone.getRight())
+	    || (bbox.getBottom() < zone.getTop()) || (bbox.getTop() > zone.getBottom()))
+	    continue;
+	  if (m_Membership == Membership.BBOX_OVERLAP)
+	    overlap = zone.bboxOverlap(bbox);
+	  else
+	    overlap = zone.polygonOverlap(obj.getPolygon());
+	  if (overlap >= m_MinOverlap)
+	    result[n++] = i;
+	}
+      }
+    }
+    for (r = 0; r < visited.length; r++)
+      visited[r] = false;
+    Arrays.sort(result, 0, n);
+    return Arrays.copyOf(result, n);
+  }
+
+  /**
+   * Classifies all the objects and counts them per zone.
+   *
+   * @param preds	the predictions to process
+   * @return		the counts
+   */
+  public ZoneFrame process(ObjectPredictions preds) {
+    ZoneFrame	result;
+    double[]	centroid;
+    boolean[]	visited;
+    int[]	zones;
+    int		i;
+
+    result   = new ZoneFrame(preds.getID(), preds.getTimestamp(), m_Zones, preds.getObjects().size());
+    centroid = new double[2];
+    visited  = new boolean[m_Zones.size()];
+    for (i = 0; i < preds.getObjects().size(); i++) {
+      zones = classify(preds.getObjects().get(i), centroid, visited);
+      result.add(i, preds.getObjects().get(i).getLabel(), zones);
+    }
+    return result;
+  }
+}
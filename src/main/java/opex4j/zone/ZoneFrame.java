@@ -0,0 +1,202 @@
+/*
+ * ZoneFrame.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.zone;
+
+import com.google.gson.JsonObject;
+import opex4j.core.AbstractJsonHandler;
+import opex4j.core.TimestampCodec;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The per-zone counts of a single frame, as generated by {@link ZoneEngine}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ZoneFrame
+  extends AbstractJsonHandler {
+
+  /** the ID of the predictions. */
+  protected String m_ID;
+
+  /** the timestamp of the predictions. */
+  protected LocalDateTime m_Timestamp;
+
+  /** the zone names. */
+  protected List<String> m_Names;
+
+  /** the counts per zone. */
+  protected int[] m_Counts;
+
+  /** the counts per zone and label. */
+  protected List<Map<String,Integer>> m_LabelCounts;
+
+  /** the zones per object. */
+  protected int[][] m_ObjectZones;
+
+  /**
+   * Initializes the frame.
+   *
+   * @param id		the ID of the predictions
+   * @param timestamp	the timestamp of the predictions, can be null
+   * @param zones	the zones
+   * @param numObjects	the number of objects in the predictions
+   */
+  protected ZoneFrame(String id, LocalDateTime timestamp, List<Zone> zones, int numObjects) {
+    int		i;
+
+    m_ID          = id;
+    m_Timestamp   = timestamp;
+    m_Names       = new ArrayList<>();
+    m_Counts      = new int[zones.size()];
+    m_LabelCounts = new ArrayList<>();
+    m_ObjectZones = new int[numObjects][];
+    for (i = 0; i < zones.size(); i++) {
+      m_Names.add(zones.get(i).getName());
+      m_LabelCounts.add(new TreeMap<>());
+    }
+  }
+
+  /**
+   * Records the zones of an object. Objects without a label only count
+   * towards the zone totals.
+   *
+   * @param index	the index of the object
+   * @param label	the label of the object, can be null
+   * @param zones	the zone indices
+   */
+  protected void add(int index, String label, int[] zones) {
+    Map<String,Integer>	counts;
+
+    m_ObjectZones[index] = zones;
+    for (int zone: zones) {
+      m_Counts[zone]++;
+      if (label != null) {
+	counts = m_LabelCounts.get(zone);
+	counts.put(label, counts.getOrDefault(label, 0) + 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the ID of the predictions.
+   *
+   * @return		the ID
+   */
+  public String getID() {
+    return m_ID;
+  }
+
+  /**
+   * Returns the timestamp of the predictions.
+   *
+   * @return		the timestamp, null if none available
+   */
+  public LocalDateTime getTimestamp() {
+    return m_Timestamp;
+  }
+
+  /**
+   * Returns the number of zones.
+   *
+   * @return		the number of zones
+   */
+  public int getZoneCount() {
+    return m_Counts.length;
+  }
+
+  /**
+   * Returns the name of the zone.
+   *
+   * @param zone	the index of the zone
+   * @return		the name
+   */
+  public String getZoneName(int zone) {
+    return m_Names.get(zone);
+  }
+
+  /**
+   * Returns the number of objects in the zone.
+   *
+   * @param zone	the index of the zone
+   * @return		the count
+   */
+  public int getCount(int zone) {
+    return m_Counts[zone];
+  }
+
+  /**
+   * Returns the number of objects with the label in the zone.
+   *
+   * @param zone	the index of the zone
+   * @param label	the label, null for all
+   * @return		the count
+   */
+  public int getCount(int zone, String label) {
+    if (label == null)
+      return m_Counts[zone];
+    return m_LabelCounts.get(zone).getOrDefault(label, 0);
+  }
+
+  /**
+   * Returns the counts per label for the zone.
+   *
+   * @param zone	the index of the zone
+   * @return		the counts (sorted by label), excluding objects without label
+   */
+  public Map<String,Integer> getLabelCounts(int zone) {
+    return m_LabelCounts.get(zone);
+  }
+
+  /**
+   * Returns the indices of the zones the object belongs to.
+   *
+   * @param index	the index of the object in the predictions
+   * @return		the zone indices
+   */
+  public int[] getObjectZones(int index) {
+    return m_ObjectZones[index];
+  }
+
+  /**
+   * Turns the object into JSON.
+   *
+   * @return		the generated JSON
+   */
+  @Override
+  public JsonObject toJson() {
+    JsonObject	result;
+    JsonObject	zones;
+    JsonObject	zone;
+    JsonObject	labels;
+    int		i;
+
+    result = new JsonObject();
+
+    if (m_Timestamp != null)
+      result.addProperty("timestamp", TimestampCodec.format(m_Timestamp));
+
+    result.addProperty("id", m_ID);
+
+    zones = new JsonObject();
+    for (i = 0; i < m_Counts.length; i++) {
+      zone = new JsonObject();
+      zone.addProperty("count", m_Counts[i]);
+      labels = new JsonObject();
+      for (String label: m_LabelCounts.get(i).keySet())
+	labels.addProperty(label, m_LabelCounts.get(i).get(label));
+      zone.add("labels", labels);
+      zones.add(m_Names.get(i), zone);
+    }
+    result.add("zones", zones);
+
+    return result;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * DefaultExecutors.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The default executors of {@link AsyncIO} on Java 21+, using a virtual
+ * thread per task for the file channels and for parsing/serializing.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+final class DefaultExecutors {
+
+  /** the shared executor. */
+  private final static ExecutorService VIRTUAL = Executors.newVirtualThreadPerTaskExecutor();
+
+  private DefaultExecutors() {
+  }
+
+  /**
+   * Returns the executor for parsing/serializing and completing the futures.
+   *
+   * @return		the virtual thread executor
+   */
+  static Executor executor() {
+    return VIRTUAL;
+  }
+
+  /**
+   * Returns the executor for the asynchronous file channels.
+   *
+   * @return		the virtual thread executor
+   */
+  static ExecutorService channelExecutor() {
+    return VIRTUAL;
+  }
+}
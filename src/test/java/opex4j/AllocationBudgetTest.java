@@ -0,0 +1,212 @@
+/*
+ * AllocationBudgetTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j;
+
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the allocation rates of the core hot paths: fails if the bytes
+ * allocated per operation exceed the budgets (base + per object + per vertex).
+ * The budgets leave about 50% headroom over the measured values (Java 8-17,
+ * compressed oops), to catch regressions rather than small JVM differences.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class AllocationBudgetTest {
+
+  /** the number of iterations (warm-up and measured). */
+  protected final static int ITERATIONS = 2000;
+
+  /** the thread bean to use. */
+  protected static com.sun.management.ThreadMXBean m_Bean;
+
+  /** consumes the results of the operations, prevents dead-code elimination. */
+  protected static volatile int m_Sink;
+
+  /**
+   * Interface for the operations to measure.
+   */
+  protected interface Operation {
+
+    /**
+     * Executes the operation.
+     *
+     * @return		the result (prevents dead-code elimination)
+     * @throws Exception	if execution fails
+     */
+    public Object run() throws Exception;
+  }
+
+  @BeforeAll
+  public static void setUp() {
+    java.lang.management.ThreadMXBean	bean;
+
+    bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "thread allocation not supported");
+    m_Bean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(m_Bean.isThreadAllocatedMemorySupported(), "thread allocation not supported");
+    m_Bean.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  /**
+   * Measures the average number of bytes allocated per operation.
+   *
+   * @param op		the operation to measure
+   * @return		the bytes per operation
+   * @throws Exception	if the operation fails
+   */
+  protected long measure(Operation op) throws Exception {
+    return measure(op, ITERATIONS);
+  }
+
+  /**
+   * Measures the average number of bytes allocated per operation.
+   *
+   * @param op		the operation to measure
+   * @param iterations	the number of warm-up and measured iterations
+   * @return		the bytes per operation
+   * @throws Exception	if the operation fails
+   */
+  protected long measure(Operation op, int iterations) throws Exception {
+    long	id;
+    long	start;
+    long	end;
+    int		i;
+    int		sink;
+
+    id   = Thread.currentThread().getId();
+    sink = 0;
+    for (i = 0; i < iterations; i++)
+      sink += System.identityHashCode(op.run());
+    start = m_Bean.getThreadAllocatedBytes(id);
+    for (i = 0; i < iterations; i++)
+      sink += System.identityHashCode(op.run());
+    end    = m_Bean.getThreadAllocatedBytes(id);
+    m_Sink = sink;
+    return (end - start) / iterations;
+  }
+
+  /**
+   * Generates predictions.
+   *
+   * @param objects	the number of objects
+   * @param vertices	the number of vertices per polygon
+   * @return		the predictions
+   */
+  protected ObjectPredictions predictions(int objects, int vertices) {
+    WorkloadGenerator	gen;
+
+    gen = new WorkloadGenerator(42);
+    gen.setObjects(objects, objects);
+    gen.setVertices(vertices, vertices);
+    gen.setShape(WorkloadGenerator.Shape.ELLIPSE);
+    gen.setMeta(2, 1, 8);
+    return gen.next();
+  }
+
+  /**
+   * Checks the allocations of the operation against the budget.
+   *
+   * @param name	the name of the operation
+   * @param actual	the measured bytes per operation
+   * @param objects	the number of objects
+   * @param vertices	the total number of vertices
+   * @param base	the base budget
+   * @param perObject	the budget per object
+   * @param perVertex	the budget per vertex
+   */
+  protected void check(String name, long actual, int objects, int vertices, long base, long perObject, long perVertex) {
+    long	budget;
+
+    budget = base + perObject * objects + perVertex * vertices;
+    assertTrue(actual <= budget, name + ": " + actual + " bytes/op exceeds budget of " + budget);
+  }
+
+  /**
+   * Runs the check for the specified workload sizes.
+   *
+   * @param name	the name of the operation
+   * @param factory	generates the operation for the predictions
+   * @param base	the base budget
+   * @param perObject	the budget per object
+   * @param perVertex	the budget per vertex
+   * @throws Exception	if the operation fails
+   */
+  protected void check(String name, Function<ObjectPredictions,Operation> factory, long base, long perObject, long perVertex) throws Exception {
+    int[][]		sizes;
+    ObjectPredictions	preds;
+
+    sizes = new int[][]{{1, 4}, {10, 16}, {50, 64}};
+    for (int[] size: sizes) {
+      preds = predictions(size[0], size[1]);
+      check(name + " (" + size[0] + "x" + size[1] + ")", measure(factory.apply(preds), Math.max(100, ITERATIONS / size[0])),
+	size[0], size[0] * size[1], base, perObject, perVertex);
+    }
+  }
+
+  @Test
+  public void testParse() throws Exception {
+    check("parse", (ObjectPredictions preds) -> {
+      final String json = preds.toString(false);
+      return () -> ObjectPredictions.newInstance(json);
+    }, 8000, 4000, 480);
+  }
+
+  @Test
+  public void testToJson() throws Exception {
+    check("toJson", (ObjectPredictions preds) -> preds::toJson, 1500, 2000, 260);
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    check("write", (ObjectPredictions preds) -> () -> {
+      StringWriter writer = new StringWriter();
+      preds.write(writer, false);
+      return writer;
+    }, 6000, 3500, 560);
+  }
+
+  @Test
+  public void testPolygonToBBox() throws Exception {
+    Polygon	polygon;
+    long	create;
+    long	compute;
+    int		i;
+
+    for (int vertices: new int[]{4, 64, 1024}) {
+      final List<Point> points = new ArrayList<>();
+      for (i = 0; i < vertices; i++)
+	points.add(new Point(i, (i % 2 == 0) ? 0 : 100));
+      // the bbox gets cached, i.e., a fresh polygon is required for measuring the computation
+      create  = measure(() -> new Polygon(points));
+      compute = measure(() -> new Polygon(points).toBBox());
+      check("Polygon.toBBox (" + vertices + ")", compute - create, 1, vertices, 128, 0, 0);
+      polygon = new Polygon(points);
+      polygon.toBBox();
+      check("Polygon.toBBox cached (" + vertices + ")", measure(polygon::toBBox), 1, vertices, 0, 0, 0);
+    }
+  }
+
+  @Test
+  public void testBBoxToPolygon() throws Exception {
+    BBox	bbox;
+
+    bbox = new BBox(10, 20, 110, 220);
+    check("BBox.toPolygon", measure(bbox::toPolygon), 1, 4, 384, 0, 0);
+  }
+}
@@ -5,14 +5,27 @@
 
 package opex4j;
 
+import opex4j.core.JsonOptions;
+import opex4j.core.Utf8PredictionsParser;
 import org.junit.jupiter.api.Test;
 
+import java.awt.Point;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test the {@link ObjectPredictions} class.
@@ -75,4 +88,103 @@ public class ObjectPredictionsTest {
     ObjectPredictions preds = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
     assertEquals(2, preds.getObjects().size(), "number of predictions");
   }
+
+  @Test
+  public void testEqualsAndContentHash() throws Exception {
+    ObjectPredictions	preds;
+    ObjectPredictions	compact;
+    ObjectPredictions	bytes;
+    ObjectPredictions	reordered;
+    Utf8PredictionsParser	parser;
+    Map<String,String>	meta;
+    String		json;
+
+    preds   = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    json    = preds.toString(false);
+    compact = ObjectPredictions.newInstance(json);
+    parser  = new Utf8PredictionsParser();
+    parser.setComputeHash(true);
+    bytes   = parser.parse(json.getBytes(StandardCharsets.UTF_8));
+    assertEquals(preds, compact, "pretty vs compact");
+    assertEquals(preds, bytes, "reader vs bytes");
+    assertEquals(preds.contentHash(), compact.contentHash(), "pretty vs compact");
+    assertEquals(preds.contentHash(), bytes.contentHash(), "reader vs bytes");
+    assertEquals(preds.hashCode(), bytes.hashCode(), "hash code");
+    assertEquals(preds.getObjects().get(0), bytes.getObjects().get(0), "object");
+
+    // meta-data order must not matter
+    meta = new LinkedHashMap<>();
+    meta.put("a", "1");
+    meta.put("b", "2");
+    reordered = new ObjectPredictions(preds.getTimestamp(), preds.getID(), preds.getObjects(), meta);
+    meta = new LinkedHashMap<>();
+    meta.put("b", "2");
+    meta.put("a", "1");
+    assertEquals(reordered, new ObjectPredictions(preds.getTimestamp(), preds.getID(), preds.getObjects(), meta));
+    assertEquals(reordered.contentHash(), new ObjectPredictions(preds.getTimestamp(), preds.getID(), preds.getObjects(), meta).contentHash());
+    assertNotEquals(preds.contentHash(), reordered.contentHash(), "meta-data");
+    assertNotEquals(preds, reordered, "meta-data");
+
+    assertNotEquals(preds.contentHash(), new ObjectPredictions(preds.getTimestamp(), "other", preds.getObjects()).contentHash(), "ID");
+    assertNotEquals(preds.contentHash(), new ObjectPredictions(null, preds.getID(), preds.getObjects()).contentHash(), "timestamp");
+    assertNotEquals(preds.contentHash(), new ObjectPredictions(preds.getTimestamp(), preds.getID(), preds.getObjects().subList(0, 1)).contentHash(), "objects");
+    assertNotEquals(new BBox(1, 2, 3, 4).contentHash(), new BBox(2, 1, 3, 4).contentHash(), "bbox");
+  }
+
+  @Test
+  public void testCompactJson() throws Exception {
+    List<ObjectPrediction>	objects;
+    ObjectPrediction		rect;
+    ObjectPrediction		triangle;
+    ObjectPredictions		preds;
+    ObjectPredictions		empty;
+    String			json;
+
+    rect     = new ObjectPrediction("car", 0.9, new BBox(10, 20, 30, 40), new BBox(10, 20, 30, 40).toPolygon(), null);
+    triangle = new ObjectPrediction("tree", null, new BBox(1, 2, 5, 6), new Polygon(Arrays.asList(new Point(1, 2), new Point(5, 2), new Point(3, 6))), null);
+    assertTrue(rect.isPolygonDerived());
+    assertTrue(new ObjectPrediction("bike", new BBox(1, 2, 3, 4)).isPolygonDerived());
+    assertFalse(triangle.isPolygonDerived());
+    objects = new ArrayList<>(Arrays.asList(rect, triangle));
+    preds   = new ObjectPredictions(LocalDateTime.of(2026, 1, 2, 3, 4, 5), "frame", objects);
+    empty   = new ObjectPredictions(null, "empty", null);
+
+    // full representation by default
+    assertEquals(2, preds.toString(false).split("\"polygon\"", -1).length - 1);
+    assertTrue(empty.toString(false).contains("objects"));
+
+    json = preds.toString(false, JsonOptions.compact());
+    assertEquals(1, json.split("\"polygon\"", -1).length - 1, json);
+    assertEquals(preds, ObjectPredictions.newInstance(json), "gson");
+    assertEquals(preds, ObjectPredictions.newInstance(json.getBytes(StandardCharsets.UTF_8)), "bytes");
+    assertEquals(preds.contentHash(), ObjectPredictions.newInstance(json.getBytes(StandardCharsets.UTF_8)).contentHash(), "hash");
+    assertEquals(rect.getPolygon(), ObjectPredictions.newInstance(json).getObjects().get(0).getPolygon());
+
+    json = empty.toString(false, JsonOptions.compact());
+    assertFalse(json.contains("objects"), json);
+    assertEquals(empty, ObjectPredictions.newInstance(json), "gson");
+    assertEquals(empty, ObjectPredictions.newInstance(json.getBytes(StandardCharsets.UTF_8)), "bytes");
+  }
+
+  @Test
+  public void testEqualsAfterModification() throws Exception {
+    ObjectPredictions	preds1;
+    ObjectPredictions	preds2;
+
+    preds1 = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    preds2 = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    preds1.getMeta().put("extra", "1");
+    preds1.getObjects().get(0).getMeta().put("extra", "1");
+    preds1.contentHash();
+    preds2.contentHash();
+    assertNotEquals(preds1, preds2);
+
+    // neither equals nor hashCode must rely on the (now stale) cached hashes
+    preds2.getMeta().put("extra", "1");
+    preds2.getObjects().get(0).getMeta().put("extra", "1");
+    assertEquals(preds1.getObjects().get(0), preds2.getObjects().get(0), "object");
+    assertEquals(preds1.getObjects().get(0).hashCode(), preds2.getObjects().get(0).hashCode(), "object hash code");
+    assertEquals(preds1, preds2);
+    assertEquals(preds1.hashCode(), preds2.hashCode(), "hash code");
+  }
 }
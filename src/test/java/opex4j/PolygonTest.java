@@ -5,15 +5,20 @@
 
 package opex4j;
 
+import opex4j.geometry.RotatedRectangle;
 import org.junit.jupiter.api.Test;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests the {@link Polygon} class.
@@ -84,4 +89,61 @@ public class PolygonTest {
     assertArrayEquals(new int[]{1, 2, 2, 1}, awt.xpoints, "xpoints");
     assertArrayEquals(new int[]{1, 1, 2, 2}, awt.ypoints, "ypoints");
   }
+
+  @Test
+  public void testGeometry() {
+    Polygon		rect;
+    Polygon		arrow;
+    Polygon		hull;
+    Polygon		diamond;
+    RotatedRectangle	minRect;
+    ObjectPredictions	preds;
+    double[]		values;
+
+    rect = new BBox(10, 20, 30, 60).toPolygon();
+    assertEquals(800, rect.getArea(), 1e-9);
+    assertEquals(800, rect.getSignedArea(), 1e-9);
+    assertTrue(rect.isClockwise());
+    assertEquals(120, rect.getPerimeter(), 1e-9);
+    assertEquals(20, rect.getCentroidX(), 1e-9);
+    assertEquals(40, rect.getCentroidY(), 1e-9);
+    assertSame(rect.toBBox(), rect.toBBox(), "cached");
+    assertSame(rect.getConvexHull(), rect.getConvexHull(), "cached");
+    assertEquals(Math.PI / 2, rect.getOrientation(), 1e-9);
+    assertEquals(800, rect.getMinAreaRectangle().getArea(), 1e-6);
+
+    // concave, counter-clockwise
+    arrow = new Polygon(Arrays.asList(new Point(0, 0), new Point(0, 10), new Point(5, 5), new Point(10, 10), new Point(10, 0)));
+    assertFalse(arrow.isClockwise());
+    assertEquals(75, arrow.getArea(), 1e-9);
+    hull = arrow.getConvexHull();
+    assertEquals(Arrays.asList(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)), hull.getPoints());
+    assertEquals(100, hull.getArea(), 1e-9);
+    assertSame(hull, hull.getConvexHull());
+
+    // rotated by 45 degrees
+    diamond = new Polygon(Arrays.asList(new Point(0, 10), new Point(20, 30), new Point(30, 20), new Point(10, 0)));
+    minRect = diamond.getMinAreaRectangle();
+    assertEquals(400, minRect.getArea(), 1e-6);
+    assertEquals(Math.hypot(20, 20), minRect.getWidth(), 1e-6);
+    assertEquals(Math.hypot(10, 10), minRect.getHeight(), 1e-6);
+    assertEquals(Math.PI / 4, minRect.getAngle(), 1e-9);
+    assertEquals(15, minRect.getCenterX(), 1e-9);
+    assertEquals(15, minRect.getCenterY(), 1e-9);
+
+    assertTrue(Double.isNaN(Polygon.newUnchecked(new ArrayList<>()).getOrientation()));
+    assertEquals(0, Polygon.newUnchecked(Arrays.asList(new Point(1, 1), new Point(3, 3))).getArea(), 1e-9);
+    assertEquals(2, Polygon.newUnchecked(Arrays.asList(new Point(1, 1), new Point(3, 3))).getCentroidX(), 1e-9);
+
+    // batch
+    preds  = new ObjectPredictions(null, "x", Arrays.asList(
+      new ObjectPrediction("a", new BBox(10, 20, 30, 60)),
+      new ObjectPrediction("b", null, arrow.toBBox(), arrow, null)));
+    values = preds.getAreas(new double[1]);
+    assertArrayEquals(new double[]{800, 75}, values, 1e-9);
+    assertSame(values, preds.getPerimeters(values), "reused");
+    assertArrayEquals(new double[]{20, 40, arrow.getCentroidX(), arrow.getCentroidY()}, preds.getCentroids(null), 1e-9);
+    assertArrayEquals(new double[]{21 * 41, 11 * 11}, preds.getBBoxAreas(null), 1e-9);
+    assertArrayEquals(new double[]{Math.PI / 2, 0}, preds.getOrientations(null), 1e-9);
+  }
 }
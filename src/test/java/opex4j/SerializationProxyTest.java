@@ -0,0 +1,203 @@
+/*
+ * SerializationProxyTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j;
+
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the custom serialization of the prediction classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class SerializationProxyTest {
+
+  /**
+   * Bounding box subclass with an additional field.
+   */
+  public static class NamedBBox
+    extends BBox {
+
+    /** the name. */
+    protected String m_Name;
+
+    /**
+     * Initializes the box.
+     *
+     * @param left	the left coordinate
+     * @param top	the top coordinate
+     * @param right	the right coordinate
+     * @param bottom	the bottom coordinate
+     * @param name	the name
+     */
+    public NamedBBox(int left, int top, int right, int bottom, String name) {
+      super(left, top, right, bottom);
+      m_Name = name;
+    }
+  }
+
+  /**
+   * Object subclass with an additional field.
+   */
+  public static class TrackedPrediction
+    extends ObjectPrediction {
+
+    /** the track ID. */
+    protected long m_TrackID;
+
+    /**
+     * Initializes the object.
+     *
+     * @param label	the label
+     * @param bbox	the bounding box
+     * @param trackID	the track ID
+     */
+    public TrackedPrediction(String label, BBox bbox, long trackID) {
+      super(label, bbox);
+      m_TrackID = trackID;
+    }
+  }
+
+  /**
+   * Serializes the object.
+   *
+   * @param obj		the object to serialize
+   * @return		the bytes
+   * @throws IOException	if serialization fails
+   */
+  protected byte[] serialize(Object obj) throws IOException {
+    ByteArrayOutputStream	bytes;
+
+    bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(obj);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Deserializes the object.
+   *
+   * @param data	the bytes
+   * @return		the object
+   * @throws Exception	if deserialization fails
+   */
+  protected Object deserialize(byte[] data) throws Exception {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      return in.readObject();
+    }
+  }
+
+  /**
+   * Serializes and deserializes the object.
+   *
+   * @param obj		the object to serialize
+   * @return		the restored object
+   * @throws Exception	if serialization fails
+   */
+  protected Object roundTrip(Object obj) throws Exception {
+    return deserialize(serialize(obj));
+  }
+
+  /**
+   * Tests the individual classes.
+   *
+   * @throws Exception	if serialization fails
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    ObjectPredictions	preds;
+    ObjectPrediction	obj;
+    ObjectPrediction	restored;
+    Polygon		polygon;
+
+    preds = ObjectPredictions.newInstance(getClass().getClassLoader().getResourceAsStream("opex4j/simple.json"));
+    assertEquals(preds, roundTrip(preds));
+    assertEquals(preds.getObjects().get(1), roundTrip(preds.getObjects().get(1)));
+    assertEquals(new BBox(-5, 10, 2000000000, 20), roundTrip(new BBox(-5, 10, 2000000000, 20)));
+    polygon = new Polygon(Arrays.asList(new Point(-100, 3), new Point(Integer.MAX_VALUE, 4), new Point(Integer.MIN_VALUE, -7)));
+    assertEquals(polygon, roundTrip(polygon));
+
+    obj      = new ObjectPrediction(null, null, new BBox(1, 2, 3, 4), polygon, null);
+    restored = (ObjectPrediction) roundTrip(obj);
+    assertNull(restored.getLabel());
+    assertNull(restored.getScore());
+    assertEquals(obj, restored);
+  }
+
+  /**
+   * Tests that the format is more compact than the JSON representation.
+   *
+   * @throws Exception	if serialization fails
+   */
+  @Test
+  public void testCompact() throws Exception {
+    WorkloadGenerator		gen;
+    List<ObjectPredictions>	preds;
+    byte[]			data;
+    int				json;
+
+    gen = new WorkloadGenerator(42);
+    gen.setMeta(2, 1, 8);
+    preds = new ArrayList<>(gen.next(50));
+    data  = serialize(preds);
+    json  = 0;
+    for (ObjectPredictions p: preds)
+      json += p.toString(false).getBytes(StandardCharsets.UTF_8).length;
+    assertTrue(data.length * 2 < json, "serialized: " + data.length + ", json: " + json);
+    assertEquals(preds, deserialize(data));
+  }
+
+  /**
+   * Tests that subclasses do not get restored as their parent class.
+   *
+   * @throws Exception	if serialization fails
+   */
+  @Test
+  public void testSubclasses() throws Exception {
+    NamedBBox		bbox;
+    ObjectPrediction	obj;
+    TrackedPrediction	tracked;
+    ObjectPredictions	preds;
+    ObjectPredictions	restored;
+    Polygon		polygon;
+
+    bbox = (NamedBBox) roundTrip(new NamedBBox(1, 2, 3, 4, "box"));
+    assertEquals("box", bbox.m_Name);
+    assertEquals(4, bbox.getBottom());
+
+    // the polygon's cached geometry is not serializable
+    polygon = new Polygon(Arrays.asList(new Point(0, 0), new Point(10, 0), new Point(10, 5)));
+    polygon.getMinAreaRectangle();
+    obj = (ObjectPrediction) roundTrip(new ObjectPrediction("a", 0.5, new NamedBBox(0, 0, 10, 5, "inner"), polygon, null));
+    assertEquals("inner", ((NamedBBox) obj.getBBox()).m_Name);
+    assertEquals(polygon, obj.getPolygon());
+
+    preds    = new ObjectPredictions(null, "1", Arrays.asList(
+      new ObjectPrediction("b", new BBox(1, 1, 5, 5)),
+      new TrackedPrediction("c", new BBox(2, 2, 6, 6), 42)));
+    restored = (ObjectPredictions) roundTrip(preds);
+    assertEquals(ObjectPredictions.class, restored.getClass());
+    assertEquals(ObjectPrediction.class, restored.getObjects().get(0).getClass());
+    assertEquals(42, ((TrackedPrediction) restored.getObjects().get(1)).m_TrackID);
+    assertEquals(preds, restored);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * PredictionsArenaTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.arena;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link PredictionsArena} and {@link PredictionsView} classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PredictionsArenaTest {
+
+  /**
+   * Tests reading via the flyweight.
+   *
+   * @throws Exception	if loading fails
+   */
+  @Test
+  public void testView() throws Exception {
+    ObjectPredictions	preds;
+    PredictionsArena	arena;
+    PredictionsView	view;
+    long		handle;
+    int			i;
+
+    preds  = ObjectPredictions.newInstance(getClass().getClassLoader().getResourceAsStream("opex4j/simple.json"));
+    arena  = new PredictionsArena();
+    handle = arena.add(preds);
+    view   = arena.view(handle);
+
+    assertEquals(preds.getID(), view.getID());
+    assertTrue(view.matchesID(preds.getID()));
+    assertFalse(view.matchesID("other"));
+    assertEquals(preds.getTimestamp(), view.getTimestamp());
+    assertEquals(preds.getObjects().size(), view.getObjectCount());
+    for (i = 0; i < view.getObjectCount(); i++) {
+      assertEquals(preds.getObjects().get(i).getLabel(), view.getLabel(i));
+      assertEquals(preds.getObjects().get(i).getScore(), view.getScore(i), 1e-12);
+      assertEquals(preds.getObjects().get(i).getBBox().getLeft(), view.getLeft(i));
+      assertEquals(preds.getObjects().get(i).getBBox().getBottom(), view.getBottom(i));
+      assertEquals(preds.getObjects().get(i).getPolygon().size(), view.getPointCount(i));
+      assertEquals(preds.getObjects().get(i).getPolygon().getPoints().get(1).x, view.getX(i, 1));
+      assertEquals(preds.getObjects().get(i).getMeta().size(), view.getMetaCount(i));
+      for (String key: preds.getObjects().get(i).getMeta().keySet())
+	assertEquals(preds.getObjects().get(i).getMeta().get(key), view.getMeta(i, key));
+    }
+    assertNull(view.getMeta("missing"));
+    assertEquals(preds, view.toPredictions());
+    assertEquals(preds, arena.get(handle));
+  }
+
+  /**
+   * Tests round-tripping generated predictions across segments and releasing them.
+   */
+  @Test
+  public void testRoundTripAndRelease() {
+    WorkloadGenerator		gen;
+    List<ObjectPredictions>	preds;
+    List<Long>			handles;
+    PredictionsArena		arena;
+    AtomicLong			count;
+    long			released;
+    long			handle;
+    int				i;
+
+    gen = new WorkloadGenerator(1);
+    gen.setMeta(2, 1, 8);
+    preds   = gen.next(200);
+    arena   = new PredictionsArena(4096, false);
+    handles = new ArrayList<>();
+    for (ObjectPredictions p: preds)
+      handles.add(arena.add(p));
+    assertEquals(200, arena.size());
+    assertTrue(arena.getUsedBytes() <= arena.getAllocatedBytes());
+    for (i = 0; i < preds.size(); i++)
+      assertEquals(preds.get(i), arena.get(handles.get(i)));
+
+    count = new AtomicLong();
+    arena.forEach((PredictionsView v) -> {
+      assertEquals(preds.get((int) count.get()).getID(), v.getID());
+      count.incrementAndGet();
+    });
+    assertEquals(200, count.get());
+
+    handle   = handles.get(100);
+    released = arena.releaseBefore(handle);
+    assertTrue(released > 0);
+    assertEquals(200 - released, arena.size());
+    assertFalse(arena.isValid(handles.get(0)));
+    assertThrows(IllegalStateException.class, () -> arena.view(handles.get(0)));
+    assertEquals(preds.get(100), arena.get(handle));
+    assertEquals(preds.get(199), arena.get(handles.get(199)));
+
+    arena.clear();
+    assertEquals(0, arena.size());
+    assertEquals(0, arena.getAllocatedBytes());
+    assertFalse(arena.isValid(handle));
+    handle = arena.add(preds.get(0));
+    assertEquals(preds.get(0), arena.get(handle));
+  }
+
+  /**
+   * Tests views positioned before clearing the arena and degenerate geometry.
+   */
+  @Test
+  public void testClearAndDegenerate() {
+    PredictionsArena	arena;
+    PredictionsView	view;
+    ObjectPrediction	obj;
+    ObjectPredictions	preds;
+
+    obj   = new ObjectPrediction("thin", null, BBox.newUnchecked(5, 5, 5, 10),
+      Polygon.newUnchecked(Arrays.asList(new Point(5, 5), new Point(5, 10))), null);
+    preds = new ObjectPredictions(null, "1", Arrays.asList(obj));
+    arena = new PredictionsArena(4096, false);
+    view  = arena.view(arena.add(preds));
+    assertEquals(preds, view.toPredictions());
+
+    arena.clear();
+    arena.add(new ObjectPredictions(null, "2", Arrays.asList(
+      new ObjectPrediction("other", null, new BBox(0, 0, 10, 10), null, null))));
+    assertEquals("thin", view.getLabel(0));
+  }
+}
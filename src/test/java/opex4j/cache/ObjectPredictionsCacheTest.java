@@ -0,0 +1,262 @@
+/*
+ * ObjectPredictionsCacheTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.cache;
+
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests the {@link ObjectPredictionsCache} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ObjectPredictionsCacheTest {
+
+  /**
+   * Copies the simple.json test file into the directory.
+   *
+   * @param dir		the directory to copy to
+   * @param name	the file name to use
+   * @return		the copy
+   * @throws Exception	if copying fails
+   */
+  protected File copy(Path dir, String name) throws Exception {
+    Path	result;
+
+    result = dir.resolve(name);
+    Files.copy(new File("src/test/resources/opex4j/simple.json").toPath(), result, StandardCopyOption.REPLACE_EXISTING);
+    return result.toFile();
+  }
+
+  /**
+   * Waits until the thread is parked, e.g., waiting for the load of another
+   * thread.
+   *
+   * @param thread	the thread to wait for
+   */
+  protected void awaitParked(Thread thread) {
+    long	end;
+
+    end = System.currentTimeMillis() + 5000;
+    while (thread.getState() != Thread.State.WAITING) {
+      if (System.currentTimeMillis() > end)
+	fail("thread not waiting: " + thread.getState());
+      Thread.yield();
+    }
+  }
+
+  @Test
+  public void testInstantiation() {
+    assertThrows(IllegalArgumentException.class, () -> new ObjectPredictionsCache(0));
+    assertThrows(IllegalArgumentException.class, () -> new ObjectPredictionsCache(10, null, ObjectPredictionsCache.DEFAULT_WEIGHER));
+    assertThrows(IllegalArgumentException.class, () -> new ObjectPredictionsCache(10, ObjectPredictionsCache.DEFAULT_LOADER, null));
+  }
+
+  @Test
+  public void testHitsAndMisses(@TempDir Path dir) throws Exception {
+    ObjectPredictionsCache	cache;
+    File			file;
+    ObjectPredictions		first;
+    ObjectPredictions		second;
+
+    cache  = new ObjectPredictionsCache(1000);
+    file   = copy(dir, "a.json");
+    first  = cache.get(file);
+    second = cache.get(file);
+    assertSame(first, second, "cached instance");
+    assertEquals(1, cache.getHitCount(), "hits");
+    assertEquals(1, cache.getMissCount(), "misses");
+    assertEquals(1, cache.size(), "size");
+    // 1 + 2 objects + 8 vertices
+    assertEquals(11, cache.getWeight(), "weight");
+  }
+
+  @Test
+  public void testInvalidation(@TempDir Path dir) throws Exception {
+    ObjectPredictionsCache	cache;
+    File			file;
+    ObjectPredictions		first;
+    ObjectPredictions		second;
+
+    cache = new ObjectPredictionsCache(1000);
+    file  = copy(dir, "a.json");
+    first = cache.get(file);
+    Files.write(file.toPath(), first.toString(false).getBytes());
+    second = cache.get(file);
+    assertNotSame(first, second, "reloaded instance");
+    assertEquals(1, cache.getInvalidationCount(), "invalidations");
+    assertEquals(2, cache.getLoadCount(), "loads");
+  }
+
+  @Test
+  public void testEviction(@TempDir Path dir) throws Exception {
+    ObjectPredictionsCache	cache;
+    File			a;
+    File			b;
+    File			c;
+
+    cache = new ObjectPredictionsCache(25);
+    a     = copy(dir, "a.json");
+    b     = copy(dir, "b.json");
+    c     = copy(dir, "c.json");
+    cache.get(a);
+    cache.get(b);
+    cache.get(a);
+    cache.get(c);
+    assertEquals(2, cache.size(), "size");
+    assertEquals(1, cache.getEvictionCount(), "evictions");
+    cache.get(a);
+    assertEquals(2, cache.getHitCount(), "a still cached");
+    cache.get(b);
+    assertEquals(4, cache.getLoadCount(), "b got evicted");
+  }
+
+  @Test
+  public void testSingleFlight(@TempDir Path dir) throws Exception {
+    final ObjectPredictionsCache	cache;
+    final File				file;
+    final AtomicInteger			loads;
+    final CountDownLatch		started;
+    final CountDownLatch		latch;
+    final List<Thread>			threads;
+    ExecutorService			executor;
+    List<Future<ObjectPredictions>>	futures;
+    int					i;
+
+    file    = copy(dir, "a.json");
+    loads   = new AtomicInteger();
+    started = new CountDownLatch(1);
+    latch   = new CountDownLatch(1);
+    cache   = new ObjectPredictionsCache(1000, (File f) -> {
+      loads.incrementAndGet();
+      started.countDown();
+      latch.await();
+      return ObjectPredictions.newInstance(f);
+    }, ObjectPredictionsCache.DEFAULT_WEIGHER);
+
+    threads  = new ArrayList<>();
+    executor = Executors.newFixedThreadPool(4, (Runnable r) -> {
+      Thread thread = new Thread(r);
+      threads.add(thread);
+      return thread;
+    });
+    futures  = new ArrayList<>();
+    futures.add(executor.submit(() -> cache.get(file)));
+    started.await();
+    for (i = 1; i < 4; i++)
+      futures.add(executor.submit(() -> cache.get(file)));
+    // the other callers must be waiting for the load in progress
+    for (i = 1; i < threads.size(); i++)
+      awaitParked(threads.get(i));
+    latch.countDown();
+    for (i = 1; i < futures.size(); i++)
+      assertSame(futures.get(0).get(), futures.get(i).get(), "shared instance");
+    executor.shutdown();
+    assertEquals(1, loads.get(), "number of loads");
+  }
+
+  @Test
+  public void testLoaderError(@TempDir Path dir) throws Exception {
+    final ObjectPredictionsCache	cache;
+    final File				file;
+    final CountDownLatch		started;
+    final CountDownLatch		latch;
+    final List<Thread>			threads;
+    ExecutorService			executor;
+    List<Future<ObjectPredictions>>	futures;
+
+    file    = copy(dir, "a.json");
+    started = new CountDownLatch(1);
+    latch   = new CountDownLatch(1);
+    cache   = new ObjectPredictionsCache(1000, (File f) -> {
+      started.countDown();
+      latch.await();
+      throw new Error("load failed");
+    }, ObjectPredictionsCache.DEFAULT_WEIGHER);
+
+    threads  = new ArrayList<>();
+    executor = Executors.newFixedThreadPool(2, (Runnable r) -> {
+      Thread thread = new Thread(r);
+      threads.add(thread);
+      return thread;
+    });
+    futures  = new ArrayList<>();
+    futures.add(executor.submit(() -> cache.get(file)));
+    started.await();
+    futures.add(executor.submit(() -> cache.get(file)));
+    // the second caller must be waiting for the failing load
+    awaitParked(threads.get(1));
+    latch.countDown();
+    for (Future<ObjectPredictions> future: futures) {
+      try {
+	future.get(5, TimeUnit.SECONDS);
+	fail("error expected");
+      }
+      catch (ExecutionException e) {
+	assertEquals("load failed", e.getCause().getMessage(), "error");
+      }
+    }
+    executor.shutdown();
+    assertEquals(1, cache.getLoadCount(), "number of loads");
+  }
+
+  @Test
+  public void testStaleLoad(@TempDir Path dir) throws Exception {
+    final ObjectPredictionsCache	cache;
+    final File				file;
+    final AtomicInteger			loads;
+    final CountDownLatch		started;
+    final CountDownLatch		latch;
+    ExecutorService			executor;
+    Future<ObjectPredictions>		stale;
+    ObjectPredictions			current;
+
+    file    = copy(dir, "a.json");
+    loads   = new AtomicInteger();
+    started = new CountDownLatch(1);
+    latch   = new CountDownLatch(1);
+    cache   = new ObjectPredictionsCache(1000, (File f) -> {
+      ObjectPredictions result = ObjectPredictions.newInstance(f);
+      if (loads.incrementAndGet() == 1) {
+	started.countDown();
+	latch.await();
+      }
+      return result;
+    }, ObjectPredictionsCache.DEFAULT_WEIGHER);
+
+    executor = Executors.newSingleThreadExecutor();
+    stale    = executor.submit(() -> cache.get(file));
+    started.await();
+    Files.write(file.toPath(), ObjectPredictions.newInstance(file).toString(false).getBytes());
+    current = cache.get(file);
+    latch.countDown();
+    assertNotSame(current, stale.get(), "different versions");
+    executor.shutdown();
+    assertSame(current, cache.get(file), "newer version still cached");
+    assertEquals(1, cache.getHitCount(), "hits");
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * CocoWriterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the COCO reader/writer.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CocoWriterTest {
+
+  /** the temp directory. */
+  @TempDir
+  protected File m_TempDir;
+
+  /**
+   * Generates the test data.
+   *
+   * @param count	the number of predictions
+   * @return		the predictions
+   */
+  protected List<ObjectPredictions> generate(int count) {
+    WorkloadGenerator	generator;
+
+    generator = new WorkloadGenerator(42);
+    generator.setObjects(0, 5);
+    generator.setImageSize(640, 480);
+    generator.setObjectSize(10, 100);
+    generator.setShape(WorkloadGenerator.Shape.JITTERED);
+    generator.setScores(true);
+    generator.setMeta(2, 1, 8);
+    generator.setTimestamps(LocalDateTime.of(2023, 2, 28, 17, 0, 0), Duration.ofSeconds(1));
+    return generator.next(count);
+  }
+
+  @Test
+  public void testCocoRoundTrip() throws Exception {
+    List<ObjectPredictions>	preds;
+    List<ObjectPredictions>	read;
+    File			file;
+    CocoWriter			writer;
+    int				i;
+
+    preds  = generate(20);
+    file   = new File(m_TempDir, "coco.json");
+    writer = new CocoWriter(file);
+    writer.writeAll(preds);
+    writer.close();
+    assertEquals(20, writer.getImageCount(), "images");
+
+    read = CocoReader.read(file);
+    assertEquals(preds.size(), read.size(), "size");
+    // images without annotations get output first
+    Collections.sort(preds, (ObjectPredictions o1, ObjectPredictions o2) -> o1.getID().compareTo(o2.getID()));
+    Collections.sort(read, (ObjectPredictions o1, ObjectPredictions o2) -> o1.getID().compareTo(o2.getID()));
+    for (i = 0; i < preds.size(); i++)
+      assertEquals(preds.get(i).toString(), read.get(i).toString(), "predictions #" + i);
+  }
+
+  @Test
+  public void testCocoParallel() throws Exception {
+    File			file1;
+    File			file2;
+    List<ObjectPredictions>	read;
+
+    file1 = new File(m_TempDir, "1.json");
+    file2 = new File(m_TempDir, "2.json");
+    CocoWriter.write(generate(10), file1, new CategoryTable(1), ImageSizeProvider.fixed(640, 480));
+    CocoWriter.write(generate(15), file2, new CategoryTable(1), ImageSizeProvider.fixed(640, 480));
+    read = new ArrayList<>();
+    CocoReader.read(Arrays.asList(file1, file2), 2, read::add);
+    assertEquals(25, read.size(), "size");
+  }
+
+  @Test
+  public void testMissingImageID() throws Exception {
+    File	file;
+    IOException	e;
+
+    file = new File(m_TempDir, "missing.json");
+    Files.write(file.toPath(), ("{\"images\": [{\"id\": 1, \"file_name\": \"a.jpg\"}], "
+      + "\"categories\": [{\"id\": 1, \"name\": \"car\"}], "
+      + "\"annotations\": [{\"id\": 7, \"category_id\": 1, \"bbox\": [1, 2, 10, 10]}]}").getBytes(StandardCharsets.UTF_8));
+    e = assertThrows(IOException.class, () -> CocoReader.read(file));
+    assertTrue(e.getMessage().contains("image_id") && e.getMessage().contains("7"), e.getMessage());
+  }
+}
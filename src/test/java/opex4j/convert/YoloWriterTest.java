@@ -0,0 +1,169 @@
+/*
+ * YoloWriterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.convert;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Point;
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the YOLO reader/writer.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class YoloWriterTest {
+
+  /** the temp directory. */
+  @TempDir
+  protected File m_TempDir;
+
+  /**
+   * Generates the test data.
+   *
+   * @param count	the number of predictions
+   * @return		the predictions
+   */
+  protected List<ObjectPredictions> generate(int count) {
+    WorkloadGenerator	generator;
+
+    generator = new WorkloadGenerator(42);
+    generator.setObjects(0, 5);
+    generator.setImageSize(640, 480);
+    generator.setObjectSize(10, 100);
+    generator.setShape(WorkloadGenerator.Shape.JITTERED);
+    generator.setScores(true);
+    generator.setMeta(2, 1, 8);
+    generator.setTimestamps(LocalDateTime.of(2023, 2, 28, 17, 0, 0), Duration.ofSeconds(1));
+    return generator.next(count);
+  }
+
+  /**
+   * Writes the predictions and reads them back in.
+   *
+   * @param preds	the predictions to write
+   * @param polygons	whether to write polygons instead of bboxes
+   * @return		the predictions read back in
+   * @throws Exception	if writing/reading fails
+   */
+  protected List<ObjectPredictions> roundTrip(List<ObjectPredictions> preds, boolean polygons) throws Exception {
+    List<ObjectPredictions>	result;
+    YoloWriter			writer;
+    YoloReader			reader;
+    File			dir;
+    File			classes;
+
+    dir     = new File(m_TempDir, polygons ? "polygons" : "bboxes");
+    classes = new File(m_TempDir, polygons ? "polygons.txt" : "bboxes.txt");
+    dir.mkdir();
+    writer = new YoloWriter(dir, new CategoryTable(0), ImageSizeProvider.fixed(640, 480), polygons);
+    writer.writeAll(preds, 2);
+    writer.writeClasses(classes);
+
+    reader = new YoloReader(CategoryTable.read(classes, 0), ImageSizeProvider.fixed(640, 480));
+    result = new ArrayList<>();
+    reader.readAll(dir, 2, result::add);
+    return result;
+  }
+
+  /**
+   * Returns the predictions with the specified ID.
+   *
+   * @param preds	the predictions to search
+   * @param id		the ID to look for
+   * @return		the predictions, null if not found
+   */
+  protected ObjectPredictions find(List<ObjectPredictions> preds, String id) {
+    for (ObjectPredictions p: preds) {
+      if (p.getID().equals(id))
+	return p;
+    }
+    return null;
+  }
+
+  @Test
+  public void testBBoxes() throws Exception {
+    List<ObjectPredictions>	preds;
+    List<ObjectPredictions>	read;
+    ObjectPredictions		r;
+    ObjectPrediction		expected;
+    ObjectPrediction		actual;
+    BBox			e;
+    BBox			a;
+    int				n;
+
+    preds = generate(10);
+    read  = roundTrip(preds, false);
+    assertEquals(preds.size(), read.size(), "size");
+
+    for (ObjectPredictions p: preds) {
+      r = find(read, p.getID());
+      assertNotNull(r, p.getID());
+      assertEquals(p.getObjects().size(), r.getObjects().size(), "objects");
+      for (n = 0; n < r.getObjects().size(); n++) {
+	expected = p.getObjects().get(n);
+	actual   = r.getObjects().get(n);
+	assertEquals(expected.getLabel(), actual.getLabel(), "label");
+	assertEquals(expected.getScore(), actual.getScore(), 1e-6, "score");
+	e = expected.getBBox();
+	a = actual.getBBox();
+	assertTrue(Math.abs(e.getLeft() - a.getLeft()) <= 1, "left");
+	assertTrue(Math.abs(e.getTop() - a.getTop()) <= 1, "top");
+	assertTrue(Math.abs(e.getRight() - a.getRight()) <= 1, "right");
+	assertTrue(Math.abs(e.getBottom() - a.getBottom()) <= 1, "bottom");
+      }
+    }
+  }
+
+  @Test
+  public void testPolygons() throws Exception {
+    List<ObjectPredictions>	preds;
+    List<ObjectPredictions>	read;
+    ObjectPredictions		r;
+    ObjectPrediction		expected;
+    ObjectPrediction		actual;
+    List<Point>			e;
+    List<Point>			a;
+    int				n;
+    int				i;
+
+    preds = generate(10);
+    read  = roundTrip(preds, true);
+    assertEquals(preds.size(), read.size(), "size");
+
+    for (ObjectPredictions p: preds) {
+      r = find(read, p.getID());
+      assertNotNull(r, p.getID());
+      assertEquals(p.getObjects().size(), r.getObjects().size(), "objects");
+      for (n = 0; n < r.getObjects().size(); n++) {
+	expected = p.getObjects().get(n);
+	actual   = r.getObjects().get(n);
+	assertEquals(expected.getLabel(), actual.getLabel(), "label");
+	assertEquals(expected.getScore(), actual.getScore(), 1e-6, "score");
+	e = expected.getPolygon().getPoints();
+	a = actual.getPolygon().getPoints();
+	assertEquals(e.size(), a.size(), "points");
+	for (i = 0; i < e.size(); i++) {
+	  assertTrue(Math.abs(e.get(i).x - a.get(i).x) <= 1, "x #" + i);
+	  assertTrue(Math.abs(e.get(i).y - a.get(i).y) <= 1, "y #" + i);
+	}
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * AsyncIOTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link AsyncIO} class and the asynchronous methods of
+ * {@link ObjectPredictions}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class AsyncIOTest {
+
+  @Test
+  public void testBytes(@TempDir Path dir) throws Exception {
+    File			file;
+    byte[]			data;
+    CompletableFuture<byte[]>	missing;
+    CompletionException		e;
+    int				i;
+
+    file = dir.resolve("data.bin").toFile();
+    data = new byte[300000];
+    for (i = 0; i < data.length; i++)
+      data[i] = (byte) i;
+    AsyncIO.write(file, data).join();
+    assertArrayEquals(data, AsyncIO.read(file).join());
+    AsyncIO.write(file, new byte[0]).join();
+    assertEquals(0, AsyncIO.read(file).join().length);
+
+    file = dir.resolve("missing.bin").toFile();
+    missing = AsyncIO.read(file);
+    e       = assertThrows(CompletionException.class, missing::join);
+    assertTrue(e.getCause() instanceof NoSuchFileException, e.getCause().toString());
+  }
+
+  @Test
+  public void testPredictions(@TempDir Path dir) throws Exception {
+    WorkloadGenerator			generator;
+    List<ObjectPredictions>		preds;
+    List<CompletableFuture<Void>>	written;
+    List<CompletableFuture<ObjectPredictions>>	read;
+    CompletableFuture<ObjectPredictions>	invalid;
+    ExecutorService			executor;
+    final AtomicInteger			tasks;
+    int					i;
+
+    generator = new WorkloadGenerator(11);
+    generator.setMeta(2, 1, 8);
+    preds    = generator.next(40);
+    executor = Executors.newFixedThreadPool(4);
+    tasks    = new AtomicInteger();
+    try {
+      written = new ArrayList<>();
+      for (i = 0; i < preds.size(); i++)
+	written.add(preds.get(i).writeAsync(dir.resolve(i + ((i % 2 == 0) ? ".json" : ".json.gz")).toFile()));
+      CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).join();
+
+      read = new ArrayList<>();
+      for (i = 0; i < preds.size(); i++)
+	read.add(ObjectPredictions.newInstanceAsync(dir.resolve(i + ((i % 2 == 0) ? ".json" : ".json.gz")).toFile(), (Runnable r) -> {
+	  tasks.incrementAndGet();
+	  executor.execute(r);
+	}));
+      for (i = 0; i < preds.size(); i++) {
+	assertEquals(preds.get(i), read.get(i).join(), "#" + i);
+	assertEquals(preds.get(i), ObjectPredictions.newInstance(dir.resolve(i + ((i % 2 == 0) ? ".json" : ".json.gz")).toFile()), "#" + i);
+      }
+      assertTrue(tasks.get() >= 2 * preds.size(), "tasks: " + tasks.get());
+    }
+    finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    AsyncIO.write(dir.resolve("invalid.json").toFile(), "{\"objects\": []}".getBytes(StandardCharsets.UTF_8)).join();
+    invalid = ObjectPredictions.newInstanceAsync(dir.resolve("invalid.json").toFile());
+    assertThrows(CompletionException.class, invalid::join);
+  }
+
+  @Test
+  public void testCharset(@TempDir Path dir) throws Exception {
+    ObjectPredictions	preds;
+    File		sync;
+    File		async;
+
+    preds = new ObjectPredictions(null, "k\u00e4se", Arrays.asList(
+      new ObjectPrediction("\u00e9t\u00e9 \u65e5\u672c", new BBox(1, 1, 10, 10))));
+    sync  = dir.resolve("sync.json").toFile();
+    async = dir.resolve("async.json").toFile();
+    preds.write(sync, false);
+    preds.writeAsync(async, false, new Compression.Options(), null, AsyncIO.getDefaultExecutor()).join();
+    assertArrayEquals(preds.toString(false).getBytes(StandardCharsets.UTF_8), Files.readAllBytes(sync.toPath()), "sync");
+    assertArrayEquals(Files.readAllBytes(sync.toPath()), Files.readAllBytes(async.toPath()), "async");
+    assertEquals(preds, ObjectPredictions.newInstanceAsync(sync).join());
+    assertEquals(preds, ObjectPredictions.newInstance(async));
+  }
+}
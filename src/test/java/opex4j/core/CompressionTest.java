@@ -0,0 +1,96 @@
+/*
+ * CompressionTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.ObjectPredictions;
+import opex4j.io.JsonLinesReader;
+import opex4j.io.JsonLinesWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link Compression} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompressionTest {
+
+  @TempDir
+  public Path tmpDir;
+
+  /**
+   * Returns the compression type of the file, as detected from the magic bytes.
+   *
+   * @param file	the file to check
+   * @return		the type
+   * @throws Exception	if reading fails
+   */
+  protected Compression.Type detect(File file) throws Exception {
+    try (InputStream in = new FileInputStream(file)) {
+      return Compression.detect(in.read(), in.read());
+    }
+  }
+
+  @Test
+  public void testDocument() throws Exception {
+    ObjectPredictions	preds;
+    File		plain;
+    File		gzip;
+    File		deflate;
+
+    preds   = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    plain   = tmpDir.resolve("simple.json").toFile();
+    gzip    = tmpDir.resolve("simple.json.gz").toFile();
+    deflate = tmpDir.resolve("simple.json.bin").toFile();
+    preds.write(plain);
+    preds.write(gzip);
+    preds.write(deflate, true, new Compression.Options().setType(Compression.Type.DEFLATE).setLevel(9).setBufferSize(512));
+
+    assertEquals(Compression.Type.NONE, detect(plain));
+    assertEquals(Compression.Type.GZIP, detect(gzip));
+    assertEquals(Compression.Type.DEFLATE, detect(deflate));
+    assertTrue(gzip.length() < plain.length());
+
+    assertEquals(preds.toString(), ObjectPredictions.newInstance(plain).toString());
+    assertEquals(preds.toString(), ObjectPredictions.newInstance(gzip).toString());
+    assertEquals(preds.toString(), ObjectPredictions.newInstance(deflate, 512).toString());
+    assertEquals(preds.toString(), ObjectPredictions.newInstanceMapped(gzip).toString());
+    try (InputStream in = new FileInputStream(deflate)) {
+      assertEquals(preds.toString(), ObjectPredictions.newInstance(in).toString());
+    }
+  }
+
+  @Test
+  public void testJsonLines() throws Exception {
+    ObjectPredictions	preds;
+    File		file;
+    JsonLinesReader	reader;
+    int			i;
+
+    preds = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    file  = tmpDir.resolve("preds.jsonl.gz").toFile();
+    try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+      for (i = 0; i < 100; i++)
+	writer.write(preds);
+    }
+    assertEquals(Compression.Type.GZIP, detect(file));
+
+    reader = new JsonLinesReader(file, 1024);
+    for (i = 0; i < 100; i++)
+      assertEquals(preds.toString(), reader.read().toString(), "line " + i);
+    assertNull(reader.read());
+    reader.close();
+  }
+}
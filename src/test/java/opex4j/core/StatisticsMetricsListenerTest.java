@@ -0,0 +1,111 @@
+/*
+ * StatisticsMetricsListenerTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link StatisticsMetricsListener} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class StatisticsMetricsListenerTest {
+
+  @AfterEach
+  public void tearDown() {
+    Metrics.setListener(null);
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    StatisticsMetricsListener	listener;
+    File			file;
+    InputStream			stream;
+
+    listener = new StatisticsMetricsListener();
+    Metrics.setListener(listener);
+    file = new File("src/test/resources/opex4j/simple.json");
+    ObjectPredictions.newInstance(file);
+    stream = getClass().getClassLoader().getResourceAsStream("opex4j/simple.json");
+    ObjectPredictions.newInstance(stream);
+    stream.close();
+
+    assertEquals(2, listener.getDocumentsRead(), "documents");
+    assertEquals(4, listener.getObjectsRead(), "objects");
+    assertEquals(16, listener.getVerticesRead(), "vertices");
+    assertEquals(2 * file.length(), listener.getBytesRead(), "bytes");
+    assertEquals(2, listener.getParseLatency().getCount(), "parse latencies");
+    assertEquals(2, listener.getBuildLatency().getCount(), "build latencies");
+    assertEquals(0, listener.getTimestampFallbacks(), "fallbacks");
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    StatisticsMetricsListener	listener;
+    ObjectPredictions		preds;
+    ByteArrayOutputStream	stream;
+
+    preds    = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    listener = new StatisticsMetricsListener();
+    Metrics.setListener(listener);
+    stream = new ByteArrayOutputStream();
+    preds.write(stream, false);
+
+    assertEquals(1, listener.getDocumentsWritten(), "documents");
+    assertEquals(2, listener.getObjectsWritten(), "objects");
+    assertEquals(8, listener.getVerticesWritten(), "vertices");
+    assertEquals(stream.size(), listener.getBytesWritten(), "bytes");
+    assertEquals(1, listener.getSerializeLatency().getCount(), "serialize latencies");
+  }
+
+  @Test
+  public void testTimestamps() throws Exception {
+    StatisticsMetricsListener	listener;
+    TimestampCodec.ErrorHandler	handler;
+
+    listener = new StatisticsMetricsListener();
+    Metrics.setListener(listener);
+    handler  = TimestampCodec.getDefaultErrorHandler();
+    TimestampCodec.setDefaultErrorHandler(TimestampCodec.IGNORE);
+    try {
+      ObjectPredictions.newInstance("{\"timestamp\": \"2023-02-28 17:03:12.123456\", \"id\": \"1\", \"objects\": []}");
+      ObjectPredictions.newInstance("{\"timestamp\": \"yesterday\", \"id\": \"1\", \"objects\": []}");
+    }
+    finally {
+      TimestampCodec.setDefaultErrorHandler(handler);
+    }
+    assertEquals(1, listener.getTimestampFallbacks(), "fallbacks");
+    assertEquals(1, listener.getTimestampFailures(), "failures");
+  }
+
+  @Test
+  public void testHistogram() {
+    LatencyHistogram	histogram;
+    int			i;
+    long		p50;
+    long		p99;
+
+    histogram = new LatencyHistogram();
+    for (i = 1; i <= 10000; i++)
+      histogram.record(i * 1000L);
+    assertEquals(10000, histogram.getCount(), "count");
+    assertEquals(10000000L, histogram.getMax(), "max");
+    p50 = histogram.getPercentile(50);
+    p99 = histogram.getPercentile(99);
+    assertTrue(Math.abs(p50 - 5000000L) < 5000000L * 0.04, "p50: " + p50);
+    assertTrue(Math.abs(p99 - 9900000L) < 9900000L * 0.04, "p99: " + p99);
+    assertEquals(5000500.0, histogram.getMean(), 0.001, "mean");
+  }
+}
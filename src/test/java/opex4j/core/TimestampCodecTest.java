@@ -0,0 +1,84 @@
+/*
+ * TimestampCodecTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the {@link TimestampCodec} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class TimestampCodecTest {
+
+  @Test
+  public void testDetect() {
+    assertEquals(TimestampCodec.Format.COMPACT, TimestampCodec.detect("20230228_170312.123456"), "compact");
+    assertEquals(TimestampCodec.Format.ALT, TimestampCodec.detect("2023-02-28 17:03:12.123456"), "alt");
+    assertEquals(TimestampCodec.Format.ISO, TimestampCodec.detect("2023-02-28T17:03:12Z"), "iso");
+    assertEquals(TimestampCodec.Format.EPOCH_MILLIS, TimestampCodec.detect("1677603792123"), "millis");
+    assertEquals(TimestampCodec.Format.UNKNOWN, TimestampCodec.detect("yesterday"), "unknown");
+    assertEquals(TimestampCodec.Format.UNKNOWN, TimestampCodec.detect(""), "empty");
+  }
+
+  @Test
+  public void testParse() {
+    LocalDateTime	expected;
+
+    expected = LocalDateTime.of(2023, 2, 28, 17, 3, 12, 123456000);
+    assertEquals(expected, TimestampCodec.parse("20230228_170312.123456"), "compact");
+    assertEquals(expected, TimestampCodec.parse("2023-02-28 17:03:12.123456"), "alt");
+    assertEquals(expected, TimestampCodec.parse("2023-02-28T17:03:12.123456"), "iso");
+    assertEquals(expected, TimestampCodec.parse("2023-02-28T19:03:12.123456+02:00"), "iso with offset");
+    assertEquals(LocalDateTime.of(2023, 2, 28, 17, 3, 12, 123000000), TimestampCodec.parse("1677603792123"), "millis");
+    assertEquals(LocalDateTime.of(2023, 2, 28, 17, 3, 12), TimestampCodec.parse("20230228_170312"), "no fraction");
+    assertEquals(LocalDateTime.of(2023, 2, 28, 17, 3), TimestampCodec.parse("2023-02-28T17:03Z"), "iso without seconds");
+    assertEquals(
+      LocalDateTime.parse("20230228_170312.123456", ObjectPredictions.TIMESTAMP_FORMATTER),
+      TimestampCodec.parse("20230228_170312.123456"), "same as formatter");
+  }
+
+  @Test
+  public void testFailures() {
+    final List<String>		errors;
+    TimestampCodec.ErrorHandler	handler;
+
+    errors  = new ArrayList<>();
+    handler = (CharSequence timestamp, String reason) -> errors.add(timestamp.toString());
+    assertNull(TimestampCodec.parse("20230230_170312.123456", handler), "invalid day");
+    assertNull(TimestampCodec.parse("20230228_250312.123456", handler), "invalid hour");
+    assertNull(TimestampCodec.parse("2023-02-28 17:03:12.", handler), "empty fraction");
+    assertNull(TimestampCodec.parse("2023-02-28 17:03:12.123456x", handler), "trailing characters");
+    assertNull(TimestampCodec.parse("2023/02/28 17:03:12", handler), "unknown format");
+    assertEquals(5, errors.size(), "number of errors");
+    assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), TimestampCodec.parse("20240229_000000", handler), "leap year");
+  }
+
+  @Test
+  public void testDefaultErrorHandler() {
+    assertSame(TimestampCodec.IGNORE, TimestampCodec.getDefaultErrorHandler(), "default");
+    assertNull(TimestampCodec.parse("yesterday"), "unknown format");
+  }
+
+  @Test
+  public void testFormat() {
+    LocalDateTime	timestamp;
+
+    timestamp = LocalDateTime.of(2023, 2, 28, 7, 3, 2, 12345678);
+    assertEquals(ObjectPredictions.TIMESTAMP_FORMATTER.format(timestamp), TimestampCodec.format(timestamp), "compact");
+    assertEquals(ObjectPredictions.TIMESTAMP_FORMATTER_ALT.format(timestamp), TimestampCodec.format(timestamp, true), "alt");
+    assertEquals(timestamp.withNano(12345000), TimestampCodec.parse(TimestampCodec.format(timestamp)), "round trip");
+  }
+}
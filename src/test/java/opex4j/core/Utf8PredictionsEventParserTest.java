@@ -0,0 +1,244 @@
+/*
+ * Utf8PredictionsEventParserTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link Utf8PredictionsEventParser} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Utf8PredictionsEventParserTest {
+
+  /**
+   * Records the events as text.
+   */
+  public static class Recorder
+    extends PredictionsVisitorAdapter {
+
+    /** the recorded events. */
+    public StringBuilder events = new StringBuilder();
+
+    /** the collected meta-data (sorted). */
+    public Map<String,String> meta = new TreeMap<>();
+
+    /** the labels to skip. */
+    public String skip;
+
+    /**
+     * Outputs the collected meta-data.
+     */
+    protected void flushMeta() {
+      if (!meta.isEmpty())
+	events.append(" meta=").append(meta);
+      meta.clear();
+    }
+
+    @Override
+    public void onDocumentStart(String id, LocalDateTime timestamp) {
+      events.append("doc ").append(id).append(" ").append(timestamp);
+    }
+
+    @Override
+    public boolean onObject(String label, double score, int left, int top, int right, int bottom) {
+      flushMeta();
+      events.append("\n obj ").append(label).append(" ").append(score).append(" ")
+	.append(left).append(",").append(top).append(",").append(right).append(",").append(bottom).append(" points:");
+      return !label.equals(skip);
+    }
+
+    @Override
+    public void onPolygonPoint(int x, int y) {
+      events.append(" ").append(x).append(",").append(y);
+    }
+
+    @Override
+    public void onMeta(String key, String value) {
+      meta.put(key, value);
+    }
+
+    @Override
+    public void onObjectEnd() {
+      flushMeta();
+      events.append(" /obj");
+    }
+
+    @Override
+    public void onDocumentEnd() {
+      flushMeta();
+      events.append("\n/doc\n");
+    }
+  }
+
+  /**
+   * Generates the expected events from the predictions.
+   *
+   * @param preds	the predictions
+   * @return		the events
+   */
+  protected String expected(ObjectPredictions preds) {
+    Recorder	recorder;
+
+    recorder = new Recorder();
+    recorder.onDocumentStart(preds.getID(), preds.getTimestamp());
+    for (ObjectPrediction obj: preds.getObjects()) {
+      recorder.onObject(obj.getLabel(), (obj.getScore() == null) ? Double.NaN : obj.getScore(),
+	obj.getBBox().getLeft(), obj.getBBox().getTop(), obj.getBBox().getRight(), obj.getBBox().getBottom());
+      for (Point p: obj.getPolygon().getPoints())
+	recorder.onPolygonPoint(p.x, p.y);
+      recorder.meta.putAll(obj.getMeta());
+      recorder.onObjectEnd();
+    }
+    recorder.meta.putAll(preds.getMeta());
+    recorder.onDocumentEnd();
+    return recorder.events.toString();
+  }
+
+  /**
+   * Parses the JSON and returns the events.
+   *
+   * @param parser	the parser to use
+   * @param json	the JSON to parse
+   * @return		the events
+   * @throws IOException	if parsing fails
+   */
+  protected String parse(Utf8PredictionsEventParser parser, String json) throws IOException {
+    Recorder	recorder;
+
+    recorder = new Recorder();
+    parser.parse(json.getBytes(StandardCharsets.UTF_8), recorder);
+    return recorder.events.toString();
+  }
+
+  @Test
+  public void testGenerated() throws Exception {
+    WorkloadGenerator		generator;
+    Utf8PredictionsEventParser	parser;
+    List<ObjectPredictions>	preds;
+    Recorder			recorder;
+    StringBuilder		expected;
+    StringBuilder		lines;
+
+    generator = new WorkloadGenerator(1);
+    generator.setMeta(3, 2, 8);
+    preds    = generator.next(20);
+    parser   = new Utf8PredictionsEventParser();
+    expected = new StringBuilder();
+    lines    = new StringBuilder();
+    for (ObjectPredictions p: preds) {
+      assertEquals(expected(p), parse(parser, p.toString(true)), p.getID());
+      expected.append(expected(p));
+      lines.append(p.toString(false)).append("\n");
+    }
+
+    recorder = new Recorder();
+    assertEquals(20, parser.parseAll(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)), recorder));
+    assertEquals(expected.toString(), recorder.events.toString());
+  }
+
+  @Test
+  public void testFieldOrder() throws Exception {
+    Utf8PredictionsEventParser	parser;
+    String			reordered;
+    String			canonical;
+    String			lateScore;
+
+    canonical = "{\"timestamp\": \"20230228_170312.123456\", \"id\": \"x\", \"objects\": ["
+      + "{\"score\": 0.5, \"label\": \"a\", \"bbox\": {\"left\": 1, \"top\": 2, \"right\": 3, \"bottom\": 4}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}, \"meta\": {\"k\": \"v\"}},"
+      + "{\"label\": \"b\", \"bbox\": {\"left\": 5, \"top\": 6, \"right\": 7, \"bottom\": 8}, \"polygon\": {\"points\": [[5, 6], [7, 6], [7, 8]]}}"
+      + "], \"meta\": {\"m\": \"1\"}}";
+    reordered = "{\"meta\": {\"m\": \"1\"}, \"objects\": ["
+      + "{\"meta\": {\"k\": \"v\"}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}, \"label\": \"a\", \"bbox\": {\"left\": 1, \"top\": 2, \"right\": 3, \"bottom\": 4}, \"score\": 0.5},"
+      + "{\"polygon\": {\"points\": [[5, 6], [7, 6], [7, 8]]}, \"bbox\": {\"left\": 5, \"top\": 6, \"right\": 7, \"bottom\": 8}, \"label\": \"b\"}"
+      + "], \"id\": \"x\", \"timestamp\": \"20230228_170312.123456\"}";
+    lateScore = "{\"id\": \"x\", \"objects\": ["
+      + "{\"label\": \"a\", \"bbox\": {\"left\": 1, \"top\": 2, \"right\": 3, \"bottom\": 4}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}, \"score\": 0.5}"
+      + "]}";
+
+    parser = new Utf8PredictionsEventParser();
+    assertEquals(expected(ObjectPredictions.newInstance(canonical)), parse(parser, canonical), "canonical");
+    assertEquals(expected(ObjectPredictions.newInstance(reordered)), parse(parser, reordered), "reordered");
+    assertThrows(IOException.class, () -> parse(parser, lateScore));
+
+    parser.setAnyOrder(true);
+    assertEquals(expected(ObjectPredictions.newInstance(canonical)), parse(parser, canonical), "canonical, any order");
+    assertEquals(expected(ObjectPredictions.newInstance(reordered)), parse(parser, reordered), "reordered");
+    assertEquals(expected(ObjectPredictions.newInstance(lateScore)), parse(parser, lateScore), "late score");
+  }
+
+  @Test
+  public void testSkip() throws Exception {
+    Utf8PredictionsEventParser	parser;
+    Recorder			recorder;
+    String			json;
+
+    json = "{\"id\": \"x\", \"objects\": ["
+      + "{\"label\": \"a\", \"bbox\": {\"left\": 1, \"top\": 2, \"right\": 3, \"bottom\": 4}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}, \"meta\": {\"k\": \"v\"}},"
+      + "{\"label\": \"b\", \"bbox\": {\"left\": 5, \"top\": 6, \"right\": 7, \"bottom\": 8}, \"polygon\": {\"points\": [[5, 6], [7, 6], [7, 8]]}}"
+      + "]}";
+    parser   = new Utf8PredictionsEventParser();
+    recorder = new Recorder();
+    recorder.skip = "a";
+    parser.parse(json.getBytes(StandardCharsets.UTF_8), recorder);
+    assertEquals("doc x null\n obj a NaN 1,2,3,4 points: /obj\n obj b NaN 5,6,7,8 points: 5,6 7,6 7,8 /obj\n/doc\n", recorder.events.toString());
+  }
+
+  @Test
+  public void testCompact() throws Exception {
+    WorkloadGenerator		generator;
+    Utf8PredictionsEventParser	parser;
+
+    generator = new WorkloadGenerator(5);
+    generator.setMeta(2, 1, 8);
+    parser = new Utf8PredictionsEventParser();
+    for (WorkloadGenerator.Shape shape: WorkloadGenerator.Shape.values()) {
+      generator.setShape(shape);
+      for (ObjectPredictions p: generator.next(5))
+	assertEquals(expected(p), parse(parser, p.toString(false, JsonOptions.compact())), shape + "/" + p.getID());
+    }
+    assertEquals("doc x null\n/doc\n", parse(parser, "{\"id\": \"x\"}"));
+    assertEquals("doc x null\n obj a NaN 1,2,3,4 points: 1,2 3,2 3,4 1,4 meta={k=v} /obj\n/doc\n",
+      parse(parser, "{\"id\": \"x\", \"objects\": [{\"label\": \"a\", \"bbox\": {\"left\": 1, \"top\": 2, \"right\": 3, \"bottom\": 4}, \"meta\": {\"k\": \"v\"}}]}"));
+  }
+
+  @Test
+  public void testSortedKeys() throws Exception {
+    Utf8PredictionsEventParser	parser;
+    String			sorted;
+    String			sortedScore;
+
+    sorted = "{\"id\": \"x\", \"objects\": ["
+      + "{\"bbox\": {\"bottom\": 4, \"left\": 1, \"right\": 3, \"top\": 2}, \"label\": \"a\", \"meta\": {\"k\": \"v\"}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}}"
+      + "]}";
+    sortedScore = "{\"id\": \"x\", \"meta\": {\"m\": \"1\"}, \"objects\": ["
+      + "{\"bbox\": {\"bottom\": 4, \"left\": 1, \"right\": 3, \"top\": 2}, \"label\": \"a\", \"meta\": {\"k\": \"v\"}, \"polygon\": {\"points\": [[1, 2], [3, 2], [3, 4]]}, \"score\": 0.5}"
+      + "], \"timestamp\": \"20230228_170312.123456\"}";
+
+    parser = new Utf8PredictionsEventParser();
+    assertEquals(expected(ObjectPredictions.newInstance(sorted)), parse(parser, sorted), "sorted");
+    assertEquals("doc x null\n obj a NaN 1,2,3,4 points: 1,2 3,2 3,4 meta={k=v} /obj\n/doc\n", parse(parser, sorted));
+
+    parser.setAnyOrder(true);
+    assertEquals(expected(ObjectPredictions.newInstance(sorted)), parse(parser, sorted), "sorted, any order");
+    assertEquals(expected(ObjectPredictions.newInstance(sortedScore)), parse(parser, sortedScore), "sorted with score, any order");
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Utf8PredictionsParserTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.core;
+
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link Utf8PredictionsParser} and {@link Utf8JsonTokenizer} classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Utf8PredictionsParserTest {
+
+  @Test
+  public void testSameAsGson() throws Exception {
+    WorkloadGenerator		generator;
+    ObjectPredictions		preds;
+    Utf8PredictionsParser	parser;
+    ByteBuffer			direct;
+    byte[]			data;
+    int				i;
+
+    generator = new WorkloadGenerator(3);
+    generator.setScores(true);
+    generator.setMeta(3, 2, 10);
+    generator.setTimestamps(LocalDateTime.of(2023, 2, 28, 17, 0, 0), Duration.ofMillis(33));
+    parser = new Utf8PredictionsParser();
+    for (i = 0; i < 50; i++) {
+      preds = generator.next();
+      data  = preds.toString(i % 2 == 0).getBytes(StandardCharsets.UTF_8);
+      assertEquals(preds.toString(), parser.parse(data).toString(), "heap #" + i);
+      direct = ByteBuffer.allocateDirect(data.length);
+      direct.put(data);
+      ((java.nio.Buffer) direct).flip();
+      assertEquals(preds.toString(), ObjectPredictions.newInstance(direct).toString(), "direct #" + i);
+      assertEquals(0, direct.position(), "position unchanged");
+    }
+
+    assertEquals(
+      ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json")).toString(),
+      ObjectPredictions.newInstanceMapped(new File("src/test/resources/opex4j/simple.json")).toString(),
+      "mapped");
+  }
+
+  @Test
+  public void testStrings() throws Exception {
+    ObjectPredictions	preds;
+
+    preds = ObjectPredictions.newInstance(("{\"id\": \"a\\\"b\\u00e9\", \"objects\": [], "
+      + "\"meta\": {\"k\\n\": \"café \\/ 中\", \"n\": 12.5, \"b\": true}, \"extra\": [1, {\"x\": [2]}]}").getBytes(StandardCharsets.UTF_8));
+    assertEquals("a\"bé", preds.getID(), "id");
+    assertEquals("café / 中", preds.getMeta().get("k\n"), "unicode");
+    assertEquals("12.5", preds.getMeta().get("n"), "number");
+    assertEquals("true", preds.getMeta().get("b"), "boolean");
+  }
+
+  @Test
+  public void testNumbers() throws Exception {
+    Utf8JsonTokenizer	tokenizer;
+    Random		rnd;
+    String		s;
+    double		d;
+    int			i;
+
+    rnd = new Random(42);
+    for (i = 0; i < 10000; i++) {
+      switch (i % 4) {
+	case 0:
+	  d = rnd.nextDouble();
+	  break;
+	case 1:
+	  d = rnd.nextGaussian() * 1e6;
+	  break;
+	case 2:
+	  d = Math.round(rnd.nextDouble() * 1000) / 1000.0;
+	  break;
+	default:
+	  d = rnd.nextDouble() * Math.pow(10, rnd.nextInt(40) - 20);
+      }
+      s         = Double.toString(d);
+      tokenizer = new Utf8JsonTokenizer(s.getBytes(StandardCharsets.US_ASCII));
+      tokenizer.next();
+      assertEquals(Double.parseDouble(s), tokenizer.getDouble(), s);
+    }
+
+    tokenizer = new Utf8JsonTokenizer("[-12, 3.0, 1e3, -0.0]".getBytes(StandardCharsets.US_ASCII));
+    tokenizer.next();
+    tokenizer.next();
+    assertEquals(-12, tokenizer.getInt(), "int");
+    tokenizer.next();
+    assertEquals(3, tokenizer.getInt(), "int from double");
+    tokenizer.next();
+    assertEquals(1000L, tokenizer.getLong(), "long from exponent");
+    tokenizer.next();
+    assertEquals(-0.0, tokenizer.getDouble(), "negative zero");
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IOException.class, () -> ObjectPredictions.newInstance("{\"id\": \"1\", \"objects\": [".getBytes(StandardCharsets.UTF_8)));
+    assertThrows(IOException.class, () -> ObjectPredictions.newInstance("{\"objects\": []}".getBytes(StandardCharsets.UTF_8)));
+    assertThrows(IOException.class, () -> ObjectPredictions.newInstance("{\"id\": x}".getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * DeltaWriterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.delta;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.generator.WorkloadGenerator;
+import opex4j.io.JsonLinesWriter;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link DeltaWriter} and {@link DeltaReader} classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DeltaWriterTest {
+
+  /**
+   * Moves the object.
+   *
+   * @param obj		the object to move
+   * @param dx		the horizontal offset
+   * @param dy		the vertical offset
+   * @return		the moved object
+   */
+  protected ObjectPrediction move(ObjectPrediction obj, int dx, int dy) {
+    BBox	bbox;
+    List<Point>	points;
+
+    bbox   = obj.getBBox();
+    points = new ArrayList<>();
+    for (Point p: obj.getPolygon().getPoints())
+      points.add(new Point(p.x + dx, p.y + dy));
+    return new ObjectPrediction(obj.getLabel(), obj.getScore(),
+      new BBox(bbox.getLeft() + dx, bbox.getTop() + dy, bbox.getRight() + dx, bbox.getBottom() + dy),
+      new Polygon(points), obj.getMeta());
+  }
+
+  /**
+   * Generates a video-like sequence of frames.
+   *
+   * @param count	the number of frames
+   * @return		the frames
+   */
+  protected List<ObjectPredictions> generate(int count) {
+    List<ObjectPredictions>	result;
+    WorkloadGenerator		generator;
+    ObjectPredictions		prev;
+    List<ObjectPrediction>	objects;
+    Map<String,String>		meta;
+    ObjectPrediction		obj;
+    Random			rnd;
+    int				i;
+    int				n;
+
+    rnd       = new Random(1);
+    generator = new WorkloadGenerator(1);
+    generator.setObjects(5, 10);
+    generator.setScores(true);
+    generator.setMeta(1, 1, 6);
+    generator.setTimestamps(LocalDateTime.of(2023, 2, 28, 17, 0, 0), Duration.ofMillis(40));
+    result = new ArrayList<>();
+    prev   = generator.next();
+    result.add(prev);
+    for (i = 1; i < count; i++) {
+      objects = new ArrayList<>();
+      for (n = 0; n < prev.getObjects().size(); n++) {
+	obj = prev.getObjects().get(n);
+	switch (rnd.nextInt(10)) {
+	  case 0:
+	    break;  // removed
+	  case 1:
+	    objects.add(new ObjectPrediction(obj.getLabel(), null, obj.getBBox(), obj.getBBox().toPolygon(), null));
+	    break;
+	  case 2:
+	    objects.add(new ObjectPrediction(obj.getLabel(), 0.5, obj.getBBox(), obj.getPolygon(), obj.getMeta()));
+	    break;
+	  case 3:
+	  case 4:
+	    objects.add(obj);
+	    break;
+	  default:
+	    objects.add(move(obj, rnd.nextInt(5) - 2, rnd.nextInt(5) - 2));
+	}
+      }
+      if (rnd.nextInt(5) == 0)
+	objects.add(generator.next().getObjects().get(0));
+      meta = prev.getMeta();
+      if (rnd.nextInt(10) == 0) {
+	meta = new HashMap<>(meta);
+	meta.put("frame", "" + i);
+      }
+      prev = new ObjectPredictions(prev.getTimestamp().plusNanos(40000000 + 1000 * rnd.nextInt(3)), "frame-" + i, objects, meta);
+      result.add(prev);
+    }
+    return result;
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    List<ObjectPredictions>	frames;
+    StringWriter		swriter;
+    StringWriter		splain;
+    DeltaWriter			writer;
+    JsonLinesWriter		plain;
+    DeltaReader			reader;
+    int				i;
+
+    frames  = generate(200);
+    swriter = new StringWriter();
+    writer  = new DeltaWriter(swriter, 50);
+    writer.writeAll(frames);
+    writer.close();
+    assertEquals(200, writer.getCount(), "frames");
+    assertEquals(4, writer.getEncoder().getKeyframeCount(), "keyframes");
+
+    splain = new StringWriter();
+    plain  = new JsonLinesWriter(splain);
+    plain.writeAll(frames);
+    plain.close();
+    assertTrue(swriter.toString().length() * 2 < splain.toString().length(), "at least half the size");
+
+    reader = new DeltaReader(new StringReader(swriter.toString()));
+    for (i = 0; i < frames.size(); i++)
+      assertEquals(frames.get(i).toString(), reader.read().toString(), "frame #" + i);
+    assertNull(reader.read(), "end");
+    reader.close();
+  }
+
+  @Test
+  public void testStartMidStream() throws Exception {
+    List<ObjectPredictions>	frames;
+    StringWriter		swriter;
+    DeltaWriter			writer;
+    DeltaReader			reader;
+    String			content;
+
+    frames  = generate(25);
+    swriter = new StringWriter();
+    writer  = new DeltaWriter(swriter, 10);
+    writer.writeAll(frames);
+    writer.close();
+
+    // skip the first 3 lines
+    content = swriter.toString();
+    content = content.substring(content.indexOf('\n', content.indexOf('\n', content.indexOf('\n') + 1) + 1) + 1);
+    reader  = new DeltaReader(new StringReader(content));
+    assertEquals(frames.get(10).toString(), reader.read().toString(), "first keyframe");
+    assertEquals(7, reader.getSkipped(), "skipped");
+    assertEquals(frames.get(11).toString(), reader.read().toString(), "next frame");
+    reader.close();
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * EnsembleMergerTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.ensemble;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link EnsembleMerger} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class EnsembleMergerTest {
+
+  /**
+   * Creates an object.
+   *
+   * @param label	the label
+   * @param score	the score
+   * @param left	the left coordinate
+   * @param top		the top coordinate
+   * @param size	the width/height
+   * @return		the object
+   */
+  protected ObjectPrediction create(String label, double score, int left, int top, int size) {
+    BBox	bbox;
+
+    bbox = new BBox(left, top, left + size - 1, top + size - 1);
+    return new ObjectPrediction(label, score, bbox, bbox.toPolygon(), null);
+  }
+
+  /**
+   * Creates predictions.
+   *
+   * @param objects	the objects
+   * @return		the predictions
+   */
+  protected ObjectPredictions create(ObjectPrediction... objects) {
+    return new ObjectPredictions(null, "frame", new ArrayList<>(Arrays.asList(objects)));
+  }
+
+  @Test
+  public void testWeightedBoxFusion() {
+    EnsembleMerger	merger;
+    ObjectPredictions	fused;
+    ObjectPrediction	obj;
+
+    merger = new EnsembleMerger().addSource("a").addSource("b");
+    fused  = merger.merge(
+      create(create("person", 0.8, 100, 100, 50), create("car", 0.9, 300, 300, 40)),
+      create(create("person", 0.8, 104, 104, 50)));
+    assertEquals(2, fused.getObjects().size(), "number of objects");
+
+    obj = fused.getObjects().get(0);
+    assertEquals("person", obj.getLabel(), "label");
+    assertEquals(0.8, obj.getScore(), 1e-6, "score");
+    assertEquals(102, obj.getBBox().getLeft(), "left");
+    assertEquals(151, obj.getBBox().getBottom(), "bottom");
+    assertEquals("a,b", obj.getMeta().get(EnsembleMerger.META_SOURCES), "sources");
+    assertEquals("2", obj.getMeta().get(EnsembleMerger.META_VOTES), "votes");
+
+    obj = fused.getObjects().get(1);
+    assertEquals("car", obj.getLabel(), "label");
+    assertEquals(0.45, obj.getScore(), 1e-6, "score halved, only one source");
+  }
+
+  @Test
+  public void testVoting() {
+    EnsembleMerger	merger;
+    ObjectPredictions	fused;
+
+    merger = new EnsembleMerger()
+      .addSource("a")
+      .addSource("b")
+      .addSource("c", 2.0, ScoreCalibration.linear(0.5, 0.0))
+      .setMethod(EnsembleMerger.Method.VOTING)
+      .setMinVotes(2);
+    fused = merger.merge(
+      create(create("person", 0.6, 100, 100, 50), create("dog", 0.9, 0, 0, 20)),
+      create(create("person", 0.7, 102, 101, 50)),
+      create(create("person", 1.0, 99, 99, 50), create("person", 0.9, 400, 400, 50)));
+    assertEquals(1, fused.getObjects().size(), "number of objects");
+    assertEquals(99, fused.getObjects().get(0).getBBox().getLeft(), "box of best member (weight 2, calibrated 0.5)");
+    assertEquals("3", fused.getObjects().get(0).getMeta().get(EnsembleMerger.META_VOTES), "votes");
+  }
+
+  @Test
+  public void testManyObjects() {
+    EnsembleMerger		merger;
+    List<ObjectPrediction>	a;
+    List<ObjectPrediction>	b;
+    ObjectPredictions		fused;
+    int				x;
+    int				y;
+
+    a = new ArrayList<>();
+    b = new ArrayList<>();
+    for (y = 0; y < 50; y++) {
+      for (x = 0; x < 50; x++) {
+	a.add(create("person", 0.9, x * 40, y * 40, 30));
+	b.add(create("person", 0.7, x * 40 + 2, y * 40 + 2, 30));
+      }
+    }
+    merger = new EnsembleMerger().addSource("a").addSource("b").setCellSize(32);
+    fused  = merger.merge(new ObjectPredictions(null, "frame", a), new ObjectPredictions(null, "frame", b));
+    assertEquals(2500, fused.getObjects().size(), "number of objects");
+  }
+
+  @Test
+  public void testInvalid() {
+    final EnsembleMerger	merger;
+
+    merger = new EnsembleMerger().addSource("a").addSource("b");
+    assertThrows(IllegalArgumentException.class, () -> merger.merge(create()));
+    assertThrows(IllegalArgumentException.class, () -> merger.merge(create(), new ObjectPredictions(null, "other", new ArrayList<>())));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * WorkloadGeneratorTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.generator;
+
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.io.JsonLinesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link WorkloadGenerator} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class WorkloadGeneratorTest {
+
+  @Test
+  public void testDeterministic() {
+    WorkloadGenerator	gen1;
+    WorkloadGenerator	gen2;
+    WorkloadGenerator	gen3;
+
+    gen1 = new WorkloadGenerator(1);
+    gen2 = new WorkloadGenerator(1);
+    gen3 = new WorkloadGenerator(2);
+    assertEquals(gen1.next(10).toString(), gen2.next(10).toString(), "same seed");
+    gen1.reset();
+    assertNotEquals(gen1.next(10).toString(), gen3.next(10).toString(), "different seed");
+  }
+
+  @Test
+  public void testSettings() {
+    WorkloadGenerator		gen;
+    List<ObjectPredictions>	docs;
+    LocalDateTime		start;
+
+    start = LocalDateTime.of(2023, 2, 28, 17, 0);
+    gen   = new WorkloadGenerator(42);
+    gen.setObjects(3, 5);
+    gen.setVertices(6, 6);
+    gen.setShape(WorkloadGenerator.Shape.ELLIPSE);
+    gen.setLabels(new String[]{"a", "b"}, new double[]{1.0, 0.0});
+    gen.setMeta(1, 2, 4);
+    gen.setScores(false);
+    gen.setTimestamps(start, Duration.ofSeconds(1));
+    docs = gen.next(20);
+    assertEquals(20, gen.getCount(), "count");
+    assertEquals(start.plusSeconds(19), docs.get(19).getTimestamp(), "timestamp");
+    for (ObjectPredictions doc: docs) {
+      assertTrue((doc.getObjects().size() >= 3) && (doc.getObjects().size() <= 5), "number of objects");
+      assertEquals(1, doc.getMeta().size(), "document meta");
+      for (ObjectPrediction obj: doc.getObjects()) {
+	assertEquals("a", obj.getLabel(), "label");
+	assertEquals(6, obj.getPolygon().size(), "vertices");
+	assertEquals(2, obj.getMeta().size(), "object meta");
+	assertNull(obj.getScore(), "score");
+	assertTrue(obj.getBBox().getRight() < 1920, "within image");
+      }
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> gen.setVertices(2, 5));
+    assertThrows(IllegalArgumentException.class, () -> gen.setObjects(5, 3));
+  }
+
+  @Test
+  public void testJsonLines(@TempDir Path dir) throws Exception {
+    WorkloadGenerator	gen;
+    File		file;
+    long		count;
+    int			read;
+
+    gen   = new WorkloadGenerator(42);
+    file  = dir.resolve("out.jsonl").toFile();
+    count = gen.writeJsonLinesUpTo(file, 100000);
+    assertTrue(file.length() >= 100000, "file size");
+    read = 0;
+    try (JsonLinesReader reader = new JsonLinesReader(file)) {
+      for (ObjectPredictions preds: reader) {
+	assertEquals("frame-" + read, preds.getID(), "id");
+	read++;
+      }
+    }
+    assertEquals(count, read, "number of documents");
+  }
+}
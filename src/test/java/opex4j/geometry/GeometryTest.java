@@ -0,0 +1,134 @@
+/*
+ * GeometryTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link Geometry} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class GeometryTest {
+
+  /**
+   * Determines the minimum-area rectangle by projecting all points onto
+   * each edge of the hull.
+   *
+   * @param x		the x coordinates of the hull
+   * @param y		the y coordinates of the hull
+   * @param n		the number of points
+   * @return		the area
+   */
+  protected double bruteForceArea(int[] x, int[] y, int n) {
+    double	result;
+    double	ux;
+    double	uy;
+    double	len;
+    double	minU;
+    double	maxU;
+    double	minV;
+    double	maxV;
+    double	u;
+    double	v;
+    int		i;
+    int		j;
+    int		k;
+
+    result = Double.POSITIVE_INFINITY;
+    for (i = 0; i < n; i++) {
+      j    = (i + 1) % n;
+      len  = Math.hypot(x[j] - x[i], y[j] - y[i]);
+      ux   = (x[j] - x[i]) / len;
+      uy   = (y[j] - y[i]) / len;
+      minU = Double.POSITIVE_INFINITY;
+      maxU = Double.NEGATIVE_INFINITY;
+      minV = Double.POSITIVE_INFINITY;
+      maxV = Double.NEGATIVE_INFINITY;
+      for (k = 0; k < n; k++) {
+	u    = x[k] * ux + y[k] * uy;
+	v    = -x[k] * uy + y[k] * ux;
+	minU = Math.min(minU, u);
+	maxU = Math.max(maxU, u);
+	minV = Math.min(minV, v);
+	maxV = Math.max(maxV, v);
+      }
+      result = Math.min(result, (maxU - minU) * (maxV - minV));
+    }
+    return result;
+  }
+
+  @Test
+  public void testRandom() {
+    Random		rnd;
+    RotatedRectangle	rect;
+    double[]		corners;
+    int[]		x;
+    int[]		y;
+    int[]		hullX;
+    int[]		hullY;
+    int			n;
+    int			h;
+    int			i;
+    int			k;
+    int			run;
+
+    rnd = new Random(42);
+    for (run = 0; run < 500; run++) {
+      n = 3 + rnd.nextInt(60);
+      x = new int[n];
+      y = new int[n];
+      for (i = 0; i < n; i++) {
+	x[i] = rnd.nextInt(200) - 50;
+	y[i] = rnd.nextInt(100) + 1000;
+      }
+      hullX = new int[n + 1];
+      hullY = new int[n + 1];
+      h     = Geometry.convexHull(x, y, n, hullX, hullY);
+      if (h < 3)
+	continue;
+      assertTrue(Geometry.signedArea(hullX, hullY, h) > 0, "orientation");
+
+      // hull is convex and contains all points
+      for (i = 0; i < h; i++) {
+	for (k = 0; k < n; k++)
+	  assertTrue(Geometry.cross(hullX[i], hullY[i], hullX[(i + 1) % h], hullY[(i + 1) % h], x[k], y[k]) >= 0, "run " + run);
+      }
+
+      rect = Geometry.minAreaRectangle(hullX, hullY, h);
+      assertEquals(bruteForceArea(hullX, hullY, h), rect.getArea(), 1e-6 * rect.getArea(), "run " + run);
+      assertTrue(rect.getWidth() >= rect.getHeight());
+      assertTrue((rect.getAngle() >= 0) && (rect.getAngle() < Math.PI));
+      // corners span the rectangle
+      corners = rect.getCorners();
+      assertEquals(rect.getWidth(), Math.hypot(corners[2] - corners[0], corners[3] - corners[1]), 1e-6);
+      assertEquals(rect.getHeight(), Math.hypot(corners[4] - corners[2], corners[5] - corners[3]), 1e-6);
+    }
+  }
+
+  @Test
+  public void testDegenerate() {
+    int[]	hullX;
+    int[]	hullY;
+
+    hullX = new int[5];
+    hullY = new int[5];
+    // collinear points
+    assertEquals(2, Geometry.convexHull(new int[]{0, 5, 10, 5}, new int[]{0, 5, 10, 5}, 4, hullX, hullY));
+    assertEquals(0, hullX[0]);
+    assertEquals(10, hullX[1]);
+    assertEquals(Math.hypot(10, 10), Geometry.minAreaRectangle(hullX, hullY, 2).getWidth(), 1e-9);
+    assertEquals(1, Geometry.convexHull(new int[]{3, 3, 3}, new int[]{4, 4, 4}, 3, hullX, hullY));
+    assertEquals(0, Geometry.convexHull(new int[0], new int[0], 0, hullX, hullY));
+    assertEquals(0, Geometry.perimeter(new int[]{1}, new int[]{1}, 1), 1e-9);
+    assertEquals(8, Geometry.perimeter(new int[]{0, 2, 2, 0}, new int[]{0, 0, 2, 2}, 4), 1e-9);
+  }
+}
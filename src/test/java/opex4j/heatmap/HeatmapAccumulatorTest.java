@@ -0,0 +1,188 @@
+/*
+ * HeatmapAccumulatorTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.heatmap;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link HeatmapAccumulator} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class HeatmapAccumulatorTest {
+
+  /**
+   * Creates a rectangular object.
+   *
+   * @param label	the label
+   * @param score	the score
+   * @param l		the left coordinate
+   * @param t		the top coordinate
+   * @param r		the right coordinate
+   * @param b		the bottom coordinate
+   * @return		the object
+   */
+  protected ObjectPrediction rect(String label, Double score, int l, int t, int r, int b) {
+    return new ObjectPrediction(label, score, new BBox(l, t, r, b),
+      new Polygon(Arrays.asList(new Point(l, t), new Point(r, t), new Point(r, b), new Point(l, b))), null);
+  }
+
+  /**
+   * Tests the bbox rasterization with score weighting.
+   */
+  @Test
+  public void testBBox() {
+    HeatmapAccumulator	acc;
+    List<ObjectPrediction>	objs;
+    float[]			grid;
+
+    objs = new ArrayList<>();
+    objs.add(rect("car", 0.5, 0, 0, 19, 19));
+    objs.add(rect("car", null, 10, 10, 29, 29));
+    objs.add(rect("person", 0.9, 90, 90, 99, 99));
+    acc = new HeatmapAccumulator(100, 100, 10, 10).setScoreWeighted(true);
+    acc.add(new ObjectPredictions(null, "1", objs));
+
+    grid = acc.getGrid("car");
+    assertEquals(0.5f, grid[0], 1e-6);
+    assertEquals(1.5f, grid[1 * 10 + 1], 1e-6);
+    assertEquals(1.0f, grid[2 * 10 + 2], 1e-6);
+    assertEquals(0.0f, grid[3 * 10 + 3], 1e-6);
+    assertEquals(0.0f, grid[9 * 10 + 9], 1e-6);
+    assertEquals(0.9f, acc.getGrid("person")[9 * 10 + 9], 1e-6);
+    assertEquals(0.9f, acc.getGrid(null)[9 * 10 + 9], 1e-6);
+    assertEquals(Arrays.asList("car", "person"), acc.getLabels());
+    assertEquals(2, acc.getObjectCount("car"));
+    assertEquals(3, acc.getObjectCount(null));
+  }
+
+  /**
+   * Tests the polygon rasterization.
+   */
+  @Test
+  public void testPolygon() {
+    HeatmapAccumulator	acc;
+    ObjectPrediction	triangle;
+    float[]		grid;
+    float		sum;
+
+    triangle = new ObjectPrediction("tri", null, new BBox(0, 0, 100, 100),
+      new Polygon(Arrays.asList(new Point(0, 0), new Point(100, 0), new Point(0, 100))), null);
+    acc = new HeatmapAccumulator(100, 100, 10, 10).setShape(HeatmapAccumulator.Shape.POLYGON);
+    acc.add(new ObjectPredictions(null, "1", Arrays.asList(triangle, rect("dot", null, 52, 52, 53, 53))));
+
+    grid = acc.getGrid("tri");
+    assertEquals(1.0f, grid[0]);
+    assertEquals(0.0f, grid[9 * 10 + 9]);
+    sum = 0;
+    for (float f: grid)
+      sum += f;
+    assertEquals(55.0f, sum, 1e-6);
+    // smaller than a cell
+    assertEquals(1.0f, acc.getGrid("dot")[5 * 10 + 5]);
+  }
+
+  /**
+   * Tests that multi-threaded accumulation yields the same result as single-threaded.
+   *
+   * @throws Exception	if accumulation fails
+   */
+  @Test
+  public void testThreads() throws Exception {
+    WorkloadGenerator		generator;
+    List<ObjectPredictions>	preds;
+    HeatmapAccumulator		single;
+    HeatmapAccumulator		multi;
+
+    generator = new WorkloadGenerator(42);
+    generator.setImageSize(640, 480);
+    preds  = generator.next(200);
+    single = new HeatmapAccumulator(640, 480, 64, 48).setScoreWeighted(true);
+    single.addAll(preds, 1);
+    multi = new HeatmapAccumulator(640, 480, 64, 48).setScoreWeighted(true);
+    multi.addAll(preds, 4);
+
+    assertEquals(200, multi.getFrameCount());
+    assertEquals(single.getLabels(), multi.getLabels());
+    for (String label: single.getLabels())
+      assertArrayEquals(single.getGrid(label), multi.getGrid(label), 1e-3f);
+  }
+
+  /**
+   * Tests that repeated multi-threaded accumulation does not keep the grids
+   * of the worker threads around.
+   *
+   * @throws Exception	if accumulation fails
+   */
+  @Test
+  public void testAddAllRepeatedly() throws Exception {
+    WorkloadGenerator		generator;
+    List<ObjectPredictions>	preds;
+    HeatmapAccumulator		single;
+    HeatmapAccumulator		multi;
+    int				i;
+
+    generator = new WorkloadGenerator(42);
+    generator.setImageSize(640, 480);
+    single = new HeatmapAccumulator(640, 480, 64, 48);
+    multi  = new HeatmapAccumulator(640, 480, 64, 48);
+    for (i = 0; i < 20; i++) {
+      preds = generator.next(10);
+      single.addAll(preds, 1);
+      multi.addAll(preds, 4);
+    }
+
+    assertEquals(1, multi.m_Partials.size());
+    assertEquals(200, multi.getFrameCount());
+    assertEquals(single.getObjectCount(null), multi.getObjectCount(null));
+    for (String label: single.getLabels())
+      assertArrayEquals(single.getGrid(label), multi.getGrid(label), 1e-3f);
+  }
+
+  /**
+   * Tests the PGM output.
+   *
+   * @throws Exception	if writing fails
+   */
+  @Test
+  public void testPGM() throws Exception {
+    HeatmapAccumulator		acc;
+    ByteArrayOutputStream	out;
+    byte[]			data;
+    String			header;
+
+    acc = new HeatmapAccumulator(100, 100, 10, 5);
+    acc.add(new ObjectPredictions(null, "1", Arrays.asList(rect("car", null, 0, 0, 9, 19))));
+    out = new ByteArrayOutputStream();
+    acc.writePGM(null, out, false);
+    data   = out.toByteArray();
+    header = "P5\n10 5\n255\n";
+    assertEquals(header, new String(data, 0, header.length(), StandardCharsets.US_ASCII));
+    assertEquals(header.length() + 50, data.length);
+    assertEquals((byte) 255, data[header.length()]);
+    assertEquals(0, data[header.length() + 1]);
+
+    out = new ByteArrayOutputStream();
+    acc.writePGM("car", out, true);
+    assertTrue(out.size() > 100);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * ExternalSorterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link ExternalSorter} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ExternalSorterTest {
+
+  /** the base timestamp. */
+  protected final static LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  /**
+   * Writes shuffled documents with duplicate IDs to the file, the version
+   * meta-data value reflects the input order of the documents.
+   *
+   * @param file	the file to write to
+   * @param num		the number of distinct IDs
+   * @param dups	the number of additional duplicates
+   * @return		the documents in input order
+   * @throws Exception	if writing fails
+   */
+  protected List<ObjectPredictions> generate(File file, int num, int dups) throws Exception {
+    List<ObjectPredictions>	result;
+    Random			rnd;
+    Map<String,String>		meta;
+    int				id;
+    int				i;
+
+    rnd    = new Random(1);
+    result = new ArrayList<>();
+    for (i = 0; i < num + dups; i++) {
+      id   = (i < num) ? i : rnd.nextInt(num);
+      meta = new HashMap<>();
+      meta.put("version", "" + i);
+      result.add(new ObjectPredictions(START.plusSeconds(rnd.nextInt(100000)), "frame-" + id, null, meta));
+    }
+    Collections.shuffle(result, rnd);
+    try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+      writer.writeAll(result);
+    }
+    return result;
+  }
+
+  /**
+   * Reads all documents from the file.
+   *
+   * @param file	the file to read
+   * @return		the documents
+   * @throws Exception	if reading fails
+   */
+  protected List<ObjectPredictions> read(File file) throws Exception {
+    List<ObjectPredictions>	result;
+
+    result = new ArrayList<>();
+    try (JsonLinesReader reader = new JsonLinesReader(file)) {
+      for (ObjectPredictions preds: reader)
+	result.add(preds);
+    }
+    return result;
+  }
+
+  /**
+   * Tests sorting by timestamp with many runs and intermediate merges.
+   *
+   * @param dir		the temp directory
+   * @throws Exception	if sorting fails
+   */
+  @Test
+  public void testSortByTimestamp(@TempDir Path dir) throws Exception {
+    File			input;
+    File			output;
+    List<ObjectPredictions>	expected;
+    ExternalSorter		sorter;
+    List<ObjectPredictions>	sorted;
+
+    input    = dir.resolve("in.jsonl").toFile();
+    output   = dir.resolve("out.jsonl.gz").toFile();
+    expected = new ArrayList<>(generate(input, 500, 100));
+    // stable sort on input order
+    expected.sort((ObjectPredictions p1, ObjectPredictions p2) -> p1.getTimestamp().compareTo(p2.getTimestamp()));
+
+    sorter = new ExternalSorter()
+      .setMaxRunBytes(10000)
+      .setMaxFanIn(3)
+      .setCompressRuns(true)
+      .setTempDir(dir.toFile());
+    sorter.sort(input, output);
+    assertTrue(sorter.getRunCount() > 10);
+    assertEquals(600, sorter.getReadCount());
+    assertEquals(600, sorter.getWrittenCount());
+    sorted = read(output);
+    assertEquals(expected, sorted);
+    assertEquals(2, dir.toFile().list().length, "temp files left");
+  }
+
+  /**
+   * Tests removing duplicates, with the last document winning.
+   *
+   * @param dir		the temp directory
+   * @throws Exception	if sorting fails
+   */
+  @Test
+  public void testDeduplicate(@TempDir Path dir) throws Exception {
+    File			input;
+    File			output;
+    List<ObjectPredictions>	docs;
+    Map<String,ObjectPredictions>	latest;
+    ExternalSorter		sorter;
+    List<ObjectPredictions>	sorted;
+    int				i;
+
+    input  = dir.resolve("in.jsonl").toFile();
+    docs   = generate(input, 300, 200);
+    latest = new HashMap<>();
+    for (ObjectPredictions preds: docs)
+      latest.put(preds.getID(), preds);
+
+    for (ExternalSorter.SortKey key: ExternalSorter.SortKey.values()) {
+      output = dir.resolve("out-" + key + ".jsonl").toFile();
+      sorter = new ExternalSorter()
+	.setSortKey(key)
+	.setDeduplicate(true)
+	.setMaxRunBytes(20000)
+	.setMaxFanIn(4);
+      sorter.sort(Arrays.asList(input), output);
+      sorted = read(output);
+      assertEquals(300, sorted.size(), key.toString());
+      assertEquals(200, sorter.getDuplicateCount(), key.toString());
+      for (i = 0; i < sorted.size(); i++) {
+	assertEquals(latest.get(sorted.get(i).getID()), sorted.get(i), key.toString());
+	if (i == 0)
+	  continue;
+	if (key == ExternalSorter.SortKey.ID)
+	  assertTrue(sorted.get(i - 1).getID().compareTo(sorted.get(i).getID()) < 0);
+	else
+	  assertTrue(!sorted.get(i - 1).getTimestamp().isAfter(sorted.get(i).getTimestamp()));
+      }
+    }
+  }
+}
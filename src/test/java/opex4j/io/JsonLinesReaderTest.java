@@ -0,0 +1,60 @@
+/*
+ * JsonLinesReaderTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link JsonLinesReader} and {@link JsonLinesWriter} classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesReaderTest {
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    ObjectPredictions	preds;
+    StringWriter	swriter;
+    JsonLinesWriter	writer;
+    JsonLinesReader	reader;
+
+    preds   = ObjectPredictions.newInstance(new File("src/test/resources/opex4j/simple.json"));
+    swriter = new StringWriter();
+    writer  = new JsonLinesWriter(swriter);
+    writer.write(preds);
+    writer.write(preds);
+    writer.close();
+    assertEquals(2, writer.getCount(), "written");
+    assertEquals(swriter.toString().length(), writer.getCharCount(), "characters");
+
+    reader = new JsonLinesReader(new StringReader(swriter.toString() + "\n\n"));
+    assertEquals(preds.toString(), reader.read().toString(), "1st");
+    assertEquals(preds.toString(), reader.read().toString(), "2nd");
+    assertNull(reader.read(), "end");
+    reader.close();
+  }
+
+  @Test
+  public void testInvalid() {
+    final JsonLinesReader	reader;
+
+    reader = new JsonLinesReader(new StringReader("{\"id\": \"1\", \"objects\": []}\n{\n"));
+    assertThrows(IOException.class, () -> {
+      reader.read();
+      reader.read();
+    });
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * JsonLinesSpliteratorTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.io;
+
+import opex4j.ObjectPredictions;
+import opex4j.generator.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link JsonLinesSpliterator} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpliteratorTest {
+
+  /**
+   * Recursively splits the spliterator and collects the predictions of the
+   * splits in encounter order.
+   *
+   * @param spliterator	the spliterator to split
+   * @param result	for collecting the predictions
+   * @return		the number of splits
+   */
+  protected int splitAll(Spliterator<ObjectPredictions> spliterator, List<ObjectPredictions> result) {
+    Spliterator<ObjectPredictions>	prefix;
+    int					count;
+
+    prefix = spliterator.trySplit();
+    count  = 0;
+    if (prefix != null)
+      count += splitAll(prefix, result);
+    else
+      count++;
+    if (prefix != null)
+      count += splitAll(spliterator, result);
+    else
+      spliterator.forEachRemaining(result::add);
+    return count;
+  }
+
+  @Test
+  public void testSplits(@TempDir Path dir) throws Exception {
+    WorkloadGenerator		generator;
+    List<ObjectPredictions>	expected;
+    List<ObjectPredictions>	actual;
+    StringBuilder		content;
+    File			file;
+    int				splits;
+    int				i;
+
+    generator = new WorkloadGenerator(7);
+    generator.setMeta(2, 1, 8);
+    expected = generator.next(500);
+    content  = new StringBuilder();
+    for (i = 0; i < expected.size(); i++) {
+      content.append(expected.get(i).toString(false)).append("\n");
+      if (i % 50 == 0)
+	content.append("\n  \r\n");
+    }
+    // last line without newline
+    content.setLength(content.length() - 1);
+    file = dir.resolve("preds.jsonl").toFile();
+    Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+    // various split sizes, small buffer for long lines
+    for (long min: new long[]{100, 1000, 100000}) {
+      actual = new ArrayList<>();
+      try (JsonLinesSpliterator spliterator = new JsonLinesSpliterator(file).setMinSplitSize(min).setBufferSize(64)) {
+	splits = splitAll(spliterator, actual);
+      }
+      assertEquals(expected, actual, "min split size " + min);
+      if (min < 1000)
+	assertTrue(splits > 100, "splits: " + splits);
+    }
+
+    try (Stream<ObjectPredictions> stream = JsonLinesSpliterator.stream(file, true)) {
+      assertEquals(expected, stream.collect(Collectors.toList()), "parallel stream");
+    }
+  }
+
+  @Test
+  public void testCompressed(@TempDir Path dir) throws Exception {
+    WorkloadGenerator		generator;
+    List<ObjectPredictions>	expected;
+    File			file;
+
+    generator = new WorkloadGenerator(8);
+    expected  = generator.next(20);
+    file      = dir.resolve("preds.jsonl.gz").toFile();
+    try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+      writer.writeAll(expected);
+    }
+    assertThrows(IOException.class, () -> new JsonLinesSpliterator(file));
+    try (Stream<ObjectPredictions> stream = JsonLinesSpliterator.stream(file, true)) {
+      assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testInvalid(@TempDir Path dir) throws Exception {
+    File	file;
+
+    file = dir.resolve("invalid.jsonl").toFile();
+    Files.write(file.toPath(), "{\"id\": \"1\"}\n{\n".getBytes(StandardCharsets.UTF_8));
+    try (Stream<ObjectPredictions> stream = JsonLinesSpliterator.stream(file, false)) {
+      assertThrows(UncheckedIOException.class, stream::count);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * TimeSeriesStoreTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.timeseries;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link TimeSeriesStore} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class TimeSeriesStoreTest {
+
+  /** the start of the test data. */
+  protected final static LocalDateTime START = LocalDateTime.of(2023, 2, 28, 17, 0, 0);
+
+  /**
+   * Generates predictions.
+   *
+   * @param seconds	the offset in seconds from {@link #START}
+   * @param labels	the labels of the objects
+   * @return		the predictions
+   */
+  protected ObjectPredictions create(int seconds, String... labels) {
+    List<ObjectPrediction>	objects;
+
+    objects = new ArrayList<>();
+    for (String label: labels)
+      objects.add(new ObjectPrediction(label, new BBox(1, 1, 10, 10)));
+    return new ObjectPredictions(START.plusSeconds(seconds), "frame-" + seconds, objects);
+  }
+
+  @Test
+  public void testOrdering() {
+    TimeSeriesStore		store;
+    List<Integer>		offsets;
+    List<ObjectPredictions>	result;
+    int				i;
+
+    store   = new TimeSeriesStore(4);
+    offsets = new ArrayList<>();
+    for (i = 0; i < 100; i++)
+      offsets.add(i);
+    Collections.shuffle(offsets, new Random(42));
+    for (int offset: offsets)
+      assertTrue(store.add(create(offset, "person")), "added");
+    assertFalse(store.add(new ObjectPredictions(null, "none", null)), "no timestamp");
+    assertEquals(100, store.size(), "size");
+
+    result = store.query(START.plusSeconds(10), START.plusSeconds(20));
+    assertEquals(10, result.size(), "range size");
+    for (i = 0; i < result.size(); i++)
+      assertEquals(START.plusSeconds(10 + i), result.get(i).getTimestamp(), "order");
+    assertEquals(START, store.getEarliest(), "earliest");
+    assertEquals(START.plusSeconds(99), store.getLatest(), "latest");
+  }
+
+  @Test
+  public void testLabelQuery() {
+    TimeSeriesStore	store;
+
+    store = new TimeSeriesStore();
+    store.add(create(0, "person", "car"));
+    store.add(create(1, "car"));
+    store.add(create(2, "person", "person"));
+    assertEquals(3, store.queryObjects(START, START.plusSeconds(3), "person").size(), "persons");
+    assertEquals(1, store.queryObjects(START, START.plusSeconds(1), "car").size(), "cars");
+    assertEquals(2, store.queryLast(Duration.ofSeconds(1)).size(), "last second");
+  }
+
+  @Test
+  public void testRetention() {
+    TimeSeriesStore	store;
+    int			i;
+
+    store = new TimeSeriesStore(8);
+    store.setRetention(Duration.ofSeconds(30));
+    for (i = 0; i < 100; i++)
+      store.add(create(i, "person"));
+    assertEquals(31, store.size(), "size");
+    assertEquals(START.plusSeconds(69), store.getEarliest(), "earliest");
+    assertFalse(store.add(create(10, "person")), "too old");
+
+    store.setMaxSize(5);
+    assertEquals(5, store.size(), "max size");
+    assertEquals(START.plusSeconds(95), store.getEarliest(), "earliest");
+  }
+
+  @Test
+  public void testDownsample() {
+    TimeSeriesStore		store;
+    List<ObjectPredictions>	result;
+    int				i;
+
+    store = new TimeSeriesStore();
+    for (i = 0; i < 20; i++) {
+      if (i % 5 == 2)
+	store.add(create(i, "person", "person", "car"));
+      else
+	store.add(create(i, "person"));
+    }
+    result = store.downsample(START, START.plusSeconds(20), Duration.ofSeconds(10), 2, null);
+    assertEquals(4, result.size(), "number of frames");
+    assertEquals(START.plusSeconds(2), result.get(0).getTimestamp(), "1st");
+    assertEquals(START.plusSeconds(7), result.get(1).getTimestamp(), "2nd");
+    assertEquals(START.plusSeconds(12), result.get(2).getTimestamp(), "3rd");
+    assertEquals(START.plusSeconds(17), result.get(3).getTimestamp(), "4th");
+
+    result = store.downsample(START, START.plusSeconds(20), Duration.ofSeconds(10), 1, "car");
+    assertEquals(START.plusSeconds(2), result.get(0).getTimestamp(), "car");
+
+    // sparse data with many more intervals than fit into an int
+    store = new TimeSeriesStore();
+    store.add(create(0, "person"));
+    store.add(create(86400 * 30, "person"));
+    result = store.downsample(START, START.plusDays(31), Duration.ofNanos(1000), 1, null);
+    assertEquals(2, result.size(), "sparse");
+    assertEquals(START.plusDays(30), result.get(1).getTimestamp(), "sparse order");
+  }
+}
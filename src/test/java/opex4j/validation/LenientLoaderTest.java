@@ -0,0 +1,121 @@
+/*
+ * LenientLoaderTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.validation;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link LenientLoader} class.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LenientLoaderTest {
+
+  /** a document with a valid, a 1-pixel wide and a collapsed object. */
+  public final static String DOCUMENT = "{\"timestamp\": \"20230228_170000.000000\", \"id\": \"img\", \"objects\": ["
+    + "{\"label\": \"ok\", \"score\": 0.9, \"bbox\": {\"left\": 1, \"top\": 1, \"right\": 10, \"bottom\": 10}, \"polygon\": {\"points\": [[1, 1], [10, 1], [10, 10], [1, 10]]}},"
+    + "{\"label\": \"thin\", \"bbox\": {\"left\": 5, \"top\": 1, \"right\": 5, \"bottom\": 10}, \"polygon\": {\"points\": [[5, 1], [5, 10], [5, 5]]}},"
+    + "{\"label\": \"tiny\", \"bbox\": {\"left\": 5, \"top\": 5, \"right\": 6, \"bottom\": 6}, \"polygon\": {\"points\": [[5, 5], [6, 6]]}}"
+    + "]}";
+
+  @Test
+  public void testRepair() {
+    LenientLoader	loader;
+    ValidationReport	report;
+    ObjectPredictions	preds;
+    ObjectPrediction	thin;
+
+    loader = new LenientLoader();
+    report = new ValidationReport();
+    preds  = loader.load(DOCUMENT, "test", report);
+    assertEquals(3, preds.getObjects().size(), "objects");
+    thin = preds.getObjects().get(1);
+    assertEquals(5, thin.getBBox().getLeft(), "left");
+    assertEquals(6, thin.getBBox().getRight(), "right");
+    assertEquals(4, thin.getPolygon().getPoints().size(), "polygon from bbox");
+    assertEquals(1, report.getCount(ValidationIssue.Type.DEGENERATE_BBOX), "degenerate bboxes");
+    assertEquals(2, report.getCount(ValidationIssue.Type.DEGENERATE_POLYGON), "degenerate polygons");
+    assertEquals(3, report.getCount(ValidationPolicy.REPAIR), "repairs");
+    assertEquals("test", report.getIssues().get(0).getSource(), "source");
+    assertEquals(1, report.getIssues().get(0).getObjectIndex(), "index");
+  }
+
+  @Test
+  public void testDropAndKeep() {
+    ValidationReport	report;
+    ObjectPredictions	preds;
+
+    report = new ValidationReport();
+    preds  = new LenientLoader(ValidationPolicy.DROP).load(DOCUMENT, null, report);
+    assertEquals(1, preds.getObjects().size(), "objects");
+    assertEquals("ok", preds.getObjects().get(0).getLabel(), "label");
+    assertEquals(2, report.getCount(ValidationPolicy.DROP), "drops");
+
+    report = new ValidationReport();
+    preds  = new LenientLoader(ValidationPolicy.KEEP).load(DOCUMENT, null, report);
+    assertEquals(3, preds.getObjects().size(), "objects");
+    assertEquals(5, preds.getObjects().get(1).getBBox().getRight(), "kept as is");
+    assertEquals(2, preds.getObjects().get(2).getPolygon().getPoints().size(), "kept as is");
+  }
+
+  @Test
+  public void testRepairAtMaxValue() {
+    BBox	bbox;
+
+    bbox = LenientLoader.repair(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE});
+    assertEquals(Integer.MAX_VALUE - 1, bbox.getLeft(), "left");
+    assertEquals(Integer.MAX_VALUE - 1, bbox.getTop(), "top");
+    assertEquals(Integer.MAX_VALUE, bbox.getRight(), "right");
+    assertEquals(Integer.MAX_VALUE, bbox.getBottom(), "bottom");
+  }
+
+  @Test
+  public void testMalformed() {
+    ValidationReport	report;
+    LenientLoader	loader;
+
+    report = new ValidationReport(1);
+    loader = new LenientLoader();
+    assertNull(loader.load("{\"objects\": []}", null, report), "no id");
+    assertNull(loader.load("{", null, report), "syntax error");
+    assertNull(loader.load("{\"id\": \"\", \"objects\": []}", null, report), "empty id");
+    assertEquals(3, report.getCount(ValidationIssue.Type.MALFORMED_DOCUMENT), "malformed");
+    assertEquals(1, report.getIssues().size(), "stored issues");
+    assertEquals(3, report.getDocuments(), "documents");
+
+    loader.setPolicy(ValidationIssue.Type.INVALID_TIMESTAMP, ValidationPolicy.DROP);
+    assertNull(loader.load("{\"id\": \"1\", \"timestamp\": \"yesterday\", \"objects\": []}", null, report), "timestamp");
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+    LenientJsonLinesReader	reader;
+    ValidationReport		report;
+    int				count;
+
+    report = new ValidationReport();
+    reader = new LenientJsonLinesReader(new StringReader(DOCUMENT + "\n{broken\n\n" + DOCUMENT + "\n"), new LenientLoader(), report);
+    count  = 0;
+    for (ObjectPredictions preds: reader) {
+      assertEquals(3, preds.getObjects().size(), "objects");
+      count++;
+    }
+    reader.close();
+    assertEquals(2, count, "documents");
+    assertEquals(3, report.getDocuments(), "processed");
+    assertEquals(7, report.getCount(), "issues");
+    assertTrue(report.getIssues().get(3).toString().startsWith("line 2: "), "source");
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * ZoneEngineTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package opex4j.zone;
+
+import opex4j.BBox;
+import opex4j.ObjectPrediction;
+import opex4j.ObjectPredictions;
+import opex4j.Polygon;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link Zone}, {@link ZoneEngine} and {@link ZoneFrame} classes.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ZoneEngineTest {
+
+  /**
+   * Creates a polygon from x/y pairs.
+   *
+   * @param coords	the coordinates
+   * @return		the polygon
+   */
+  protected Polygon polygon(int... coords) {
+    List<Point>	points;
+    int		i;
+
+    points = new ArrayList<>();
+    for (i = 0; i < coords.length; i += 2)
+      points.add(new Point(coords[i], coords[i + 1]));
+    return new Polygon(points);
+  }
+
+  /**
+   * Creates a rectangular object.
+   *
+   * @param label	the label
+   * @param l		the left coordinate
+   * @param t		the top coordinate
+   * @param r		the right coordinate
+   * @param b		the bottom coordinate
+   * @return		the object
+   */
+  protected ObjectPrediction rect(String label, int l, int t, int r, int b) {
+    return new ObjectPrediction(label, null, new BBox(l, t, r, b), polygon(l, t, r, t, r, b, l, b), null);
+  }
+
+  /**
+   * Compares the point-in-polygon test of a concave zone against a reference.
+   */
+  @Test
+  public void testContains() {
+    Polygon	poly;
+    Path2D	path;
+    Zone	zone;
+    Random	rnd;
+    List<Point>	points;
+    double	x;
+    double	y;
+    int		i;
+
+    // star-like, concave outline
+    poly   = polygon(100, 0, 130, 70, 200, 80, 140, 120, 170, 200, 100, 150, 30, 200, 60, 120, 0, 80, 70, 70);
+    points = poly.getPoints();
+    path   = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+    path.moveTo(points.get(0).x, points.get(0).y);
+    for (i = 1; i < points.size(); i++)
+      path.lineTo(points.get(i).x, points.get(i).y);
+    path.closePath();
+
+    zone = new Zone("star", poly);
+    assertFalse(zone.isConvex());
+    rnd = new Random(42);
+    for (i = 0; i < 20000; i++) {
+      x = rnd.nextDouble() * 220 - 10;
+      y = rnd.nextDouble() * 220 - 10;
+      assertEquals(path.contains(x, y), zone.contains(x, y), "x=" + x + ", y=" + y);
+    }
+  }
+
+  /**
+   * Tests the bbox and polygon overlap ratios.
+   */
+  @Test
+  public void testOverlap() {
+    Zone	square;
+    Zone	lshape;
+
+    square = new Zone("square", polygon(0, 0, 100, 0, 100, 100, 0, 100));
+    assertTrue(square.isConvex());
+    assertEquals(10000.0, square.getArea(), 1e-9);
+    assertEquals(1.0, square.bboxOverlap(new BBox(10, 10, 20, 20)), 1e-9);
+    assertEquals(0.0, square.bboxOverlap(new BBox(200, 10, 220, 20)), 1e-9);
+    assertEquals(0.5, square.bboxOverlap(new BBox(50, 0, 150, 100)), 1e-9);
+    assertEquals(0.25, square.polygonOverlap(polygon(50, 50, 150, 50, 150, 150, 50, 150)), 1e-9);
+
+    // L-shape: bottom-right quadrant missing
+    lshape = new Zone("L", polygon(0, 0, 100, 0, 100, 50, 50, 50, 50, 100, 0, 100));
+    assertFalse(lshape.isConvex());
+    assertEquals(7500.0, lshape.getArea(), 1e-9);
+    assertEquals(0.75, lshape.bboxOverlap(new BBox(0, 0, 100, 100)), 1e-9);
+    assertEquals(0.75, lshape.polygonOverlap(polygon(0, 0, 100, 0, 100, 100, 0, 100)), 1e-9);
+    // concave object vs concave zone is sampled
+    assertEquals(5000.0 / 7500.0, lshape.polygonOverlap(polygon(50, 0, 100, 0, 100, 100, 0, 100, 0, 50, 50, 50)), 0.05);
+  }
+
+  /**
+   * Tests the counting of a frame.
+   */
+  @Test
+  public void testProcess() {
+    ZoneEngine		engine;
+    List<ObjectPrediction>	objs;
+    ZoneFrame		frame;
+
+    engine = new ZoneEngine(Arrays.asList(
+      new Zone("left", polygon(0, 0, 100, 0, 100, 100, 0, 100)),
+      new Zone("right", polygon(100, 0, 300, 0, 300, 100, 100, 100))), 32);
+    objs = new ArrayList<>();
+    objs.add(rect("car", 10, 10, 30, 30));
+    objs.add(rect("car", 150, 10, 170, 30));
+    objs.add(rect("person", 200, 50, 220, 70));
+    objs.add(rect("person", 80, 40, 140, 60));
+    objs.add(rect("dog", 500, 500, 510, 510));
+
+    frame = engine.process(new ObjectPredictions(null, "f1", objs));
+    assertEquals("f1", frame.getID());
+    assertEquals(2, frame.getZoneCount());
+    assertEquals(1, frame.getCount(0));
+    assertEquals(3, frame.getCount(1));
+    assertEquals(1, frame.getCount(1, "car"));
+    assertEquals(2, frame.getCount(1, "person"));
+    assertEquals(0, frame.getCount(0, "dog"));
+    assertArrayEquals(new int[0], frame.getObjectZones(4));
+    assertEquals(3, frame.toJson().getAsJsonObject("zones").getAsJsonObject("right").get("count").getAsInt());
+
+    engine.setMembership(ZoneEngine.Membership.BBOX_OVERLAP).setMinOverlap(0.3);
+    frame = engine.process(new ObjectPredictions(null, "f2", objs));
+    assertArrayEquals(new int[]{0, 1}, frame.getObjectZones(3));
+    assertEquals(2, frame.getCount(0));
+    assertEquals(3, frame.getCount(1));
+
+    engine.setMembership(ZoneEngine.Membership.POLYGON_OVERLAP).setMinOverlap(0.5);
+    frame = engine.process(new ObjectPredictions(null, "f3", objs));
+    assertArrayEquals(new int[]{1}, frame.getObjectZones(3));
+
+    assertThrows(IllegalArgumentException.class, () -> new ZoneEngine(Arrays.asList(
+      new Zone("a", polygon(0, 0, 1, 0, 1, 1)), new Zone("a", polygon(0, 0, 2, 0, 2, 2)))));
+  }
+
+  /**
+   * Tests that objects without a label only count towards the zone totals.
+   */
+  @Test
+  public void testNullLabel() {
+    ZoneEngine			engine;
+    List<ObjectPrediction>	objs;
+    ZoneFrame			frame;
+
+    engine = new ZoneEngine(Arrays.asList(
+      new Zone("all", polygon(0, 0, 100, 0, 100, 100, 0, 100))), 32);
+    objs = new ArrayList<>();
+    objs.add(rect(null, 10, 10, 30, 30));
+    objs.add(rect("car", 50, 50, 70, 70));
+
+    frame = engine.process(new ObjectPredictions(null, "f1", objs));
+    assertEquals(2, frame.getCount(0));
+    assertEquals(2, frame.getCount(0, null));
+    assertEquals(1, frame.getCount(0, "car"));
+    assertEquals(1, frame.getLabelCounts(0).size());
+    assertEquals(1, frame.toJson().getAsJsonObject("zones").getAsJsonObject("all").getAsJsonObject("labels").size());
+  }
+}